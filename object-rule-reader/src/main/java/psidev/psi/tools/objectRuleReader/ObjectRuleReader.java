@@ -25,32 +25,50 @@ public class ObjectRuleReader {
 
     public static final Log log = LogFactory.getLog( ObjectRuleReader.class );
 
-    ////////////////////////
-    // Private methods
-
-    private Unmarshaller getUnmarshaller() throws JAXBException {
+    /**
+     * JAXBContext and Schema are thread safe and expensive to build, they are shared by all readers.
+     */
+    private static JAXBContext jaxbContext;
 
-        // create a JAXBContext capable of handling classes generated into the jaxb package
-        JAXBContext jc = JAXBContext.newInstance( "psidev.psi.tools.objectRuleReader.mapping.jaxb" );
+    private static Schema schema;
 
-        // create and return Unmarshaller
-        final Unmarshaller unmarshaller = jc.createUnmarshaller();
-
-        SchemaFactory sf = SchemaFactory.newInstance(javax.xml.XMLConstants.W3C_XML_SCHEMA_NS_URI);
+    ////////////////////////
+    // Private methods
 
-        final URL url = this.getClass().getClassLoader().getResource("object-rule.xsd");
-        if (url == null) {
-            throw new IllegalStateException("Could not find object-rule.xsd, the jar file seems corrupted!");
+    private static synchronized JAXBContext getJaxbContext() throws JAXBException {
+        if ( jaxbContext == null ) {
+            // create a JAXBContext capable of handling classes generated into the jaxb package
+            jaxbContext = JAXBContext.newInstance( "psidev.psi.tools.objectRuleReader.mapping.jaxb" );
         }
+        return jaxbContext;
+    }
 
-        Schema schema;
-        try {
-            schema = sf.newSchema(url);
-        } catch ( SAXException e ) {
-            throw new JAXBException( "Error creating schema instance from schema " + url, e );
+    private Schema getSchema() throws JAXBException {
+        synchronized ( ObjectRuleReader.class ) {
+            if ( schema == null ) {
+                SchemaFactory sf = SchemaFactory.newInstance(javax.xml.XMLConstants.W3C_XML_SCHEMA_NS_URI);
+
+                final URL url = this.getClass().getClassLoader().getResource("object-rule.xsd");
+                if (url == null) {
+                    throw new IllegalStateException("Could not find object-rule.xsd, the jar file seems corrupted!");
+                }
+
+                try {
+                    schema = sf.newSchema(url);
+                } catch ( SAXException e ) {
+                    throw new JAXBException( "Error creating schema instance from schema " + url, e );
+                }
+            }
+            return schema;
         }
+    }
+
+    private Unmarshaller getUnmarshaller() throws JAXBException {
+
+        // create and return Unmarshaller, they are not thread safe hence one per read
+        final Unmarshaller unmarshaller = getJaxbContext().createUnmarshaller();
 
-        unmarshaller.setSchema(schema);
+        unmarshaller.setSchema(getSchema());
 
         return unmarshaller;
     }
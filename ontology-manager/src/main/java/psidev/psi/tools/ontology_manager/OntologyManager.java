@@ -5,6 +5,7 @@ import org.apache.commons.logging.LogFactory;
 import psidev.psi.tools.ontology_manager.impl.local.LocalOntology;
 import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
 import psidev.psi.tools.ontology_manager.impl.ols.OlsOntology;
+import psidev.psi.tools.ontology_manager.impl.tiered.TieredOntology;
 import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
 import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
 
@@ -32,6 +33,7 @@ public class OntologyManager extends OntologyManagerTemplate<OntologyTermI, Onto
     static {
         keyword2class.put( "ols", OlsOntology.class );
         keyword2class.put( "file", LocalOntology.class );
+        keyword2class.put( "tiered", TieredOntology.class );
     }
 
     ////////////////////
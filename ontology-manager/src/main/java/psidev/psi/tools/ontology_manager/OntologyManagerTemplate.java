@@ -6,8 +6,11 @@ import psidev.psi.tools.ontologyCfgReader.mapping.jaxb.CvSource;
 import psidev.psi.tools.ontologyCfgReader.mapping.jaxb.CvSourceList;
 import psidev.psi.tools.ontologyConfigReader.OntologyConfigReader;
 import psidev.psi.tools.ontologyConfigReader.OntologyConfigReaderException;
+import psidev.psi.tools.ontology_manager.impl.local.AbstractLocalOntology;
+import psidev.psi.tools.ontology_manager.impl.local.AbstractOboLoader;
 import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
 import psidev.psi.tools.ontology_manager.interfaces.OntologyAccessTemplate;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyReloadListener;
 import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
 
 import java.io.File;
@@ -15,9 +18,16 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Abstract ontologyManager
@@ -31,14 +41,55 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
 
     public static final Log log = LogFactory.getLog(OntologyManager.class);
 
+    /**
+     * The ontologies along with their versions, replaced as a whole when an ontology is swapped in.
+     */
+    private volatile Snapshot<A> snapshot = new Snapshot<A>( new HashMap<String, A>(), new HashMap<String, String>() );
+
     /**
      * The Map that holds the Ontologies.
      * The key is the ontology ID and the value is a ontology inplementing the OntologyAccess interface.
+     * This is a read-only view of the ontologies of the current snapshot, replaced along with it.
+     *
+     * @deprecated the ontologies are held by the snapshot, use getOntologyAccess, getOntologyIDs or putOntology.
+     */
+    @Deprecated
+    protected volatile Map<String, A> ontologies = Collections.unmodifiableMap( snapshot.ontologies );
+
+    /**
+     * Where the ontologies loaded from the configuration file come from, to reload them.
+     */
+    private final Map<String, OntologySource> ontologySources = new ConcurrentHashMap<String, OntologySource>();
+
+    /**
+     * The snapshot seen by the current thread while it is pinned.
+     */
+    private final ThreadLocal<Snapshot<A>> pinnedSnapshot = new ThreadLocal<Snapshot<A>>();
+
+    /**
+     * The number of threads having pinned each snapshot, guarded by the manager.
      */
-    protected Map<String, A> ontologies;
+    private final Map<Snapshot<A>, Integer> pinCounts = new IdentityHashMap<Snapshot<A>, Integer>();
+
+    /**
+     * The reloaded ontologies replaced but still used by a pinned snapshot, closed once no snapshot uses them anymore.
+     * Guarded by the manager.
+     */
+    private final List<A> retiredOntologies = new ArrayList<A>();
+
+    private final List<OntologyReloadListener<A>> reloadListeners = new CopyOnWriteArrayList<OntologyReloadListener<A>>();
+
+    private final Map<String, ScheduledFuture<?>> scheduledReloads = new ConcurrentHashMap<String, ScheduledFuture<?>>();
+
+    private ScheduledExecutorService reloadExecutor; // reloads the ontologies one at a time
 
     public static final String CLASSPATH_PREFIX = "classpath:";
 
+    /**
+     * Maximum number of ontologies checked concurrently by isUpToDate.
+     */
+    public static final int MAX_UP_TO_DATE_THREADS = 8;
+
     ////////////////////
     // Constructors
 
@@ -46,7 +97,6 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
      * Create a new OntologyManager with no configuration (no associated ontologies).
      */
     public OntologyManagerTemplate() {
-        ontologies = new HashMap<String, A>();
         if ( log.isDebugEnabled() ) log.info( "Created new unconfigured OntologyManager." );
     }
 
@@ -59,7 +109,6 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
      * @throws psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException if the config file could not be parsed or the loading of a ontology failed.
      */
     public OntologyManagerTemplate( InputStream configFile ) throws OntologyLoaderException {
-        ontologies = new HashMap<String, A>();
         loadOntologies( configFile );
         if ( log.isDebugEnabled() ) log.debug( "Successfully created and configured new OntologyManager." );
     }
@@ -76,10 +125,171 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
      * @see java.util.HashMap#put(Object, Object)
      */
     public A putOntology( String ontologyID, A ontology ) {
-        if ( ontologies.containsKey( ontologyID ) ) {
+        if ( snapshot.ontologies.containsKey( ontologyID ) ) {
             if ( log.isWarnEnabled() )log.warn( "Ontology with the ID '" + ontologyID + "' already exists. Overwriting!" );
         }
-        return ontologies.put( ontologyID, ontology );
+        return swapOntology( ontologyID, ontology, null );
+    }
+
+    /**
+     * Replaces the snapshot by a copy holding the given ontology and version.
+     *
+     * @param version the version of the ontology, null if it was not loaded from the configuration file.
+     * @return the previous ontology of that ID.
+     */
+    private synchronized A swapOntology( String ontologyID, A ontology, String version ) {
+        final Map<String, A> swapped = new HashMap<String, A>( snapshot.ontologies );
+        final A previous = swapped.put( ontologyID, ontology );
+        final Map<String, String> versions = new HashMap<String, String>( snapshot.versions );
+        if ( version == null ) {
+            versions.remove( ontologyID );
+        } else {
+            versions.put( ontologyID, version );
+        }
+        snapshot = new Snapshot<A>( swapped, versions );
+        ontologies = Collections.unmodifiableMap( swapped );
+        return previous;
+    }
+
+    /**
+     * @return the snapshot pinned by the current thread, or the current one if none is pinned.
+     */
+    private Snapshot<A> currentSnapshot() {
+        final Snapshot<A> pinned = pinnedSnapshot.get();
+        return pinned != null ? pinned : snapshot;
+    }
+
+    /**
+     * @return the ontologies pinned by the current thread, or the current ones if none are pinned.
+     */
+    private Map<String, A> currentOntologies() {
+        return currentSnapshot().ontologies;
+    }
+
+    /**
+     * Pins the current ontologies for the current thread: until unpinSnapshot is called, the thread keeps seeing them
+     * and their versions even if some are reloaded in the meantime. Meant to give a consistent view to a whole
+     * validation.
+     *
+     * @return true if the snapshot was pinned, false if the thread had already pinned one (which is kept).
+     */
+    public boolean pinSnapshot() {
+        if ( pinnedSnapshot.get() != null ) {
+            return false;
+        }
+        pinnedSnapshot.set( pin( null ) );
+        return true;
+    }
+
+    /**
+     * Releases the snapshot pinned by the current thread, it then sees the reloaded ontologies. The replaced
+     * ontologies no other snapshot uses are closed.
+     */
+    public void unpinSnapshot() {
+        final Snapshot<A> pinned = pinnedSnapshot.get();
+        if ( pinned != null ) {
+            pinnedSnapshot.remove();
+            unpin( pinned );
+        }
+    }
+
+    /**
+     * Wraps a task so that it sees the ontologies seen by the current thread, whichever thread it is run on. The task
+     * is meant to be run while the current thread keeps its snapshot pinned, otherwise the ontologies it sees may have
+     * been replaced and closed by then.
+     *
+     * @param task the task to run on another thread, e.g. part of a validation.
+     * @return a task pinning the ontologies of the current thread while it runs.
+     */
+    public <V> Callable<V> withSnapshot( final Callable<V> task ) {
+        final Snapshot<A> snapshot = currentSnapshot();
+        return new Callable<V>() {
+            public V call() throws Exception {
+                final Snapshot<A> previous = pinnedSnapshot.get();
+                pinnedSnapshot.set( pin( snapshot ) );
+                try {
+                    return task.call();
+                } finally {
+                    if ( previous == null ) {
+                        pinnedSnapshot.remove();
+                    } else {
+                        pinnedSnapshot.set( previous );
+                    }
+                    unpin( snapshot );
+                }
+            }
+        };
+    }
+
+    /**
+     * Counts a thread using a snapshot, its ontologies are not closed until it is unpinned.
+     *
+     * @param pinned the snapshot to pin, null for the current one.
+     * @return the pinned snapshot.
+     */
+    private synchronized Snapshot<A> pin( Snapshot<A> pinned ) {
+        final Snapshot<A> toPin = pinned != null ? pinned : snapshot;
+        final Integer count = pinCounts.get( toPin );
+        pinCounts.put( toPin, count == null ? 1 : count + 1 );
+        return toPin;
+    }
+
+    private void unpin( Snapshot<A> pinned ) {
+        final List<A> unused;
+        synchronized ( this ) {
+            final Integer count = pinCounts.get( pinned );
+            if ( count == null || count == 1 ) {
+                pinCounts.remove( pinned );
+            } else {
+                pinCounts.put( pinned, count - 1 );
+            }
+            unused = removeUnusedOntologies();
+        }
+        close( unused );
+    }
+
+    /**
+     * Closes a reloaded ontology replaced in the snapshot, once no pinned snapshot uses it anymore.
+     */
+    private void retire( A replaced ) {
+        final List<A> unused;
+        synchronized ( this ) {
+            retiredOntologies.add( replaced );
+            unused = removeUnusedOntologies();
+        }
+        close( unused );
+    }
+
+    /**
+     * @return the retired ontologies not used by the current snapshot nor by a pinned one, to be closed.
+     */
+    private List<A> removeUnusedOntologies() {
+        if ( retiredOntologies.isEmpty() ) {
+            return Collections.emptyList();
+        }
+        final List<A> unused = new ArrayList<A>();
+        for ( Iterator<A> it = retiredOntologies.iterator(); it.hasNext(); ) {
+            final A ontology = it.next();
+            boolean used = snapshot.uses( ontology );
+            for ( Snapshot<A> pinned : pinCounts.keySet() ) {
+                used = used || pinned.uses( ontology );
+            }
+            if ( !used ) {
+                it.remove();
+                unused.add( ontology );
+            }
+        }
+        return unused;
+    }
+
+    private void close( List<A> unused ) {
+        for ( A ontology : unused ) {
+            try {
+                ontology.close();
+            } catch ( RuntimeException e ) {
+                log.error( "Failed closing a replaced ontology", e );
+            }
+        }
     }
 
     /**
@@ -89,7 +299,7 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
      * @see java.util.HashMap#keySet()
      */
     public Set<String> getOntologyIDs() {
-        return ontologies.keySet();
+        return currentOntologies().keySet();
     }
 
     /**
@@ -100,7 +310,7 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
      * @see java.util.HashMap#get(Object)
      */
     public A getOntologyAccess( String ontologyID ) {
-        return ontologies.get( ontologyID );
+        return currentOntologies().get( ontologyID );
     }
 
     public void setOntologyDirectory( File ontologyDirectory ) {
@@ -115,7 +325,27 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
      * @see java.util.HashMap#containsKey(Object)
      */
     public boolean containsOntology( String ontologyID ) {
-        return ontologies.containsKey( ontologyID );
+        return currentOntologies().containsKey( ontologyID );
+    }
+
+    /**
+     * Returns the version of an ontology loaded from the configuration file.
+     *
+     * @param ontologyID the ID of a managed ontology.
+     * @return the version declared in the configuration and the uri of the ontology, followed by the number of
+     *         reloads once it has been reloaded and by the version of the content loaded if it is known (see
+     *         OntologyAccessTemplate.getContentVersion), null if the ontology was not loaded from a configuration
+     *         file.
+     */
+    public String getOntologyVersion( String ontologyID ) {
+        final Snapshot<A> current = currentSnapshot();
+        final String version = current.versions.get( ontologyID );
+        final A ontology = current.ontologies.get( ontologyID );
+        if ( version == null || ontology == null ) {
+            return version;
+        }
+        final String contentVersion = ontology.getContentVersion();
+        return contentVersion == null ? version : version + " [" + contentVersion + "]";
     }
 
     /**
@@ -135,6 +365,9 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
         }
 
         if ( cvSourceList != null ) {
+            // create all the ontologies first, so that the remote files are downloaded while the others are parsed
+            final List<A> accesses = new ArrayList<A>();
+            final List<URI> uris = new ArrayList<URI>();
             for ( CvSource cvSource : cvSourceList.getCvSource() ) {
 
                 String sourceUri = cvSource.getUri();
@@ -152,7 +385,11 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
                         if ( log.isDebugEnabled() ) {
                             log.debug( "Loading ontology from classpath: " + sourceUri );
                         }
-                        final URL url = OntologyManager.class.getClassLoader().getResource( sourceUri );
+                        URL url = OntologyManager.class.getClassLoader().getResource( sourceUri );
+                        if ( url == null && !AbstractOboLoader.isCompressed( sourceUri ) ) {
+                            // the resource may be bundled gzipped
+                            url = OntologyManager.class.getClassLoader().getResource( sourceUri + ".gz" );
+                        }
                         if ( url == null ) {
                             throw new OntologyLoaderException( "Unable to load from classpath: " + sourceUri );
                         }
@@ -170,17 +407,43 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
                             "for ontology '" + id + "' has an invalid syntax.", e );
                 }
 
+                ontologySources.put( id, new OntologySource( sourceUri, id, name, version, format, loaderClass, uri ) );
+
+                A oa;
+                try {
+                    oa = findOntologyAccess(sourceUri, id, name, version, format, loaderClass);
+                    oa.setOntologyDirectory( OntologyManagerContext.getInstance().getOntologyDirectory() );
+                } catch ( Exception e ) {
+                    throw new OntologyLoaderException( "Failed loading ontology source: " + loaderClass, e );
+                }
+
+                if ( oa instanceof AbstractLocalOntology ) {
+                    ( ( AbstractLocalOntology ) oa ).prefetchOntology( format, uri );
+                }
+
+                accesses.add( oa );
+                uris.add( uri );
+            }
+
+            for ( int i = 0; i < accesses.size(); i++ ) {
+
+                final CvSource cvSource = cvSourceList.getCvSource().get( i );
+                final String id = cvSource.getIdentifier();
+                final String name = cvSource.getName();
+                final String version = cvSource.getVersion();
+                final String format = cvSource.getFormat();
+                final String loaderClass = cvSource.getSource();
+                final URI uri = uris.get( i );
+                final A oa = accesses.get( i );
+
                 if ( log.isInfoEnabled() ) {
                     log.info( "Loading ontology: name=" + name + ", ID= " + id + ", format=" + format
                             + ", version=" + version + ", uri=" + uri + " using source: " + loaderClass );
                 }
 
-                A oa;
                 try {
-                    oa = findOntologyAccess(sourceUri, id, name, version, format, loaderClass);
-                    oa.setOntologyDirectory( OntologyManagerContext.getInstance().getOntologyDirectory() );
                     oa.loadOntology( id, name, version, format, uri );
-                    ontologies.put( id, oa );
+                    swapOntology( id, oa, version + " (" + uri + ")" );
                 } catch ( Exception e ) {
                     throw new OntologyLoaderException( "Failed loading ontology source: " + loaderClass, e );
                 }
@@ -188,23 +451,261 @@ public abstract class OntologyManagerTemplate<T extends OntologyTermI, A extends
         }
     }
 
+    /**
+     * Reloads an ontology loaded from the configuration file in the background. The new OntologyAccess is built
+     * off-thread and swapped in once complete, the previous one keeps answering until then. The threads having pinned
+     * a snapshot keep using the previous one until they unpin it, it is then closed (see OntologyAccessTemplate.close).
+     * The threads using an ontology across reloads must hence pin a snapshot.
+     *
+     * @param ontologyID the ID of an ontology loaded from the configuration file.
+     * @return the reloaded ontology, once swapped in.
+     */
+    public CompletableFuture<A> reloadOntology( final String ontologyID ) {
+        final OntologySource source = getOntologySource( ontologyID );
+        final OntologyManagerContext context = OntologyManagerContext.getInstance();
+        final File directory = context.getOntologyDirectory();
+        final boolean storeLocally = context.isStoreOntologiesLocally();
+
+        final CompletableFuture<A> reloaded = new CompletableFuture<A>();
+        getReloadExecutor().execute( () -> {
+            try {
+                reloaded.complete( reload( source, directory, storeLocally ) );
+            } catch ( Throwable t ) {
+                reloaded.completeExceptionally( t );
+            }
+        } );
+        return reloaded;
+    }
+
+    /**
+     * Periodically checks if an ontology loaded from the configuration file is up to date and reloads it in the
+     * background when it is not.
+     *
+     * @param ontologyID the ID of an ontology loaded from the configuration file.
+     * @param interval   delay in milliseconds between the end of a check and the start of the next one, 0 to stop
+     *                   checking.
+     */
+    public void setReloadInterval( final String ontologyID, long interval ) {
+        if ( interval < 0 ) {
+            throw new IllegalArgumentException( "The reload interval cannot be negative: " + interval );
+        }
+        final OntologySource source = getOntologySource( ontologyID );
+
+        final ScheduledFuture<?> previous = scheduledReloads.remove( ontologyID );
+        if ( previous != null ) {
+            previous.cancel( false );
+        }
+        if ( interval == 0 ) {
+            return;
+        }
+
+        final OntologyManagerContext context = OntologyManagerContext.getInstance();
+        final File directory = context.getOntologyDirectory();
+        final boolean storeLocally = context.isStoreOntologiesLocally();
+
+        scheduledReloads.put( ontologyID, getReloadExecutor().scheduleWithFixedDelay( () -> {
+            try {
+                final A current = snapshot.ontologies.get( ontologyID );
+                if ( current == null || !current.isOntologyUpToDate() ) {
+                    reload( source, directory, storeLocally );
+                }
+            } catch ( Exception e ) {
+                // keep the current ontology, try again at the next check
+                log.error( "Failed reloading the ontology " + ontologyID, e );
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS ) );
+    }
+
+    public void addReloadListener( OntologyReloadListener<A> listener ) {
+        if ( listener == null ) {
+            throw new IllegalArgumentException( "You must give a non null listener." );
+        }
+        reloadListeners.add( listener );
+    }
+
+    public void removeReloadListener( OntologyReloadListener<A> listener ) {
+        reloadListeners.remove( listener );
+    }
+
+    private OntologySource getOntologySource( String ontologyID ) {
+        final OntologySource source = ontologySources.get( ontologyID );
+        if ( source == null ) {
+            throw new IllegalArgumentException( "The ontology " + ontologyID + " was not loaded from a configuration file, it cannot be reloaded." );
+        }
+        return source;
+    }
+
+    /**
+     * Builds a new OntologyAccess for the source and swaps it in, runs on the reload thread.
+     */
+    private A reload( OntologySource source, File directory, boolean storeLocally ) throws OntologyLoaderException {
+        // the context of the thread asking for the reload
+        final OntologyManagerContext context = OntologyManagerContext.getInstance();
+        context.setOntologyDirectory( directory );
+        context.setStoreOntologiesLocally( storeLocally );
+
+        if ( log.isInfoEnabled() ) {
+            log.info( "Reloading ontology: ID= " + source.id + ", uri=" + source.uri );
+        }
+
+        final A reloaded;
+        try {
+            reloaded = findOntologyAccess( source.sourceUri, source.id, source.name, source.version, source.format, source.loaderClass );
+            reloaded.setOntologyDirectory( directory );
+            reloaded.loadOntology( source.id, source.name, source.version, source.format, source.uri );
+        } catch ( Exception e ) {
+            throw new OntologyLoaderException( "Failed reloading ontology source: " + source.loaderClass, e );
+        }
+
+        final A previous;
+        synchronized ( this ) {
+            // a new version for the caches depending on the ontology, such as the validation signature
+            previous = swapOntology( source.id, reloaded, source.version + " (" + source.uri + ") reload " + ( ++source.reloadCount ) );
+        }
+
+        for ( OntologyReloadListener<A> listener : reloadListeners ) {
+            try {
+                listener.ontologyReloaded( source.id, previous, reloaded );
+            } catch ( RuntimeException e ) {
+                log.error( "A reload listener failed for the ontology " + source.id, e );
+            }
+        }
+
+        if ( previous != null && previous != reloaded ) {
+            retire( previous );
+        }
+
+        if ( log.isInfoEnabled() ) log.info( "Reloaded ontology: ID= " + source.id );
+        return reloaded;
+    }
+
+    private synchronized ScheduledExecutorService getReloadExecutor() {
+        if ( reloadExecutor == null ) {
+            reloadExecutor = Executors.newSingleThreadScheduledExecutor( new ThreadFactory() {
+                public Thread newThread( Runnable r ) {
+                    final Thread thread = new Thread( r, "ontology-reload" );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+        return reloadExecutor;
+    }
+
+    /**
+     * The ontologies of the manager along with the versions of the ones loaded from the configuration file.
+     */
+    private static class Snapshot<A> {
+
+        private final Map<String, A> ontologies;
+
+        /**
+         * The versions as declared in the configuration file along with the uri they were loaded from.
+         */
+        private final Map<String, String> versions;
+
+        private Snapshot( Map<String, A> ontologies, Map<String, String> versions ) {
+            this.ontologies = ontologies;
+            this.versions = versions;
+        }
+
+        private boolean uses( Object ontology ) {
+            for ( A a : ontologies.values() ) {
+                if ( a == ontology ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Where an ontology of the configuration file comes from.
+     */
+    private static class OntologySource {
+
+        private final String sourceUri;
+        private final String id;
+        private final String name;
+        private final String version;
+        private final String format;
+        private final String loaderClass;
+        private final URI uri;
+
+        private int reloadCount; // guarded by the manager
+
+        private OntologySource( String sourceUri, String id, String name, String version, String format, String loaderClass, URI uri ) {
+            this.sourceUri = sourceUri;
+            this.id = id;
+            this.name = name;
+            this.version = version;
+            this.format = format;
+            this.loaderClass = loaderClass;
+            this.uri = uri;
+        }
+    }
+
     protected abstract A findOntologyAccess(String sourceURI, String ontologyId, String ontologyName, String ontologyVersion, String format, String loaderClass) throws ClassNotFoundException;
 
     /**
+     * Checks the ontologies concurrently, at most MAX_UP_TO_DATE_THREADS at a time.
      *
      * @return false if one of the OntologyAccess instances doesn't have an up-to-date ontology uploaded.
      * @throws OntologyLoaderException
      */
     public boolean isUpToDate() throws OntologyLoaderException {
 
-        for (Map.Entry<String, A> entry : this.ontologies.entrySet()){
+        final List<A> toCheck = new ArrayList<A>();
+        for (Map.Entry<String, A> entry : snapshot.ontologies.entrySet()){
             if (entry.getValue() != null){
-                if (!entry.getValue().isOntologyUpToDate()){
+                toCheck.add(entry.getValue());
+            }
+        }
+
+        if (toCheck.size() <= 1){
+            for (A ontology : toCheck){
+                if (!ontology.isOntologyUpToDate()){
                     return false;
                 }
             }
+            return true;
         }
 
-        return true;
+        // each check waits on a remote server, run them concurrently
+        final ExecutorService executor = Executors.newFixedThreadPool( Math.min( toCheck.size(), MAX_UP_TO_DATE_THREADS ), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread( Runnable r ) {
+                final Thread thread = new Thread( r, "ontology-up-to-date-" + count.incrementAndGet() );
+                thread.setDaemon( true );
+                return thread;
+            }
+        } );
+        try {
+            final List<Future<Boolean>> checks = new ArrayList<Future<Boolean>>();
+            for (final A ontology : toCheck){
+                checks.add( executor.submit( ontology::isOntologyUpToDate ) );
+            }
+
+            boolean upToDate = true;
+            for (Future<Boolean> check : checks){
+                try {
+                    if (!check.get()){
+                        upToDate = false;
+                    }
+                } catch ( ExecutionException e ) {
+                    if ( e.getCause() instanceof OntologyLoaderException ) {
+                        throw ( OntologyLoaderException ) e.getCause();
+                    }
+                    throw new OntologyLoaderException( "Failed checking if an ontology is up to date", e.getCause() );
+                }
+            }
+            return upToDate;
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new OntologyLoaderException( "Interrupted while checking if the ontologies are up to date", e );
+        } finally {
+            executor.shutdownNow();
+        }
     }
 }
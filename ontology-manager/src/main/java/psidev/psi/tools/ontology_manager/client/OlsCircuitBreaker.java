@@ -0,0 +1,87 @@
+package psidev.psi.tools.ontology_manager.client;
+
+/**
+ * Circuit breaker of the queries sent to OLS about one ontology.
+ * <p/>
+ * The circuit opens after a number of consecutive failures: the queries then fail immediately instead of waiting for
+ * OLS to time out. Once the open time has elapsed, a single query is let through to probe OLS, it closes the circuit
+ * if it succeeds and opens it again if it fails.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+
+    private final long openTime;
+
+    private State state = State.CLOSED;
+
+    private int consecutiveFailures;
+
+    private long openedAt;
+
+    /**
+     * @param failureThreshold count of consecutive failures opening the circuit.
+     * @param openTime         time in milliseconds the circuit stays open before OLS is probed again.
+     */
+    public OlsCircuitBreaker( int failureThreshold, long openTime ) {
+        if ( failureThreshold < 1 ) {
+            throw new IllegalArgumentException( "At least one failure must open the circuit: " + failureThreshold );
+        }
+        if ( openTime < 0 ) {
+            throw new IllegalArgumentException( "The open time must be positive: " + openTime );
+        }
+        this.failureThreshold = failureThreshold;
+        this.openTime = openTime;
+    }
+
+    /**
+     * @return true if a query may be sent to OLS, in which case its outcome must be recorded.
+     */
+    public synchronized boolean allowRequest() {
+        switch ( state ) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if ( System.currentTimeMillis() - openedAt >= openTime ) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // the probe is in flight
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if ( state == State.HALF_OPEN || consecutiveFailures >= failureThreshold ) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public long getOpenTime() {
+        return openTime;
+    }
+}
@@ -6,6 +6,8 @@ import uk.ac.ebi.pride.utilities.ols.web.service.config.OLSWsConfigProd;
 import uk.ac.ebi.pride.utilities.ols.web.service.model.Identifier;
 import uk.ac.ebi.pride.utilities.ols.web.service.model.Term;
 
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.rmi.RemoteException;
 import java.util.HashMap;
 import java.util.List;
@@ -23,16 +25,47 @@ import java.util.Map;
 
 public class OlsClient {
 
+    /**
+     * System property giving the URL of the OLS service, e.g. the URL of the LocalOlsServer of the tests. The EBI
+     * service is used if it is not set.
+     */
+    public static final String OLS_URL_PROPERTY = "ols.url";
+
     private OLSClient olsClient;
 
     public OlsClient()  {
-        this.olsClient = new OLSClient(new OLSWsConfigProd());
+        this( System.getProperty( OLS_URL_PROPERTY ) );
+    }
+
+    /**
+     * @param olsUrl the URL of the OLS service, e.g. http://localhost:8080, null to use the EBI service.
+     */
+    public OlsClient( String olsUrl ) {
+        final OLSWsConfigProd config = new OLSWsConfigProd();
+        if ( olsUrl != null && olsUrl.trim().length() > 0 ) {
+            final URL url;
+            try {
+                url = new URL( olsUrl.trim() );
+            } catch ( MalformedURLException e ) {
+                throw new IllegalArgumentException( "Invalid OLS URL: " + olsUrl, e );
+            }
+            config.setProtocol( url.getProtocol() );
+            // the host name of the configuration holds the path to the OLS API, e.g. www.ebi.ac.uk/ols
+            String hostName = url.getAuthority() + url.getPath();
+            if ( hostName.endsWith( "/" ) ) {
+                hostName = hostName.substring( 0, hostName.length() - 1 );
+            }
+            config.setHostName( hostName );
+        }
+        this.olsClient = new OLSClient( config );
     }
 
     public String getTermById(String accession, String ontologyId) throws RemoteException{
         try {
             Identifier identifier = new Identifier(accession, Identifier.IdentifierType.OBO);
-            return olsClient.getTermById(identifier, ontologyId).getLabel();
+            Term term = olsClient.getTermById(identifier, ontologyId);
+            // OLS has no such term
+            return term == null ? null : term.getLabel();
         } catch ( Exception e ) {
             throw new RemoteException( "RemoteException while trying to connect to OLS." );
         }
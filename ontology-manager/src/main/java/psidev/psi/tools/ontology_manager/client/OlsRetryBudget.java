@@ -0,0 +1,65 @@
+package psidev.psi.tools.ontology_manager.client;
+
+/**
+ * Bounds the retries of the queries sent to OLS to a fraction of the queries.
+ * <p/>
+ * Each query adds a fraction of a token to the budget, up to a maximum, and each retry takes a whole token. When OLS
+ * fails most queries the budget is soon empty, so that retries cannot multiply the load on a struggling service.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsRetryBudget {
+
+    /**
+     * Budget shared by all the OLS clients that are not given their own.
+     */
+    public static final OlsRetryBudget GLOBAL = new OlsRetryBudget( 0.1, 10 );
+
+    private final double retryRatio;
+
+    private final double maxTokens;
+
+    private double tokens;
+
+    /**
+     * @param retryRatio fraction of a retry earned by each query, e.g. 0.1 to allow one retry every ten queries.
+     * @param maxTokens  maximum count of retries saved up, the budget starts full.
+     */
+    public OlsRetryBudget( double retryRatio, int maxTokens ) {
+        if ( retryRatio < 0 ) {
+            throw new IllegalArgumentException( "The retry ratio must be positive: " + retryRatio );
+        }
+        if ( maxTokens < 0 ) {
+            throw new IllegalArgumentException( "The maximum count of retries must be positive: " + maxTokens );
+        }
+        this.retryRatio = retryRatio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    /**
+     * Records a query sent to OLS for the first time.
+     */
+    public synchronized void onRequest() {
+        tokens = Math.min( maxTokens, tokens + retryRatio );
+    }
+
+    /**
+     * @return true if a retry can be sent, its token is then taken from the budget.
+     */
+    public synchronized boolean tryRetry() {
+        if ( tokens >= 1 ) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the count of retries currently allowed.
+     */
+    public synchronized int getAvailableRetries() {
+        return ( int ) tokens;
+    }
+}
@@ -0,0 +1,214 @@
+package psidev.psi.tools.ontology_manager.client;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.rmi.RemoteException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * OlsClient protecting the callers from a degraded OLS service.
+ * <p/>
+ * Each query is sent to the delegate client through the circuit breaker of its ontology: while the circuit is open the
+ * query fails immediately with a RemoteException. A failed query is retried with an exponential backoff, at most
+ * maxAttempts times in all and as long as the retry budget allows it.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ResilientOlsClient extends OlsClient {
+
+    public static final Log log = LogFactory.getLog( ResilientOlsClient.class );
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_BACKOFF = 200;
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_TIME = 30 * 1000;
+
+    private final OlsClient delegate;
+
+    private final int maxAttempts;
+
+    private final long backoff;
+
+    private final int failureThreshold;
+
+    private final long openTime;
+
+    private final OlsRetryBudget retryBudget;
+
+    private final ConcurrentMap<String, OlsCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * A query to OLS.
+     */
+    private interface OlsCall<V> {
+        V call() throws RemoteException;
+    }
+
+    /**
+     * @param delegate the client sending the queries to OLS.
+     */
+    public ResilientOlsClient( OlsClient delegate ) {
+        this( delegate, DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_TIME,
+              OlsRetryBudget.GLOBAL );
+    }
+
+    /**
+     * @param delegate         the client sending the queries to OLS.
+     * @param maxAttempts      maximum count of times a query is sent, 1 to never retry.
+     * @param backoff          time in milliseconds before the first retry, doubled for each further retry.
+     * @param failureThreshold count of consecutive failures opening the circuit of an ontology.
+     * @param openTime         time in milliseconds the circuit of an ontology stays open.
+     * @param retryBudget      the budget the retries are taken from, usually OlsRetryBudget.GLOBAL.
+     */
+    public ResilientOlsClient( OlsClient delegate, int maxAttempts, long backoff, int failureThreshold, long openTime,
+                               OlsRetryBudget retryBudget ) {
+        super( null );
+        if ( delegate == null ) {
+            throw new IllegalArgumentException( "You must give a non null OLS client" );
+        }
+        if ( maxAttempts < 1 ) {
+            throw new IllegalArgumentException( "A query must be sent at least once: " + maxAttempts );
+        }
+        if ( backoff < 0 ) {
+            throw new IllegalArgumentException( "The backoff must be positive: " + backoff );
+        }
+        if ( retryBudget == null ) {
+            throw new IllegalArgumentException( "You must give a non null retry budget" );
+        }
+        this.delegate = delegate;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.failureThreshold = failureThreshold;
+        this.openTime = openTime;
+        this.retryBudget = retryBudget;
+        // fail early on an invalid circuit configuration
+        new OlsCircuitBreaker( failureThreshold, openTime );
+    }
+
+    /**
+     * @param ontologyId the OLS ontology identifier.
+     * @return the circuit breaker of the queries about the ontology.
+     */
+    public OlsCircuitBreaker getCircuitBreaker( String ontologyId ) {
+        final String key = String.valueOf( ontologyId );
+        OlsCircuitBreaker breaker = circuitBreakers.get( key );
+        if ( breaker == null ) {
+            final OlsCircuitBreaker created = new OlsCircuitBreaker( failureThreshold, openTime );
+            breaker = circuitBreakers.putIfAbsent( key, created );
+            if ( breaker == null ) {
+                breaker = created;
+            }
+        }
+        return breaker;
+    }
+
+    private <V> V call( String ontologyId, String query, OlsCall<V> call ) throws RemoteException {
+        final OlsCircuitBreaker breaker = getCircuitBreaker( ontologyId );
+        retryBudget.onRequest();
+        long delay = backoff;
+        for ( int attempt = 1; ; attempt++ ) {
+            if ( !breaker.allowRequest() ) {
+                throw new RemoteException( "The OLS circuit of " + ontologyId + " is open, not sending: " + query );
+            }
+            try {
+                final V result = call.call();
+                breaker.recordSuccess();
+                return result;
+            } catch ( RemoteException e ) {
+                breaker.recordFailure();
+                if ( attempt >= maxAttempts || !retryBudget.tryRetry() ) {
+                    throw e;
+                }
+                if ( log.isDebugEnabled() ) {
+                    log.debug( "Retrying in " + delay + "ms after attempt " + attempt + " failed: " + query, e );
+                }
+            } catch ( RuntimeException e ) {
+                breaker.recordFailure();
+                throw e;
+            }
+            try {
+                Thread.sleep( delay );
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new RemoteException( "Interrupted while waiting to retry: " + query, e );
+            }
+            delay *= 2;
+        }
+    }
+
+    @Override
+    public String getTermById( final String accession, final String ontologyId ) throws RemoteException {
+        return call( ontologyId, "getTermById " + accession, new OlsCall<String>() {
+            public String call() throws RemoteException {
+                return delegate.getTermById( accession, ontologyId );
+            }
+        } );
+    }
+
+    @Override
+    public Map getTermMetadata( final String termAccession, final String ontologyId ) throws RemoteException {
+        return call( ontologyId, "getTermMetadata " + termAccession, new OlsCall<Map>() {
+            public Map call() throws RemoteException {
+                return delegate.getTermMetadata( termAccession, ontologyId );
+            }
+        } );
+    }
+
+    @Override
+    public Map getTermXrefs( final String termAccession, final String ontologyId ) throws RemoteException {
+        return call( ontologyId, "getTermXrefs " + termAccession, new OlsCall<Map>() {
+            public Map call() throws RemoteException {
+                return delegate.getTermXrefs( termAccession, ontologyId );
+            }
+        } );
+    }
+
+    @Override
+    public Map getRootTerms( final String ontologyId ) throws RemoteException {
+        return call( ontologyId, "getRootTerms", new OlsCall<Map>() {
+            public Map call() throws RemoteException {
+                return delegate.getRootTerms( ontologyId );
+            }
+        } );
+    }
+
+    @Override
+    public boolean isObsolete( final String termAccession, final String ontologyId ) throws RemoteException {
+        return call( ontologyId, "isObsolete " + termAccession, new OlsCall<Boolean>() {
+            public Boolean call() throws RemoteException {
+                return delegate.isObsolete( termAccession, ontologyId );
+            }
+        } );
+    }
+
+    @Override
+    public Map getTermParents( final String termAccession, final String ontologyId ) throws RemoteException {
+        return call( ontologyId, "getTermParents " + termAccession, new OlsCall<Map>() {
+            public Map call() throws RemoteException {
+                return delegate.getTermParents( termAccession, ontologyId );
+            }
+        } );
+    }
+
+    @Override
+    public Map getTermChildren( final String termAccession, final String ontologyId, final int level ) throws RemoteException {
+        return call( ontologyId, "getTermChildren " + termAccession, new OlsCall<Map>() {
+            public Map call() throws RemoteException {
+                return delegate.getTermChildren( termAccession, ontologyId, level );
+            }
+        } );
+    }
+
+    @Override
+    public String getOntologyLoadDate( final String ontologyId ) throws RemoteException {
+        return call( ontologyId, "getOntologyLoadDate", new OlsCall<String>() {
+            public String call() throws RemoteException {
+                return delegate.getOntologyLoadDate( ontologyId );
+            }
+        } );
+    }
+}
@@ -19,7 +19,7 @@ public class OntologyTermImpl implements OntologyTermI {
 
     private String name;
 
-    private Collection<String> nameSynonyms;
+    private volatile Collection<String> nameSynonyms;
 
     //////////////////////////
     // Constructors
@@ -10,12 +10,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -50,6 +52,22 @@ public abstract class AbstractLocalOntology<T extends OntologyTermI, A extends O
 
     protected URL fileUrl;
 
+    /**
+     * The local file or classpath resource loaded, its MD5 signature is only computed when the content version is
+     * asked for.
+     */
+    private URL localUrl;
+
+    /**
+     * The ETag of the downloaded file, null if the server didn't give any.
+     */
+    protected String eTag;
+
+    /**
+     * The Last-Modified date of the downloaded file, 0 if the server didn't give any.
+     */
+    protected long lastModified;
+
     public AbstractLocalOntology() {
         log.info( "Creating new LocalOntology..." );
         ontology = null;
@@ -86,31 +104,36 @@ public abstract class AbstractLocalOntology<T extends OntologyTermI, A extends O
                         throw new IllegalArgumentException("Could not find the file for URI: " + uri + " - Perhaps the syntax of the URI is wrong!");
                     }
                     ontology = loader.parseOboFile(file);
+                    this.md5Signature = null;
+                    this.localUrl = toURL(uri);
                 } else if (uri.getScheme().equalsIgnoreCase("jar")){
                     ontology = loader.parseOboFileFromJar(uri.toString());
+                    this.md5Signature = null;
+                    this.localUrl = toURL(uri);
                 } else {
-                    URL url;
+                    URL url = toURL( uri );
+                    this.localUrl = null;
+
                     try {
-                        url = uri.toURL();
-                    } catch ( MalformedURLException e ) {
-                        throw new IllegalArgumentException( "The given CvSource doesn't have a valid URI: " + uri );
-                    }
+                        // only downloaded if the local copy is missing or out of date
+                        final OboDownloadCache.Entry download = loader.download( url );
 
-                    // Compute the MD5 signature of the file to load
-                    this.md5Signature = computeMD5SignatureFor(url);
+                        // The MD5 signature and the size of the file to load
+                        this.md5Signature = download.getMd5Signature();
+                        this.contentSize = download.getContentLength();
 
-                    // Get the size of the file to load
-                    this.contentSize = getSizeOfFile(url);
+                        // The validators used to check cheaply if the file has changed
+                        this.eTag = download.getETag();
+                        this.lastModified = download.getLastModified();
 
-                    // We need to store the url to know if an update has been done later
-                    this.fileUrl = url;
+                        // We need to store the url to know if an update has been done later
+                        this.fileUrl = url;
 
-                    try {
                         if ( log.isDebugEnabled() ) {
                             log.debug( "Parsing URL: " + url );
                         }
 
-                        ontology = loader.parseOboFile( url );
+                        ontology = loader.parseOboFile( download.getFile() );
                     } catch ( OntologyLoaderException e ) {
                         throw new OntologyLoaderException( "OboFile parser failed with Exception: ", e );
                     }
@@ -126,6 +149,52 @@ public abstract class AbstractLocalOntology<T extends OntologyTermI, A extends O
         }
     }
 
+    private URL toURL( URI uri ) {
+        try {
+            return uri.toURL();
+        } catch ( MalformedURLException e ) {
+            throw new IllegalArgumentException( "The given CvSource doesn't have a valid URI: " + uri );
+        }
+    }
+
+    /**
+     * The signature of a local file or classpath resource is computed on the first call rather than when it is loaded,
+     * as it is only needed by some users (e.g. the incremental validation).
+     *
+     * @return the MD5 signature of the loaded OBO file, null if no ontology was loaded or if it cannot be read anymore.
+     */
+    public synchronized String getContentVersion() {
+        if ( md5Signature == null && localUrl != null ) {
+            try {
+                md5Signature = computeMD5SignatureFor( localUrl );
+            } catch ( OntologyLoaderException e ) {
+                log.warn( "Could not compute the MD5 signature of " + localUrl, e );
+            }
+        }
+        return md5Signature;
+    }
+
+    /**
+     * Starts downloading a remote OBO file in the background so that it is ready, or at least under way, when
+     * loadOntology is called with the same uri. Local files and unsupported formats are ignored.
+     *
+     * @param format the format of the ontology.
+     * @param uri    the location of the ontology.
+     */
+    public void prefetchOntology( String format, URI uri ) {
+        if ( !"OBO".equals( format ) || uri == null || uri.getScheme() == null
+             || uri.getScheme().equalsIgnoreCase( "file" ) || uri.getScheme().equalsIgnoreCase( "jar" ) ) {
+            return;
+        }
+
+        try {
+            createNewOBOLoader( getOntologyDirectory() ).prefetch( uri.toURL() );
+        } catch ( Exception e ) {
+            // loadOntology will download it and report the problem
+            log.warn( "Could not prefetch the ontology " + uri, e );
+        }
+    }
+
     public void setOntologyDirectory( File directory ) {
         if ( directory != null ) ontologyDirectory = directory;
     }
@@ -172,32 +241,100 @@ public abstract class AbstractLocalOntology<T extends OntologyTermI, A extends O
     }
 
     /**
-     * Check if the ontology is up to date
-     * @return true if the md5 signature is still the same and/or if the size of the file is still the same
+     * @return the root terms of the ontology.
+     */
+    public Collection<T> getRootTerms() {
+        return ontology.getRoots();
+    }
+
+    /**
+     * Check if the ontology is up to date. The ETag and Last-Modified date of the download are checked first with a
+     * single HEAD request, the whole file is only read again to compare its MD5 signature when the server gives no
+     * validator.
+     *
+     * @return true if the validators are still the same, or if the size of the file and the md5 signature are still the same
      * @throws OntologyLoaderException
      */
     public boolean isOntologyUpToDate() throws OntologyLoaderException {
 
         if (this.fileUrl != null){
-            if (md5Signature != null){
-                boolean isMd5UpToDate = checkUpToDateMd5Signature();
-                boolean isContentSizeUpToDate = checkUpToDateContentSize();
+            final Boolean isValidatorUpToDate = checkUpToDateValidators();
+            if (isValidatorUpToDate != null){
+                return isValidatorUpToDate;
+            }
 
-                if (isMd5UpToDate && isContentSizeUpToDate){
-                    return true;
-                }
-                else if (!isContentSizeUpToDate && isMd5UpToDate && this.contentSize == -1){
-                    return true;
-                }
-                else if (isContentSizeUpToDate && !isMd5UpToDate && this.md5Signature == null){
-                    return true;
+            if (md5Signature != null){
+                // a different size is enough to know the file has changed
+                if (this.contentSize != -1 && !checkUpToDateContentSize()){
+                    return false;
                 }
+                return checkUpToDateMd5Signature();
             }
         }
 
         return false;
     }
 
+    /**
+     * Checks the ETag and the Last-Modified date of the download with a conditional HEAD request.
+     *
+     * @return true if the file has not changed, false if it has, null if the server doesn't give any validator to compare.
+     * @throws OntologyLoaderException
+     */
+    protected Boolean checkUpToDateValidators() throws OntologyLoaderException {
+        if (eTag == null && lastModified <= 0){
+            return null;
+        }
+
+        try {
+            URLConnection con = this.fileUrl.openConnection();
+
+            if (con instanceof HttpURLConnection){
+                HttpURLConnection http = (HttpURLConnection) con;
+                try {
+                    http.setRequestMethod("HEAD");
+                    if (eTag != null){
+                        http.setRequestProperty("If-None-Match", eTag);
+                    }
+                    if (lastModified > 0){
+                        http.setIfModifiedSince(lastModified);
+                    }
+
+                    int status = http.getResponseCode();
+                    if (status == HttpURLConnection.HTTP_NOT_MODIFIED){
+                        return true;
+                    }
+                    if (status != HttpURLConnection.HTTP_OK){
+                        return null;
+                    }
+
+                    // the server may ignore conditional requests, compare the validators it gives
+                    String newETag = http.getHeaderField("ETag");
+                    if (eTag != null && newETag != null){
+                        return eTag.equals(newETag);
+                    }
+                    long newLastModified = http.getLastModified();
+                    if (lastModified > 0 && newLastModified > 0){
+                        return newLastModified == lastModified;
+                    }
+                    return null;
+                } finally {
+                    http.disconnect();
+                }
+            }
+
+            long newLastModified = con.getLastModified();
+            con.getInputStream().close();
+            if (lastModified > 0 && newLastModified > 0){
+                return newLastModified == lastModified;
+            }
+            return null;
+
+        } catch (IOException e) {
+            throw new OntologyLoaderException("Unable to check the validators of the url", e);
+        }
+    }
+
     public boolean isUseTermSynonyms() {
         return true;
     }
@@ -293,11 +430,19 @@ public abstract class AbstractLocalOntology<T extends OntologyTermI, A extends O
 
         try {
             con = url.openConnection();
+            if (con instanceof HttpURLConnection){
+                // no need to transfer the content
+                ((HttpURLConnection) con).setRequestMethod("HEAD");
+            }
             int size = con.getContentLength();
 
             return size;
         } catch (IOException e) {
             throw new OntologyLoaderException("Unable to open the url", e);
+        } finally {
+            if (con instanceof HttpURLConnection){
+                ((HttpURLConnection) con).disconnect();
+            }
         }
     }
 
@@ -9,10 +9,15 @@ import uk.ac.ebi.ols.model.interfaces.Term;
 import uk.ac.ebi.ols.model.interfaces.TermRelationship;
 import uk.ac.ebi.ols.model.interfaces.TermSynonym;
 
-import java.io.*;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
-import java.net.URLConnection;
-import java.util.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Abstract OBO loader
@@ -34,9 +39,16 @@ public abstract class AbstractOboLoader<T extends OntologyTermI, O extends Ontol
      */
     public static final Log log = LogFactory.getLog(OboLoader.class);
 
+    /**
+     * @deprecated the serialized registry has been replaced by the index of {@link OboDownloadCache}.
+     */
+    @Deprecated
     protected static final String ONTOLOGY_REGISTRY_NAME = "ontology.registry.map";
 
+    private final File ontologyDirectory;
+
     public AbstractOboLoader( File ontologyDirectory ) {
+        this.ontologyDirectory = ontologyDirectory;
     }
 
     /////////////////////////////
@@ -92,7 +104,7 @@ public abstract class AbstractOboLoader<T extends OntologyTermI, O extends Ontol
     /**
      * Parse the given OBO file and build a representation of the DAG into an IntactOntology.
      *
-     * @param file the input file. It has to exist and to be readable, otherwise it will break.
+     * @param file the input file, gzipped if its name ends with .gz. It has to exist and to be readable, otherwise it will break.
      * @return a non null IntactOntology.
      */
     public O parseOboFile( File file ) {
@@ -105,6 +117,14 @@ public abstract class AbstractOboLoader<T extends OntologyTermI, O extends Ontol
             throw new IllegalArgumentException( file.getAbsolutePath() + " could not be read." );
         }
 
+        if ( isCompressed( file.getName() ) ) {
+            try {
+                return parseCompressedOboFile( new FileInputStream( file ), file.getName() );
+            } catch ( IOException e ) {
+                throw new IllegalArgumentException( file.getAbsolutePath() + " could not be decompressed.", e );
+            }
+        }
+
         //setup vars and parse file
         configure(file.getAbsolutePath());
 
@@ -127,6 +147,14 @@ public abstract class AbstractOboLoader<T extends OntologyTermI, O extends Ontol
             throw new IllegalArgumentException("Resource URI for OBOO file cannot be null");
         }
 
+        if ( isCompressed( jarURI ) ) {
+            try {
+                return parseCompressedOboFile( new URL( jarURI ).openStream(), jarURI.substring( jarURI.lastIndexOf( '/' ) + 1 ) );
+            } catch ( IOException e ) {
+                throw new IllegalArgumentException( jarURI + " could not be decompressed.", e );
+            }
+        }
+
         //setup vars and parse file
         configure(jarURI);
 
@@ -136,45 +164,91 @@ public abstract class AbstractOboLoader<T extends OntologyTermI, O extends Ontol
         return buildOntology();
     }
 
-    private File getRegistryFile() throws OntologyLoaderException {
-        File ontologyDirectory = OntologyManagerContext.getInstance().getOntologyDirectory();
+    /**
+     * @param name the name of an OBO file.
+     * @return true if the file is gzipped.
+     */
+    public static boolean isCompressed( String name ) {
+        return name.toLowerCase().endsWith( ".gz" );
+    }
 
-        File[] registry = ontologyDirectory.listFiles(pathname -> ONTOLOGY_REGISTRY_NAME.equals( pathname.getName() ));
+    /**
+     * The OLS parser only reads files, so the OBO file is inflated into a temporary file of the ontology directory
+     * removed once parsed.
+     *
+     * @param compressed the gzipped OBO file, closed by this method.
+     * @param name       the name of the OBO file.
+     * @return a non null IntactOntology.
+     */
+    private O parseCompressedOboFile( InputStream compressed, String name ) throws IOException {
+        final File inflated;
+        try {
+            final InputStream in = new GZIPInputStream( compressed, 64 * 1024 );
+            final File directory = ontologyDirectory != null ? ontologyDirectory
+                                                             : OntologyManagerContext.getInstance().getOntologyDirectory();
+            if ( !directory.exists() && !directory.mkdirs() ) {
+                throw new IOException( "Cannot create the ontology directory: " + directory.getAbsolutePath() );
+            }
+            inflated = File.createTempFile( name.replaceAll( "[^A-Za-z0-9._-]", "_" ) + ".", ".obo", directory );
+            try {
+                Files.copy( in, inflated.toPath(), StandardCopyOption.REPLACE_EXISTING );
+            } catch ( IOException e ) {
+                inflated.delete();
+                throw e;
+            }
+        } finally {
+            compressed.close();
+        }
 
-        if ( registry.length == 1 ) {
-            // found our file
-            File validatorRegistry = registry[0];
-            return validatorRegistry;
-        } else {
-            // create it
-            return new File( ontologyDirectory.getAbsolutePath() + File.separator + ONTOLOGY_REGISTRY_NAME );
+        try {
+            //setup vars and parse file
+            configure(inflated.getAbsolutePath());
+
+            //process into relations
+            process();
+
+            return buildOntology();
+        } finally {
+            if ( !inflated.delete() ) {
+                inflated.deleteOnExit();
+            }
         }
     }
 
     /**
-     * Load an OBO file from an URL.
+     * Gives a local copy of an OBO file, only downloaded if it is unknown or has changed on the server.
      *
      * @param url the URL to load (must not be null)
-     * @return an ontology
-     * @see #parseOboFile(File file)
+     * @return the local copy of the URL
+     * @see OboDownloadCache
      */
-    public O parseOboFile( URL url ) throws OntologyLoaderException {
+    public OboDownloadCache.Entry download( URL url ) throws OntologyLoaderException {
+
+        if ( url == null ) {
+            throw new IllegalArgumentException( "Please give a non null URL." );
+        }
 
-        // load config file (ie. a map)
-        // check if that URL has already been loaded
-        // if so, get the associated temp file and check if available
-        // if available, then load it and skip URL load
-        // if any of the above failed, load it from the network.
+        return createDownloadCache().fetch( url );
+    }
+
+    /**
+     * Starts downloading an OBO file in the background, the next download of the URL waits for it.
+     *
+     * @param url the URL to load (must not be null)
+     * @see #download(URL url)
+     */
+    public void prefetch( URL url ) {
 
         if ( url == null ) {
             throw new IllegalArgumentException( "Please give a non null URL." );
         }
 
+        createDownloadCache().prefetch( url );
+    }
 
-        File ontologyFile = null;
+    private OboDownloadCache createDownloadCache() {
         File ontologyDirectory = OntologyManagerContext.getInstance().getOntologyDirectory();
         boolean isKeepDownloadedOntologiesOnDisk = OntologyManagerContext.getInstance().isStoreOntologiesLocally();
-        Map registryMap = null;
 
         if( isKeepDownloadedOntologiesOnDisk ) {
 
@@ -194,157 +268,20 @@ public abstract class AbstractOboLoader<T extends OntologyTermI, O extends Ontol
                 log.info( "User work directory: " + ontologyDirectory.getAbsolutePath() );
                 log.info( "keepTemporaryFile: " + OntologyManagerContext.getInstance().isStoreOntologiesLocally() );
             }
-
-            File registryFile = getRegistryFile();
-
-            if ( null != registryFile ) {
-
-                // TODO replace Map by a properties file so it can be read/edited easily
-                // MI.file.path=
-                // MI.last.loaded=
-                // MI.refresh.after=
-                // TODO check on the length of the file and compare it to the length on the web site.
-                // MI.length=
-
-                // deserialise the Map
-                try {
-                    if ( registryFile.length() > 0 ) {
-                        // the file has some content
-                        ObjectInputStream ois = new ObjectInputStream( new FileInputStream( registryFile ) );
-                        registryMap = ( Map ) ois.readObject();
-
-                        if ( registryMap != null ) {
-                            if ( registryMap.containsKey( url ) ) {
-                                ontologyFile = new File( ( String ) registryMap.get( url ) );
-
-                                if ( ontologyFile.exists() && ontologyFile.canRead() ) {
-
-                                    // Cool, find it ! use it instead of the provided URL
-                                    if ( log.isInfoEnabled() )
-                                        log.info( "Reuse existing cache: " + ontologyFile.getAbsolutePath() );
-
-                                } else {
-
-                                    if ( log.isInfoEnabled() )
-                                        log.info( "Could not find " + ontologyFile.getAbsolutePath() );
-
-                                    // cleanup map
-                                    registryMap.remove( url );
-
-                                    // save map
-                                    log.info( "Saving registry file..." );
-                                    File f = getRegistryFile();
-                                    ObjectOutputStream oos = new ObjectOutputStream( new FileOutputStream( f ) );
-                                    oos.writeObject( registryMap );
-                                    oos.flush();
-                                    oos.close();
-                                }
-                            }
-                        } else {
-                            log.info( "could not deserialize the Map" );
-                        }
-                    } else {
-                        log.info( "The file is empty" );
-                    }
-                } catch (IOException | ClassNotFoundException e ) {
-                    // optional, so just display message in the log
-                    log.error( "Error while deserializing the map", e );
-                }
-            }
         }
 
+        return new OboDownloadCache( ontologyDirectory, isKeepDownloadedOntologiesOnDisk );
+    }
 
-        try {
-            if ( ontologyFile == null || !ontologyFile.exists() || !ontologyFile.canRead() ) {
-
-                // if it is not defined, not there or not readable...
-
-                // Read URL content
-                if ( log.isInfoEnabled() ) log.info( "Loading URL: " + url );
-
-                URLConnection con = url.openConnection();
-                int size = con.getContentLength();        // -1 if not stat available
-
-                if ( log.isInfoEnabled() ) log.info( "size = " + size );
-
-                InputStream is = url.openStream();
-
-                // Create a temp file and write URL content in it.
-                if ( !ontologyDirectory.exists() ) {
-                    if ( !ontologyDirectory.mkdirs() ) {
-                        throw new IOException( "Cannot create temp directory: " + ontologyDirectory.getAbsolutePath() );
-                    }
-                }
-
-                // make the temporary file name specific to the URL
-                String name = null;
-                String filename = url.getFile();
-                int idx = filename.lastIndexOf( '/' );
-                if ( idx != -1 ) {
-                    name = filename.substring( idx, filename.length() );
-                } else {
-                    name = "unknown";
-                }
-
-                // build the file
-                ontologyFile = new File( ontologyDirectory + File.separator + name + System.currentTimeMillis() + ".obo" );
-                if ( ! isKeepDownloadedOntologiesOnDisk ) {
-                    log.info( "Request file to be deleted on exit." );
-                    ontologyFile.deleteOnExit();
-                }
-
-                if ( log.isDebugEnabled() )
-                    log.debug( "The OBO file will be temporary stored as: " + ontologyFile.getAbsolutePath() );
-
-                FileOutputStream out = new FileOutputStream( ontologyFile );
-
-                int length = 0;
-                int current = 0;
-                byte[] buf = new byte[1024 * 1024];
-
-                // TODO write a nicer text-progress-bar...
-                while ( ( length = is.read( buf ) ) != -1 ) {
-                    current += length;
-                    out.write( buf, 0, length );
-
-                    if ( log.isInfoEnabled() ) {
-                        log.info( "length = " + length );
-                        log.info( "Percent: " + ( ( current / ( float ) size ) * 100 ) + "%" );
-                    }
-                }
-
-                is.close();
-
-                out.flush();
-                out.close();
-
-                if ( isKeepDownloadedOntologiesOnDisk ) {
-                    // if the user has requested for the ontology file to be kept, store file reference in the registry
-                    if ( registryMap == null ) {
-                        registryMap = new HashMap();
-                    }
-
-                    registryMap.put( url, ontologyFile.getAbsolutePath() );
-
-                    // serialize the map
-                    if ( log.isInfoEnabled() ) log.info( "Serializing Map" );
-                    File f = getRegistryFile();
-                    ObjectOutputStream oos = new ObjectOutputStream( new FileOutputStream( f ) );
-                    oos.writeObject( registryMap );
-                    oos.flush();
-                    oos.close();
-                }
-            }
-
-            if ( ontologyFile == null ) {
-                log.error( "The ontology file is still null..." );
-            }
-
-            // Parse file
-            return parseOboFile( ontologyFile );
-
-        } catch ( IOException e ) {
-            throw new OntologyLoaderException( "Error while loading URL (" + url + ")", e );
-        }
+    /**
+     * Load an OBO file from an URL.
+     *
+     * @param url the URL to load (must not be null)
+     * @return an ontology
+     * @see #parseOboFile(File file)
+     * @see #download(URL url)
+     */
+    public O parseOboFile( URL url ) throws OntologyLoaderException {
+        return parseOboFile( download( url ).getFile() );
     }
 }
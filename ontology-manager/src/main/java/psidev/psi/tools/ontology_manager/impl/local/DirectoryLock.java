@@ -0,0 +1,92 @@
+package psidev.psi.tools.ontology_manager.impl.local;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusive lock on a lock file, shared by the threads of this JVM and by the other processes using the same directory.
+ * <p/>
+ * A FileLock is held by the whole JVM, so the threads first take a lock of their own on the file. The lock files are
+ * left in place, deleting them would let two processes lock different files under the same name.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class DirectoryLock {
+
+    public static final Log log = LogFactory.getLog( DirectoryLock.class );
+
+    private static final ConcurrentMap<String, ReentrantLock> threadLocks = new ConcurrentHashMap<String, ReentrantLock>();
+
+    private final ReentrantLock threadLock;
+
+    private final RandomAccessFile file;
+
+    private final FileLock fileLock;
+
+    private DirectoryLock( ReentrantLock threadLock, RandomAccessFile file, FileLock fileLock ) {
+        this.threadLock = threadLock;
+        this.file = file;
+        this.fileLock = fileLock;
+    }
+
+    /**
+     * Waits until the lock file is locked by no other thread or process.
+     *
+     * @param lockFile the lock file, created if needed.
+     * @return the lock, to be released.
+     * @throws IOException if the file could not be locked.
+     */
+    public static DirectoryLock acquire( File lockFile ) throws IOException {
+        final String path = lockFile.getCanonicalPath();
+        ReentrantLock threadLock = threadLocks.get( path );
+        if ( threadLock == null ) {
+            final ReentrantLock created = new ReentrantLock();
+            threadLock = threadLocks.putIfAbsent( path, created );
+            if ( threadLock == null ) {
+                threadLock = created;
+            }
+        }
+
+        threadLock.lock();
+        try {
+            final RandomAccessFile file = new RandomAccessFile( lockFile, "rw" );
+            try {
+                final FileChannel channel = file.getChannel();
+                return new DirectoryLock( threadLock, file, channel.lock() );
+            } catch ( IOException e ) {
+                file.close();
+                throw e;
+            }
+        } catch ( IOException | RuntimeException e ) {
+            threadLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the lock, to be called by the thread that acquired it.
+     */
+    public void release() {
+        try {
+            try {
+                fileLock.release();
+            } finally {
+                file.close();
+            }
+        } catch ( IOException e ) {
+            log.warn( "Could not release the lock", e );
+        } finally {
+            threadLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,590 @@
+package psidev.psi.tools.ontology_manager.impl.local;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps local copies of remote OBO files and revalidates them with a conditional GET.
+ * <p/>
+ * The copies are described in a readable index file of the cache directory giving, for each URL, the local file, the
+ * ETag, the Last-Modified date, the MD5 signature and the content length announced by the server. A known URL is
+ * revalidated with If-None-Match and If-Modified-Since and only downloaded again when it has changed. Downloads are
+ * written to a temporary file and renamed once complete, so an interrupted download never replaces a valid copy, and
+ * the superseded copy is kept until the next copy replaces it, so that a copy another thread or process is still
+ * reading is not deleted under it. The copies are stored as served: the files served gzipped are kept gzipped and
+ * AbstractOboLoader inflates them when they are parsed.
+ * <p/>
+ * Plain files are deliberately not compressed in the cache, although compressed copies would take about 8 times less
+ * disk space. The OBO parser only reads files, so a gzipped copy is inflated to a file again before every parse: a
+ * plain copy compressed by the cache would cost a deflate on each download and an inflate to disk on each load, which
+ * is slower than reading the plain copy. Serve the file gzipped to keep its copy compressed.
+ * <p/>
+ * Several processes can share the cache directory: the index is updated under a file lock and only one process at a
+ * time fetches a given URL, the others wait for it and reuse its copy.
+ * <p/>
+ * When the copies are not kept, every fetch downloads the file to a temporary file deleted on exit.
+ * <p/>
+ * A file can be prefetched in the background so that it is downloaded while other ontologies are parsed, the next
+ * fetch of the same URL then waits for that download instead of starting another one. A prefetched download no fetch
+ * used within the prefetch maximum age, e.g. because the load that triggered it failed, is dropped and the URL is
+ * fetched again.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OboDownloadCache {
+
+    public static final Log log = LogFactory.getLog( OboDownloadCache.class );
+
+    /**
+     * Name of the index file in the cache directory.
+     */
+    public static final String INDEX_NAME = "ontology.registry.properties";
+
+    private static final String URL_KEY = ".url";
+    private static final String FILE_KEY = ".file";
+    private static final String ETAG_KEY = ".etag";
+    private static final String LAST_MODIFIED_KEY = ".last.modified";
+    private static final String MD5_KEY = ".md5";
+    private static final String CONTENT_LENGTH_KEY = ".content.length";
+    private static final String PREVIOUS_FILE_KEY = ".previous.file";
+
+    private static final String[] KEYS = { URL_KEY, FILE_KEY, ETAG_KEY, LAST_MODIFIED_KEY, MD5_KEY, CONTENT_LENGTH_KEY,
+                                           PREVIOUS_FILE_KEY };
+
+    /**
+     * Number of files prefetched concurrently.
+     */
+    public static final int PREFETCH_THREADS = 4;
+
+    /**
+     * Default time in milliseconds a completed prefetched download is given to the next fetch: 10 minutes.
+     */
+    public static final long DEFAULT_PREFETCH_MAX_AGE = 10L * 60 * 1000;
+
+    /**
+     * Suffix of the lock files of the cache directory.
+     */
+    public static final String LOCK_SUFFIX = ".lock";
+
+    /**
+     * The prefetched downloads not fetched yet.
+     */
+    private static final ConcurrentMap<String, Prefetch> prefetched = new ConcurrentHashMap<String, Prefetch>();
+
+    private static ExecutorService prefetchExecutor;
+
+    private final File directory;
+
+    private final boolean keepCopies;
+
+    private long prefetchMaxAge = DEFAULT_PREFETCH_MAX_AGE;
+
+    /**
+     * A local copy of a remote OBO file.
+     */
+    public static class Entry {
+
+        private final URL url;
+        private final File file;
+        private final String eTag;
+        private final long lastModified;
+        private final String md5Signature;
+        private final int contentLength;
+
+        public Entry( URL url, File file, String eTag, long lastModified, String md5Signature, int contentLength ) {
+            this.url = url;
+            this.file = file;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.md5Signature = md5Signature;
+            this.contentLength = contentLength;
+        }
+
+        public URL getUrl() {
+            return url;
+        }
+
+        /**
+         * @return the local copy.
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * @return the ETag given by the server, null if none was given.
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return the Last-Modified date given by the server, 0 if none was given.
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return the MD5 signature of the content, formatted as AbstractLocalOntology.computeMD5SignatureFor does.
+         */
+        public String getMd5Signature() {
+            return md5Signature;
+        }
+
+        /**
+         * @return the content length given by the server, -1 if none was given.
+         */
+        public int getContentLength() {
+            return contentLength;
+        }
+    }
+
+    /**
+     * A background download, remembering when it completed.
+     */
+    private static class Prefetch extends FutureTask<Entry> {
+
+        private volatile long completed;
+
+        private Prefetch( Callable<Entry> fetch ) {
+            super( fetch );
+        }
+
+        @Override
+        protected void done() {
+            completed = System.currentTimeMillis();
+        }
+
+        /**
+         * @return true if the download completed more than maxAge milliseconds ago.
+         */
+        private boolean isStale( long maxAge ) {
+            return isDone() && System.currentTimeMillis() - completed > maxAge;
+        }
+    }
+
+    /**
+     * @param directory  the directory holding the copies and the index.
+     * @param keepCopies true to keep the copies across restarts, false to delete them on exit.
+     */
+    public OboDownloadCache( File directory, boolean keepCopies ) {
+        if ( directory == null ) {
+            throw new IllegalArgumentException( "You must give a non null directory." );
+        }
+        this.directory = directory;
+        this.keepCopies = keepCopies;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public boolean isKeepCopies() {
+        return keepCopies;
+    }
+
+    public long getPrefetchMaxAge() {
+        return prefetchMaxAge;
+    }
+
+    /**
+     * @param prefetchMaxAge time in milliseconds a completed prefetched download is given to the next fetch, older
+     *                       ones are dropped and the URL is fetched again.
+     */
+    public void setPrefetchMaxAge( long prefetchMaxAge ) {
+        if ( prefetchMaxAge < 0 ) {
+            throw new IllegalArgumentException( "The prefetch maximum age cannot be negative: " + prefetchMaxAge );
+        }
+        this.prefetchMaxAge = prefetchMaxAge;
+    }
+
+    /**
+     * Gives a local copy of the URL, downloading it only if it is unknown or has changed since it was last fetched.
+     * If the URL cannot be revalidated, the copy already known is used.
+     *
+     * @param url the URL to fetch (must not be null).
+     * @return the local copy.
+     * @throws OntologyLoaderException if the URL could not be downloaded and no copy is known.
+     */
+    public Entry fetch( URL url ) throws OntologyLoaderException {
+        if ( url == null ) {
+            throw new IllegalArgumentException( "Please give a non null URL." );
+        }
+
+        final Prefetch pending = prefetched.remove( keyOf( url ) );
+        if ( pending != null && pending.isStale( prefetchMaxAge ) ) {
+            if ( log.isDebugEnabled() ) log.debug( "Dropping the stale prefetched download of " + url );
+        } else if ( pending != null ) {
+            try {
+                return pending.get();
+            } catch ( ExecutionException e ) {
+                log.warn( "Prefetching " + url + " failed, trying again", e.getCause() );
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new OntologyLoaderException( "Interrupted while waiting for the download of " + url, e );
+            }
+        }
+
+        return fetchNow( url );
+    }
+
+    /**
+     * Starts fetching the URL in the background, the next call to fetch for this URL gives the result.
+     *
+     * @param url the URL to fetch (must not be null).
+     */
+    public void prefetch( final URL url ) {
+        if ( url == null ) {
+            throw new IllegalArgumentException( "Please give a non null URL." );
+        }
+
+        final String key = keyOf( url );
+        final Prefetch previous = prefetched.get( key );
+        if ( previous != null && previous.isStale( prefetchMaxAge ) ) {
+            prefetched.remove( key, previous );
+        }
+
+        final Prefetch task = new Prefetch( () -> fetchNow( url ) );
+        if ( prefetched.putIfAbsent( key, task ) == null ) {
+            if ( log.isDebugEnabled() ) log.debug( "Prefetching " + url );
+            getPrefetchExecutor().execute( task );
+        }
+    }
+
+    private static synchronized ExecutorService getPrefetchExecutor() {
+        if ( prefetchExecutor == null ) {
+            prefetchExecutor = Executors.newFixedThreadPool( PREFETCH_THREADS, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread( Runnable r ) {
+                    final Thread thread = new Thread( r, "obo-prefetch-" + count.incrementAndGet() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+        return prefetchExecutor;
+    }
+
+    /**
+     * @return the key of a prefetched download, only given back to a cache with the same settings.
+     */
+    private String keyOf( URL url ) {
+        return directory.getAbsolutePath() + "|" + keepCopies + "|" + url;
+    }
+
+    private Entry fetchNow( URL url ) throws OntologyLoaderException {
+        if ( !directory.exists() && !directory.mkdirs() ) {
+            throw new OntologyLoaderException( "Cannot create the ontology directory: " + directory.getAbsolutePath() );
+        }
+
+        if ( !keepCopies ) {
+            return revalidate( url, null );
+        }
+
+        // only one thread of one process fetches a given URL at a time, the others wait for its copy
+        final Entry known = getEntry( url );
+        final DirectoryLock lock;
+        try {
+            lock = DirectoryLock.acquire( new File( directory, idOf( url ) + LOCK_SUFFIX ) );
+        } catch ( IOException e ) {
+            throw new OntologyLoaderException( "Could not lock the copy of " + url + " in " + directory.getAbsolutePath(), e );
+        }
+        try {
+            final Entry cached = getEntry( url );
+            if ( cached != null && !isSameCopy( known, cached ) ) {
+                if ( log.isInfoEnabled() ) log.info( "Fetched by another process, reuse existing cache: " + cached.getFile() );
+                return cached;
+            }
+            return revalidate( url, cached );
+        } finally {
+            lock.release();
+        }
+    }
+
+    private static boolean isSameCopy( Entry known, Entry cached ) {
+        return known != null
+               && known.getFile().equals( cached.getFile() )
+               && known.getLastModified() == cached.getLastModified()
+               && ( known.getETag() == null ? cached.getETag() == null : known.getETag().equals( cached.getETag() ) );
+    }
+
+    private Entry revalidate( URL url, Entry cached ) throws OntologyLoaderException {
+        try {
+            if ( log.isInfoEnabled() ) log.info( "Loading URL: " + url );
+
+            final URLConnection con = url.openConnection();
+            if ( cached != null && con instanceof HttpURLConnection ) {
+                if ( cached.getETag() != null ) {
+                    con.setRequestProperty( "If-None-Match", cached.getETag() );
+                }
+                if ( cached.getLastModified() > 0 ) {
+                    con.setIfModifiedSince( cached.getLastModified() );
+                }
+            }
+
+            if ( con instanceof HttpURLConnection ) {
+                final int status = ( ( HttpURLConnection ) con ).getResponseCode();
+                if ( status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null ) {
+                    ( ( HttpURLConnection ) con ).disconnect();
+                    if ( log.isInfoEnabled() ) log.info( "Not modified, reuse existing cache: " + cached.getFile() );
+                    return cached;
+                }
+                if ( status != HttpURLConnection.HTTP_OK ) {
+                    ( ( HttpURLConnection ) con ).disconnect();
+                    throw new IOException( "Unexpected HTTP status " + status + " for " + url );
+                }
+            } else if ( cached != null && con.getLastModified() > 0 && con.getLastModified() == cached.getLastModified() ) {
+                // no conditional request outside of HTTP, compare the dates instead
+                con.getInputStream().close();
+                if ( log.isInfoEnabled() ) log.info( "Not modified, reuse existing cache: " + cached.getFile() );
+                return cached;
+            }
+
+            return download( url, con, cached );
+
+        } catch ( IOException e ) {
+            if ( cached != null ) {
+                log.warn( "Could not revalidate " + url + ", reuse existing cache: " + cached.getFile(), e );
+                return cached;
+            }
+            throw new OntologyLoaderException( "Error while loading URL (" + url + ")", e );
+        }
+    }
+
+    private Entry download( URL url, URLConnection con, Entry cached ) throws IOException {
+        final int contentLength = con.getContentLength();
+        if ( log.isInfoEnabled() ) log.info( "size = " + contentLength );
+
+        // the copies are stored as served, the signature is the one of the content served
+        final String extension = AbstractOboLoader.isCompressed( url.getPath() ) ? ".obo.gz" : ".obo";
+        final String suffix = keepCopies ? ".part" : extension;
+
+        final File tmp = File.createTempFile( fileNameOf( url ) + ".", suffix, directory );
+        final String md5Signature;
+        try {
+            final DigestInputStream is = new DigestInputStream( con.getInputStream(), newMd5Digest() );
+            try {
+                final OutputStream out = new FileOutputStream( tmp );
+                try {
+                    final byte[] buf = new byte[64 * 1024];
+                    long current = 0;
+                    int length;
+                    while ( ( length = is.read( buf ) ) != -1 ) {
+                        out.write( buf, 0, length );
+                        current += length;
+                    }
+                    if ( log.isInfoEnabled() ) log.info( "Downloaded " + current + " bytes from " + url );
+                } finally {
+                    out.close();
+                }
+            } finally {
+                is.close();
+            }
+            md5Signature = toSignature( is.getMessageDigest().digest() );
+        } catch ( IOException e ) {
+            deleteFile( tmp );
+            throw e;
+        }
+
+        final String eTag = con.getHeaderField( "ETag" );
+        final long lastModified = con.getLastModified();
+
+        if ( !keepCopies ) {
+            log.info( "Request file to be deleted on exit." );
+            tmp.deleteOnExit();
+            return new Entry( url, tmp, eTag, lastModified, md5Signature, contentLength );
+        }
+
+        final File file;
+        if ( cached != null && md5Signature.equals( cached.getMd5Signature() ) ) {
+            // same content under new validators, keep the existing copy
+            deleteFile( tmp );
+            file = cached.getFile();
+        } else {
+            file = new File( directory, baseNameOf( url ) + "." + md5Signature + extension );
+            moveAtomically( tmp, file );
+        }
+
+        final Entry entry = new Entry( url, file, eTag, lastModified, md5Signature, contentLength );
+        final File superseded = putEntry( entry );
+        if ( superseded != null ) {
+            if ( log.isDebugEnabled() ) log.debug( "Deleting superseded copy: " + superseded.getAbsolutePath() );
+            deleteFile( superseded );
+        }
+
+        if ( log.isDebugEnabled() ) log.debug( "The OBO file is stored as: " + file.getAbsolutePath() );
+
+        return entry;
+    }
+
+    /**
+     * @param url a URL.
+     * @return the copy of the URL described in the index, null if there is none or if the copy is missing.
+     */
+    public Entry getEntry( URL url ) {
+        // the index is replaced by an atomic rename, it can be read without lock
+        final Properties index = readIndex();
+        final String id = idOf( url );
+        final String fileName = index.getProperty( id + FILE_KEY );
+        if ( fileName == null ) {
+            return null;
+        }
+
+        final File file = new File( directory, fileName );
+        if ( !file.exists() || !file.canRead() ) {
+            if ( log.isInfoEnabled() ) log.info( "Could not find " + file.getAbsolutePath() );
+            return null;
+        }
+
+        return new Entry( url, file,
+                          index.getProperty( id + ETAG_KEY ),
+                          Long.parseLong( index.getProperty( id + LAST_MODIFIED_KEY, "0" ) ),
+                          index.getProperty( id + MD5_KEY ),
+                          Integer.parseInt( index.getProperty( id + CONTENT_LENGTH_KEY, "-1" ) ) );
+    }
+
+    /**
+     * Stores the entry in the index. The copy the entry replaces is kept as the previous copy of the URL, as it may
+     * still be read, and the copy previously kept is given back to be deleted.
+     *
+     * @return the copy kept before the one the entry replaces if nothing in the index uses it anymore, null otherwise.
+     */
+    private File putEntry( Entry entry ) throws IOException {
+        final DirectoryLock lock = DirectoryLock.acquire( new File( directory, INDEX_NAME + LOCK_SUFFIX ) );
+        try {
+            final Properties index = readIndex();
+            final String id = idOf( entry.getUrl() );
+            final String previous = index.getProperty( id + FILE_KEY );
+            final String older = index.getProperty( id + PREVIOUS_FILE_KEY );
+            final boolean replaced = previous != null && !previous.equals( entry.getFile().getName() );
+
+            for ( String key : KEYS ) {
+                index.remove( id + key );
+            }
+            index.setProperty( id + URL_KEY, entry.getUrl().toString() );
+            index.setProperty( id + FILE_KEY, entry.getFile().getName() );
+            if ( entry.getETag() != null ) {
+                index.setProperty( id + ETAG_KEY, entry.getETag() );
+            }
+            index.setProperty( id + LAST_MODIFIED_KEY, String.valueOf( entry.getLastModified() ) );
+            index.setProperty( id + MD5_KEY, entry.getMd5Signature() );
+            index.setProperty( id + CONTENT_LENGTH_KEY, String.valueOf( entry.getContentLength() ) );
+            final String kept = replaced ? previous : older;
+            if ( kept != null ) {
+                index.setProperty( id + PREVIOUS_FILE_KEY, kept );
+            }
+
+            writeIndex( index );
+
+            if ( !replaced || older == null || index.containsValue( older ) ) {
+                return null;
+            }
+            return new File( directory, older );
+        } finally {
+            lock.release();
+        }
+    }
+
+    private Properties readIndex() {
+        final Properties index = new Properties();
+        final File file = new File( directory, INDEX_NAME );
+        if ( file.exists() ) {
+            try {
+                final Reader reader = new InputStreamReader( new FileInputStream( file ), StandardCharsets.UTF_8 );
+                try {
+                    index.load( reader );
+                } finally {
+                    reader.close();
+                }
+            } catch ( IOException e ) {
+                // the copies will be downloaded again
+                log.error( "Error while reading the ontology index " + file.getAbsolutePath(), e );
+            }
+        }
+        return index;
+    }
+
+    private void writeIndex( Properties index ) throws IOException {
+        final File tmp = File.createTempFile( INDEX_NAME + ".", ".part", directory );
+        try {
+            final Writer writer = new OutputStreamWriter( new FileOutputStream( tmp ), StandardCharsets.UTF_8 );
+            try {
+                index.store( writer, "Local copies of the remote OBO files" );
+            } finally {
+                writer.close();
+            }
+            moveAtomically( tmp, new File( directory, INDEX_NAME ) );
+        } catch ( IOException e ) {
+            deleteFile( tmp );
+            throw e;
+        }
+    }
+
+    private static void moveAtomically( File source, File target ) throws IOException {
+        try {
+            Files.move( source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+        } catch ( AtomicMoveNotSupportedException e ) {
+            Files.move( source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING );
+        }
+    }
+
+    private static void deleteFile( File file ) {
+        if ( file.exists() && !file.delete() ) {
+            log.warn( "Could not delete " + file.getAbsolutePath() );
+        }
+    }
+
+    /**
+     * @return the last segment of the path of the URL, "unknown" if it has none.
+     */
+    private static String fileNameOf( URL url ) {
+        final String path = url.getPath();
+        final String name = path.substring( path.lastIndexOf( '/' ) + 1 ).replaceAll( "[^A-Za-z0-9._-]", "_" );
+        return name.length() == 0 ? "unknown" : name;
+    }
+
+    /**
+     * @return the name of the URL without its .obo and .gz extensions.
+     */
+    private static String baseNameOf( URL url ) {
+        return fileNameOf( url ).replaceFirst( "(?i)(\\.obo)?(\\.gz)?$", "" );
+    }
+
+    private static String idOf( URL url ) {
+        return toSignature( newMd5Digest().digest( url.toString().getBytes( StandardCharsets.UTF_8 ) ) );
+    }
+
+    private static MessageDigest newMd5Digest() {
+        try {
+            return MessageDigest.getInstance( "MD5" );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( "MD5 is not available", e );
+        }
+    }
+
+    /**
+     * @return the digest formatted as AbstractLocalOntology.computeMD5SignatureFor does.
+     */
+    static String toSignature( byte[] digest ) {
+        return new BigInteger( 1, digest ).toString( 16 );
+    }
+}
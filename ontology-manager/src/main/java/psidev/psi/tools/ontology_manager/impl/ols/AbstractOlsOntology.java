@@ -1,10 +1,18 @@
 package psidev.psi.tools.ontology_manager.impl.ols;
 
-import com.opensymphony.oscache.base.NeedsRefreshException;
-import com.opensymphony.oscache.general.GeneralCacheAdministrator;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import psidev.psi.tools.ontology_manager.client.OlsClient;
+import psidev.psi.tools.ontology_manager.client.OlsRetryBudget;
+import psidev.psi.tools.ontology_manager.client.ResilientOlsClient;
+import psidev.psi.tools.ontology_manager.impl.ols.cache.ConcurrentOlsCache;
+import psidev.psi.tools.ontology_manager.impl.ols.cache.OlsCache;
+import psidev.psi.tools.ontology_manager.impl.ols.cache.OlsCacheRegion;
+import psidev.psi.tools.ontology_manager.impl.ols.cache.OlsCacheStatistics;
+import psidev.psi.tools.ontology_manager.impl.ols.cache.OlsValueCodec;
+import psidev.psi.tools.ontology_manager.impl.ols.cache.OsCacheOlsCache;
+import psidev.psi.tools.ontology_manager.impl.ols.cache.PersistentOlsCache;
+import psidev.psi.tools.ontology_manager.impl.ols.cache.RegionedOlsCache;
 import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
 import psidev.psi.tools.ontology_manager.interfaces.OntologyAccessTemplate;
 import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
@@ -12,12 +20,17 @@ import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.net.URI;
 import java.rmi.RemoteException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Abstract ols ontology
@@ -33,27 +46,114 @@ import java.util.*;
 public abstract class AbstractOlsOntology<T extends OntologyTermI> implements OntologyAccessTemplate<T>{
     public static final Log log = LogFactory.getLog(OlsOntology.class);
 
-    protected GeneralCacheAdministrator admin; // the cache
+    // the caches are replaced, not cleared, when OLS loads a new version of the ontology
+    protected volatile OlsCache cache; // the cache of the OLS query results
+    private volatile RegionedOlsCache regionedCache; // the cache regions, possibly wrapped by the persistent cache
+    protected volatile OlsCache notFoundCache; // the cache of the OLS queries without result, null to use the cache
     protected static final String cacheConfig = "olsontology-oscache.properties";
+    private Properties cacheProps;
+    // the queries being sent to OLS, shared by the callers missing the same key
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlightQueries = new ConcurrentHashMap<>();
+
+    /**
+     * Property of the cache configuration selecting the cache implementation: concurrent (default) or oscache.
+     */
+    public static final String CACHE_TYPE_PROPERTY = "ols.cache.type";
+
+    /**
+     * Property of the cache configuration giving how long (in milliseconds) the concurrent cache keeps a result.
+     */
+    public static final String CACHE_TTL_PROPERTY = "ols.cache.ttl";
+
+    /**
+     * Property of the cache configuration giving the maximum count of results cached, shared with OSCache.
+     */
+    public static final String CACHE_CAPACITY_PROPERTY = "cache.capacity";
+
+    /**
+     * Prefix of the properties of the cache configuration overriding the capacity and the time to live of a cache
+     * region, e.g. ols.cache.region.children.capacity and ols.cache.region.children.ttl.
+     */
+    public static final String CACHE_REGION_PROPERTY_PREFIX = "ols.cache.region.";
+
+    /**
+     * Property of the cache configuration giving the directory where the results are persisted between restarts. The
+     * results are only cached in memory if it is not set.
+     */
+    public static final String CACHE_DIRECTORY_PROPERTY = "ols.cache.directory";
+
+    /**
+     * Property of the cache configuration giving how many threads warm up the cache in the background once the
+     * ontology is loaded, 0 (default) to not warm it up.
+     */
+    public static final String CACHE_WARMUP_THREADS_PROPERTY = "ols.cache.warmup.threads";
+
+    /**
+     * Property of the cache configuration giving how long (in milliseconds) the queries without result are cached, so
+     * that a term added to OLS is eventually found. 0 caches them like the other results.
+     */
+    public static final String CACHE_NOT_FOUND_TTL_PROPERTY = "ols.cache.notfound.ttl";
+
+    /**
+     * Property of the cache configuration giving the maximum count of times a failed OLS query is sent, 1 to never
+     * retry it.
+     */
+    public static final String RETRY_ATTEMPTS_PROPERTY = "ols.retry.attempts";
+
+    /**
+     * Property of the cache configuration giving the time (in milliseconds) before the first retry of a failed OLS
+     * query, doubled for each further retry.
+     */
+    public static final String RETRY_BACKOFF_PROPERTY = "ols.retry.backoff";
+
+    /**
+     * Property of the cache configuration giving the count of consecutive failures after which the queries about an
+     * ontology fail immediately.
+     */
+    public static final String CIRCUIT_FAILURES_PROPERTY = "ols.circuit.failures";
+
+    /**
+     * Property of the cache configuration giving how long (in milliseconds) the queries about an ontology fail
+     * immediately before OLS is tried again.
+     */
+    public static final String CIRCUIT_OPEN_TIME_PROPERTY = "ols.circuit.open";
+
+    /**
+     * Property of the cache configuration giving how often (in milliseconds) the OLS load date of the ontology is
+     * checked in the background, the cache of the ontology being replaced when it changes. 0 does not check it.
+     */
+    public static final String CACHE_FRESHNESS_INTERVAL_PROPERTY = "ols.cache.freshness.interval";
+
+    public static final String CONCURRENT_CACHE = "concurrent";
+    public static final String OSCACHE_CACHE = "oscache";
+
+    private static final int DEFAULT_CACHE_CAPACITY = 50000;
+    private static final long DEFAULT_NOT_FOUND_TTL = 10 * 60 * 1000;
     protected boolean useTermSynonyms = true; // flag whether term synonyms should be recorded
+    protected boolean lazyTermSynonyms = false; // flag whether term synonyms are only recorded when asked for
+    protected int synonymFetchThreads = 8; // maximum number of concurrent metadata queries to OLS
+    private ExecutorService synonymExecutor;
+    private static final AtomicInteger synonymThreadCount = new AtomicInteger();
+    private static final int DEFAULT_ASYNC_THREADS = 8;
+    private Executor asyncExecutor; // runs the OLS queries of the asynchronous methods
+    private boolean defaultAsyncExecutor; // the async executor is the default pool, shut down with this ontology
+    private boolean closed; // the thread pools of this ontology were shut down
+    private static final AtomicInteger asyncThreadCount = new AtomicInteger();
+    private static final AtomicInteger warmUpThreadCount = new AtomicInteger();
+    private volatile OlsWarmUp cacheWarmUp; // the last warm-up of the cache
+    // runs the OLS queries of the blocking methods in the calling thread
+    private static final Executor CALLER_EXECUTOR = Runnable::run;
     protected OlsClient olsClient;
     protected String ontologyID;
     protected Set<String> rootAccs;
 
     protected Date lastOntologyUpload;
 
-    // methods that use the cache, use the method name to as part of the cache key
-    protected final byte GET_VALID_IDS = 1;
-    protected final byte IS_OBSOLETE_ID = 2;
-    protected final byte GET_TERM_NAME_BY_ID = 3;
-    protected final byte GET_DIRECT_PARENTS_IDS = 4;
-    protected final byte GET_CHILD_TERMS = 5;
-    protected final byte GET_CHILDREN = 6;
-    protected final byte GET_DIRECT_PARENTS = 7;
-    protected final byte IS_OBSOLETE = 8;
-    protected final byte GET_TERM_FOR_ACCESSION = 9;
-    protected final byte GET_METADATA_FOR_ACCESSION = 10;
-    protected final byte GET_XREF_FOR_ACCESSION = 11;
+    private volatile String ontologyLoadDate; // the OLS load date of the cached version of the ontology
+    private volatile boolean loadDateFetched; // the load date was asked to OLS for the content version
+    private static ScheduledExecutorService freshnessExecutor; // checks the load dates of all the ontologies
+    private long freshnessCheckInterval = 0;
+    private ScheduledFuture<?> freshnessCheck;
 
     public AbstractOlsOntology() throws OntologyLoaderException {
         log.info( "Creating new OlsOntology..." );
@@ -64,10 +164,12 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
         // set up the cache for the ontology terms
         initCache();
 
-        // preparing OLS access
+        // preparing OLS access, the URL of the service may be given by the cache configuration
         log.info( "Creating new OLS query client." );
         try {
-            olsClient = new OlsClient();
+            olsClient = createOlsClient( new OlsClient( System.getProperty( OlsClient.OLS_URL_PROPERTY,
+                                                                            cacheProps.getProperty( OlsClient.OLS_URL_PROPERTY ) ) ),
+                                         cacheProps );
         } catch ( Exception e ) {
             log.error( "Exception setting up OLS query client!", e );
             throw new OntologyLoaderException( "Exception setting up OLS query client!", e );
@@ -78,21 +180,520 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
      * This will read the cache configuration file and initialise the cache.
      */
     private void initCache() {
-        log.info( "Setting up cache administrator..." );
-        Properties cacheProps;
-        InputStream is = this.getClass().getClassLoader().getResourceAsStream( cacheConfig );
+        log.info( "Setting up cache..." );
         cacheProps = new Properties();
-        try {
-            cacheProps.load( is );
-        } catch ( IOException e ) {
-            log.error( "Failed to load cache configuration properties: " + cacheConfig, e );
+        InputStream is = this.getClass().getClassLoader().getResourceAsStream( cacheConfig );
+        if ( is != null ) {
+            try {
+                cacheProps.load( is );
+            } catch ( IOException e ) {
+                log.error( "Failed to load cache configuration properties: " + cacheConfig, e );
+            } finally {
+                try {
+                    is.close();
+                } catch ( IOException e ) {
+                    log.warn( "Failed to close cache configuration: " + cacheConfig, e );
+                }
+            }
         }
         if ( cacheProps.isEmpty() ) {
             log.warn( "Using default cache configuration!" );
-            admin = new GeneralCacheAdministrator();
         } else {
             log.info( "Using custom cache configuration from file: " + cacheConfig );
-            admin = new GeneralCacheAdministrator( cacheProps );
+        }
+        regionedCache = createCache( cacheProps );
+        cache = regionedCache;
+        notFoundCache = createNotFoundCache( cacheProps );
+    }
+
+    /**
+     * @param cacheProps the cache configuration, possibly empty.
+     * @return a new cache of the queries without result, null to cache them like the other results.
+     */
+    private OlsCache createNotFoundCache( Properties cacheProps ) {
+        final long notFoundTtl = getLongProperty( cacheProps, CACHE_NOT_FOUND_TTL_PROPERTY, DEFAULT_NOT_FOUND_TTL );
+        if ( notFoundTtl <= 0 ) {
+            return null;
+        }
+        final int capacity = ( int ) getLongProperty( cacheProps, CACHE_CAPACITY_PROPERTY, DEFAULT_CACHE_CAPACITY );
+        return new ConcurrentOlsCache( capacity, notFoundTtl );
+    }
+
+    /**
+     * Protects the OLS client with retries and per ontology circuit breakers as configured by the cache configuration.
+     *
+     * @param client     the client sending the queries to OLS.
+     * @param cacheProps the cache configuration, possibly empty.
+     * @return the client to use.
+     */
+    protected OlsClient createOlsClient( OlsClient client, Properties cacheProps ) {
+        return new ResilientOlsClient( client,
+                                       ( int ) getLongProperty( cacheProps, RETRY_ATTEMPTS_PROPERTY, ResilientOlsClient.DEFAULT_MAX_ATTEMPTS ),
+                                       getLongProperty( cacheProps, RETRY_BACKOFF_PROPERTY, ResilientOlsClient.DEFAULT_BACKOFF ),
+                                       ( int ) getLongProperty( cacheProps, CIRCUIT_FAILURES_PROPERTY, ResilientOlsClient.DEFAULT_FAILURE_THRESHOLD ),
+                                       getLongProperty( cacheProps, CIRCUIT_OPEN_TIME_PROPERTY, ResilientOlsClient.DEFAULT_OPEN_TIME ),
+                                       OlsRetryBudget.GLOBAL );
+    }
+
+    /**
+     * Creates the cache regions of this ontology.
+     *
+     * @param cacheProps the cache configuration, possibly empty.
+     * @return a new cache.
+     */
+    protected RegionedOlsCache createCache( Properties cacheProps ) {
+        final Map<OlsCacheRegion, OlsCache> regions = new EnumMap<>( OlsCacheRegion.class );
+        for ( OlsCacheRegion region : OlsCacheRegion.values() ) {
+            final String prefix = CACHE_REGION_PROPERTY_PREFIX + region.name().toLowerCase() + '.';
+            final Properties regionProps = new Properties();
+            regionProps.putAll( cacheProps );
+            final String capacity = cacheProps.getProperty( prefix + "capacity" );
+            if ( capacity != null ) {
+                regionProps.setProperty( CACHE_CAPACITY_PROPERTY, capacity );
+            }
+            final String ttl = cacheProps.getProperty( prefix + "ttl" );
+            if ( ttl != null ) {
+                regionProps.setProperty( CACHE_TTL_PROPERTY, ttl );
+            }
+            regions.put( region, createRegionCache( region, regionProps ) );
+        }
+        return new RegionedOlsCache( regions );
+    }
+
+    /**
+     * Creates the cache of a region as selected by the cache configuration.
+     *
+     * @param region     the cache region.
+     * @param cacheProps the cache configuration of the region, possibly empty.
+     * @return a new cache.
+     */
+    protected OlsCache createRegionCache( OlsCacheRegion region, Properties cacheProps ) {
+        final String type = cacheProps.getProperty( CACHE_TYPE_PROPERTY, CONCURRENT_CACHE ).trim();
+        if ( OSCACHE_CACHE.equalsIgnoreCase( type ) ) {
+            return new OsCacheOlsCache( cacheProps );
+        }
+        if ( !CONCURRENT_CACHE.equalsIgnoreCase( type ) ) {
+            log.warn( "Unknown cache type '" + type + "', using the " + CONCURRENT_CACHE + " cache." );
+        }
+        final int capacity = ( int ) getLongProperty( cacheProps, CACHE_CAPACITY_PROPERTY, DEFAULT_CACHE_CAPACITY );
+        final long ttl = getLongProperty( cacheProps, CACHE_TTL_PROPERTY, 0 );
+        return new ConcurrentOlsCache( capacity, ttl );
+    }
+
+    /**
+     * Persists the results of the queries on the current ontology in the cache directory, if one is configured. The
+     * cached results are versioned by the OLS load date of the ontology, they are discarded once OLS loads a new
+     * version of it.
+     *
+     * @param loadDate the OLS load date of the ontology, null if it is not known.
+     */
+    private void initPersistentCache( String loadDate ) {
+        if ( cache instanceof PersistentOlsCache ) {
+            ( ( PersistentOlsCache ) cache ).close();
+            regionedCache = createCache( cacheProps );
+            cache = regionedCache;
+        }
+        cache = persist( cache, loadDate );
+    }
+
+    /**
+     * @param delegate the in memory cache.
+     * @param loadDate the OLS load date of the ontology, null if it is not known.
+     * @return the cache persisting the results of the delegate in the cache directory, the delegate if there is no
+     *         cache directory or no load date.
+     */
+    private OlsCache persist( OlsCache delegate, String loadDate ) {
+        final String directory = cacheProps.getProperty( CACHE_DIRECTORY_PROPERTY );
+        if ( directory == null || directory.trim().length() == 0 || ontologyID == null ) {
+            return delegate;
+        }
+        if ( loadDate == null ) {
+            log.warn( "The load date of " + ontologyID + " is not known, the OLS results are only cached in memory." );
+            return delegate;
+        }
+        final File file = new File( directory.trim(), ontologyID.replaceAll( "[^A-Za-z0-9._-]", "_" ) + ".olscache" );
+        log.info( "Persisting the OLS results of " + ontologyID + " in: " + file.getAbsolutePath() );
+        return new PersistentOlsCache( delegate, file, loadDate, new OlsValueCodec( this::createNewOntologyTerm ) );
+    }
+
+    /**
+     * @return the OLS load date of the ontology, null if OLS does not give it.
+     */
+    private String fetchOntologyLoadDate() {
+        try {
+            return olsClient.getOntologyLoadDate( ontologyID );
+        } catch ( RemoteException e ) {
+            log.warn( "Could not get the load date of " + ontologyID + " from OLS.", e );
+            return null;
+        }
+    }
+
+    /**
+     * The load date is fetched from OLS the first time if it is not tracked already (no cache directory nor
+     * freshness check).
+     *
+     * @return the date OLS loaded the ontology, null if OLS doesn't give it.
+     */
+    public String getContentVersion() {
+        if ( ontologyLoadDate == null && ontologyID != null && !loadDateFetched ) {
+            loadDateFetched = true;
+            final String loadDate = fetchOntologyLoadDate();
+            synchronized ( this ) {
+                if ( ontologyLoadDate == null ) {
+                    ontologyLoadDate = loadDate;
+                }
+            }
+        }
+        return ontologyLoadDate;
+    }
+
+    /**
+     * Checks whether OLS loaded a new version of the ontology since its results were cached, in which case the cache
+     * of the ontology is replaced by an empty one. The other ontologies keep their cache. This is done regularly in
+     * the background if a freshness check interval is set. OLS is queried without holding the lock of the ontology.
+     *
+     * @return true if the cache was replaced.
+     */
+    public boolean checkFreshness() {
+        final String loadDate = fetchOntologyLoadDate();
+        if ( loadDate == null ) {
+            return false;
+        }
+        final String previous;
+        synchronized ( this ) {
+            // only one of the concurrent checks seeing the new load date replaces the cache
+            previous = ontologyLoadDate;
+            ontologyLoadDate = loadDate;
+        }
+        if ( previous == null || previous.equals( loadDate ) ) {
+            return false;
+        }
+        log.info( "OLS loaded a new version of " + ontologyID + " (" + previous + " -> " + loadDate
+                + "), replacing the cache of the ontology." );
+        try {
+            final Map roots = olsClient.getRootTerms( ontologyID );
+            rootAccs = new HashSet<>( roots.keySet() );
+        } catch ( RemoteException e ) {
+            log.warn( "Could not update the root terms of " + ontologyID + ", keeping the previous ones.", e );
+        }
+        invalidateCache( loadDate );
+        return true;
+    }
+
+    /**
+     * Replaces the caches of this ontology by empty ones. Readers are not blocked: they keep using the previous cache
+     * until the new one is set, the results of the queries in flight are stored in the previous cache.
+     *
+     * @param loadDate the OLS load date of the new version of the ontology, null if it is not known.
+     */
+    protected synchronized void invalidateCache( String loadDate ) {
+        final OlsCache previous = cache;
+        if ( previous instanceof PersistentOlsCache ) {
+            // the results put from now on in the previous cache are only kept in memory
+            ( ( PersistentOlsCache ) previous ).close();
+        }
+        notFoundCache = createNotFoundCache( cacheProps );
+        final RegionedOlsCache regions = createCache( cacheProps );
+        final OlsCache results = persist( regions, loadDate );
+        regionedCache = regions;
+        cache = results;
+        lastOntologyUpload = new Date( System.currentTimeMillis() );
+    }
+
+    public synchronized long getFreshnessCheckInterval() {
+        return freshnessCheckInterval;
+    }
+
+    /**
+     * @param interval how often (in milliseconds) #checkFreshness is called in the background once the ontology is
+     *                 loaded, 0 to never call it. The load date the checks compare to is fetched first if it is not
+     *                 known yet.
+     */
+    public void setFreshnessCheckInterval( long interval ) {
+        if ( interval < 0 ) {
+            throw new IllegalArgumentException( "The freshness check interval must be positive: " + interval );
+        }
+        if ( interval > 0 && ontologyID != null && ontologyLoadDate == null ) {
+            // OLS is queried without holding the lock of the ontology
+            final String loadDate = fetchOntologyLoadDate();
+            synchronized ( this ) {
+                if ( ontologyLoadDate == null ) {
+                    ontologyLoadDate = loadDate;
+                }
+            }
+        }
+        synchronized ( this ) {
+            freshnessCheckInterval = interval;
+            if ( freshnessCheck != null ) {
+                freshnessCheck.cancel( false );
+                freshnessCheck = null;
+            }
+            if ( interval > 0 && ontologyID != null ) {
+                // the task does not keep the ontology alive, it stops once the ontology is garbage collected
+                final WeakReference<AbstractOlsOntology<T>> reference = new WeakReference<>( this );
+                final AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+                task.set( getFreshnessExecutor().scheduleWithFixedDelay( () -> {
+                    final AbstractOlsOntology<T> ontology = reference.get();
+                    if ( ontology == null ) {
+                        task.get().cancel( false );
+                        return;
+                    }
+                    try {
+                        ontology.checkFreshness();
+                    } catch ( RuntimeException e ) {
+                        log.warn( "Could not check the freshness of the OLS cache of " + ontology.ontologyID, e );
+                    }
+                }, interval, interval, TimeUnit.MILLISECONDS ) );
+                freshnessCheck = task.get();
+            }
+        }
+    }
+
+    private static synchronized ScheduledExecutorService getFreshnessExecutor() {
+        if ( freshnessExecutor == null ) {
+            freshnessExecutor = Executors.newSingleThreadScheduledExecutor( new ThreadFactory() {
+                public Thread newThread( Runnable r ) {
+                    final Thread thread = new Thread( r, "ols-freshness" );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+        return freshnessExecutor;
+    }
+
+    private long getLongProperty( Properties props, String name, long defaultValue ) {
+        final String value = props.getProperty( name );
+        if ( value == null || value.trim().length() == 0 ) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong( value.trim() );
+        } catch ( NumberFormatException e ) {
+            log.warn( "The cache property " + name + " is not a number: " + value + ", using " + defaultValue );
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gives the cached result of a query, loading and caching it if it is not cached yet. The lock of this ontology is
+     * never held while loading. Concurrent callers missing the same key wait for the result loaded by the first one
+     * instead of all querying OLS.
+     *
+     * @param key    the key of the query.
+     * @param loader queries OLS when the result is not cached, may give null.
+     * @return the result of the query.
+     */
+    @SuppressWarnings( "unchecked" )
+    protected <V> V cached( String key, Supplier<V> loader ) {
+        final OlsCacheStatistics statistics = getCacheStatistics( key );
+        // the caches of the current version of the ontology, a result loaded while it is replaced is not kept
+        final OlsCache results = cache;
+        final OlsCache notFound = notFoundCache;
+        final Object value = getCached( key, results, notFound );
+        if ( value != null ) {
+            if ( log.isDebugEnabled() ) log.debug( "Using cached terms for key: " + key );
+            statistics.recordHit();
+            return value == OlsCache.NULL_RESULT ? null : ( V ) value;
+        }
+
+        final CompletableFuture<Object> loading = new CompletableFuture<>();
+        final CompletableFuture<Object> inFlight = inFlightQueries.putIfAbsent( key, loading );
+        if ( inFlight != null ) {
+            if ( log.isDebugEnabled() ) log.debug( "Waiting for the query in flight for key: " + key );
+            statistics.recordCoalesced();
+            final Object result = awaitQuery( key, inFlight );
+            return result == OlsCache.NULL_RESULT ? null : ( V ) result;
+        }
+
+        try {
+            // the result may have been cached while the previous query in flight was completing
+            Object result = getCached( key, results, notFound );
+            if ( result != null ) {
+                statistics.recordHit();
+            } else {
+                final long start = System.nanoTime();
+                final V loaded = loader.get();
+                statistics.recordMiss( System.nanoTime() - start );
+                if ( log.isDebugEnabled() ) log.debug( "Storing uncached terms for key: " + key );
+                if ( loaded == null ) {
+                    result = OlsCache.NULL_RESULT;
+                    ( notFound != null ? notFound : results ).put( key, result );
+                } else {
+                    result = loaded;
+                    results.put( key, result );
+                }
+            }
+            loading.complete( result );
+            return result == OlsCache.NULL_RESULT ? null : ( V ) result;
+        } catch ( RuntimeException | Error e ) {
+            loading.completeExceptionally( e );
+            throw e;
+        } finally {
+            inFlightQueries.remove( key, loading );
+        }
+    }
+
+    private OlsCacheStatistics getCacheStatistics( String key ) {
+        final OlsCacheRegion region = OlsCacheRegion.of( key );
+        if ( region == null ) {
+            throw new IllegalArgumentException( "The key is not in any cache region: " + key );
+        }
+        return regionedCache.getStatistics( region );
+    }
+
+    /**
+     * @param region a cache region.
+     * @return the statistics of the queries of the region since the cache was created.
+     */
+    public OlsCacheStatistics getCacheStatistics( OlsCacheRegion region ) {
+        return regionedCache.getStatistics( region );
+    }
+
+    /**
+     * @return the statistics of all the cache regions, e.g. to log them or to tune the capacity of each region.
+     */
+    public List<OlsCacheStatistics> getCacheStatistics() {
+        final List<OlsCacheStatistics> statistics = new ArrayList<>();
+        for ( OlsCacheRegion region : OlsCacheRegion.values() ) {
+            statistics.add( regionedCache.getStatistics( region ) );
+        }
+        return statistics;
+    }
+
+    /**
+     * @return the cached result of the query, NULL_RESULT if it has no result, null if it is not cached.
+     */
+    private Object getCached( String key ) {
+        return getCached( key, cache, notFoundCache );
+    }
+
+    private Object getCached( String key, OlsCache results, OlsCache notFound ) {
+        final Object value = results.get( key );
+        if ( value != null || notFound == null ) {
+            return value;
+        }
+        return notFound.get( key );
+    }
+
+    private Object awaitQuery( String key, CompletableFuture<Object> inFlight ) {
+        try {
+            return inFlight.get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while waiting for the OLS query of: " + key );
+        } catch ( ExecutionException e ) {
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw ( RuntimeException ) e.getCause();
+            }
+            throw new IllegalStateException( "Error while querying OLS for: " + key, e.getCause() );
+        }
+    }
+
+    /**
+     * Gives the cached result of a query. Cached results and queries in flight are given without using the executor,
+     * the other queries are sent to OLS by the executor.
+     *
+     * @param key      the key of the query.
+     * @param loader   queries OLS when the result is not cached, may give null.
+     * @param executor runs the loader.
+     * @return the future result of the query.
+     */
+    @SuppressWarnings( "unchecked" )
+    protected <V> CompletableFuture<V> cachedAsync( final String key, final Supplier<V> loader, Executor executor ) {
+        final Object value = getCached( key );
+        if ( value != null ) {
+            getCacheStatistics( key ).recordHit();
+            return CompletableFuture.completedFuture( value == OlsCache.NULL_RESULT ? null : ( V ) value );
+        }
+        final CompletableFuture<Object> inFlight = inFlightQueries.get( key );
+        if ( inFlight != null ) {
+            getCacheStatistics( key ).recordCoalesced();
+            return inFlight.thenApply( result -> result == OlsCache.NULL_RESULT ? null : ( V ) result );
+        }
+        if ( executor == CALLER_EXECUTOR ) {
+            try {
+                return CompletableFuture.completedFuture( cached( key, loader ) );
+            } catch ( RuntimeException e ) {
+                final CompletableFuture<V> failed = new CompletableFuture<>();
+                failed.completeExceptionally( e );
+                return failed;
+            }
+        }
+        return CompletableFuture.supplyAsync( () -> cached( key, loader ), executor );
+    }
+
+    /**
+     * Waits for the result of an asynchronous query.
+     */
+    private <V> V await( CompletableFuture<V> future ) {
+        try {
+            return future.join();
+        } catch ( CompletionException e ) {
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw ( RuntimeException ) e.getCause();
+            }
+            throw new IllegalStateException( "Error while querying OLS.", e.getCause() );
+        } catch ( CancellationException e ) {
+            throw new IllegalStateException( "The OLS query was cancelled.", e );
+        }
+    }
+
+    /**
+     * @return the executor of the asynchronous methods, the calling thread once this ontology is closed.
+     */
+    public synchronized Executor getAsyncExecutor() {
+        if ( closed ) {
+            return CALLER_EXECUTOR;
+        }
+        if ( asyncExecutor == null ) {
+            defaultAsyncExecutor = true;
+            asyncExecutor = Executors.newFixedThreadPool( DEFAULT_ASYNC_THREADS, new ThreadFactory() {
+                public Thread newThread( Runnable r ) {
+                    final Thread thread = new Thread( r, "ols-async-" + asyncThreadCount.incrementAndGet() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+        return asyncExecutor;
+    }
+
+    /**
+     * @param asyncExecutor runs the OLS queries of the asynchronous methods, null to use a default pool of
+     *                      DEFAULT_ASYNC_THREADS daemon threads. A given executor is not shut down by #close.
+     */
+    public synchronized void setAsyncExecutor( Executor asyncExecutor ) {
+        shutdownAsyncExecutor();
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    private void shutdownAsyncExecutor() {
+        if ( defaultAsyncExecutor ) {
+            ( ( ExecutorService ) asyncExecutor ).shutdown();
+            defaultAsyncExecutor = false;
+        }
+        asyncExecutor = null;
+    }
+
+    /**
+     * Stops the background work of this ontology: the freshness check, the thread pools it created and the
+     * persistence of its cache. It can still be queried afterwards, the queries being sent to OLS by the calling
+     * thread and their results only cached in memory.
+     */
+    public synchronized void close() {
+        closed = true;
+        if ( freshnessCheck != null ) {
+            freshnessCheck.cancel( false );
+            freshnessCheck = null;
+        }
+        shutdownAsyncExecutor();
+        if ( synonymExecutor != null ) {
+            synonymExecutor.shutdown();
+            synonymExecutor = null;
+        }
+        if ( cache instanceof PersistentOlsCache ) {
+            ( ( PersistentOlsCache ) cache ).close();
         }
     }
 
@@ -110,13 +711,51 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
         // if we did not record the term synonyms before, but now we are supposed to,
         // then we have to reset the cache, so all terms get loaded again including synonyms.
         if (!isUseTermSynonyms() && useTermSynonyms) {
-            admin.destroy();
-            initCache();
+            cache.clear();
+            if ( notFoundCache != null ) {
+                notFoundCache.clear();
+            }
         }
         // in the other cases (using synonyms or switching off synonyms) we don't need to touch the cache
         this.useTermSynonyms = useTermSynonyms;
     }
 
+    /**
+     * @return true if the synonyms of the terms are only fetched when asked for with #loadTermSynonyms.
+     */
+    public boolean isLazyTermSynonyms() {
+        return lazyTermSynonyms;
+    }
+
+    /**
+     * When term synonyms are used, the metadata of each term has to be queried separately from OLS. Setting this flag
+     * defers these queries until #loadTermSynonyms is called on the terms, e.g. by a rule checking term names.
+     *
+     * @param lazyTermSynonyms flag to toggle the deferred loading of the term synonyms.
+     */
+    public void setLazyTermSynonyms( boolean lazyTermSynonyms ) {
+        this.lazyTermSynonyms = lazyTermSynonyms;
+    }
+
+    public int getSynonymFetchThreads() {
+        return synonymFetchThreads;
+    }
+
+    /**
+     * @param synonymFetchThreads maximum number of metadata queries sent concurrently to OLS when fetching the
+     *                            synonyms of several terms, 1 to send them one after the other.
+     */
+    public synchronized void setSynonymFetchThreads( int synonymFetchThreads ) {
+        if ( synonymFetchThreads < 1 ) {
+            throw new IllegalArgumentException( "At least one thread is needed to fetch synonyms: " + synonymFetchThreads );
+        }
+        this.synonymFetchThreads = synonymFetchThreads;
+        if ( synonymExecutor != null ) {
+            synonymExecutor.shutdown();
+            synonymExecutor = null;
+        }
+    }
+
     public void loadOntology( String ontologyID, String name, String version, String format, URI uri ) {
         this.ontologyID = ontologyID;
         try {
@@ -126,6 +765,18 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
         } catch ( RemoteException e ) {
             throw new IllegalStateException( "RemoteException while trying to connect to OLS." );
         }
+        // the load date versions the persisted results and tells when OLS loads a new version of the ontology
+        final String directory = cacheProps.getProperty( CACHE_DIRECTORY_PROPERTY );
+        final long freshnessInterval = getLongProperty( cacheProps, CACHE_FRESHNESS_INTERVAL_PROPERTY, 0 );
+        ontologyLoadDate = ( directory != null && directory.trim().length() > 0 ) || freshnessInterval > 0
+                           ? fetchOntologyLoadDate() : null;
+        initPersistentCache( ontologyLoadDate );
+        setFreshnessCheckInterval( freshnessInterval );
+        final int warmUpThreads = ( int ) getLongProperty( cacheProps, CACHE_WARMUP_THREADS_PROPERTY, 0 );
+        if ( warmUpThreads > 0 ) {
+            log.info( "Warming up the cache of " + ontologyID + " in the background with " + warmUpThreads + " threads." );
+            warmUpCache( warmUpThreads );
+        }
         log.info( "Successfully created OlsOntology from values: ontology=" + ontologyID + " name=" + name
                 + " version=" + version + " format=" + format + " location=" + uri );
     }
@@ -144,6 +795,7 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
      * Method that is used by the validator to determine a Set of Ontology terms that are valid terms
      * for a particular rule. E.g. according to the flags, this can be the term corresponding to the
      * provided accession or its children or both.
+     * Note: the OLS queries are sent by the calling thread, see #getValidTermsAsync to query them concurrently.
      *
      * @param accession     the accession (ID) of a ontology term.
      * @param allowChildren flag weather or not to allow child terms of the specified accession.
@@ -151,17 +803,55 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
      * @return a Set of OntologyTerms that are valid (in terms of the validator).
      */
     public Set<T> getValidTerms( String accession, boolean allowChildren, boolean useTerm ) {
-        Set<T> validTerms = new HashSet<>();
-        T term = getTermForAccession( accession );
-        if ( term != null ) {
-            if ( useTerm ) {
-                validTerms.add( term );
-            }
-            if ( allowChildren ) {
-                validTerms.addAll( getAllChildren( term ) );
-            }
+        return await( getValidTermsAsync( accession, allowChildren, useTerm, CALLER_EXECUTOR ) );
+    }
+
+    /**
+     * Asynchronous version of #getValidTerms. The term and its children are queried concurrently.
+     *
+     * @param accession     the accession (ID) of a ontology term.
+     * @param allowChildren flag weather or not to allow child terms of the specified accession.
+     * @param useTerm       flag weather or not to use the given accession as one of the valid terms.
+     * @return the future Set of OntologyTerms that are valid (in terms of the validator).
+     */
+    public CompletableFuture<Set<T>> getValidTermsAsync( String accession, boolean allowChildren, boolean useTerm ) {
+        return getValidTermsAsync( accession, allowChildren, useTerm, getAsyncExecutor() );
+    }
+
+    private CompletableFuture<Set<T>> getValidTermsAsync( String accession, boolean allowChildren, boolean useTerm,
+                                                          Executor executor ) {
+        final CompletableFuture<T> term = getTermForAccessionAsync( accession, executor );
+        if ( !allowChildren || accession == null || accession.trim().length() == 0 ) {
+            return term.thenCompose( t -> {
+                final Set<T> validTerms = new HashSet<>();
+                if ( t == null ) {
+                    return CompletableFuture.completedFuture( validTerms );
+                }
+                if ( useTerm ) {
+                    validTerms.add( t );
+                }
+                if ( !allowChildren ) {
+                    return CompletableFuture.completedFuture( validTerms );
+                }
+                return getChildrenAsync( t, -1, executor ).thenApply( c -> {
+                    validTerms.addAll( c );
+                    return validTerms;
+                } );
+            } );
         }
-        return validTerms;
+        // the children only depend on the accession, do not wait for the term to query them
+        final CompletableFuture<Set<T>> children =
+                getChildrenAsync( createNewOntologyTerm( accession, null ), -1, executor );
+        return term.thenCombine( children, ( t, c ) -> {
+            final Set<T> validTerms = new HashSet<>();
+            if ( t != null ) {
+                if ( useTerm ) {
+                    validTerms.add( t );
+                }
+                validTerms.addAll( c );
+            }
+            return validTerms;
+        } );
     }
 
     /**
@@ -191,7 +881,7 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
         T term;
         if ( termName != null && termName.length() > 0 && !termName.equals( accession ) ) {
             term = createNewOntologyTerm( accession, termName );
-            if (useTermSynonyms) {
+            if (useTermSynonyms && !lazyTermSynonyms) {
                 fetchTermSynonyms( term );
             }
         } else {
@@ -205,146 +895,169 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
 
     private void fetchTermSynonyms( T term ) {
         if (term == null) { return; }
-        // create a unique string for this query
-        // generate from from method specific ID, the ontology ID and the input parameter
-        final String myKey = GET_METADATA_FOR_ACCESSION + '_' + ontologyID + '_' + term.getTermAccession();
-        Map metadata = getAllTermSynonyms(term.getTermAccession());
-
-        for ( Object k : metadata.keySet() ) {
-            final String key = (String) k;
-            // That's the only way OLS provides synonyms, all keys are different so we are fishing out keywords :(
-            if( key != null && (key.contains( "synonym" ))) {
-                Map value = (Map) metadata.get( k );
-                for(Object synonym : value.keySet()){
-                    if( synonym != null ) {
-                        term.getNameSynonyms().add((String)synonym);
-                    }
-                }
-            }
+        try {
+            addTermSynonyms( term, getAllTermSynonyms( term.getTermAccession() ) );
+        } catch ( RuntimeException e ) {
+            logSynonymFailure( term, e );
         }
     }
 
-    private Map getTermMetadataUncached(String termAccession){
-        if (termAccession == null) { return null; }
-
-        final Map metadata;
-        try {
-            metadata = olsClient.getTermMetadata(termAccession, ontologyID);
-
-            return metadata;
+    /**
+     * The synonyms are optional, a term is still given if they could not be fetched. As the failures are not cached,
+     * they are fetched again the next time.
+     */
+    private void logSynonymFailure( T term, Throwable e ) {
+        if ( log.isWarnEnabled() ) {
+            log.warn( "Error while loading term synonyms from OLS for term: " + term.getTermAccession(), e );
+        }
+    }
 
-        } catch ( Exception e ) {
-            if ( log.isWarnEnabled() ) {
-                log.warn( "Error while loading term synonyms from OLS for term: " + termAccession, e );
+    /**
+     * Fetches the synonyms of several terms. OLS only gives the synonyms of one term at a time, the metadata queries
+     * that are not cached yet are hence sent concurrently, at most #getSynonymFetchThreads at a time.
+     *
+     * @param terms the terms to fetch the synonyms of.
+     */
+    private void fetchTermSynonyms( Collection<T> terms ) {
+        final ExecutorService executor = terms.size() < 2 ? null : getSynonymExecutor();
+        if ( executor == null ) {
+            for ( T term : terms ) {
+                fetchTermSynonyms( term );
             }
+            return;
         }
 
-        return null;
-    }
-
-    public Map getAllTermSynonyms( String termAccession ) {
-        if (termAccession == null) { return null; }
-        // create a unique string for this query
-        // generate from from method specific ID, the ontology ID and the input parameter
-        final String myKey = GET_METADATA_FOR_ACCESSION + '_' + ontologyID + '_' + termAccession;
-        Map metadata;
+        final List<T> pendingTerms = new ArrayList<>( terms.size() );
+        final List<Future<Map>> pendingMetadata = new ArrayList<>( terms.size() );
+        for ( final T term : terms ) {
+            if ( term == null ) { continue; }
+            pendingTerms.add( term );
+            pendingMetadata.add( executor.submit( new Callable<Map>() {
+                public Map call() {
+                    return getAllTermSynonyms( term.getTermAccession() );
+                }
+            } ) );
+        }
 
         try {
-            metadata = (Map) getFromCache(myKey);
-            if ( log.isDebugEnabled() ) log.debug( "Using cached terms for key: " + myKey );
-        } catch (NeedsRefreshException e) {
-            boolean updated = false;
-            // if not found in cache, use uncached method and store result in cache
-            try {
-                metadata = this.getTermMetadataUncached( termAccession );
-                if ( log.isDebugEnabled() ) log.debug( "Storing uncached terms for key: " + myKey );
-                putInCache( myKey, metadata );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the cached content could not be rebuilt
-                    cancelUpdate( myKey );
+            for ( int i = 0; i < pendingTerms.size(); i++ ) {
+                try {
+                    addTermSynonyms( pendingTerms.get( i ), pendingMetadata.get( i ).get() );
+                } catch ( ExecutionException e ) {
+                    if ( e.getCause() instanceof Error ) {
+                        throw ( Error ) e.getCause();
+                    }
+                    logSynonymFailure( pendingTerms.get( i ), e.getCause() );
                 }
             }
+        } catch ( InterruptedException e ) {
+            for ( Future<Map> future : pendingMetadata ) {
+                future.cancel( true );
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while fetching the term synonyms from OLS." );
         }
-
-        return metadata;
     }
 
-    public Map getAllTermXrefs( String termAccession ) {
-        if (termAccession == null) { return null; }
-        // create a unique string for this query
-        // generate from from method specific ID, the ontology ID and the input parameter
-        final String myKey = GET_XREF_FOR_ACCESSION + '_' + ontologyID + '_' + termAccession;
-        Map xrefs;
-
-        try {
-            xrefs = (Map) getFromCache(myKey);
-            if ( log.isDebugEnabled() ) log.debug( "Using cached terms for key: " + myKey );
-        } catch (NeedsRefreshException e) {
-            boolean updated = false;
-            // if not found in cache, use uncached method and store result in cache
-            try {
-                xrefs = this.getAllTermXrefsUncached(termAccession);
-                if ( log.isDebugEnabled() ) log.debug( "Storing uncached terms for key: " + myKey );
-                putInCache( myKey, xrefs );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the cached content could not be rebuilt
-                    cancelUpdate( myKey );
+    private void addTermSynonyms( T term, Map metadata ) {
+        if ( metadata == null ) { return; }
+
+        // terms may be shared through the cache: the synonyms are published as a new immutable set, the writers being
+        // serialized so that none of their synonyms are lost
+        synchronized ( term ) {
+            final Set<String> synonyms = new LinkedHashSet<>( term.getNameSynonyms() );
+            for ( Object k : metadata.keySet() ) {
+                final String key = (String) k;
+                // That's the only way OLS provides synonyms, all keys are different so we are fishing out keywords :(
+                if( key != null && (key.contains( "synonym" ))) {
+                    Map value = (Map) metadata.get( k );
+                    for(Object synonym : value.keySet()){
+                        if( synonym != null ) {
+                            synonyms.add((String)synonym);
+                        }
+                    }
                 }
             }
+            term.setNameSynonyms( Collections.unmodifiableSet( synonyms ) );
         }
+    }
 
-        return xrefs;
+    /**
+     * @return the pool fetching synonyms concurrently, null to fetch them in the calling thread.
+     */
+    private synchronized ExecutorService getSynonymExecutor() {
+        if ( closed || synonymFetchThreads < 2 ) {
+            return null;
+        }
+        if ( synonymExecutor == null ) {
+            synonymExecutor = Executors.newFixedThreadPool( synonymFetchThreads, new ThreadFactory() {
+                public Thread newThread( Runnable r ) {
+                    final Thread thread = new Thread( r, "ols-synonyms-" + synonymThreadCount.incrementAndGet() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+        return synonymExecutor;
     }
 
-    private Map getAllTermXrefsUncached(String termAccession){
-        if (termAccession == null) { return null; }
+    /**
+     * Fetches the synonyms of the given terms if term synonyms are used but loaded lazily, does nothing otherwise.
+     *
+     * @param terms terms created by this ontology.
+     */
+    public void loadTermSynonyms( Collection<T> terms ) {
+        if ( useTermSynonyms && lazyTermSynonyms && terms != null ) {
+            fetchTermSynonyms( terms );
+        }
+    }
 
-        final Map xrefs;
+    private Map getTermMetadataUncached(String termAccession){
+        if (termAccession == null) { return null; }
         try {
-            xrefs = olsClient.getTermXrefs(termAccession, ontologyID);
-
-            return xrefs;
-
-        } catch ( Exception e ) {
-            if ( log.isWarnEnabled() ) {
-                log.warn( "Error while loading term synonyms from OLS for term: " + termAccession, e );
-            }
+            // null only if OLS does not know the term, which is cached
+            return olsClient.getTermMetadata(termAccession, ontologyID);
+        } catch ( RemoteException e ) {
+            // not cached, the next call queries OLS again
+            throw new IllegalStateException( "RemoteException while trying to connect to OLS.", e );
         }
-
-        return null;
     }
 
     /**
-     * The method is synchronized to avoid concurrent access/modification when accessing the cache
-     * @param myKey : the key to find in the cache
-     * @return the object associated with this key in the cache.
-     * @throws NeedsRefreshException : the key doesn't exist in the cache or is outdated
+     * @param termAccession the accession of a term.
+     * @return the metadata of the term, including its synonyms, null if OLS does not know the term.
+     * @throws IllegalStateException if OLS could not be queried.
      */
-    private synchronized Object getFromCache( String myKey ) throws NeedsRefreshException {
-        return admin.getFromCache( myKey );
+    public Map getAllTermSynonyms( final String termAccession ) {
+        if (termAccession == null) { return null; }
+        // create a unique string for this query
+        // generate from from method specific ID, the ontology ID and the input parameter
+        final String myKey = OlsCacheRegion.METADATA.key( ontologyID, termAccession );
+        return cached( myKey, () -> getTermMetadataUncached( termAccession ) );
     }
 
     /**
-     * The method will put the key associated with an object in the cache of this OlsOntology
-     * The method is synchronized to avoid concurrent access/modification when accessing the cache
-     * @param myKey : the key to put in the cache
-     * @param result : the associated object to put in the cache
+     * @param termAccession the accession of a term.
+     * @return the cross references of the term, null if OLS does not know the term.
+     * @throws IllegalStateException if OLS could not be queried.
      */
-    private synchronized void putInCache( String myKey, Object result ) {
-        admin.putInCache( myKey, result );
+    public Map getAllTermXrefs( final String termAccession ) {
+        if (termAccession == null) { return null; }
+        // create a unique string for this query
+        // generate from from method specific ID, the ontology ID and the input parameter
+        final String myKey = OlsCacheRegion.XREFS.key( ontologyID, termAccession );
+        return cached( myKey, () -> getAllTermXrefsUncached( termAccession ) );
     }
 
-    /**
-     * Cancel any update for this key in the cache
-     * The method is synchronized to avoid concurrent access/modification when accessing the cache
-     * @param myKey : the key to find in the cache
-     */
-    private synchronized void cancelUpdate(String myKey){
-        admin.cancelUpdate( myKey );
+    private Map getAllTermXrefsUncached(String termAccession){
+        if (termAccession == null) { return null; }
+        try {
+            // null only if OLS does not know the term, which is cached
+            return olsClient.getTermXrefs(termAccession, ontologyID);
+        } catch ( RemoteException e ) {
+            // not cached, the next call queries OLS again
+            throw new IllegalStateException( "RemoteException while trying to connect to OLS.", e );
+        }
     }
 
     /**
@@ -355,33 +1068,26 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
      * @param accession the ontology term accession for which to look up the term.
      * @return the OntologyTermI for the specified accession.
      */
-    public T getTermForAccession( String accession ) {
-        if (accession == null) { return null; }
+    public T getTermForAccession( final String accession ) {
+        return await( getTermForAccessionAsync( accession, CALLER_EXECUTOR ) );
+    }
+
+    /**
+     * Asynchronous version of #getTermForAccession, the OLS queries are run by the async executor.
+     *
+     * @param accession the ontology term accession for which to look up the term.
+     * @return the future OntologyTermI for the specified accession.
+     */
+    public CompletableFuture<T> getTermForAccessionAsync( String accession ) {
+        return getTermForAccessionAsync( accession, getAsyncExecutor() );
+    }
+
+    private CompletableFuture<T> getTermForAccessionAsync( final String accession, Executor executor ) {
+        if (accession == null) { return CompletableFuture.completedFuture( null ); }
         // create a unique string for this query
         // generate from from method specific ID, the ontology ID and the input parameter
-        final String myKey = GET_TERM_FOR_ACCESSION + '_' + ontologyID + '_' + accession;
-
-        T result;
-        // try to get the result from the cache
-        try {
-            result = (T) getFromCache(myKey);
-            if ( log.isDebugEnabled() ) log.debug( "Using cached terms for key: " + myKey );
-        } catch ( NeedsRefreshException nre ) {
-            boolean updated = false;
-            // if not found in cache, use uncached method and store result in cache
-            try {
-                result = this.getTermForAccessionUncached( accession );
-                if ( log.isDebugEnabled() ) log.debug( "Storing uncached terms for key: " + myKey );
-                putInCache( myKey, result );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the cached content could not be rebuilt
-                    cancelUpdate( myKey );
-                }
-            }
-        }
-        return result;
+        final String myKey = OlsCacheRegion.TERM.key( ontologyID, accession );
+        return cachedAsync( myKey, () -> getTermForAccessionUncached( accession ), executor );
     }
 
     /**
@@ -412,32 +1118,25 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
      * @param term the ontology term to check for being obsolete.
      * @return true if the term is flagged obolete, false otherwise.
      */
-    public boolean isObsolete( T term ) {
+    public boolean isObsolete( final T term ) {
+        return await( isObsoleteAsync( term, CALLER_EXECUTOR ) );
+    }
+
+    /**
+     * Asynchronous version of #isObsolete, the OLS queries are run by the async executor.
+     *
+     * @param term the ontology term to check for being obsolete.
+     * @return the future flag, true if the term is flagged obsolete.
+     */
+    public CompletableFuture<Boolean> isObsoleteAsync( T term ) {
+        return isObsoleteAsync( term, getAsyncExecutor() );
+    }
+
+    private CompletableFuture<Boolean> isObsoleteAsync( final T term, Executor executor ) {
         // create a unique string for this query
         // generate from from method specific ID, the ontology ID and the input parameter
-        String myKey = IS_OBSOLETE + '_' + ontologyID + '_' + term.getTermAccession();
-
-        boolean result;
-        // try to get the result from the cache
-        try {
-            result = ( Boolean ) getFromCache( myKey );
-            log.debug( "Using cached terms for key: " + myKey );
-        } catch ( NeedsRefreshException nre ) {
-            boolean updated = false;
-            // if not found in cache, use uncached method and store result in cache
-            try {
-                result = this.isObsoleteUncached( term );
-                log.debug( "Storing uncached terms for key: " + myKey );
-                putInCache( myKey, result );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the cached content could not be rebuilt
-                    cancelUpdate( myKey );
-                }
-            }
-        }
-        return result;
+        String myKey = OlsCacheRegion.OBSOLETE.key( ontologyID, term.getTermAccession() );
+        return cachedAsync( myKey, () -> isObsoleteUncached( term ), executor );
     }
 
     /**
@@ -468,33 +1167,16 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
      * @param term the OntologyTermI for which to look up its direct parents.
      * @return a Set of OntologyTermIs of the direct parents of the given term.
      */
-    public Set<T> getDirectParents( T term ) {
-        if (term == null) { return null; }
+    public Set<T> getDirectParents( final T term ) {
+        return await( getDirectParentsAsync( term, CALLER_EXECUTOR ) );
+    }
+
+    private CompletableFuture<Set<T>> getDirectParentsAsync( final T term, Executor executor ) {
+        if (term == null) { return CompletableFuture.completedFuture( null ); }
         // create a unique string for this query
         // generate from from method specific ID, the ontology ID and the input parameter
-        String myKey = GET_DIRECT_PARENTS + '_' + ontologyID + '_' + term.getTermAccession();
-
-        Set<T> result;
-        // try to get the result from the cache
-        try {
-            result = ( Set<T> ) getFromCache( myKey );
-            log.debug( "Using cached terms for key: " + myKey );
-        } catch ( NeedsRefreshException nre ) {
-            boolean updated = false;
-            // if not found in cache, use uncached method and store result in cache
-            try {
-                result = this.getDirectParentsUncached( term );
-                log.debug( "Storing uncached terms for key: " + myKey );
-                putInCache( myKey, result );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the cached content could not be rebuilt
-                    cancelUpdate( myKey );
-                }
-            }
-        }
-        return result;
+        String myKey = OlsCacheRegion.PARENTS.key( ontologyID, term.getTermAccession() );
+        return cachedAsync( myKey, () -> getDirectParentsUncached( term ), executor );
     }
 
     /**
@@ -506,9 +1188,23 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
      * @return a Set of OntologyTermIs of the direct parents of the given term.
      */
     public Set<T> getAllParents( T term ) {
-        Set<T> allParents = new HashSet<>();
-        addParents( term, allParents );
-        return allParents;
+        return await( getAllParentsAsync( term, CALLER_EXECUTOR ) );
+    }
+
+    /**
+     * Asynchronous version of #getAllParents, the direct parents of the parents found are queried concurrently by the
+     * async executor.
+     *
+     * @param term the OntologyTermI for which to look up its parents.
+     * @return the future Set of OntologyTermIs of the parents of the given term.
+     */
+    public CompletableFuture<Set<T>> getAllParentsAsync( T term ) {
+        return getAllParentsAsync( term, getAsyncExecutor() );
+    }
+
+    private CompletableFuture<Set<T>> getAllParentsAsync( T term, Executor executor ) {
+        final Set<T> allParents = ConcurrentHashMap.newKeySet();
+        return addParents( term, allParents, executor ).thenApply( v -> new HashSet<>( allParents ) );
     }
 
     /**
@@ -516,20 +1212,22 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
      *
      * @param term the OntologyTermI for which to get the parents.
      * @param parents Set of OntologyTermIs to which to add the found parents.
+     * @param executor runs the OLS queries.
+     * @return completes once all the parents are added.
      */
-    private void addParents( T term, Set<T> parents ) {
-        if (term == null) { return; }
-        Set<T> dps = getDirectParents( term );
-        for ( T dp : dps ) {
-            // if the parent is not already contained in the list: add it
-            if ( !parents.contains( dp ) ) {
-                parents.add( dp );
+    private CompletableFuture<Void> addParents( T term, Set<T> parents, Executor executor ) {
+        if (term == null) { return CompletableFuture.completedFuture( null ); }
+        return getDirectParentsAsync( term, executor ).thenCompose( dps -> {
+            final List<CompletableFuture<Void>> pending = new ArrayList<>();
+            for ( T dp : dps ) {
+                // if the parent is not already contained in the list: add it
                 // only if it is not a root term, look for more parents
-                if ( !rootAccs.contains( dp.getTermAccession() ) ) {
-                    addParents( dp, parents );
+                if ( parents.add( dp ) && !rootAccs.contains( dp.getTermAccession() ) ) {
+                    pending.add( addParents( dp, parents, executor ) );
                 }
             }
-        }
+            return CompletableFuture.allOf( pending.toArray( new CompletableFuture[pending.size()] ) );
+        } );
     }
 
     /**
@@ -566,41 +1264,183 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
         return getChildren( term, 1 );
     }
 
+    /**
+     * Asynchronous version of #getDirectChildren, the OLS queries are run by the async executor.
+     *
+     * @param term the ontology term to get the child terms for.
+     * @return the future Set containing the direct child terms of the specified term.
+     */
+    public CompletableFuture<Set<T>> getDirectChildrenAsync( T term ) {
+        return getChildrenAsync( term, 1, getAsyncExecutor() );
+    }
+
     /**
      * Method to retrieve child terms of the specified ontology term.
-     * Note: this method is cached.
+     * Note: this method is cached. When the direct children of the whole subtree are cached already, e.g. after a
+     * warm-up or a children query of a term above, they are walked instead of querying OLS. Otherwise the subtree is
+     * fetched by a single OLS query and shared with the terms below, see #shareSubtree.
      *
      * @param term  the ontology term to get the child terms for.
      * @param level up to which level in depth to search for children (note: -1 will get ALL children)
      * @return a Set containing the child terms of the specified term or null if the term is invalid.
      */
-    public synchronized Set<T> getChildren( T term, int level ) {
-        if (term == null) { return null; }
+    public Set<T> getChildren( final T term, final int level ) {
+        return await( getChildrenAsync( term, level, CALLER_EXECUTOR ) );
+    }
+
+    private CompletableFuture<Set<T>> getChildrenAsync( final T term, final int level, Executor executor ) {
+        if (term == null) { return CompletableFuture.completedFuture( null ); }
+        if ( level == 1 ) {
+            return getDirectChildrenAsync( term, executor );
+        }
         // create a unique string for this query
         // generate from from method specific ID, the ontology ID and the input parameter
-        String myKey = GET_CHILDREN + '_' + ontologyID + '_' + term.getTermAccession() + '_' + level;
+        final String myKey = OlsCacheRegion.CHILDREN.key( ontologyID, term.getTermAccession(), level );
+        if ( getCached( myKey ) == null ) {
+            // the direct children of the whole subtree may be cached already, e.g. by a warm-up
+            final Set<T> children = getCachedChildren( term, level < 0 ? Integer.MAX_VALUE : level );
+            if ( children != null ) {
+                getCacheStatistics( myKey ).recordHit();
+                return CompletableFuture.completedFuture( children );
+            }
+        }
+        // otherwise a single query gives the whole subtree, which is then shared with the terms below
+        return cachedAsync( myKey, () -> getChildrenUncached( term, level ), executor ).thenCompose( children -> {
+            if ( children == null ) {
+                return CompletableFuture.completedFuture( null );
+            }
+            return shareSubtree( term, level, children, executor ).handle( ( v, e ) -> {
+                if ( e != null ) {
+                    log.warn( "Could not share the children of " + term.getTermAccession() +
+                              " with the terms below it: " + e.getMessage() );
+                }
+                return children;
+            } );
+        } );
+    }
 
-        Set<T> result;
-        // try to get the result from the cache
-        try {
-            result = ( Set<T> ) admin.getFromCache( myKey );
-            log.debug( "Using cached terms for key: " + myKey );
-        } catch ( NeedsRefreshException nre ) {
-            boolean updated = false;
-            // if not found in cache, use uncached method and store result in cache
-            try {
-                result = this.getChildrenUncached( term, level );
-                log.debug( "Storing uncached terms for key: " + myKey );
-                admin.putInCache( myKey, result );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the cached content could not be rebuilt
-                    admin.cancelUpdate( myKey );
+    /**
+     * Decomposes the answer of a children query into the direct edges of the subtree, so that the queries of the
+     * terms below are answered from the cache. OLS gives the children without their edges: the direct parents of each
+     * child are queried, by the executor of the children query. They are cached as for #getDirectParents, which also
+     * answers the ancestor queries of the children up to the queried term.
+     * <p/>
+     * Each term of the subtree closer to the queried term than the level searched has all its direct children in the
+     * answer: they are cached as for #getDirectChildren, as well as the children themselves as for
+     * #getTermForAccession. The terms with cached direct children are the ones whose whole subtree is known, it is
+     * walked by #getCachedChildren.
+     *
+     * @param term     the queried term.
+     * @param level    up to which level in depth the children were searched, -1 for all of them.
+     * @param children the children of the term given by OLS.
+     * @param executor runs the OLS queries.
+     * @return completes once the subtree is cached.
+     */
+    private CompletableFuture<Void> shareSubtree( final T term, final int level, final Set<T> children,
+                                                  Executor executor ) {
+        // a subtree shared while the cache is replaced is not kept
+        final OlsCache results = cache;
+        final Map<T, CompletableFuture<Set<T>>> parents = new HashMap<>();
+        for ( T child : children ) {
+            parents.put( child, getDirectParentsAsync( child, executor ) );
+        }
+        return CompletableFuture.allOf( parents.values().toArray( new CompletableFuture[parents.size()] ) ).thenRun( () -> {
+            // the direct children of the terms of the subtree
+            final Map<T, Set<T>> edges = new HashMap<>();
+            edges.put( term, new HashSet<T>() );
+            for ( T child : children ) {
+                edges.put( child, new HashSet<T>() );
+            }
+            for ( Map.Entry<T, CompletableFuture<Set<T>>> entry : parents.entrySet() ) {
+                final Set<T> dps = entry.getValue().join();
+                if ( dps == null ) {
+                    continue;
+                }
+                for ( T dp : dps ) {
+                    // the parents outside of the subtree are not known to have all their children in it
+                    final Set<T> dcs = edges.get( dp );
+                    if ( dcs != null ) {
+                        dcs.add( entry.getKey() );
+                    }
+                }
+            }
+
+            // the shortest distance of each term to the queried term
+            final Map<T, Integer> depths = new HashMap<>();
+            final Deque<T> toWalk = new ArrayDeque<>();
+            depths.put( term, 0 );
+            toWalk.add( term );
+            while ( !toWalk.isEmpty() ) {
+                final T walked = toWalk.poll();
+                for ( T dc : edges.get( walked ) ) {
+                    if ( !depths.containsKey( dc ) ) {
+                        depths.put( dc, depths.get( walked ) + 1 );
+                        toWalk.add( dc );
+                    }
                 }
             }
+
+            for ( Map.Entry<T, Integer> depth : depths.entrySet() ) {
+                final String accession = depth.getKey().getTermAccession();
+                if ( depth.getValue() > 0 ) {
+                    putIfNotCached( results, OlsCacheRegion.TERM.key( ontologyID, accession ), depth.getKey() );
+                }
+                if ( level < 0 || depth.getValue() < level ) {
+                    putIfNotCached( results, OlsCacheRegion.CHILDREN.key( ontologyID, accession, 1 ),
+                                    edges.get( depth.getKey() ) );
+                }
+            }
+        } );
+    }
+
+    private void putIfNotCached( OlsCache results, String key, Object value ) {
+        if ( getCached( key, results, notFoundCache ) == null ) {
+            results.put( key, value );
         }
-        return result;
+    }
+
+    private CompletableFuture<Set<T>> getDirectChildrenAsync( final T term, Executor executor ) {
+        // create a unique string for this query
+        // generate from from method specific ID, the ontology ID and the input parameter
+        String myKey = OlsCacheRegion.CHILDREN.key( ontologyID, term.getTermAccession(), 1 );
+        return cachedAsync( myKey, () -> getChildrenUncached( term, 1 ), executor );
+    }
+
+    /**
+     * Walks the cached direct children of a term, without querying OLS.
+     *
+     * @param term  the OntologyTermI for which to get the children.
+     * @param depth how many levels may be searched below the term.
+     * @return the children of the term, null if the direct children of one of the terms walked are not cached.
+     */
+    @SuppressWarnings( "unchecked" )
+    private Set<T> getCachedChildren( T term, int depth ) {
+        // the children found, with how many levels may still be searched below them
+        final Map<T, Integer> children = new HashMap<>();
+        final Deque<Map.Entry<T, Integer>> toWalk = new ArrayDeque<>();
+        toWalk.add( new AbstractMap.SimpleEntry<>( term, depth ) );
+        while ( !toWalk.isEmpty() ) {
+            final Map.Entry<T, Integer> walked = toWalk.poll();
+            final Object dcs = getCached( OlsCacheRegion.CHILDREN.key( ontologyID, walked.getKey().getTermAccession(), 1 ) );
+            if ( dcs == null ) {
+                return null;
+            }
+            if ( dcs == OlsCache.NULL_RESULT ) {
+                continue;
+            }
+            final int remaining = walked.getValue() - 1;
+            for ( T dc : ( Set<T> ) dcs ) {
+                // search below a child again only if it is now found closer to the queried term
+                final Integer previous = children.get( dc );
+                if ( previous == null || previous < remaining ) {
+                    children.put( dc, remaining );
+                    if ( remaining > 0 ) {
+                        toWalk.add( new AbstractMap.SimpleEntry<>( dc, remaining ) );
+                    }
+                }
+            }
+        }
+        return new HashSet<>( children.keySet() );
     }
 
     /**
@@ -615,6 +1455,16 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
         return getChildren( term, -1 );
     }
 
+    /**
+     * Asynchronous version of #getAllChildren, the OLS queries are run by the async executor.
+     *
+     * @param term the ontology term to get the child terms for.
+     * @return the future Set containing all the child terms of the specified term.
+     */
+    public CompletableFuture<Set<T>> getAllChildrenAsync( T term ) {
+        return getChildrenAsync( term, -1, getAsyncExecutor() );
+    }
+
     /**
      * Method to convert the Map returned by the OLS query into a Set of OntologyTerms.
      * The OLS Map is supposed to contain a ontology term accession (String) as key
@@ -630,11 +1480,7 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
         for ( Object o : results.keySet() ) {
             Object v = results.get( o );
             if ( o instanceof String && v instanceof String ) {
-                final T term = createNewOntologyTerm( ( String ) o, ( String ) v );
-                if (useTermSynonyms) {
-                    fetchTermSynonyms( term );
-                }
-                terms.add( term );
+                terms.add( createNewOntologyTerm( ( String ) o, ( String ) v ) );
             } else {
                 throw new IllegalStateException( "OLS query returned unexpected result!" +
                         " Expected Map with key and value of class String," +
@@ -642,6 +1488,9 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
                         " and value class: " + v.getClass().getName() );
             }
         }
+        if (useTermSynonyms && !lazyTermSynonyms) {
+            fetchTermSynonyms( terms );
+        }
         return terms;
     }
 
@@ -653,7 +1502,8 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
             if ( useTerm ) {
                 String result = olsClient.getTermById( id, ontologyID );
                 // check if the id returns a valid term name - if not, the id is not valid for this ontology
-                if ( result.equalsIgnoreCase( id ) ) { // OLS returns the (unchanged) id if no matching term is found
+                // no matching term: the client gives null, older OLS versions returned the (unchanged) id
+                if ( result == null || result.equalsIgnoreCase( id ) ) {
                     log.warn( "The Term ID '" + id + "' was not found in ontology '" + ontologyID + "'." );
                 } else {
                     // id is valid for this ontology
@@ -686,7 +1536,8 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
             if ( useTerm ) {
                 String result = olsClient.getTermById( id, ontologyID );
                 // check if the id returns a valid term name - if not, the id is not valid for this ontology
-                if ( result.equalsIgnoreCase( id ) ) { // OLS returns the (unchanged) id if no matching term is found
+                // no matching term: the client gives null, older OLS versions returned the (unchanged) id
+                if ( result == null || result.equalsIgnoreCase( id ) ) {
                     log.warn( "The Term ID '" + id + "' was not found in ontology '" + ontologyID + "'." );
                 } else {
                     // id is valid for this ontology
@@ -707,36 +1558,11 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
     }
 
     @Deprecated
-    public synchronized Set<String> getValidIDs( String queryTerm, boolean allowChildren, boolean useTerm ) {
-        Set<String> terms; // to store the results
-
+    public Set<String> getValidIDs( final String queryTerm, final boolean allowChildren, final boolean useTerm ) {
         // create unique string for this query
-        String queryGroup = "getValidIDs_query";
-        String myKey = queryGroup + "_" + ontologyID + "_" + queryTerm + "_" + allowChildren + "_" + useTerm;
-
-        String[] groups = {queryGroup};
-        try {
-            // Get from the cache
-            terms = ( Set<String> ) admin.getFromCache( myKey );
-            log.debug( "Using cached terms for key: " + myKey );
-        } catch ( NeedsRefreshException nre ) {
-            boolean updated = false;
-            try {
-                // result of this query not in cache, get it from the un-cached method
-                //terms = this.getValidIDs2( queryTerm, allowChildren, useTerm );
-                terms = this.getValidIDsOld( queryTerm, allowChildren, useTerm );
-                log.debug( "Storing uncached terms with key: " + myKey );
-                // store in the cache
-                admin.putInCache( myKey, terms, groups );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the cached content could not be rebuilt
-                    admin.cancelUpdate( myKey );
-                }
-            }
-        }
-        return terms;
+        String myKey = OlsCacheRegion.CHILDREN.key( ontologyID, "getValidIDs", queryTerm, allowChildren, useTerm );
+        //terms = this.getValidIDs2( queryTerm, allowChildren, useTerm );
+        return cached( myKey, () -> getValidIDsOld( queryTerm, allowChildren, useTerm ) );
     }
 
     @Deprecated
@@ -745,8 +1571,8 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
         try {
             // OLS does return false if the term does not exist! -> check the existence of the term first
             String s = olsClient.getTermById( id, ontologyID );
-            if ( s.equalsIgnoreCase( id ) ) {
-                // term not in database (if instead of the term name the accession is returned)
+            if ( s == null || s.equalsIgnoreCase( id ) ) {
+                // term not in database (if instead of the term name null or the accession is returned)
                 throw new IllegalStateException( "Checking obsolete on term '" + id
                         + "' which does not exist in '" + ontologyID + "'!" );
             }
@@ -758,36 +1584,10 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
     }
 
     @Deprecated
-    public synchronized boolean isObsoleteID( String id ) {
-        Boolean result;
-
+    public boolean isObsoleteID( final String id ) {
         // create unique string for this query
-        String queryGroup = "isObsoleteID_query";
-        String myKey = queryGroup + "_" + ontologyID + "_" + id;
-
-        String[] groups = {queryGroup};
-        try {
-            // Get from the cache
-            result = ( Boolean ) admin.getFromCache( myKey );
-            log.debug( "Using cached term for key: " + myKey );
-        } catch ( NeedsRefreshException nre ) {
-            boolean updated = false;
-            try {
-                // result of this query not in cache, get it from the un-cached method
-                result = this.isObsoleteIDUncached( id );
-                log.debug( "Storing uncached term with key: " + myKey );
-                // Store in the cache
-                admin.putInCache( myKey, result, groups );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the
-                    // cached content could not be rebuilt
-                    admin.cancelUpdate( myKey );
-                }
-            }
-        }
-        return result;
+        String myKey = OlsCacheRegion.OBSOLETE.key( ontologyID, "isObsoleteID", id );
+        return cached( myKey, () -> isObsoleteIDUncached( id ) );
     }
 
     @Deprecated
@@ -803,36 +1603,10 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
     }
 
     @Deprecated
-    public synchronized String getTermNameByID( String id ) {
-        String result;
-
+    public String getTermNameByID( final String id ) {
         // create unique string for this query
-        String queryGroup = "getTermNameByID_query";
-        String myKey = queryGroup + "_" + ontologyID + "_" + id;
-
-        String[] groups = {queryGroup};
-        try {
-            // Get from the cache
-            result = ( String ) admin.getFromCache( myKey );
-            log.debug( "Using cached term name for key: " + myKey );
-        } catch ( NeedsRefreshException nre ) {
-            boolean updated = false;
-            try {
-                // result of this query not in cache, get it from the un-cached method
-                result = this.getTermNameByIDUncached( id );
-                log.debug( "Storing uncached term name with key: " + myKey );
-                // Store in the cache
-                admin.putInCache( myKey, result, groups );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the
-                    // cached content could not be rebuilt
-                    admin.cancelUpdate( myKey );
-                }
-            }
-        }
-        return result;
+        String myKey = OlsCacheRegion.TERM.key( ontologyID, "getTermNameByID", id );
+        return cached( myKey, () -> getTermNameByIDUncached( id ) );
     }
 
     @Deprecated
@@ -847,35 +1621,10 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
     }
 
     @Deprecated
-    public synchronized Set<String> getDirectParentsIDs( String id ) {
-        Set<String> result;
-
+    public Set<String> getDirectParentsIDs( final String id ) {
         // create unique string for this query
-        String queryGroup = "getDirectParentsIDs_query";
-        String myKey = queryGroup + "_" + ontologyID + "_" + id;
-
-        String[] groups = {queryGroup};
-        try {
-            // Get from the cache
-            result = ( Set<String> ) admin.getFromCache( myKey );
-            log.debug( "Using cached terms for key: " + myKey );
-        } catch ( NeedsRefreshException nre ) {
-            boolean updated = false;
-            try {
-                // result of this query not in cache, get it from the un-cached method
-                result = this.getDirectParentsIDsUncached( id );
-                log.debug( "Storing uncached terms with key: " + myKey );
-                // Store in the cache
-                admin.putInCache( myKey, result, groups );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the cached content could not be rebuilt
-                    admin.cancelUpdate( myKey );
-                }
-            }
-        }
-        return result;
+        String myKey = OlsCacheRegion.PARENTS.key( ontologyID, "getDirectParentsIDs", id );
+        return cached( myKey, () -> getDirectParentsIDsUncached( id ) );
     }
 
     @Deprecated
@@ -903,59 +1652,129 @@ public abstract class AbstractOlsOntology<T extends OntologyTermI> implements On
     }
 
     @Deprecated
-    private synchronized Set<String> getChildTerms( String id ) throws RemoteException {
-        Set<String> result;
-
+    private Set<String> getChildTerms( String id ) throws RemoteException {
         // create unique string for this query
-        String queryGroup = "getChildTerms_query";
-        String myKey = queryGroup + "_" + ontologyID + "_" + id;
+        String myKey = OlsCacheRegion.CHILDREN.key( ontologyID, "getChildTerms", id );
 
-        String[] groups = {queryGroup};
-        try {
-            // Get from the cache
-            result = ( Set<String> ) admin.getFromCache( myKey );
-            log.debug( "Using cached terms for key: " + myKey );
-        } catch ( NeedsRefreshException nre ) {
-            boolean updated = false;
-            try {
-                // result of this query not in cache, get it from the un-cached method
-                result = this.getChildTermsUncached( id );
-                log.debug( "Storing uncached terms for key: " + myKey );
-                // Store in the cache
-                admin.putInCache( myKey, result, groups );
-                updated = true;
-            } finally {
-                if ( !updated ) {
-                    // It is essential that cancelUpdate is called if the
-                    // cached content could not be rebuilt
-                    admin.cancelUpdate( myKey );
-                }
-            }
+        // not using cached(...) as the query may throw a RemoteException
+        Set<String> result = ( Set<String> ) cache.get( myKey );
+        if ( result == null ) {
+            result = this.getChildTermsUncached( id );
+            cache.put( myKey, result );
         }
         return result;
     }
 
     /**
-     * put in the cache all the terms of the ontology
+     * put in the cache all the terms of the ontology, waiting for the end of the warm-up
      */
     public void preLoadAllOntologyTerms(){
-        for (String accession : this.rootAccs){
-            T term = getTermForAccessionUncached(accession);
+        warmUpCache( DEFAULT_ASYNC_THREADS ).await();
+    }
 
-            preLoadAllChildrenOf(term);
+    /**
+     * Starts to put in the cache all the terms of the ontology, with their direct children, direct parents and obsolete
+     * flag, and all the children of the root terms. The ontology can be queried while its cache is warmed up.
+     *
+     * @param threads maximum number of terms warmed up concurrently.
+     * @return the progress of the warm-up.
+     */
+    public OlsWarmUp warmUpCache( int threads ) {
+        if ( threads < 1 ) {
+            throw new IllegalArgumentException( "At least one thread is needed to warm up the cache: " + threads );
         }
+        if ( rootAccs == null ) {
+            throw new IllegalStateException( "The ontology must be loaded before warming up its cache." );
+        }
+        final OlsWarmUp warmUp = new OlsWarmUp( ontologyID );
+        cacheWarmUp = warmUp;
+        final ExecutorService executor = Executors.newFixedThreadPool( threads, new ThreadFactory() {
+            public Thread newThread( Runnable r ) {
+                final Thread thread = new Thread( r, "ols-warmup-" + warmUpThreadCount.incrementAndGet() );
+                thread.setDaemon( true );
+                return thread;
+            }
+        } );
+        final Set<String> found = ConcurrentHashMap.newKeySet();
+        // tasks submitted and not finished yet, plus one until all the roots are submitted
+        final AtomicInteger pending = new AtomicInteger( 1 );
+        final Runnable taskDone = () -> {
+            if ( pending.decrementAndGet() == 0 ) {
+                executor.shutdown();
+                warmUp.complete();
+            }
+        };
+        for ( final String rootAcc : rootAccs ) {
+            if ( found.add( rootAcc ) ) {
+                warmUp.termsFound( 1 );
+                pending.incrementAndGet();
+                executor.execute( () -> {
+                    try {
+                        final Set<T> children = warmUpTerm( rootAcc, warmUp, true );
+                        if ( children == null ) { return; }
+                        for ( T child : children ) {
+                            final String childAcc = child.getTermAccession();
+                            if ( found.add( childAcc ) ) {
+                                warmUp.termsFound( 1 );
+                                pending.incrementAndGet();
+                                executor.execute( () -> {
+                                    try {
+                                        warmUpTerm( childAcc, warmUp, false );
+                                    } finally {
+                                        taskDone.run();
+                                    }
+                                } );
+                            }
+                        }
+                    } finally {
+                        taskDone.run();
+                    }
+                } );
+            }
+        }
+        taskDone.run();
+        return warmUp;
     }
 
     /**
-     * Put in cache the ontology term with all its children
-     * @param termToPreLoad : the ontology term to put in cache with all its children
+     * Puts in the cache a term with its direct children, direct parents and obsolete flag.
+     *
+     * @param accession the accession of the term.
+     * @param warmUp    the progress of the warm-up.
+     * @param root      true to also cache all the children of the term.
+     * @return all the children of the term if asked for, null if the warm-up is cancelled or failed.
      */
-    private void preLoadAllChildrenOf(T termToPreLoad){
-        Set<T> children = getAllChildren(termToPreLoad);
-
-        for (T child : children){
-            getTermForAccessionUncached(child.getTermAccession());
+    private Set<T> warmUpTerm( String accession, OlsWarmUp warmUp, boolean root ) {
+        if ( warmUp.isCancelled() ) {
+            return null;
         }
+        try {
+            final T term = getTermForAccession( accession );
+            Set<T> allChildren = null;
+            if ( term != null ) {
+                getDirectChildren( term );
+                getDirectParents( term );
+                isObsolete( term );
+                if ( root ) {
+                    allChildren = getAllChildren( term );
+                }
+            }
+            warmUp.termWarmed( true );
+            return allChildren;
+        } catch ( RuntimeException e ) {
+            if ( log.isDebugEnabled() ) {
+                log.debug( "Could not warm up the cache for term: " + accession, e );
+            }
+            warmUp.termWarmed( false );
+            return null;
+        }
+    }
+
+    /**
+     * @return the progress of the last warm-up of the cache, null if it was never warmed up.
+     */
+    public OlsWarmUp getCacheWarmUp() {
+        return cacheWarmUp;
     }
 
     /**
@@ -0,0 +1,173 @@
+package psidev.psi.tools.ontology_manager.impl.ols;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of the warm-up of the cache of an OLS ontology, started by AbstractOlsOntology#warmUpCache.
+ * <p/>
+ * The count of terms to warm up grows while the roots of the ontology are explored, the estimated remaining time is
+ * only reliable once all the roots are explored.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsWarmUp {
+
+    public static final Log log = LogFactory.getLog( OlsWarmUp.class );
+
+    private final String ontologyID;
+
+    private final long startTime = System.currentTimeMillis();
+
+    private volatile long endTime = -1;
+
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final AtomicInteger warmed = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private volatile boolean cancelled = false;
+
+    OlsWarmUp( String ontologyID ) {
+        this.ontologyID = ontologyID;
+    }
+
+    public String getOntologyID() {
+        return ontologyID;
+    }
+
+    /**
+     * @return the count of terms found so far to warm up.
+     */
+    public int getTotal() {
+        return total.get();
+    }
+
+    /**
+     * @return the count of terms warmed up, including the failed ones.
+     */
+    public int getWarmed() {
+        return warmed.get();
+    }
+
+    /**
+     * @return the count of terms that could not be warmed up.
+     */
+    public int getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the fraction of the terms found so far that are warmed up, between 0 and 1.
+     */
+    public double getProgress() {
+        final int t = total.get();
+        return t == 0 ? ( isDone() ? 1 : 0 ) : Math.min( 1, ( double ) warmed.get() / t );
+    }
+
+    /**
+     * @return time in milliseconds since the warm-up started, until it ended if it is done.
+     */
+    public long getElapsedTime() {
+        return ( endTime < 0 ? System.currentTimeMillis() : endTime ) - startTime;
+    }
+
+    /**
+     * @return estimated time in milliseconds until the warm-up ends, -1 if no term is warmed up yet.
+     */
+    public long getEstimatedRemainingTime() {
+        if ( isDone() ) {
+            return 0;
+        }
+        final int w = warmed.get();
+        if ( w == 0 ) {
+            return -1;
+        }
+        return getElapsedTime() * Math.max( 0, total.get() - w ) / w;
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops the warm-up, the terms being warmed up are completed.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return completes once the warm-up ends.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Waits for the end of the warm-up.
+     */
+    public void await() {
+        try {
+            completion.get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while warming up the cache of " + ontologyID );
+        } catch ( ExecutionException e ) {
+            throw new IllegalStateException( "Error while warming up the cache of " + ontologyID, e.getCause() );
+        }
+    }
+
+    void termsFound( int count ) {
+        total.addAndGet( count );
+    }
+
+    void termWarmed( boolean success ) {
+        if ( !success ) {
+            failed.incrementAndGet();
+        }
+        final int w = warmed.incrementAndGet();
+        final int step = Math.max( 1000, total.get() / 10 );
+        if ( w % step == 0 && log.isInfoEnabled() ) {
+            log.info( this );
+        }
+    }
+
+    void complete() {
+        endTime = System.currentTimeMillis();
+        completion.complete( null );
+        log.info( this );
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder( 128 );
+        sb.append( "Cache warm-up of " ).append( ontologyID ).append( ": " );
+        sb.append( warmed.get() ).append( '/' ).append( total.get() ).append( " terms" );
+        if ( failed.get() > 0 ) {
+            sb.append( " (" ).append( failed.get() ).append( " failed)" );
+        }
+        sb.append( ", " ).append( getElapsedTime() / 1000 ).append( "s elapsed" );
+        if ( isDone() ) {
+            sb.append( cancelled ? ", cancelled" : ", done" );
+        } else {
+            final long eta = getEstimatedRemainingTime();
+            if ( eta >= 0 ) {
+                sb.append( ", about " ).append( eta / 1000 ).append( "s left" );
+            }
+        }
+        return sb.toString();
+    }
+}
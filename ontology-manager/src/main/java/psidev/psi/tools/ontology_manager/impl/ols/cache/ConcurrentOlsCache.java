@@ -0,0 +1,172 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size and time bounded OlsCache backed by a ConcurrentHashMap.
+ * <p/>
+ * Reads do not take any lock. When the capacity is exceeded, a single writing thread evicts the least recently used
+ * entries, the other writers do not wait for it. Entries older than the time to live are ignored and removed when read.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ConcurrentOlsCache implements OlsCache {
+
+    /**
+     * Fraction of the capacity freed by an eviction, so that evictions do not happen on every put.
+     */
+    private static final double EVICTION_RATIO = 0.1;
+
+    private final Map<String, Entry> entries;
+
+    private final int capacity;
+
+    private final long timeToLive;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private static class Entry {
+        private final Object value;
+        private final long created;
+        private volatile long lastAccess;
+
+        private Entry( Object value, long created, long now ) {
+            this.value = value;
+            this.created = created;
+            this.lastAccess = now;
+        }
+    }
+
+    /**
+     * @param capacity   maximum count of cached results.
+     * @param timeToLive time in milliseconds a result is kept, 0 to keep it until evicted.
+     */
+    public ConcurrentOlsCache( int capacity, long timeToLive ) {
+        if ( capacity < 1 ) {
+            throw new IllegalArgumentException( "The capacity of the cache must be at least 1: " + capacity );
+        }
+        if ( timeToLive < 0 ) {
+            throw new IllegalArgumentException( "The time to live must be positive: " + timeToLive );
+        }
+        this.capacity = capacity;
+        this.timeToLive = timeToLive;
+        this.entries = new ConcurrentHashMap<>( Math.min( capacity, 1024 ) );
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * @return the count of entries removed because they were expired or to respect the capacity.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public Object get( String key ) {
+        final Entry entry = entries.get( key );
+        if ( entry == null ) {
+            return null;
+        }
+        final long now = System.currentTimeMillis();
+        if ( isExpired( entry, now ) ) {
+            if ( entries.remove( key, entry ) ) {
+                evictions.incrementAndGet();
+            }
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry.value;
+    }
+
+    public void put( String key, Object value ) {
+        put( key, value, System.currentTimeMillis() );
+    }
+
+    public void put( String key, Object value, long created ) {
+        if ( value == null ) {
+            throw new IllegalArgumentException( "Cannot cache a null value for key: " + key );
+        }
+        entries.put( key, new Entry( value, created, System.currentTimeMillis() ) );
+        if ( entries.size() > capacity ) {
+            evict();
+        }
+    }
+
+    public void remove( String key ) {
+        entries.remove( key );
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired( Entry entry, long now ) {
+        return timeToLive > 0 && now - entry.created > timeToLive;
+    }
+
+    /**
+     * Removes the expired entries, then the least recently used ones until the cache is back under its capacity.
+     */
+    private void evict() {
+        if ( !evictionLock.tryLock() ) {
+            // another thread is already evicting
+            return;
+        }
+        try {
+            final long now = System.currentTimeMillis();
+            final List<Map.Entry<String, Entry>> candidates = new ArrayList<>( entries.size() );
+            for ( Map.Entry<String, Entry> e : entries.entrySet() ) {
+                if ( isExpired( e.getValue(), now ) ) {
+                    if ( entries.remove( e.getKey(), e.getValue() ) ) {
+                        evictions.incrementAndGet();
+                    }
+                } else {
+                    candidates.add( e );
+                }
+            }
+
+            final int target = capacity - ( int ) ( capacity * EVICTION_RATIO );
+            int toEvict = entries.size() - target;
+            if ( toEvict <= 0 ) {
+                return;
+            }
+
+            // access times keep changing while sorting, sort on a snapshot of them
+            final List<long[]> accesses = new ArrayList<>( candidates.size() );
+            for ( int i = 0; i < candidates.size(); i++ ) {
+                accesses.add( new long[]{candidates.get( i ).getValue().lastAccess, i} );
+            }
+            Collections.sort( accesses, ( a1, a2 ) -> Long.compare( a1[0], a2[0] ) );
+            for ( long[] access : accesses ) {
+                if ( toEvict-- <= 0 ) {
+                    break;
+                }
+                final Map.Entry<String, Entry> e = candidates.get( ( int ) access[1] );
+                if ( entries.remove( e.getKey(), e.getValue() ) ) {
+                    evictions.incrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
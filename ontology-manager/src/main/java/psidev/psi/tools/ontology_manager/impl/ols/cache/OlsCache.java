@@ -0,0 +1,65 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+/**
+ * Cache of the results of the OLS queries of an OLS ontology.
+ * <p/>
+ * Implementations must be thread safe. Values are never null, queries without result are cached as NULL_RESULT.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public interface OlsCache {
+
+    /**
+     * Value cached for the queries that have no result.
+     */
+    Object NULL_RESULT = new Object() {
+        @Override
+        public String toString() {
+            return "NULL_RESULT";
+        }
+    };
+
+    /**
+     * @param key the key of a query.
+     * @return the cached result of the query, null if it is not cached or expired.
+     */
+    Object get( String key );
+
+    /**
+     * Caches the result of a query.
+     *
+     * @param key   the key of the query.
+     * @param value the non null result of the query.
+     */
+    void put( String key, Object value );
+
+    /**
+     * Caches a result obtained earlier, e.g. read back from a file, so that it expires as if it was cached at that
+     * time. By default the time is ignored.
+     *
+     * @param key     the key of the query.
+     * @param value   the non null result of the query.
+     * @param created the time in milliseconds the result was first cached.
+     */
+    default void put( String key, Object value, long created ) {
+        put( key, value );
+    }
+
+    /**
+     * Removes the cached result of a query, if any.
+     *
+     * @param key the key of the query.
+     */
+    void remove( String key );
+
+    /**
+     * Removes all the cached results.
+     */
+    void clear();
+
+    /**
+     * @return the count of results currently cached, including the expired ones not evicted yet.
+     */
+    int size();
+}
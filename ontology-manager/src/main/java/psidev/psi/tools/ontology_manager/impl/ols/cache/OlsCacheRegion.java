@@ -0,0 +1,76 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+/**
+ * Kinds of OLS queries cached separately, each in a region with its own capacity and time to live.
+ * <p/>
+ * The keys of the cached queries start with the name of their region, e.g. TERM_MI_MI:0018.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public enum OlsCacheRegion {
+
+    /**
+     * Terms and term names by accession.
+     */
+    TERM,
+
+    /**
+     * Children of the terms, by level.
+     */
+    CHILDREN,
+
+    /**
+     * Direct parents of the terms.
+     */
+    PARENTS,
+
+    /**
+     * Obsolete flags of the terms.
+     */
+    OBSOLETE,
+
+    /**
+     * Metadata of the terms, holding their synonyms.
+     */
+    METADATA,
+
+    /**
+     * Cross references of the terms.
+     */
+    XREFS;
+
+    private static final char SEPARATOR = '_';
+
+    /**
+     * @param ontologyID the ontology queried.
+     * @param parameters the parameters of the query.
+     * @return the key of the query in this region.
+     */
+    public String key( String ontologyID, Object... parameters ) {
+        final StringBuilder sb = new StringBuilder( 64 );
+        sb.append( name() ).append( SEPARATOR ).append( ontologyID );
+        for ( Object parameter : parameters ) {
+            sb.append( SEPARATOR ).append( parameter );
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param key the key of a query.
+     * @return the region of the query, null if the key was not built by a region.
+     */
+    public static OlsCacheRegion of( String key ) {
+        final int end = key.indexOf( SEPARATOR );
+        if ( end < 0 ) {
+            return null;
+        }
+        final String name = key.substring( 0, end );
+        for ( OlsCacheRegion region : values() ) {
+            if ( region.name().equals( name ) ) {
+                return region;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,115 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of a cache region since it was created.
+ * <p/>
+ * A hit is a query answered from the cache. A coalesced query is answered by the same query already sent to OLS by
+ * another caller, it waited for OLS without querying it. A miss is a query sent to OLS, whose load time is recorded.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsCacheStatistics {
+
+    private final OlsCacheRegion region;
+
+    private final OlsCache cache;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong loadTime = new AtomicLong();
+
+    /**
+     * @param region the region described.
+     * @param cache  the cache of the region.
+     */
+    public OlsCacheStatistics( OlsCacheRegion region, OlsCache cache ) {
+        this.region = region;
+        this.cache = cache;
+    }
+
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public void recordCoalesced() {
+        coalesced.incrementAndGet();
+    }
+
+    /**
+     * @param nanos time in nanoseconds taken by OLS to answer the query.
+     */
+    public void recordMiss( long nanos ) {
+        misses.incrementAndGet();
+        loadTime.addAndGet( nanos );
+    }
+
+    public OlsCacheRegion getRegion() {
+        return region;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the fraction of the queries answered from the cache, 0 if there was no query.
+     */
+    public double getHitRate() {
+        final long hitCount = hits.get();
+        final long total = hitCount + coalesced.get() + misses.get();
+        return total == 0 ? 0 : ( double ) hitCount / total;
+    }
+
+    /**
+     * @return the count of results removed to respect the capacity or the time to live of the region, only counted
+     *         by the concurrent cache.
+     */
+    public long getEvictionCount() {
+        return cache instanceof ConcurrentOlsCache ? ( ( ConcurrentOlsCache ) cache ).getEvictionCount() : 0;
+    }
+
+    /**
+     * @return the total time in milliseconds taken by OLS to answer the missed queries.
+     */
+    public long getTotalLoadTime() {
+        return loadTime.get() / 1000000;
+    }
+
+    /**
+     * @return the average time in milliseconds taken by OLS to answer a missed query, 0 if there was no miss.
+     */
+    public double getAverageLoadTime() {
+        final long missCount = misses.get();
+        return missCount == 0 ? 0 : loadTime.get() / 1000000.0 / missCount;
+    }
+
+    /**
+     * @return the count of results currently cached in the region.
+     */
+    public int getSize() {
+        return cache.size();
+    }
+
+    @Override
+    public String toString() {
+        return region + ": size=" + getSize() + " hits=" + getHitCount() + " coalesced=" + getCoalescedCount()
+               + " misses=" + getMissCount()
+               + " hitRate=" + String.format( "%.3f", getHitRate() ) + " evictions=" + getEvictionCount()
+               + " averageLoadTime=" + String.format( "%.1f", getAverageLoadTime() ) + "ms";
+    }
+}
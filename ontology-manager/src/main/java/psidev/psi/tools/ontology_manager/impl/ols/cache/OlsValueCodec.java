@@ -0,0 +1,191 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Encodes the results of OLS queries in a compact binary form that does not depend on Java serialization.
+ * <p/>
+ * Supported values are the NULL_RESULT marker, strings, booleans, numbers, ontology terms and the lists, sets and maps
+ * made of them. Ontology terms are decoded with the factory of the ontology, so that the right implementation of
+ * OntologyTermI is built.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsValueCodec {
+
+    /**
+     * Builds the terms of an ontology.
+     */
+    public interface TermFactory {
+        OntologyTermI createTerm( String accession, String name );
+    }
+
+    private static final byte NULL_RESULT = 0;
+    private static final byte NULL = 1;
+    private static final byte STRING = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte TERM = 6;
+    private static final byte LIST = 7;
+    private static final byte SET = 8;
+    private static final byte MAP = 9;
+
+    private final TermFactory termFactory;
+
+    public OlsValueCodec( TermFactory termFactory ) {
+        if ( termFactory == null ) {
+            throw new IllegalArgumentException( "You must give a non null term factory." );
+        }
+        this.termFactory = termFactory;
+    }
+
+    /**
+     * @param value the value to encode.
+     * @return the encoded value or null if the value, or one of its elements, is not supported.
+     */
+    public byte[] encode( Object value ) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream( 256 );
+        final DataOutputStream out = new DataOutputStream( baos );
+        try {
+            if ( !write( out, value ) ) {
+                return null;
+            }
+            out.flush();
+        } catch ( IOException e ) {
+            throw new IllegalStateException( "Could not encode value in memory", e );
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * @param bytes a value encoded by this codec.
+     * @return the decoded value.
+     * @throws IOException if the bytes are not a valid encoded value.
+     */
+    public Object decode( byte[] bytes ) throws IOException {
+        return read( new DataInputStream( new ByteArrayInputStream( bytes ) ) );
+    }
+
+    private boolean write( DataOutputStream out, Object value ) throws IOException {
+        if ( value == OlsCache.NULL_RESULT ) {
+            out.writeByte( NULL_RESULT );
+        } else if ( value == null ) {
+            out.writeByte( NULL );
+        } else if ( value instanceof String ) {
+            out.writeByte( STRING );
+            writeString( out, ( String ) value );
+        } else if ( value instanceof Boolean ) {
+            out.writeByte( BOOLEAN );
+            out.writeBoolean( ( Boolean ) value );
+        } else if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+            out.writeByte( LONG );
+            out.writeLong( ( ( Number ) value ).longValue() );
+        } else if ( value instanceof Double || value instanceof Float ) {
+            out.writeByte( DOUBLE );
+            out.writeDouble( ( ( Number ) value ).doubleValue() );
+        } else if ( value instanceof OntologyTermI ) {
+            final OntologyTermI term = ( OntologyTermI ) value;
+            out.writeByte( TERM );
+            writeString( out, term.getTermAccession() );
+            writeString( out, term.getPreferredName() );
+            final Collection<String> synonyms = term.getNameSynonyms();
+            out.writeInt( synonyms == null ? 0 : synonyms.size() );
+            if ( synonyms != null ) {
+                for ( String synonym : synonyms ) {
+                    writeString( out, synonym );
+                }
+            }
+        } else if ( value instanceof List || value instanceof Set ) {
+            final Collection<?> collection = ( Collection<?> ) value;
+            out.writeByte( value instanceof List ? LIST : SET );
+            out.writeInt( collection.size() );
+            for ( Object element : collection ) {
+                if ( !write( out, element ) ) {
+                    return false;
+                }
+            }
+        } else if ( value instanceof Map ) {
+            final Map<?, ?> map = ( Map<?, ?> ) value;
+            out.writeByte( MAP );
+            out.writeInt( map.size() );
+            for ( Map.Entry<?, ?> entry : map.entrySet() ) {
+                if ( !write( out, entry.getKey() ) || !write( out, entry.getValue() ) ) {
+                    return false;
+                }
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private Object read( DataInputStream in ) throws IOException {
+        final byte tag = in.readByte();
+        switch ( tag ) {
+            case NULL_RESULT:
+                return OlsCache.NULL_RESULT;
+            case NULL:
+                return null;
+            case STRING:
+                return readString( in );
+            case BOOLEAN:
+                return in.readBoolean();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case TERM: {
+                final OntologyTermI term = termFactory.createTerm( readString( in ), readString( in ) );
+                final int count = in.readInt();
+                for ( int i = 0; i < count; i++ ) {
+                    term.getNameSynonyms().add( readString( in ) );
+                }
+                return term;
+            }
+            case LIST:
+            case SET: {
+                final int count = in.readInt();
+                final Collection<Object> collection = tag == LIST ? new ArrayList<>( count ) : new HashSet<>( count * 2 );
+                for ( int i = 0; i < count; i++ ) {
+                    collection.add( read( in ) );
+                }
+                return collection;
+            }
+            case MAP: {
+                final int count = in.readInt();
+                final Map<Object, Object> map = new HashMap<>( count * 2 );
+                for ( int i = 0; i < count; i++ ) {
+                    map.put( read( in ), read( in ) );
+                }
+                return map;
+            }
+            default:
+                throw new IOException( "Unknown value tag: " + tag );
+        }
+    }
+
+    private void writeString( DataOutputStream out, String s ) throws IOException {
+        if ( s == null ) {
+            out.writeInt( -1 );
+        } else {
+            final byte[] bytes = s.getBytes( "UTF-8" );
+            out.writeInt( bytes.length );
+            out.write( bytes );
+        }
+    }
+
+    private String readString( DataInputStream in ) throws IOException {
+        final int length = in.readInt();
+        if ( length < 0 ) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully( bytes );
+        return new String( bytes, "UTF-8" );
+    }
+}
@@ -0,0 +1,63 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+import com.opensymphony.oscache.base.NeedsRefreshException;
+import com.opensymphony.oscache.general.GeneralCacheAdministrator;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OlsCache backed by OSCache, configured with the OSCache properties (cache.capacity, cache.memory, ...).
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OsCacheOlsCache implements OlsCache {
+
+    private final GeneralCacheAdministrator admin;
+
+    /**
+     * OSCache does not give its size, this is an upper bound: the count of results put since the cache was cleared.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    public OsCacheOlsCache( Properties properties ) {
+        if ( properties == null || properties.isEmpty() ) {
+            admin = new GeneralCacheAdministrator();
+        } else {
+            admin = new GeneralCacheAdministrator( properties );
+        }
+    }
+
+    public Object get( String key ) {
+        try {
+            return admin.getFromCache( key );
+        } catch ( NeedsRefreshException e ) {
+            // It is essential that cancelUpdate is called if the cached content is not rebuilt,
+            // the result is loaded and put by the caller without blocking the other readers
+            admin.cancelUpdate( key );
+            return null;
+        }
+    }
+
+    public void put( String key, Object value ) {
+        if ( value == null ) {
+            throw new IllegalArgumentException( "Cannot cache a null value for key: " + key );
+        }
+        admin.putInCache( key, value );
+        size.incrementAndGet();
+    }
+
+    public void remove( String key ) {
+        admin.removeEntry( key );
+    }
+
+    public void clear() {
+        admin.flushAll();
+        size.set( 0 );
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,474 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import psidev.psi.tools.ontology_manager.impl.local.DirectoryLock;
+
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * OlsCache keeping a copy of the cached results in an append-only log file, so that they survive restarts.
+ * <p/>
+ * The results are kept in memory by a delegate cache. The log file is only read when the cache is first accessed, all
+ * its records are then put in the delegate along with the time they were first cached, so that they expire as if the
+ * cache had never been restarted. The log file starts with the version of the cached ontology (e.g. the OLS load date
+ * of the ontology): if it does not match the current version, the file is discarded. Results the codec cannot encode
+ * are only kept in memory. A truncated last record, e.g. after a crash, is ignored.
+ * <p/>
+ * The log file is compacted when it is read: the records of the results removed, replaced or not kept by the delegate
+ * (e.g. expired) are dropped. It is compacted again, the same way, once it holds more than twice as many records as
+ * the delegate holds results, and at least {@link #getCompactionThreshold()} records. It is locked while being read,
+ * compacted or appended to, so that several processes can share it.
+ * <p/>
+ * The records are appended in batches: the threads putting results only queue their records, whichever thread finds
+ * no batch being written writes all the queued ones under a single lock of the file. A record is hence written shortly
+ * after its result is put, {@link #close()} writes the records still queued.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class PersistentOlsCache implements OlsCache {
+
+    public static final Log log = LogFactory.getLog( PersistentOlsCache.class );
+
+    private static final int MAGIC = 0x4F4C5343; // OLSC
+
+    // 2: the keys start with the name of their cache region
+    // 3: the records keep the time their result was first cached
+    private static final int FORMAT_VERSION = 3;
+
+    // value length of the records removing a key
+    private static final int REMOVED = -1;
+
+    private static final String LOCK_SUFFIX = ".lock";
+
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 10000;
+
+    private final OlsCache delegate;
+
+    private final File file;
+
+    private final File lockFile;
+
+    private final String version;
+
+    private final OlsValueCodec codec;
+
+    private volatile boolean loaded = false;
+
+    private DataOutputStream out;
+
+    /**
+     * Count of records of the log file, as far as this cache knows: other processes may have appended more.
+     */
+    private long fileRecords;
+
+    private volatile int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    /**
+     * The records waiting to be appended to the log file.
+     */
+    private final Queue<PendingRecord> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Whether a thread is appending the pending records.
+     */
+    private final AtomicBoolean appending = new AtomicBoolean();
+
+    /**
+     * @param delegate the in memory cache.
+     * @param file     the log file, created if it does not exist.
+     * @param version  the version of the cached results, the file is discarded if it was written for another one.
+     * @param codec    encodes and decodes the cached results.
+     */
+    public PersistentOlsCache( OlsCache delegate, File file, String version, OlsValueCodec codec ) {
+        if ( delegate == null ) {
+            throw new IllegalArgumentException( "You must give a non null delegate cache." );
+        }
+        if ( file == null ) {
+            throw new IllegalArgumentException( "You must give a non null cache file." );
+        }
+        if ( version == null ) {
+            throw new IllegalArgumentException( "You must give a non null cache version." );
+        }
+        if ( codec == null ) {
+            throw new IllegalArgumentException( "You must give a non null codec." );
+        }
+        this.delegate = delegate;
+        this.file = file;
+        this.lockFile = new File( file.getPath() + LOCK_SUFFIX );
+        this.version = version;
+        this.codec = codec;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * @param compactionThreshold the count of records the log file must hold before it is compacted while in use.
+     */
+    public void setCompactionThreshold( int compactionThreshold ) {
+        if ( compactionThreshold < 1 ) {
+            throw new IllegalArgumentException( "The compaction threshold must be positive: " + compactionThreshold );
+        }
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public Object get( String key ) {
+        ensureLoaded();
+        return delegate.get( key );
+    }
+
+    public void put( String key, Object value ) {
+        put( key, value, System.currentTimeMillis() );
+    }
+
+    public void put( String key, Object value, long created ) {
+        ensureLoaded();
+        delegate.put( key, value, created );
+        final byte[] bytes = codec.encode( value );
+        if ( bytes != null ) {
+            append( key, created, bytes );
+        } else if ( log.isDebugEnabled() ) {
+            log.debug( "Not persisting the result of type " + value.getClass().getName() + " for key: " + key );
+        }
+    }
+
+    public void remove( String key ) {
+        ensureLoaded();
+        delegate.remove( key );
+        append( key, 0, null );
+    }
+
+    public synchronized void clear() {
+        loaded = true;
+        delegate.clear();
+        pending.clear();
+        closeQuietly();
+        DirectoryLock lock = null;
+        try {
+            lock = lock();
+            rewrite( header().toByteArray() );
+            fileRecords = 0;
+            out = openLog();
+        } catch ( IOException e ) {
+            log.error( "Could not reset the OLS cache file: " + file.getAbsolutePath(), e );
+        } finally {
+            if ( lock != null ) {
+                lock.release();
+            }
+        }
+    }
+
+    public int size() {
+        ensureLoaded();
+        return delegate.size();
+    }
+
+    /**
+     * Writes the queued records and closes the log file, the results put afterwards are only kept in memory.
+     */
+    public synchronized void close() {
+        writePending();
+        closeQuietly();
+    }
+
+    private void ensureLoaded() {
+        if ( !loaded ) {
+            synchronized ( this ) {
+                if ( !loaded ) {
+                    load();
+                    loaded = true;
+                }
+            }
+        }
+    }
+
+    private void append( String key, long created, byte[] value ) {
+        pending.add( new PendingRecord( key, created, value ) );
+        // the thread getting the flag writes the records of all the others, checking again for the records queued
+        // after it wrote its batch but before it released the flag
+        while ( !pending.isEmpty() && appending.compareAndSet( false, true ) ) {
+            try {
+                writePending();
+            } finally {
+                appending.set( false );
+            }
+        }
+    }
+
+    /**
+     * Appends the queued records to the log file under a single lock, and compacts it if it grew too much.
+     */
+    private synchronized void writePending() {
+        if ( out == null ) {
+            pending.clear();
+            return;
+        }
+        if ( pending.isEmpty() ) {
+            return;
+        }
+        DirectoryLock lock = null;
+        try {
+            // the file is opened for appending, the records are written at its end even if another process compacted it
+            lock = lock();
+            PendingRecord record;
+            while ( ( record = pending.poll() ) != null ) {
+                writeRecord( out, record.key, record.created, record.value );
+                fileRecords++;
+            }
+            out.flush();
+        } catch ( IOException e ) {
+            log.error( "Could not write to the OLS cache file, the results are only cached in memory from now on: "
+                    + file.getAbsolutePath(), e );
+            closeQuietly();
+            pending.clear();
+        } finally {
+            if ( lock != null ) {
+                lock.release();
+            }
+        }
+        if ( out != null && fileRecords > Math.max( compactionThreshold, 2L * delegate.size() ) ) {
+            closeQuietly();
+            load();
+        }
+    }
+
+    /**
+     * Puts the records of the log file in the delegate, compacts the log file and opens it for appending.
+     */
+    private void load() {
+        DirectoryLock lock = null;
+        try {
+            lock = lock();
+            final Records records = file.exists() ? read() : null;
+            fileRecords = 0;
+            if ( records == null ) {
+                rewrite( header().toByteArray() );
+            } else {
+                final ByteArrayOutputStream compacted = header();
+                final DataOutputStream data = new DataOutputStream( compacted );
+                int kept = 0;
+                for ( Map.Entry<String, Record> entry : records.records.entrySet() ) {
+                    final String key = entry.getKey();
+                    final Record record = entry.getValue();
+                    delegate.put( key, record.value, record.created );
+                    // the results the delegate does not keep, e.g. expired ones, are not kept in the file either
+                    if ( delegate.get( key ) != null ) {
+                        writeRecord( data, key, record.created, record.bytes );
+                        kept++;
+                    }
+                }
+                data.flush();
+                fileRecords = kept;
+                if ( records.length < file.length() ) {
+                    log.warn( "Ignoring the truncated end of the OLS cache file: " + file.getAbsolutePath() );
+                }
+                if ( kept < records.count || records.length < file.length() ) {
+                    rewrite( compacted.toByteArray() );
+                    log.info( "Compacted the OLS cache file from " + records.count + " to " + kept + " records: "
+                            + file.getAbsolutePath() );
+                }
+            }
+            out = openLog();
+        } catch ( IOException e ) {
+            log.error( "Could not open the OLS cache file, the results are only cached in memory: "
+                    + file.getAbsolutePath(), e );
+            closeQuietly();
+        } finally {
+            if ( lock != null ) {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * @return the latest record of each key still cached, null if the file cannot be reused.
+     */
+    private Records read() throws IOException {
+        final CountingInputStream counter = new CountingInputStream( new BufferedInputStream( new FileInputStream( file ) ) );
+        final DataInputStream in = new DataInputStream( counter );
+        final long fileLength = file.length();
+        final Records records = new Records();
+        try {
+            if ( in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION ) {
+                log.warn( "Discarding the OLS cache file of unknown format: " + file.getAbsolutePath() );
+                return null;
+            }
+            final String fileVersion = in.readUTF();
+            if ( !version.equals( fileVersion ) ) {
+                log.info( "Discarding the OLS cache file of version " + fileVersion + ", current version is "
+                        + version + ": " + file.getAbsolutePath() );
+                return null;
+            }
+            records.length = counter.count;
+            while ( records.length < fileLength ) {
+                final String key = new String( readBytes( in, in.readInt(), fileLength ), "UTF-8" );
+                final long created = in.readLong();
+                final int valueLength = in.readInt();
+                if ( valueLength == REMOVED ) {
+                    records.records.remove( key );
+                } else {
+                    final byte[] bytes = readBytes( in, valueLength, fileLength );
+                    records.records.put( key, new Record( created, bytes, codec.decode( bytes ) ) );
+                }
+                records.count++;
+                records.length = counter.count;
+            }
+        } catch ( EOFException e ) {
+            // the last record was not fully written, keep the previous ones
+        } catch ( IOException e ) {
+            log.warn( "Discarding the corrupted OLS cache file: " + file.getAbsolutePath(), e );
+            return null;
+        } finally {
+            in.close();
+        }
+        log.info( "Loaded " + records.count + " OLS cache records from: " + file.getAbsolutePath() );
+        return records;
+    }
+
+    private byte[] readBytes( DataInputStream in, int length, long fileLength ) throws IOException {
+        if ( length < 0 || length > fileLength ) {
+            throw new IOException( "Invalid record length: " + length );
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully( bytes );
+        return bytes;
+    }
+
+    private void writeRecord( DataOutputStream stream, String key, long created, byte[] value ) throws IOException {
+        final byte[] keyBytes = key.getBytes( "UTF-8" );
+        stream.writeInt( keyBytes.length );
+        stream.write( keyBytes );
+        stream.writeLong( created );
+        if ( value == null ) {
+            stream.writeInt( REMOVED );
+        } else {
+            stream.writeInt( value.length );
+            stream.write( value );
+        }
+    }
+
+    private ByteArrayOutputStream header() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream stream = new DataOutputStream( bytes );
+        stream.writeInt( MAGIC );
+        stream.writeInt( FORMAT_VERSION );
+        stream.writeUTF( version );
+        stream.flush();
+        return bytes;
+    }
+
+    private DirectoryLock lock() throws IOException {
+        final File dir = file.getAbsoluteFile().getParentFile();
+        if ( dir != null && !dir.exists() && !dir.mkdirs() ) {
+            throw new IOException( "Could not create the OLS cache directory: " + dir.getAbsolutePath() );
+        }
+        return DirectoryLock.acquire( lockFile );
+    }
+
+    /**
+     * Replaces the content of the log file in place, the other processes appending to it keep appending to the same
+     * file. To be called with the lock held.
+     */
+    private void rewrite( byte[] content ) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile( file, "rw" );
+        try {
+            raf.write( content );
+            raf.setLength( content.length );
+        } finally {
+            raf.close();
+        }
+    }
+
+    private DataOutputStream openLog() throws IOException {
+        return new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file, true ) ) );
+    }
+
+    private void closeQuietly() {
+        if ( out != null ) {
+            try {
+                out.close();
+            } catch ( IOException e ) {
+                log.warn( "Could not close the OLS cache file: " + file.getAbsolutePath(), e );
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * The latest record of each key of a log file.
+     */
+    private static class Records {
+        private final Map<String, Record> records = new LinkedHashMap<>();
+        private int count; // all the records read, including the replaced and removed ones
+        private long length; // the length of the complete records
+    }
+
+    private static class PendingRecord {
+        private final String key;
+        private final long created;
+        private final byte[] value; // null for a removal
+
+        private PendingRecord( String key, long created, byte[] value ) {
+            this.key = key;
+            this.created = created;
+            this.value = value;
+        }
+    }
+
+    private static class Record {
+        private final long created;
+        private final byte[] bytes;
+        private final Object value;
+
+        private Record( long created, byte[] bytes, Object value ) {
+            this.created = created;
+            this.bytes = bytes;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Counts the bytes read, to find where the last complete record ends.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream( InputStream in ) {
+            super( in );
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if ( b >= 0 ) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read( byte[] b, int off, int len ) throws IOException {
+            final int n = super.read( b, off, len );
+            if ( n > 0 ) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
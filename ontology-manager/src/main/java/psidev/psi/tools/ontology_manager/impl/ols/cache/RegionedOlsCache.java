@@ -0,0 +1,85 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * OlsCache keeping each kind of query in the cache of its region, as given by the prefix of the query keys.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class RegionedOlsCache implements OlsCache {
+
+    private final Map<OlsCacheRegion, OlsCache> regions = new EnumMap<>( OlsCacheRegion.class );
+
+    private final Map<OlsCacheRegion, OlsCacheStatistics> statistics = new EnumMap<>( OlsCacheRegion.class );
+
+    /**
+     * @param regions the cache of each region.
+     */
+    public RegionedOlsCache( Map<OlsCacheRegion, ? extends OlsCache> regions ) {
+        for ( OlsCacheRegion region : OlsCacheRegion.values() ) {
+            final OlsCache cache = regions.get( region );
+            if ( cache == null ) {
+                throw new IllegalArgumentException( "No cache given for the region " + region );
+            }
+            this.regions.put( region, cache );
+            this.statistics.put( region, new OlsCacheStatistics( region, cache ) );
+        }
+    }
+
+    private OlsCache regionOf( String key ) {
+        final OlsCacheRegion region = OlsCacheRegion.of( key );
+        if ( region == null ) {
+            throw new IllegalArgumentException( "The key is not in any cache region: " + key );
+        }
+        return regions.get( region );
+    }
+
+    /**
+     * @param region a cache region.
+     * @return the cache of the region.
+     */
+    public OlsCache getRegion( OlsCacheRegion region ) {
+        return regions.get( region );
+    }
+
+    /**
+     * @param region a cache region.
+     * @return the statistics of the region.
+     */
+    public OlsCacheStatistics getStatistics( OlsCacheRegion region ) {
+        return statistics.get( region );
+    }
+
+    public Object get( String key ) {
+        return regionOf( key ).get( key );
+    }
+
+    public void put( String key, Object value ) {
+        regionOf( key ).put( key, value );
+    }
+
+    public void put( String key, Object value, long created ) {
+        regionOf( key ).put( key, value, created );
+    }
+
+    public void remove( String key ) {
+        regionOf( key ).remove( key );
+    }
+
+    public void clear() {
+        for ( OlsCache cache : regions.values() ) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for ( OlsCache cache : regions.values() ) {
+            size += cache.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,287 @@
+package psidev.psi.tools.ontology_manager.impl.tiered;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccessTemplate;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.io.File;
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Ontology answering from a local snapshot of the ontology (e.g. an OBO file) and querying a remote ontology (e.g. OLS)
+ * only for the terms the snapshot does not know, typically the terms added since the snapshot was taken.
+ * <p/>
+ * The remote ontology is only created and loaded on the first term missing from the snapshot, and caches its answers.
+ * If it cannot be reached, the missing terms are considered unknown and it is tried again after REMOTE_RETRY_DELAY.
+ * <p/>
+ * The hierarchy of the two ontologies is merged: the children of a term known by the snapshot include the children
+ * the remote ontology only knows about (hence the remote ontology is queried for them), and the parents of a term
+ * missing from the snapshot include the ancestors given by the snapshot of its parents.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public abstract class AbstractTieredOntology<T extends OntologyTermI> implements OntologyAccessTemplate<T> {
+
+    public static final Log log = LogFactory.getLog( AbstractTieredOntology.class );
+
+    /**
+     * Time in milliseconds before trying again to load the remote ontology once it failed.
+     */
+    public static final long REMOTE_RETRY_DELAY = 60 * 1000;
+
+    protected final OntologyAccessTemplate<T> localOntology;
+
+    private OntologyAccessTemplate<T> remoteOntology;
+
+    private long remoteFailureTime = -1;
+
+    private String ontologyID;
+    private String name;
+    private String version;
+    private String format;
+    private URI uri;
+
+    protected AbstractTieredOntology() {
+        this.localOntology = createLocalOntology();
+    }
+
+    /**
+     * @return a new ontology loading the local snapshot.
+     */
+    protected abstract OntologyAccessTemplate<T> createLocalOntology();
+
+    /**
+     * @return a new remote ontology, not loaded yet.
+     * @throws OntologyLoaderException if it cannot be created.
+     */
+    protected abstract OntologyAccessTemplate<T> createRemoteOntology() throws OntologyLoaderException;
+
+    public void loadOntology( String ontologyID, String name, String version, String format, URI uri ) throws OntologyLoaderException {
+        this.ontologyID = ontologyID;
+        this.name = name;
+        this.version = version;
+        this.format = format;
+        this.uri = uri;
+        localOntology.loadOntology( ontologyID, name, version, format, uri );
+        log.info( "Successfully created TieredOntology from values: ontology=" + ontologyID + " name=" + name
+                + " version=" + version + " format=" + format + " location=" + uri );
+    }
+
+    public void setOntologyDirectory( File directory ) {
+        localOntology.setOntologyDirectory( directory );
+    }
+
+    /**
+     * @return the remote ontology, loading it if needed, null if it cannot be loaded.
+     */
+    protected synchronized OntologyAccessTemplate<T> getRemoteOntology() {
+        if ( remoteOntology == null ) {
+            if ( remoteFailureTime >= 0 && System.currentTimeMillis() - remoteFailureTime < REMOTE_RETRY_DELAY ) {
+                return null;
+            }
+            try {
+                final OntologyAccessTemplate<T> remote = createRemoteOntology();
+                remote.loadOntology( ontologyID, name, version, format, uri );
+                remoteOntology = remote;
+                log.info( "Loaded the remote ontology of " + ontologyID + " for the terms missing from its snapshot." );
+            } catch ( Exception e ) {
+                remoteFailureTime = System.currentTimeMillis();
+                log.warn( "Could not load the remote ontology of " + ontologyID + ", the terms missing from its " +
+                        "snapshot are considered unknown for the next " + REMOTE_RETRY_DELAY / 1000 + "s.", e );
+                return null;
+            }
+        }
+        return remoteOntology;
+    }
+
+    private boolean isLocal( String accession ) {
+        return localOntology.getTermForAccession( accession ) != null;
+    }
+
+    /**
+     * @return the ontology to ask about the given term, null if the term is unknown locally and the remote ontology
+     *         cannot be loaded.
+     */
+    private OntologyAccessTemplate<T> ontologyFor( T term ) {
+        return term == null || isLocal( term.getTermAccession() ) ? localOntology : getRemoteOntology();
+    }
+
+    /**
+     * @param accession the accession of a term known by the snapshot.
+     * @param all       true for all the descendants of the term, false for its direct children.
+     * @return the children of the term only known by the remote ontology, empty if it cannot be loaded.
+     */
+    private Set<T> getRemoteOnlyChildren( String accession, boolean all ) {
+        final OntologyAccessTemplate<T> remote = getRemoteOntology();
+        if ( remote == null ) {
+            return Collections.emptySet();
+        }
+        final Set<T> children;
+        try {
+            if ( all ) {
+                children = remote.getValidTerms( accession, true, false );
+            } else {
+                final T remoteTerm = remote.getTermForAccession( accession );
+                children = remoteTerm == null ? null : remote.getDirectChildren( remoteTerm );
+            }
+        } catch ( RuntimeException e ) {
+            log.warn( "Could not get the children of " + accession + " from the remote ontology, only the children " +
+                    "known by the snapshot are given.", e );
+            return Collections.emptySet();
+        }
+        if ( children == null || children.isEmpty() ) {
+            return Collections.emptySet();
+        }
+        final Set<T> remoteOnly = new HashSet<>();
+        for ( T child : children ) {
+            if ( !isLocal( child.getTermAccession() ) ) {
+                remoteOnly.add( child );
+            }
+        }
+        return remoteOnly;
+    }
+
+    /**
+     * @return the local terms along with the remote ones, the local answer is not modified as it may be cached.
+     */
+    private Set<T> merge( Set<T> localTerms, Set<T> remoteTerms ) {
+        if ( remoteTerms.isEmpty() ) {
+            return localTerms;
+        }
+        final Set<T> merged = localTerms == null ? new HashSet<T>() : new HashSet<>( localTerms );
+        merged.addAll( remoteTerms );
+        return merged;
+    }
+
+    public Set<T> getValidTerms( String accession, boolean allowChildren, boolean useTerm ) {
+        if ( isLocal( accession ) ) {
+            final Set<T> terms = localOntology.getValidTerms( accession, allowChildren, useTerm );
+            return allowChildren ? merge( terms, getRemoteOnlyChildren( accession, true ) ) : terms;
+        }
+        final OntologyAccessTemplate<T> remote = getRemoteOntology();
+        return remote == null ? localOntology.getValidTerms( accession, allowChildren, useTerm )
+                : remote.getValidTerms( accession, allowChildren, useTerm );
+    }
+
+    public T getTermForAccession( String accession ) {
+        final T term = localOntology.getTermForAccession( accession );
+        if ( term != null || accession == null ) {
+            return term;
+        }
+        final OntologyAccessTemplate<T> remote = getRemoteOntology();
+        return remote == null ? null : remote.getTermForAccession( accession );
+    }
+
+    public boolean isObsolete( T term ) {
+        final OntologyAccessTemplate<T> ontology = ontologyFor( term );
+        return ontology != null && ontology.isObsolete( term );
+    }
+
+    public Set<T> getDirectParents( T term ) {
+        final OntologyAccessTemplate<T> ontology = ontologyFor( term );
+        return ontology == null ? null : ontology.getDirectParents( term );
+    }
+
+    public Set<T> getDirectChildren( T term ) {
+        final OntologyAccessTemplate<T> ontology = ontologyFor( term );
+        if ( ontology == localOntology && term != null ) {
+            return merge( localOntology.getDirectChildren( term ), getRemoteOnlyChildren( term.getTermAccession(), false ) );
+        }
+        return ontology == null ? null : ontology.getDirectChildren( term );
+    }
+
+    public Set<T> getAllParents( T term ) {
+        final OntologyAccessTemplate<T> ontology = ontologyFor( term );
+        if ( ontology == null || ontology == localOntology ) {
+            return ontology == null ? null : ontology.getAllParents( term );
+        }
+        final Set<T> parents = ontology.getAllParents( term );
+        if ( parents == null || parents.isEmpty() ) {
+            return parents;
+        }
+        // the ancestors of the parents known by the snapshot, as the snapshot gives them
+        final Set<T> localAncestors = new HashSet<>();
+        for ( T parent : parents ) {
+            final T localParent = localOntology.getTermForAccession( parent.getTermAccession() );
+            if ( localParent != null ) {
+                final Set<T> ancestors = localOntology.getAllParents( localParent );
+                if ( ancestors != null ) {
+                    localAncestors.addAll( ancestors );
+                }
+            }
+        }
+        return merge( parents, localAncestors );
+    }
+
+    public Set<T> getAllChildren( T term ) {
+        final OntologyAccessTemplate<T> ontology = ontologyFor( term );
+        if ( ontology == localOntology && term != null ) {
+            return merge( localOntology.getAllChildren( term ), getRemoteOnlyChildren( term.getTermAccession(), true ) );
+        }
+        return ontology == null ? null : ontology.getAllChildren( term );
+    }
+
+    /**
+     * @return true if the local snapshot is up to date, the remote ontology is always considered up to date.
+     */
+    public boolean isOntologyUpToDate() throws OntologyLoaderException {
+        return localOntology.isOntologyUpToDate();
+    }
+
+    /**
+     * @return the content version of the local snapshot. The remote ontology is only loaded on demand, its version
+     *         would depend on whether a term missing from the snapshot was asked for already.
+     */
+    public String getContentVersion() {
+        return localOntology.getContentVersion();
+    }
+
+    public boolean isUseTermSynonyms() {
+        return localOntology.isUseTermSynonyms();
+    }
+
+    public void setUseTermSynonyms( boolean useTermSynonyms ) {
+        localOntology.setUseTermSynonyms( useTermSynonyms );
+        final OntologyAccessTemplate<T> remote;
+        synchronized ( this ) {
+            remote = remoteOntology;
+        }
+        if ( remote != null ) {
+            remote.setUseTermSynonyms( useTermSynonyms );
+        }
+    }
+
+    public void loadTermSynonyms( Collection<T> terms ) {
+        if ( terms == null ) {
+            return;
+        }
+        final List<T> remoteTerms = new ArrayList<>();
+        for ( T term : terms ) {
+            if ( term != null && !isLocal( term.getTermAccession() ) ) {
+                remoteTerms.add( term );
+            }
+        }
+        localOntology.loadTermSynonyms( terms );
+        if ( !remoteTerms.isEmpty() ) {
+            final OntologyAccessTemplate<T> remote = getRemoteOntology();
+            if ( remote != null ) {
+                remote.loadTermSynonyms( remoteTerms );
+            }
+        }
+    }
+
+    public void close() {
+        final OntologyAccessTemplate<T> remote;
+        synchronized ( this ) {
+            remote = remoteOntology;
+        }
+        if ( remote != null ) {
+            remote.close();
+        }
+        localOntology.close();
+    }
+}
@@ -0,0 +1,31 @@
+package psidev.psi.tools.ontology_manager.impl.tiered;
+
+import psidev.psi.tools.ontology_manager.impl.local.LocalOntology;
+import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
+import psidev.psi.tools.ontology_manager.impl.ols.OlsOntology;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccessTemplate;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+/**
+ * Ontology answering from a local OBO file and querying OLS only for the terms the file does not know.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class TieredOntology extends AbstractTieredOntology<OntologyTermI> implements OntologyAccess {
+
+    public TieredOntology() {
+        super();
+    }
+
+    @Override
+    protected OntologyAccessTemplate<OntologyTermI> createLocalOntology() {
+        return new LocalOntology();
+    }
+
+    @Override
+    protected OntologyAccessTemplate<OntologyTermI> createRemoteOntology() throws OntologyLoaderException {
+        return new OlsOntology();
+    }
+}
@@ -4,6 +4,7 @@ import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
 
 import java.io.File;
 import java.net.URI;
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -119,4 +120,30 @@ public interface OntologyAccessTemplate<T extends OntologyTermI> {
      * @param useTermSynonyms flag to toggle handling of ontology term synonyms.
      */
     public void setUseTermSynonyms(boolean useTermSynonyms);
+
+    /**
+     * Makes sure the synonyms of the given terms are available, for the implementations that can defer their loading.
+     * By default the synonyms are loaded along with the terms and nothing is done.
+     *
+     * @param terms terms given by this ontology.
+     */
+    public default void loadTermSynonyms( Collection<T> terms ) {
+    }
+
+    /**
+     * Identifies the content this ontology answers from, e.g. the MD5 signature of the loaded file or the date OLS
+     * loaded the ontology. It changes whenever that content changes, even if the declared version does not.
+     *
+     * @return a version of the loaded content, null if it is not known.
+     */
+    public default String getContentVersion() {
+        return null;
+    }
+
+    /**
+     * Releases the resources held by this ontology, e.g. its thread pools. By default there are none and nothing is
+     * done.
+     */
+    public default void close() {
+    }
 }
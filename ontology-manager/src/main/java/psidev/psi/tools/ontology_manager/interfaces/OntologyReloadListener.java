@@ -0,0 +1,20 @@
+package psidev.psi.tools.ontology_manager.interfaces;
+
+/**
+ * Notified when an OntologyManager has swapped a reloaded ontology in, to drop what was derived from the previous one.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public interface OntologyReloadListener<A> {
+
+    /**
+     * Called on the reload thread once the reloaded ontology is swapped in.
+     *
+     * @param ontologyID the ID of the reloaded ontology.
+     * @param previous   the ontology replaced, still used by the threads having pinned a snapshot. It is closed once
+     *                   no pinned snapshot uses it anymore, it must not be kept.
+     * @param reloaded   the ontology now given by the manager.
+     */
+    void ontologyReloaded( String ontologyID, A previous, A reloaded );
+}
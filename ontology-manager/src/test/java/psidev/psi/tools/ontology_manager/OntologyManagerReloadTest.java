@@ -0,0 +1,151 @@
+package psidev.psi.tools.ontology_manager;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.impl.local.LocalOntology;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Checks the background reload of an ontology of local-ontologies.xml and its atomic swap.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OntologyManagerReloadTest {
+
+    private OntologyManager om;
+
+    /**
+     * A local ontology recording whether it was closed.
+     */
+    private static class ClosingOntology extends LocalOntology {
+
+        private volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        om = new OntologyManager() {
+            @Override
+            protected OntologyAccess findOntologyAccess( String sourceURI, String ontologyId, String ontologyName,
+                                                         String ontologyVersion, String format, String loaderClass ) {
+                return new ClosingOntology();
+            }
+        };
+        final InputStream is = OntologyManagerReloadTest.class.getResourceAsStream( "/local-ontologies.xml" );
+        try {
+            om.loadOntologies( is );
+        } finally {
+            is.close();
+        }
+    }
+
+    @Test
+    public void reloadOntology() throws Exception {
+        final OntologyAccess previous = om.getOntologyAccess( "MI" );
+        final String version = om.getOntologyVersion( "MI" );
+        final List<String> events = new ArrayList<String>();
+        om.addReloadListener( ( ontologyID, before, after ) -> events.add( ontologyID + " " + ( before == previous ) ) );
+
+        final OntologyAccess reloaded = om.reloadOntology( "MI" ).get();
+        Assert.assertNotSame( previous, reloaded );
+        Assert.assertSame( reloaded, om.getOntologyAccess( "MI" ) );
+        Assert.assertNotNull( reloaded.getTermForAccession( "MI:0018" ) );
+        Assert.assertEquals( "[MI true]", events.toString() );
+
+        // no snapshot uses the replaced ontology, it is closed
+        Assert.assertTrue( ( ( ClosingOntology ) previous ).closed );
+        Assert.assertFalse( ( ( ClosingOntology ) reloaded ).closed );
+
+        // a new version, the caches keyed on it are invalidated
+        Assert.assertFalse( version.equals( om.getOntologyVersion( "MI" ) ) );
+        Assert.assertTrue( om.getOntologyVersion( "MI" ).contains( " reload 1 " ) );
+    }
+
+    @Test
+    public void getOntologyVersion_content() throws Exception {
+        final MessageDigest digest = MessageDigest.getInstance( "MD5" );
+        digest.update( Files.readAllBytes( Paths.get( OntologyManagerReloadTest.class.getResource( "/psi-mi25.obo" ).toURI() ) ) );
+
+        // the version of the content loaded, not only the one declared
+        Assert.assertTrue( om.getOntologyVersion( "MI" ).startsWith( "2.5 (" ) );
+        Assert.assertTrue( om.getOntologyVersion( "MI" ).endsWith( " [" + new BigInteger( 1, digest.digest() ).toString( 16 ) + "]" ) );
+    }
+
+    @Test
+    public void pinSnapshot() throws Exception {
+        final OntologyAccess previous = om.getOntologyAccess( "MI" );
+        final String version = om.getOntologyVersion( "MI" );
+        Assert.assertTrue( om.pinSnapshot() );
+        Assert.assertFalse( om.pinSnapshot() );
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final OntologyAccess reloaded = om.reloadOntology( "MI" ).get();
+            final Callable<OntologyAccess> lookup = () -> om.getOntologyAccess( "MI" );
+
+            // the pinned snapshot is kept, also by the tasks run on its behalf
+            Assert.assertSame( previous, om.getOntologyAccess( "MI" ) );
+            Assert.assertSame( previous, executor.submit( om.withSnapshot( lookup ) ).get() );
+            Assert.assertSame( reloaded, executor.submit( lookup ).get() );
+
+            // along with its version, and the replaced ontology is not closed under it
+            Assert.assertEquals( version, om.getOntologyVersion( "MI" ) );
+            Assert.assertEquals( version, executor.submit( om.withSnapshot( () -> om.getOntologyVersion( "MI" ) ) ).get() );
+            Assert.assertFalse( ( ( ClosingOntology ) previous ).closed );
+
+            om.unpinSnapshot();
+            Assert.assertSame( reloaded, om.getOntologyAccess( "MI" ) );
+            Assert.assertTrue( om.getOntologyVersion( "MI" ).contains( " reload 1 " ) );
+            Assert.assertTrue( ( ( ClosingOntology ) previous ).closed );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings( "deprecation" )
+    public void ontologies_snapshotView() throws Exception {
+        final OntologyAccess reloaded = om.reloadOntology( "MI" ).get();
+
+        // the deprecated map follows the snapshot and cannot be changed behind its back
+        Assert.assertSame( reloaded, om.ontologies.get( "MI" ) );
+        try {
+            om.ontologies.put( "GO", reloaded );
+            Assert.fail( "The ontologies should be added with putOntology." );
+        } catch ( UnsupportedOperationException e ) {
+            // expected
+        }
+
+        om.putOntology( "GO", reloaded );
+        Assert.assertSame( reloaded, om.ontologies.get( "GO" ) );
+        Assert.assertEquals( om.getOntologyIDs(), om.ontologies.keySet() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void reloadOntology_unknown() throws Exception {
+        om.reloadOntology( "GO" );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void setReloadInterval_negative() throws Exception {
+        om.setReloadInterval( "MI", -1 );
+    }
+}
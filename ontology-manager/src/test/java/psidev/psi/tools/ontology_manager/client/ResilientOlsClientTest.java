@@ -0,0 +1,132 @@
+package psidev.psi.tools.ontology_manager.client;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ResilientOlsClient Tester, OLS is replaced by a fake client failing on demand.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ResilientOlsClientTest {
+
+    private FakeOlsClient delegate;
+
+    /**
+     * Fails the given count of queries before answering.
+     */
+    private static class FakeOlsClient extends OlsClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile int failures = 0;
+
+        @Override
+        public String getTermById( String accession, String ontologyId ) throws RemoteException {
+            calls.incrementAndGet();
+            if ( failures > 0 ) {
+                failures--;
+                throw new RemoteException( "OLS is down" );
+            }
+            return "name of " + accession;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        delegate = new FakeOlsClient();
+    }
+
+    @Test
+    public void retry() throws Exception {
+        final ResilientOlsClient client = new ResilientOlsClient( delegate, 3, 1, 10, 1000, new OlsRetryBudget( 0.1, 10 ) );
+        delegate.failures = 2;
+        Assert.assertEquals( "name of MI:0018", client.getTermById( "MI:0018", "MI" ) );
+        Assert.assertEquals( 3, delegate.calls.get() );
+    }
+
+    @Test
+    public void retry_maxAttempts() throws Exception {
+        final ResilientOlsClient client = new ResilientOlsClient( delegate, 2, 1, 10, 1000, new OlsRetryBudget( 0.1, 10 ) );
+        delegate.failures = 2;
+        try {
+            client.getTermById( "MI:0018", "MI" );
+            Assert.fail( "The query should fail after 2 attempts" );
+        } catch ( RemoteException e ) {
+            // expected
+        }
+        Assert.assertEquals( 2, delegate.calls.get() );
+    }
+
+    @Test
+    public void retryBudget() throws Exception {
+        final OlsRetryBudget budget = new OlsRetryBudget( 0, 1 );
+        final ResilientOlsClient client = new ResilientOlsClient( delegate, 3, 1, 10, 1000, budget );
+        delegate.failures = 1;
+        client.getTermById( "MI:0018", "MI" );
+        Assert.assertEquals( 0, budget.getAvailableRetries() );
+
+        // no retry left
+        delegate.failures = 1;
+        try {
+            client.getTermById( "MI:0018", "MI" );
+            Assert.fail( "The query should not be retried" );
+        } catch ( RemoteException e ) {
+            // expected
+        }
+        Assert.assertEquals( 3, delegate.calls.get() );
+    }
+
+    @Test
+    public void circuitBreaker() throws Exception {
+        final ResilientOlsClient client = new ResilientOlsClient( delegate, 1, 0, 2, 100, new OlsRetryBudget( 0.1, 10 ) );
+        delegate.failures = 2;
+        for ( int i = 0; i < 2; i++ ) {
+            try {
+                client.getTermById( "MI:0018", "MI" );
+                Assert.fail( "OLS is down" );
+            } catch ( RemoteException e ) {
+                // expected
+            }
+        }
+        Assert.assertEquals( OlsCircuitBreaker.State.OPEN, client.getCircuitBreaker( "MI" ).getState() );
+
+        // the circuit is open: OLS is not queried
+        try {
+            client.getTermById( "MI:0018", "MI" );
+            Assert.fail( "The circuit is open" );
+        } catch ( RemoteException e ) {
+            // expected
+        }
+        Assert.assertEquals( 2, delegate.calls.get() );
+
+        // the other ontologies are not affected
+        Assert.assertEquals( OlsCircuitBreaker.State.CLOSED, client.getCircuitBreaker( "MOD" ).getState() );
+        client.getTermById( "MOD:00001", "MOD" );
+
+        // the probe closes the circuit
+        Thread.sleep( 150 );
+        Assert.assertEquals( "name of MI:0018", client.getTermById( "MI:0018", "MI" ) );
+        Assert.assertEquals( OlsCircuitBreaker.State.CLOSED, client.getCircuitBreaker( "MI" ).getState() );
+    }
+
+    @Test
+    public void circuitBreaker_failedProbe() throws Exception {
+        final OlsCircuitBreaker breaker = new OlsCircuitBreaker( 3, 0 );
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        Assert.assertEquals( OlsCircuitBreaker.State.OPEN, breaker.getState() );
+
+        Assert.assertTrue( breaker.allowRequest() );
+        Assert.assertEquals( OlsCircuitBreaker.State.HALF_OPEN, breaker.getState() );
+        // a single probe at a time
+        Assert.assertFalse( breaker.allowRequest() );
+        breaker.recordFailure();
+        Assert.assertEquals( OlsCircuitBreaker.State.OPEN, breaker.getState() );
+    }
+}
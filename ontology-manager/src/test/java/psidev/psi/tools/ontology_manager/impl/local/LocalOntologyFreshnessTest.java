@@ -0,0 +1,105 @@
+package psidev.psi.tools.ontology_manager.impl.local;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that AbstractLocalOntology.isOntologyUpToDate only reads the whole OBO file again when the server gives no
+ * validator, psi-mi25.obo is served by a local HTTP server.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class LocalOntologyFreshnessTest {
+
+    private HttpServer server;
+
+    private URI uri;
+
+    private byte[] content;
+
+    private volatile String eTag = "\"v1\"";
+
+    private final List<String> requests = new ArrayList<String>();
+
+    @Before
+    public void setUp() throws Exception {
+        content = Files.readAllBytes( Paths.get( LocalOntologyFreshnessTest.class.getResource( "/psi-mi25.obo" ).toURI() ) );
+        server = HttpServer.create( new InetSocketAddress( "localhost", 0 ), 0 );
+        server.createContext( "/psi-mi.obo", this::serve );
+        server.start();
+        uri = new URI( "http://localhost:" + server.getAddress().getPort() + "/psi-mi.obo" );
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop( 0 );
+    }
+
+    private void serve( HttpExchange exchange ) throws IOException {
+        final String method = exchange.getRequestMethod();
+        if ( eTag != null ) {
+            exchange.getResponseHeaders().set( "ETag", eTag );
+        }
+        if ( eTag != null && eTag.equals( exchange.getRequestHeaders().getFirst( "If-None-Match" ) ) ) {
+            record( method + " 304" );
+            exchange.sendResponseHeaders( 304, -1 );
+        } else if ( "HEAD".equals( method ) ) {
+            record( method + " 200" );
+            exchange.getResponseHeaders().set( "Content-Length", String.valueOf( content.length ) );
+            exchange.sendResponseHeaders( 200, -1 );
+        } else {
+            record( method + " 200" );
+            exchange.sendResponseHeaders( 200, content.length );
+            final OutputStream out = exchange.getResponseBody();
+            out.write( content );
+            out.close();
+        }
+        exchange.close();
+    }
+
+    private synchronized void record( String request ) {
+        requests.add( request );
+    }
+
+    private LocalOntology load() throws Exception {
+        final LocalOntology ontology = new LocalOntology();
+        ontology.loadOntology( "MI", "PSI-MI", "1", "OBO", uri );
+        Assert.assertNotNull( ontology.getTermForAccession( "MI:0018" ) );
+        return ontology;
+    }
+
+    @Test
+    public void isOntologyUpToDate_validators() throws Exception {
+        final LocalOntology ontology = load();
+        Assert.assertTrue( ontology.isOntologyUpToDate() );
+        Assert.assertEquals( "[GET 200, HEAD 304]", requests.toString() );
+
+        eTag = "\"v2\"";
+        Assert.assertFalse( ontology.isOntologyUpToDate() );
+        Assert.assertEquals( "[GET 200, HEAD 304, HEAD 200]", requests.toString() );
+    }
+
+    @Test
+    public void isOntologyUpToDate_noValidator() throws Exception {
+        eTag = null;
+        final LocalOntology ontology = load();
+
+        // falls back on the size and the MD5 signature
+        Assert.assertTrue( ontology.isOntologyUpToDate() );
+        Assert.assertEquals( "[GET 200, HEAD 200, GET 200]", requests.toString() );
+    }
+}
@@ -0,0 +1,242 @@
+package psidev.psi.tools.ontology_manager.impl.local;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * OboDownloadCache Tester, the OBO file is served by a local HTTP server honouring If-None-Match.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OboDownloadCacheTest {
+
+    private HttpServer server;
+
+    private File directory;
+
+    private URL url;
+
+    private volatile String content = "format-version: 1.2\n";
+
+    private volatile String eTag = "\"v1\"";
+
+    private final List<Integer> statuses = new ArrayList<Integer>();
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory( "obo-download-cache" ).toFile();
+        server = HttpServer.create( new InetSocketAddress( "localhost", 0 ), 0 );
+        server.createContext( "/psi-mi.obo", this::serve );
+        server.start();
+        url = new URL( "http://localhost:" + server.getAddress().getPort() + "/psi-mi.obo" );
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop( 0 );
+        final File[] files = directory.listFiles();
+        if ( files != null ) {
+            for ( File file : files ) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private void serve( HttpExchange exchange ) throws IOException {
+        final byte[] body = content.getBytes( StandardCharsets.UTF_8 );
+        exchange.getResponseHeaders().set( "ETag", eTag );
+        if ( eTag.equals( exchange.getRequestHeaders().getFirst( "If-None-Match" ) ) ) {
+            record( 304 );
+            exchange.sendResponseHeaders( 304, -1 );
+        } else {
+            record( 200 );
+            exchange.sendResponseHeaders( 200, body.length );
+            final OutputStream out = exchange.getResponseBody();
+            out.write( body );
+            out.close();
+        }
+        exchange.close();
+    }
+
+    private synchronized void record( int status ) {
+        statuses.add( status );
+    }
+
+    private String read( File file ) throws IOException {
+        if ( AbstractOboLoader.isCompressed( file.getName() ) ) {
+            final InputStream in = new GZIPInputStream( new FileInputStream( file ) );
+            try {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buf = new byte[1024];
+                int length;
+                while ( ( length = in.read( buf ) ) != -1 ) {
+                    out.write( buf, 0, length );
+                }
+                return new String( out.toByteArray(), StandardCharsets.UTF_8 );
+            } finally {
+                in.close();
+            }
+        }
+        return new String( Files.readAllBytes( file.toPath() ), StandardCharsets.UTF_8 );
+    }
+
+    @Test
+    public void fetch_revalidates() throws Exception {
+        final OboDownloadCache.Entry first = new OboDownloadCache( directory, true ).fetch( url );
+        Assert.assertEquals( content, read( first.getFile() ) );
+        // a plain source is not compressed
+        Assert.assertTrue( first.getFile().getName().endsWith( ".obo" ) );
+        Assert.assertEquals( "\"v1\"", first.getETag() );
+        Assert.assertEquals( content.length(), first.getContentLength() );
+
+        // a restart only costs a conditional request
+        final OboDownloadCache.Entry second = new OboDownloadCache( directory, true ).fetch( url );
+        Assert.assertEquals( first.getFile(), second.getFile() );
+        Assert.assertEquals( first.getMd5Signature(), second.getMd5Signature() );
+        Assert.assertEquals( "[200, 304]", statuses.toString() );
+
+        // the index is readable
+        Assert.assertTrue( read( new File( directory, OboDownloadCache.INDEX_NAME ) ).contains( "psi-mi.obo" ) );
+    }
+
+    @Test
+    public void fetch_replacesSupersededCopy() throws Exception {
+        final OboDownloadCache cache = new OboDownloadCache( directory, true );
+        final File first = cache.fetch( url ).getFile();
+
+        content = "format-version: 1.4\n";
+        eTag = "\"v2\"";
+        final OboDownloadCache.Entry second = cache.fetch( url );
+        Assert.assertEquals( content, read( second.getFile() ) );
+        Assert.assertEquals( "\"v2\"", cache.getEntry( url ).getETag() );
+
+        // the superseded copy may still be read, it is only deleted once the next copy replaces it
+        Assert.assertTrue( first.exists() );
+        content = "format-version: 1.5\n";
+        eTag = "\"v3\"";
+        Assert.assertEquals( content, read( cache.fetch( url ).getFile() ) );
+        Assert.assertFalse( first.exists() );
+        Assert.assertTrue( second.getFile().exists() );
+
+        // no partial download is left
+        for ( File file : directory.listFiles() ) {
+            Assert.assertFalse( file.getName(), file.getName().endsWith( ".part" ) );
+        }
+    }
+
+    @Test
+    public void fetch_sameContent() throws Exception {
+        final OboDownloadCache cache = new OboDownloadCache( directory, true );
+        final File first = cache.fetch( url ).getFile();
+
+        eTag = "\"v2\"";
+        Assert.assertEquals( first, cache.fetch( url ).getFile() );
+        Assert.assertTrue( first.exists() );
+    }
+
+    @Test
+    public void fetch_serverDown() throws Exception {
+        final OboDownloadCache cache = new OboDownloadCache( directory, true );
+        final File first = cache.fetch( url ).getFile();
+        server.stop( 0 );
+
+        Assert.assertEquals( first, cache.fetch( url ).getFile() );
+    }
+
+    @Test
+    public void fetch_notKept() throws Exception {
+        final OboDownloadCache cache = new OboDownloadCache( directory, false );
+        cache.fetch( url );
+        cache.fetch( url );
+        Assert.assertEquals( "[200, 200]", statuses.toString() );
+        Assert.assertNull( cache.getEntry( url ) );
+        Assert.assertTrue( cache.fetch( url ).getFile().getName().endsWith( ".obo" ) );
+    }
+
+    @Test
+    public void fetch_concurrently() throws Exception {
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch( 1 );
+        final ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try {
+            final List<Future<OboDownloadCache.Entry>> fetches = new ArrayList<Future<OboDownloadCache.Entry>>();
+            for ( int i = 0; i < threads; i++ ) {
+                // a cache per thread, as in separate processes
+                fetches.add( executor.submit( () -> {
+                    start.await();
+                    return new OboDownloadCache( directory, true ).fetch( url );
+                } ) );
+            }
+            start.countDown();
+
+            final File file = fetches.get( 0 ).get().getFile();
+            for ( Future<OboDownloadCache.Entry> fetch : fetches ) {
+                Assert.assertEquals( file, fetch.get().getFile() );
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // a single download, the others reused it
+        Assert.assertEquals( 1, Collections.frequency( statuses, 200 ) );
+    }
+
+    @Test
+    public void prefetch() throws Exception {
+        final OboDownloadCache cache = new OboDownloadCache( directory, false );
+        cache.prefetch( url );
+        cache.prefetch( url );
+        Assert.assertEquals( content, read( cache.fetch( url ).getFile() ) );
+        Assert.assertEquals( "[200]", statuses.toString() );
+
+        // consumed by the fetch
+        cache.fetch( url );
+        Assert.assertEquals( "[200, 200]", statuses.toString() );
+    }
+
+    @Test
+    public void prefetch_stale() throws Exception {
+        final OboDownloadCache cache = new OboDownloadCache( directory, false );
+        cache.setPrefetchMaxAge( 10 );
+        cache.prefetch( url );
+        while ( statuses.isEmpty() ) {
+            Thread.sleep( 10 );
+        }
+        Thread.sleep( 50 );
+
+        // not consumed in time, the URL is fetched again
+        content = "format-version: 1.4\n";
+        Assert.assertEquals( content, read( cache.fetch( url ).getFile() ) );
+        Assert.assertEquals( "[200, 200]", statuses.toString() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void setPrefetchMaxAge_negative() throws Exception {
+        new OboDownloadCache( directory, false ).setPrefetchMaxAge( -1 );
+    }
+
+    @Test( expected = OntologyLoaderException.class )
+    public void fetch_missing() throws Exception {
+        new OboDownloadCache( directory, true ).fetch( new URL( url, "/missing.obo" ) );
+    }
+}
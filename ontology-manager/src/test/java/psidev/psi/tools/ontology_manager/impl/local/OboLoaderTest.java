@@ -0,0 +1,82 @@
+package psidev.psi.tools.ontology_manager.impl.local;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * OboLoader Tester, so-20090901.obo.gz is the gzipped copy of so.obo bundled with the ontology manager.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OboLoaderTest {
+
+    private File resource( String name ) throws Exception {
+        return new File( OboLoaderTest.class.getResource( name ).toURI() );
+    }
+
+    @Test
+    public void parseOboFile_compressed() throws Exception {
+        final File plain = resource( "/so.obo" );
+        final File compressed = resource( "/ontologies/so-20090901.obo.gz" );
+        Assert.assertTrue( compressed.length() * 4 < plain.length() );
+
+        final Ontology expected = new OboLoader( plain.getParentFile() ).parseOboFile( plain );
+        final Ontology ontology = new OboLoader( compressed.getParentFile() ).parseOboFile( compressed );
+        Assert.assertFalse( ontology.getOntologyTerms().isEmpty() );
+        Assert.assertEquals( expected.getOntologyTerms().size(), ontology.getOntologyTerms().size() );
+        Assert.assertNotNull( ontology.search( "SO:0000704" ) );
+    }
+
+    @Test
+    public void parseOboFile_compressedInflatedInDirectory() throws Exception {
+        final File parent = Files.createTempDirectory( "obo-loader" ).toFile();
+        final File directory = new File( parent, "ontologies" );
+        try {
+            final Ontology ontology = new OboLoader( directory ).parseOboFile( resource( "/ontologies/so-20090901.obo.gz" ) );
+            Assert.assertNotNull( ontology.search( "SO:0000704" ) );
+
+            // the inflated copy was written in the ontology directory and removed once parsed
+            Assert.assertTrue( directory.isDirectory() );
+            Assert.assertEquals( 0, directory.list().length );
+        } finally {
+            directory.delete();
+            parent.delete();
+        }
+    }
+
+    @Test
+    public void parseOboFileFromJar_compressed() throws Exception {
+        final File jar = File.createTempFile( "ontologies", ".jar" );
+        try {
+            final JarOutputStream out = new JarOutputStream( new FileOutputStream( jar ) );
+            out.putNextEntry( new JarEntry( "so.obo.gz" ) );
+            final InputStream in = new FileInputStream( resource( "/ontologies/so-20090901.obo.gz" ) );
+            copy( in, out );
+            in.close();
+            out.close();
+
+            final Ontology ontology = new OboLoader( jar.getParentFile() ).parseOboFileFromJar( "jar:" + jar.toURI() + "!/so.obo.gz" );
+            Assert.assertNotNull( ontology.search( "SO:0000704" ) );
+        } finally {
+            jar.delete();
+        }
+    }
+
+    private void copy( InputStream in, OutputStream out ) throws Exception {
+        final byte[] buf = new byte[8192];
+        int length;
+        while ( ( length = in.read( buf ) ) != -1 ) {
+            out.write( buf, 0, length );
+        }
+    }
+}
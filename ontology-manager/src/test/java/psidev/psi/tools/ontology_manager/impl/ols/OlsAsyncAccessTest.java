@@ -0,0 +1,165 @@
+package psidev.psi.tools.ontology_manager.impl.ols;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.client.OlsClient;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the asynchronous access to the OLS ontologies against a fake OLS client.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsAsyncAccessTest {
+
+    private FakeOlsClient client;
+
+    private OlsOntology ontology;
+
+    /**
+     * A binary tree of terms: the parents of MI:x.y are MI:x and MI:y, MI:0 is the root. Queries take a few
+     * milliseconds.
+     */
+    private static class FakeOlsClient extends OlsClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        private void remoteCall() throws RemoteException {
+            calls.incrementAndGet();
+            maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+            try {
+                Thread.sleep( 20 );
+            } catch ( InterruptedException e ) {
+                throw new RemoteException( "interrupted" );
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public String getTermById( String accession, String ontologyId ) throws RemoteException {
+            remoteCall();
+            return accession.startsWith( "MI:" ) ? "name of " + accession : accession;
+        }
+
+        @Override
+        public boolean isObsolete( String termAccession, String ontologyId ) throws RemoteException {
+            remoteCall();
+            return termAccession.endsWith( "9" );
+        }
+
+        @Override
+        public Map getTermParents( String termAccession, String ontologyId ) throws RemoteException {
+            remoteCall();
+            final Map<String, String> parents = new HashMap<String, String>();
+            final String id = termAccession.substring( 3 );
+            if ( id.contains( "." ) ) {
+                for ( String parent : id.split( "\\." ) ) {
+                    parents.put( "MI:" + parent, "parent " + parent );
+                }
+            } else if ( !id.equals( "0" ) ) {
+                parents.put( "MI:0", "root" );
+            }
+            return parents;
+        }
+
+        @Override
+        public Map getTermChildren( String termAccession, String ontologyId, int level ) throws RemoteException {
+            remoteCall();
+            final Map<String, String> children = new HashMap<String, String>();
+            if ( !termAccession.contains( "." ) ) {
+                children.put( termAccession + ".1", "child 1" );
+                children.put( termAccession + ".2", "child 2" );
+            }
+            return children;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        client = new FakeOlsClient();
+        ontology = new OlsOntology();
+        ontology.olsClient = client;
+        ontology.ontologyID = "MI";
+        ontology.rootAccs = new HashSet<String>( Arrays.asList( "MI:0" ) );
+        ontology.setUseTermSynonyms( false );
+        ontology.setAsyncExecutor( Executors.newFixedThreadPool( 4 ) );
+    }
+
+    @Test
+    public void getTermForAccessionAsync() throws Exception {
+        final CompletableFuture<OntologyTermI> future = ontology.getTermForAccessionAsync( "MI:0001" );
+        Assert.assertEquals( "name of MI:0001", future.get().getPreferredName() );
+
+        // cached results are given without querying OLS
+        Assert.assertTrue( ontology.getTermForAccessionAsync( "MI:0001" ).isDone() );
+        Assert.assertEquals( 1, client.calls.get() );
+
+        Assert.assertNull( ontology.getTermForAccessionAsync( "unknown" ).get() );
+    }
+
+    @Test
+    public void getAllParentsAsync() throws Exception {
+        final OntologyTermI term = ontology.getTermForAccession( "MI:1.2" );
+        final Set<OntologyTermI> parents = ontology.getAllParentsAsync( term ).get();
+        Assert.assertEquals( 3, parents.size() );
+        // the parents of MI:1 and MI:2 are queried concurrently
+        Assert.assertTrue( client.maxRunning.get() > 1 );
+
+        // same result as the blocking method
+        Assert.assertEquals( parents, ontology.getAllParents( term ) );
+    }
+
+    @Test
+    public void childrenAndObsoleteAsync() throws Exception {
+        final OntologyTermI term = ontology.getTermForAccession( "MI:0009" );
+        Assert.assertEquals( 2, ontology.getDirectChildrenAsync( term ).get().size() );
+        Assert.assertEquals( 2, ontology.getAllChildrenAsync( term ).get().size() );
+        Assert.assertTrue( ontology.isObsoleteAsync( term ).get() );
+        Assert.assertTrue( ontology.isObsolete( term ) );
+    }
+
+    @Test
+    public void getValidTermsAsync_fansOut() throws Exception {
+        final Set<OntologyTermI> terms = ontology.getValidTermsAsync( "MI:0001", true, true ).get();
+        Assert.assertEquals( 3, terms.size() );
+        // the term and its children are queried concurrently
+        Assert.assertTrue( client.maxRunning.get() >= 2 );
+
+        Assert.assertTrue( ontology.getValidTermsAsync( "unknown", true, true ).get().isEmpty() );
+    }
+
+    @Test
+    public void getValidTerms_callerThread() throws Exception {
+        final Set<OntologyTermI> terms = ontology.getValidTerms( "MI:0001", true, true );
+        Assert.assertEquals( 3, terms.size() );
+        // the blocking method does not use the async executor
+        Assert.assertEquals( 1, client.maxRunning.get() );
+    }
+
+    @Test
+    public void close() throws Exception {
+        ontology.setAsyncExecutor( null );
+        Assert.assertTrue( ontology.getAsyncExecutor() instanceof ExecutorService );
+        final ExecutorService pool = ( ExecutorService ) ontology.getAsyncExecutor();
+
+        ontology.close();
+        Assert.assertTrue( pool.isShutdown() );
+
+        // still usable, the queries being sent by the calling thread
+        final CompletableFuture<OntologyTermI> future = ontology.getTermForAccessionAsync( "MI:0001" );
+        Assert.assertTrue( future.isDone() );
+        Assert.assertEquals( "name of MI:0001", future.get().getPreferredName() );
+    }
+}
@@ -0,0 +1,170 @@
+package psidev.psi.tools.ontology_manager.impl.ols;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.client.OlsClient;
+
+import java.rmi.RemoteException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that the cache of an OLS ontology is replaced when a fake OLS client loads a new version of it.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsFreshnessTest {
+
+    private FakeOlsClient client;
+
+    private OlsOntology mi;
+
+    private OlsOntology mod;
+
+    /**
+     * Gives a load date per ontology, changed on demand. The load date queries can be held until released.
+     */
+    private static class FakeOlsClient extends OlsClient {
+
+        private final AtomicInteger termCalls = new AtomicInteger();
+        private final Map<String, String> loadDates = new HashMap<String, String>();
+        private volatile CountDownLatch released;
+        private final CountDownLatch loadDateAsked = new CountDownLatch( 1 );
+
+        @Override
+        public String getTermById( String accession, String ontologyId ) throws RemoteException {
+            termCalls.incrementAndGet();
+            return "name of " + accession;
+        }
+
+        @Override
+        public Map getRootTerms( String ontologyId ) throws RemoteException {
+            final Map<String, String> roots = new HashMap<String, String>();
+            roots.put( ontologyId + ":0", "root" );
+            return roots;
+        }
+
+        @Override
+        public String getOntologyLoadDate( String ontologyId ) throws RemoteException {
+            final CountDownLatch latch = released;
+            if ( latch != null ) {
+                loadDateAsked.countDown();
+                try {
+                    latch.await();
+                } catch ( InterruptedException e ) {
+                    throw new RemoteException( "interrupted" );
+                }
+            }
+            synchronized ( this ) {
+                return loadDates.get( ontologyId );
+            }
+        }
+
+        private synchronized void setLoadDate( String ontologyId, String loadDate ) {
+            loadDates.put( ontologyId, loadDate );
+        }
+    }
+
+    private OlsOntology createOntology( String ontologyId ) throws Exception {
+        final OlsOntology ontology = new OlsOntology();
+        ontology.olsClient = client;
+        ontology.setUseTermSynonyms( false );
+        ontology.loadOntology( ontologyId, ontologyId, null, null, null );
+        return ontology;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        client = new FakeOlsClient();
+        client.setLoadDate( "MI", "2016-01-01" );
+        client.setLoadDate( "MOD", "2016-01-01" );
+        mi = createOntology( "MI" );
+        mod = createOntology( "MOD" );
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mi.setFreshnessCheckInterval( 0 );
+        mod.setFreshnessCheckInterval( 0 );
+    }
+
+    @Test
+    public void checkFreshness() throws Exception {
+        mi.getTermForAccession( "MI:0018" );
+        mod.getTermForAccession( "MOD:00001" );
+        Assert.assertEquals( 2, client.termCalls.get() );
+
+        // same version
+        Assert.assertFalse( mi.checkFreshness() );
+        mi.getTermForAccession( "MI:0018" );
+        Assert.assertEquals( 2, client.termCalls.get() );
+
+        // new version of MI only
+        client.setLoadDate( "MI", "2016-02-01" );
+        Assert.assertTrue( mi.checkFreshness() );
+        Assert.assertFalse( mod.checkFreshness() );
+        Assert.assertTrue( mi.isOntologyUpToDate() );
+
+        mi.getTermForAccession( "MI:0018" );
+        Assert.assertEquals( 3, client.termCalls.get() );
+        mod.getTermForAccession( "MOD:00001" );
+        Assert.assertEquals( 3, client.termCalls.get() );
+
+        // the new version is now cached
+        Assert.assertFalse( mi.checkFreshness() );
+    }
+
+    @Test
+    public void checkFreshness_notLocked() throws Exception {
+        mi.checkFreshness();
+        client.setLoadDate( "MI", "2016-02-01" );
+        client.released = new CountDownLatch( 1 );
+        final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try {
+            final Future<Boolean> check = executor.submit( () -> mi.checkFreshness() );
+            Assert.assertTrue( client.loadDateAsked.await( 5, TimeUnit.SECONDS ) );
+
+            // the ontology is not locked while OLS is queried
+            Assert.assertEquals( Long.valueOf( 0 ), executor.submit( () -> mi.getFreshnessCheckInterval() ).get( 5, TimeUnit.SECONDS ) );
+
+            client.released.countDown();
+            Assert.assertTrue( check.get( 5, TimeUnit.SECONDS ) );
+        } finally {
+            client.released.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void checkFreshness_loadDateUnknown() throws Exception {
+        mi.getTermForAccession( "MI:0018" );
+        client.setLoadDate( "MI", null );
+        Assert.assertFalse( mi.checkFreshness() );
+        mi.getTermForAccession( "MI:0018" );
+        Assert.assertEquals( 1, client.termCalls.get() );
+    }
+
+    @Test
+    public void freshnessCheckInterval() throws Exception {
+        mi.getTermForAccession( "MI:0018" );
+        mi.setFreshnessCheckInterval( 20 );
+        client.setLoadDate( "MI", "2016-02-01" );
+
+        final long end = System.currentTimeMillis() + 2000;
+        while ( client.termCalls.get() == 1 && System.currentTimeMillis() < end ) {
+            Thread.sleep( 20 );
+            mi.getTermForAccession( "MI:0018" );
+        }
+        Assert.assertEquals( 2, client.termCalls.get() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void freshnessCheckInterval_negative() throws Exception {
+        mi.setFreshnessCheckInterval( -1 );
+    }
+}
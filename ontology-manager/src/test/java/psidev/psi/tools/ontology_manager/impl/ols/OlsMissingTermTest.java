@@ -0,0 +1,62 @@
+package psidev.psi.tools.ontology_manager.impl.ols;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.client.OlsClient;
+
+import java.rmi.RemoteException;
+
+/**
+ * Checks the queries about accessions OLS does not know, the OLS client giving null for them.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsMissingTermTest {
+
+    private OlsOntology ontology;
+
+    /**
+     * Only knows MI:0001.
+     */
+    private static class FakeOlsClient extends OlsClient {
+
+        @Override
+        public String getTermById( String accession, String ontologyId ) throws RemoteException {
+            return "MI:0001".equals( accession ) ? "interaction detection method" : null;
+        }
+
+        @Override
+        public boolean isObsolete( String termAccession, String ontologyId ) throws RemoteException {
+            return false;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        ontology = new OlsOntology();
+        ontology.olsClient = new FakeOlsClient();
+        ontology.ontologyID = "MI";
+        ontology.setUseTermSynonyms( false );
+    }
+
+    @Test
+    public void getTermForAccession_missing() throws Exception {
+        Assert.assertNotNull( ontology.getTermForAccession( "MI:0001" ) );
+        Assert.assertNull( ontology.getTermForAccession( "MI:9999" ) );
+    }
+
+    @Test
+    public void getValidIDs_missing() throws Exception {
+        Assert.assertEquals( 1, ontology.getValidIDsOld( "MI:0001", false, true ).size() );
+        Assert.assertTrue( ontology.getValidIDsOld( "MI:9999", false, true ).isEmpty() );
+        Assert.assertTrue( ontology.getValidIDs2( "MI:9999", false, true ).isEmpty() );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void isObsoleteID_missing() throws Exception {
+        Assert.assertFalse( ontology.isObsoleteID( "MI:0001" ) );
+        ontology.isObsoleteID( "MI:9999" );
+    }
+}
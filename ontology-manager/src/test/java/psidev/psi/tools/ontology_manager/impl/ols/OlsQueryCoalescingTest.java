@@ -0,0 +1,141 @@
+package psidev.psi.tools.ontology_manager.impl.ols;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.client.OlsClient;
+import psidev.psi.tools.ontology_manager.impl.ols.cache.OlsCacheRegion;
+import psidev.psi.tools.ontology_manager.impl.ols.cache.OlsCacheStatistics;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that concurrent misses of the same OLS query are sent only once to a fake OLS client.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsQueryCoalescingTest {
+
+    private static final int THREADS = 8;
+
+    private FakeOlsClient client;
+
+    private OlsOntology ontology;
+
+    /**
+     * Gives two leaf children to the terms MI:xxxx, children queries take a few milliseconds and may fail on demand.
+     */
+    private static class FakeOlsClient extends OlsClient {
+
+        private final AtomicInteger childrenCalls = new AtomicInteger();
+        private volatile boolean failing = false;
+
+        @Override
+        public String getTermById( String accession, String ontologyId ) throws RemoteException {
+            return "name of " + accession;
+        }
+
+        @Override
+        public Map getTermChildren( String termAccession, String ontologyId, int level ) throws RemoteException {
+            childrenCalls.incrementAndGet();
+            try {
+                Thread.sleep( 50 );
+            } catch ( InterruptedException e ) {
+                throw new RemoteException( "interrupted" );
+            }
+            if ( failing ) {
+                throw new RemoteException( "OLS is down" );
+            }
+            final Map<String, String> children = new HashMap<String, String>();
+            if ( !termAccession.contains( "." ) ) {
+                children.put( termAccession + ".1", "child 1" );
+                children.put( termAccession + ".2", "child 2" );
+            }
+            return children;
+        }
+
+        @Override
+        public Map getTermParents( String termAccession, String ontologyId ) throws RemoteException {
+            final Map<String, String> parents = new HashMap<String, String>();
+            if ( termAccession.contains( "." ) ) {
+                final String parent = termAccession.substring( 0, termAccession.lastIndexOf( '.' ) );
+                parents.put( parent, "name of " + parent );
+            }
+            return parents;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        client = new FakeOlsClient();
+        ontology = new OlsOntology();
+        ontology.olsClient = client;
+        ontology.ontologyID = "MI";
+        ontology.setUseTermSynonyms( false );
+    }
+
+    private List<Future<Set<OntologyTermI>>> getAllChildrenConcurrently( final OntologyTermI term ) {
+        final ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+        final CountDownLatch start = new CountDownLatch( 1 );
+        final List<Future<Set<OntologyTermI>>> results = new ArrayList<Future<Set<OntologyTermI>>>();
+        for ( int i = 0; i < THREADS; i++ ) {
+            results.add( executor.submit( new Callable<Set<OntologyTermI>>() {
+                public Set<OntologyTermI> call() throws Exception {
+                    start.await();
+                    return ontology.getAllChildren( term );
+                }
+            } ) );
+        }
+        start.countDown();
+        executor.shutdown();
+        return results;
+    }
+
+    @Test
+    public void concurrentMisses_singleQuery() throws Exception {
+        final OntologyTermI term = ontology.getTermForAccession( "MI:0001" );
+
+        final List<Future<Set<OntologyTermI>>> results = getAllChildrenConcurrently( term );
+        final Set<OntologyTermI> first = results.get( 0 ).get();
+        Assert.assertEquals( 2, first.size() );
+        for ( Future<Set<OntologyTermI>> result : results ) {
+            // all the callers share the same result
+            Assert.assertSame( first, result.get() );
+        }
+        Assert.assertEquals( 1, client.childrenCalls.get() );
+
+        // the query sent to OLS is the only miss of the children region
+        final OlsCacheStatistics statistics = ontology.getCacheStatistics( OlsCacheRegion.CHILDREN );
+        Assert.assertEquals( 1, statistics.getMissCount() );
+        // the others waited for it, or came once it was cached
+        Assert.assertTrue( statistics.getCoalescedCount() > 0 );
+        Assert.assertEquals( THREADS - 1, statistics.getCoalescedCount() + statistics.getHitCount() );
+        Assert.assertTrue( statistics.getTotalLoadTime() >= 50 );
+        Assert.assertEquals( 1, ontology.getCacheStatistics( OlsCacheRegion.TERM ).getMissCount() );
+    }
+
+    @Test
+    public void concurrentMisses_failureIsShared() throws Exception {
+        final OntologyTermI term = ontology.getTermForAccession( "MI:0001" );
+        client.failing = true;
+
+        for ( Future<Set<OntologyTermI>> result : getAllChildrenConcurrently( term ) ) {
+            try {
+                result.get();
+                Assert.fail( "The OLS failure should be thrown to all the callers" );
+            } catch ( ExecutionException e ) {
+                Assert.assertTrue( e.getCause() instanceof IllegalStateException );
+            }
+        }
+        Assert.assertTrue( client.childrenCalls.get() < THREADS );
+
+        // failures are not cached
+        client.failing = false;
+        Assert.assertEquals( 2, ontology.getAllChildren( term ).size() );
+    }
+}
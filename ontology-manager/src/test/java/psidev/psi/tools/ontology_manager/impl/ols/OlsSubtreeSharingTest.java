@@ -0,0 +1,200 @@
+package psidev.psi.tools.ontology_manager.impl.ols;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.client.OlsClient;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that the children queries use the cached direct children when the whole subtree is known, and a single query
+ * to a fake OLS client otherwise, whose answer is then shared with the terms below.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsSubtreeSharingTest {
+
+    private FakeOlsClient client;
+
+    private OlsOntology ontology;
+
+    /**
+     * MI:0 has the children MI:1 and MI:2, MI:1 has the children MI:3 and MI:4, MI:2 has the child MI:4 and MI:4 has
+     * the child MI:5.
+     */
+    private static class FakeOlsClient extends OlsClient {
+
+        private static final Map<String, List<String>> CHILDREN = new HashMap<String, List<String>>();
+
+        static {
+            CHILDREN.put( "MI:0", Arrays.asList( "MI:1", "MI:2" ) );
+            CHILDREN.put( "MI:1", Arrays.asList( "MI:3", "MI:4" ) );
+            CHILDREN.put( "MI:2", Arrays.asList( "MI:4" ) );
+            CHILDREN.put( "MI:4", Arrays.asList( "MI:5" ) );
+        }
+
+        private final AtomicInteger childrenCalls = new AtomicInteger();
+
+        private final List<Integer> levels = Collections.synchronizedList( new ArrayList<Integer>() );
+
+        private final AtomicInteger parentsCalls = new AtomicInteger();
+
+        @Override
+        public String getTermById( String accession, String ontologyId ) throws RemoteException {
+            return "name of " + accession;
+        }
+
+        @Override
+        public Map getTermChildren( String termAccession, String ontologyId, int level ) throws RemoteException {
+            childrenCalls.incrementAndGet();
+            levels.add( level );
+            final Map<String, String> children = new HashMap<String, String>();
+            addChildren( termAccession, level < 0 ? Integer.MAX_VALUE : level, children );
+            return children;
+        }
+
+        @Override
+        public Map getTermParents( String termAccession, String ontologyId ) throws RemoteException {
+            parentsCalls.incrementAndGet();
+            final Map<String, String> parents = new HashMap<String, String>();
+            for ( Map.Entry<String, List<String>> entry : CHILDREN.entrySet() ) {
+                if ( entry.getValue().contains( termAccession ) ) {
+                    parents.put( entry.getKey(), "name of " + entry.getKey() );
+                }
+            }
+            return parents;
+        }
+
+        private int calls() {
+            return childrenCalls.get() + parentsCalls.get();
+        }
+
+        private void addChildren( String termAccession, int depth, Map<String, String> children ) {
+            final List<String> accessions = CHILDREN.get( termAccession );
+            if ( accessions != null && depth > 0 ) {
+                for ( String accession : accessions ) {
+                    children.put( accession, "name of " + accession );
+                    addChildren( accession, depth - 1, children );
+                }
+            }
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        client = new FakeOlsClient();
+        ontology = new OlsOntology();
+        ontology.olsClient = client;
+        ontology.ontologyID = "MI";
+        ontology.setUseTermSynonyms( false );
+    }
+
+    private Set<String> accessions( Set<OntologyTermI> terms ) {
+        final Set<String> accessions = new TreeSet<String>();
+        for ( OntologyTermI term : terms ) {
+            accessions.add( term.getTermAccession() );
+        }
+        return accessions;
+    }
+
+    @Test
+    public void getAllChildren_singleQuery() throws Exception {
+        final Set<OntologyTermI> below1 = ontology.getAllChildren( ontology.getTermForAccession( "MI:1" ) );
+        Assert.assertEquals( new TreeSet<String>( Arrays.asList( "MI:3", "MI:4", "MI:5" ) ), accessions( below1 ) );
+        // the subtree is not known, it is fetched by one query
+        Assert.assertEquals( Arrays.asList( -1 ), client.levels );
+        // and its edges by the direct parents of each child
+        Assert.assertEquals( 3, client.parentsCalls.get() );
+
+        // and cached
+        final int calls = client.calls();
+        Assert.assertEquals( 3, ontology.getAllChildren( ontology.getTermForAccession( "MI:1" ) ).size() );
+        Assert.assertEquals( calls, client.calls() );
+    }
+
+    @Test
+    public void getAllChildren_descendantsShared() throws Exception {
+        Assert.assertEquals( 5, ontology.getAllChildren( ontology.getTermForAccession( "MI:0" ) ).size() );
+        final int calls = client.calls();
+
+        // the queries below the root are answered from its subtree
+        final OntologyTermI term4 = ontology.getTermForAccession( "MI:4" );
+        Assert.assertEquals( "name of MI:4", term4.getPreferredName() );
+        Assert.assertEquals( new TreeSet<String>( Arrays.asList( "MI:5" ) ),
+                             accessions( ontology.getAllChildren( term4 ) ) );
+        Assert.assertEquals( new TreeSet<String>( Arrays.asList( "MI:3", "MI:4", "MI:5" ) ),
+                             accessions( ontology.getAllChildren( ontology.getTermForAccession( "MI:1" ) ) ) );
+        Assert.assertEquals( new TreeSet<String>( Arrays.asList( "MI:4" ) ),
+                             accessions( ontology.getDirectChildren( ontology.getTermForAccession( "MI:2" ) ) ) );
+        Assert.assertTrue( ontology.getAllChildren( ontology.getTermForAccession( "MI:5" ) ).isEmpty() );
+        Assert.assertEquals( new TreeSet<String>( Arrays.asList( "MI:4", "MI:5" ) ),
+                             accessions( ontology.getChildren( ontology.getTermForAccession( "MI:2" ), 2 ) ) );
+
+        // as well as the ancestors up to the root
+        ontology.rootAccs = new HashSet<String>( Arrays.asList( "MI:0" ) );
+        Assert.assertEquals( new TreeSet<String>( Arrays.asList( "MI:0", "MI:1", "MI:2", "MI:4" ) ),
+                             accessions( ontology.getAllParents( ontology.getTermForAccession( "MI:5" ) ) ) );
+        Assert.assertEquals( calls, client.calls() );
+    }
+
+    @Test
+    public void getChildren_levelShared() throws Exception {
+        Assert.assertEquals( 4, ontology.getChildren( ontology.getTermForAccession( "MI:0" ), 2 ).size() );
+        final int calls = client.calls();
+
+        // the terms above the second level have all their direct children in the answer
+        Assert.assertEquals( new TreeSet<String>( Arrays.asList( "MI:3", "MI:4" ) ),
+                             accessions( ontology.getDirectChildren( ontology.getTermForAccession( "MI:1" ) ) ) );
+        Assert.assertEquals( new TreeSet<String>( Arrays.asList( "MI:4" ) ),
+                             accessions( ontology.getDirectChildren( ontology.getTermForAccession( "MI:2" ) ) ) );
+        Assert.assertEquals( calls, client.calls() );
+
+        // not the ones on the second level, MI:5 is below MI:4
+        Assert.assertEquals( 2, ontology.getAllChildren( ontology.getTermForAccession( "MI:2" ) ).size() );
+        Assert.assertEquals( Arrays.asList( 2, -1 ), client.levels );
+    }
+
+    @Test
+    public void getAllChildren_cachedDirectChildren() throws Exception {
+        // e.g. a warm-up caches the direct children of every term
+        for ( int i = 0; i <= 5; i++ ) {
+            ontology.getDirectChildren( ontology.getTermForAccession( "MI:" + i ) );
+        }
+        Assert.assertEquals( 6, client.childrenCalls.get() );
+
+        // the subtrees are walked without querying OLS
+        Assert.assertEquals( 5, ontology.getAllChildren( ontology.getTermForAccession( "MI:0" ) ).size() );
+        Assert.assertEquals( 2, ontology.getAllChildren( ontology.getTermForAccession( "MI:2" ) ).size() );
+        Assert.assertEquals( 6, client.childrenCalls.get() );
+    }
+
+    @Test
+    public void getAllChildren_partiallyCached() throws Exception {
+        ontology.getDirectChildren( ontology.getTermForAccession( "MI:0" ) );
+        ontology.getDirectChildren( ontology.getTermForAccession( "MI:1" ) );
+
+        // the direct children of MI:2 and below are missing, the subtree is fetched by one query
+        Assert.assertEquals( 5, ontology.getAllChildren( ontology.getTermForAccession( "MI:0" ) ).size() );
+        Assert.assertEquals( Arrays.asList( 1, 1, -1 ), client.levels );
+
+        // which completes the cached direct children
+        Assert.assertEquals( 2, ontology.getAllChildren( ontology.getTermForAccession( "MI:2" ) ).size() );
+        Assert.assertEquals( Arrays.asList( 1, 1, -1 ), client.levels );
+    }
+
+    @Test
+    public void getChildren_level() throws Exception {
+        final OntologyTermI root = ontology.getTermForAccession( "MI:0" );
+        Assert.assertEquals( new TreeSet<String>( Arrays.asList( "MI:1", "MI:2" ) ),
+                             accessions( ontology.getDirectChildren( root ) ) );
+        Assert.assertEquals( new TreeSet<String>( Arrays.asList( "MI:1", "MI:2", "MI:3", "MI:4" ) ),
+                             accessions( ontology.getChildren( root, 2 ) ) );
+        // MI:4 is reached by both MI:1 and MI:2, MI:5 is on the third level
+        Assert.assertEquals( 5, ontology.getChildren( root, 3 ).size() );
+    }
+}
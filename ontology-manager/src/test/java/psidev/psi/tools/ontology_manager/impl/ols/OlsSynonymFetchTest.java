@@ -0,0 +1,204 @@
+package psidev.psi.tools.ontology_manager.impl.ols;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.client.OlsClient;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.rmi.RemoteException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the fetching of term synonyms of the OLS ontologies against a fake OLS client.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsSynonymFetchTest {
+
+    private static final int CHILDREN_COUNT = 40;
+
+    private FakeOlsClient client;
+
+    private OlsOntology ontology;
+
+    /**
+     * Gives CHILDREN_COUNT leaf children to the terms MI:xxxx and one synonym per term, metadata queries take a few
+     * milliseconds.
+     */
+    private static class FakeOlsClient extends OlsClient {
+
+        private final AtomicInteger metadataCalls = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final AtomicInteger xrefCalls = new AtomicInteger();
+        private volatile boolean failing;
+
+        @Override
+        public String getTermById( String accession, String ontologyId ) throws RemoteException {
+            return "name of " + accession;
+        }
+
+        @Override
+        public Map getTermChildren( String termAccession, String ontologyId, int level ) throws RemoteException {
+            final Map<String, String> children = new HashMap<String, String>();
+            if ( !termAccession.contains( "." ) ) {
+                for ( int i = 0; i < CHILDREN_COUNT; i++ ) {
+                    children.put( termAccession + "." + i, "child " + i );
+                }
+            }
+            return children;
+        }
+
+        @Override
+        public Map getTermParents( String termAccession, String ontologyId ) throws RemoteException {
+            final Map<String, String> parents = new HashMap<String, String>();
+            if ( termAccession.contains( "." ) ) {
+                final String parent = termAccession.substring( 0, termAccession.lastIndexOf( '.' ) );
+                parents.put( parent, "name of " + parent );
+            }
+            return parents;
+        }
+
+        @Override
+        public Map getTermMetadata( String termAccession, String ontologyId ) throws RemoteException {
+            metadataCalls.incrementAndGet();
+            if ( failing ) {
+                throw new RemoteException( "OLS is down" );
+            }
+            final int now = running.incrementAndGet();
+            maxRunning.accumulateAndGet( now, Math::max );
+            try {
+                Thread.sleep( 5 );
+            } catch ( InterruptedException e ) {
+                throw new RemoteException( "interrupted" );
+            } finally {
+                running.decrementAndGet();
+            }
+            final Map<String, String> synonyms = new HashMap<String, String>();
+            synonyms.put( "synonym of " + termAccession, "exact" );
+            final Map<String, Object> metadata = new HashMap<String, Object>();
+            metadata.put( "exact_synonym", synonyms );
+            return metadata;
+        }
+
+        @Override
+        public Map getTermXrefs( String termAccession, String ontologyId ) throws RemoteException {
+            xrefCalls.incrementAndGet();
+            if ( failing ) {
+                throw new RemoteException( "OLS is down" );
+            }
+            return new HashMap<String, String>();
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        client = new FakeOlsClient();
+        ontology = new OlsOntology();
+        ontology.olsClient = client;
+        ontology.ontologyID = "MI";
+        ontology.setSynonymFetchThreads( 4 );
+    }
+
+    @Test
+    public void getAllChildren_parallelSynonyms() throws Exception {
+        final Set<OntologyTermI> children = ontology.getAllChildren( ontology.getTermForAccession( "MI:0001" ) );
+
+        Assert.assertEquals( CHILDREN_COUNT, children.size() );
+        for ( OntologyTermI child : children ) {
+            Assert.assertEquals( 1, child.getNameSynonyms().size() );
+            Assert.assertEquals( "synonym of " + child.getTermAccession(), child.getNameSynonyms().iterator().next() );
+        }
+        // the parent and its children
+        Assert.assertEquals( CHILDREN_COUNT + 1, client.metadataCalls.get() );
+        Assert.assertTrue( client.maxRunning.get() > 1 );
+        Assert.assertTrue( client.maxRunning.get() <= 4 );
+    }
+
+    @Test
+    public void getAllChildren_lazySynonyms() throws Exception {
+        ontology.setLazyTermSynonyms( true );
+
+        final Set<OntologyTermI> children = ontology.getValidTerms( "MI:0001", true, false );
+        Assert.assertEquals( CHILDREN_COUNT, children.size() );
+        Assert.assertEquals( 0, client.metadataCalls.get() );
+
+        ontology.loadTermSynonyms( children );
+        Assert.assertEquals( CHILDREN_COUNT, client.metadataCalls.get() );
+        for ( OntologyTermI child : children ) {
+            Assert.assertEquals( 1, child.getNameSynonyms().size() );
+        }
+
+        // synonyms are cached and not added twice
+        ontology.loadTermSynonyms( children );
+        Assert.assertEquals( CHILDREN_COUNT, client.metadataCalls.get() );
+        for ( OntologyTermI child : children ) {
+            Assert.assertEquals( 1, child.getNameSynonyms().size() );
+        }
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void loadTermSynonyms_published() throws Exception {
+        ontology.setLazyTermSynonyms( true );
+        final OntologyTermI term = ontology.getTermForAccession( "MI:0001" );
+        ontology.loadTermSynonyms( Collections.singleton( term ) );
+
+        // the terms are shared through the cache, their synonyms are published as an immutable set
+        Assert.assertEquals( 1, term.getNameSynonyms().size() );
+        term.getNameSynonyms().add( "another synonym" );
+    }
+
+    @Test
+    public void getAllChildren_withoutSynonyms() throws Exception {
+        ontology.setUseTermSynonyms( false );
+
+        ontology.loadTermSynonyms( ontology.getValidTerms( "MI:0001", true, false ) );
+        Assert.assertEquals( 0, client.metadataCalls.get() );
+    }
+
+    @Test
+    public void getAllTermSynonyms_failureNotCached() throws Exception {
+        client.failing = true;
+        try {
+            ontology.getAllTermSynonyms( "MI:0001" );
+            Assert.fail( "The failure should be thrown." );
+        } catch ( IllegalStateException e ) {
+            // expected
+        }
+
+        // the term is still given, without synonyms
+        final OntologyTermI term = ontology.getTermForAccession( "MI:0001" );
+        Assert.assertNotNull( term );
+        Assert.assertTrue( term.getNameSynonyms().isEmpty() );
+
+        // once OLS is back, the synonyms are queried again rather than taken as missing
+        client.failing = false;
+        final int calls = client.metadataCalls.get();
+        Assert.assertNotNull( ontology.getAllTermSynonyms( "MI:0001" ) );
+        Assert.assertEquals( calls + 1, client.metadataCalls.get() );
+    }
+
+    @Test
+    public void getAllTermXrefs_failureNotCached() throws Exception {
+        client.failing = true;
+        try {
+            ontology.getAllTermXrefs( "MI:0001" );
+            Assert.fail( "The failure should be thrown." );
+        } catch ( IllegalStateException e ) {
+            // expected
+        }
+
+        client.failing = false;
+        Assert.assertNotNull( ontology.getAllTermXrefs( "MI:0001" ) );
+        Assert.assertEquals( 2, client.xrefCalls.get() );
+        // the answer is cached
+        ontology.getAllTermXrefs( "MI:0001" );
+        Assert.assertEquals( 2, client.xrefCalls.get() );
+    }
+}
@@ -0,0 +1,116 @@
+package psidev.psi.tools.ontology_manager.impl.ols;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.client.OlsClient;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the warm-up of the cache of the OLS ontologies against a fake OLS client.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class OlsWarmUpTest {
+
+    private static final int CHILDREN_COUNT = 30;
+
+    private FakeOlsClient client;
+
+    private OlsOntology ontology;
+
+    /**
+     * The root MI:0 has CHILDREN_COUNT leaf children MI:1 to MI:CHILDREN_COUNT.
+     */
+    private static class FakeOlsClient extends OlsClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String getTermById( String accession, String ontologyId ) throws RemoteException {
+            calls.incrementAndGet();
+            return "name of " + accession;
+        }
+
+        @Override
+        public boolean isObsolete( String termAccession, String ontologyId ) throws RemoteException {
+            calls.incrementAndGet();
+            return false;
+        }
+
+        @Override
+        public Map getTermParents( String termAccession, String ontologyId ) throws RemoteException {
+            calls.incrementAndGet();
+            final Map<String, String> parents = new HashMap<String, String>();
+            if ( !termAccession.equals( "MI:0" ) ) {
+                parents.put( "MI:0", "root" );
+            }
+            return parents;
+        }
+
+        @Override
+        public Map getTermChildren( String termAccession, String ontologyId, int level ) throws RemoteException {
+            calls.incrementAndGet();
+            final Map<String, String> children = new HashMap<String, String>();
+            if ( termAccession.equals( "MI:0" ) ) {
+                for ( int i = 1; i <= CHILDREN_COUNT; i++ ) {
+                    children.put( "MI:" + i, "child " + i );
+                }
+            }
+            return children;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        client = new FakeOlsClient();
+        ontology = new OlsOntology();
+        ontology.olsClient = client;
+        ontology.ontologyID = "MI";
+        ontology.rootAccs = new HashSet<String>( Arrays.asList( "MI:0" ) );
+        ontology.setUseTermSynonyms( false );
+    }
+
+    @Test
+    public void warmUpCache() throws Exception {
+        final OlsWarmUp warmUp = ontology.warmUpCache( 4 );
+        Assert.assertSame( warmUp, ontology.getCacheWarmUp() );
+        warmUp.await();
+
+        Assert.assertTrue( warmUp.isDone() );
+        Assert.assertEquals( CHILDREN_COUNT + 1, warmUp.getTotal() );
+        Assert.assertEquals( CHILDREN_COUNT + 1, warmUp.getWarmed() );
+        Assert.assertEquals( 0, warmUp.getFailed() );
+        Assert.assertEquals( 1.0, warmUp.getProgress(), 0.0001 );
+        Assert.assertEquals( 0, warmUp.getEstimatedRemainingTime() );
+
+        // everything is now served from the cache
+        final int calls = client.calls.get();
+        final OntologyTermI child = ontology.getTermForAccession( "MI:7" );
+        Assert.assertEquals( 1, ontology.getDirectParents( child ).size() );
+        Assert.assertTrue( ontology.getDirectChildren( child ).isEmpty() );
+        Assert.assertFalse( ontology.isObsolete( child ) );
+        Assert.assertEquals( CHILDREN_COUNT, ontology.getValidTerms( "MI:0", true, false ).size() );
+        Assert.assertEquals( calls, client.calls.get() );
+    }
+
+    @Test
+    public void preLoadAllOntologyTerms() throws Exception {
+        ontology.preLoadAllOntologyTerms();
+
+        final int calls = client.calls.get();
+        ontology.getTermForAccession( "MI:" + CHILDREN_COUNT );
+        Assert.assertEquals( calls, client.calls.get() );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void warmUpCache_notLoaded() throws Exception {
+        ontology.rootAccs = null;
+        ontology.warmUpCache( 2 );
+    }
+}
@@ -0,0 +1,102 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ConcurrentOlsCache Tester.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ConcurrentOlsCacheTest {
+
+    @Test
+    public void put_get() throws Exception {
+        final OlsCache cache = new ConcurrentOlsCache( 10, 0 );
+        Assert.assertNull( cache.get( "a" ) );
+
+        cache.put( "a", "A" );
+        Assert.assertEquals( "A", cache.get( "a" ) );
+        Assert.assertEquals( 1, cache.size() );
+
+        cache.remove( "a" );
+        Assert.assertNull( cache.get( "a" ) );
+
+        cache.put( "b", "B" );
+        cache.clear();
+        Assert.assertEquals( 0, cache.size() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void put_null() throws Exception {
+        new ConcurrentOlsCache( 10, 0 ).put( "a", null );
+    }
+
+    @Test
+    public void capacity_evictsLeastRecentlyUsed() throws Exception {
+        final OlsCache cache = new ConcurrentOlsCache( 10, 0 );
+        for ( int i = 0; i < 10; i++ ) {
+            cache.put( "key" + i, i );
+        }
+        Thread.sleep( 5 );
+        // key0 is now the most recently used
+        Assert.assertEquals( 0, cache.get( "key0" ) );
+
+        Thread.sleep( 5 );
+        cache.put( "key10", 10 );
+        // 10% of the capacity is freed
+        Assert.assertEquals( 9, cache.size() );
+        Assert.assertEquals( 0, cache.get( "key0" ) );
+        Assert.assertEquals( 10, cache.get( "key10" ) );
+    }
+
+    @Test
+    public void timeToLive() throws Exception {
+        final OlsCache cache = new ConcurrentOlsCache( 10, 20 );
+        cache.put( "a", "A" );
+        Assert.assertEquals( "A", cache.get( "a" ) );
+
+        Thread.sleep( 50 );
+        Assert.assertNull( cache.get( "a" ) );
+        Assert.assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    public void concurrentAccess() throws Exception {
+        final int capacity = 1000;
+        final OlsCache cache = new ConcurrentOlsCache( capacity, 0 );
+        final AtomicInteger errors = new AtomicInteger();
+
+        final List<Thread> threads = new ArrayList<Thread>();
+        for ( int t = 0; t < 8; t++ ) {
+            final int seed = t;
+            final Thread thread = new Thread( new Runnable() {
+                public void run() {
+                    for ( int i = 0; i < 20000; i++ ) {
+                        final String key = "key" + ( ( i * 31 + seed ) % 3000 );
+                        final Object value = cache.get( key );
+                        if ( value == null ) {
+                            cache.put( key, key );
+                        } else if ( !key.equals( value ) ) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+            } );
+            threads.add( thread );
+            thread.start();
+        }
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+
+        Assert.assertEquals( 0, errors.get() );
+        // a few puts may happen while another thread evicts
+        Assert.assertTrue( cache.size() <= capacity + threads.size() );
+    }
+}
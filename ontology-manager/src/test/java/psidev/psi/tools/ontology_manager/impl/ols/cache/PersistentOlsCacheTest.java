@@ -0,0 +1,260 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.impl.OntologyTermImpl;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.*;
+
+/**
+ * PersistentOlsCache Tester.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class PersistentOlsCacheTest {
+
+    private File file;
+
+    private final OlsValueCodec codec = new OlsValueCodec( new OlsValueCodec.TermFactory() {
+        public OntologyTermI createTerm( String accession, String name ) {
+            return new OntologyTermImpl( accession, name );
+        }
+    } );
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile( "ols", ".olscache" );
+        file.delete();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+        new File( file.getPath() + ".lock" ).delete();
+    }
+
+    private PersistentOlsCache newCache( String version ) {
+        return newCache( version, 0 );
+    }
+
+    private PersistentOlsCache newCache( String version, long timeToLive ) {
+        return new PersistentOlsCache( new ConcurrentOlsCache( 100, timeToLive ), file, version, codec );
+    }
+
+    @Test
+    public void reload() throws Exception {
+        PersistentOlsCache cache = newCache( "2011-11-01" );
+        final OntologyTermI term = new OntologyTermImpl( "MI:0001", "interaction detection method" );
+        term.getNameSynonyms().add( "interaction detect" );
+        cache.put( "9_MI_MI:0001", term );
+        cache.put( "5_MI_MI:0001_-1", new HashSet<Object>( Arrays.asList( term ) ) );
+        cache.put( "8_MI_MI:0001", Boolean.FALSE );
+        cache.put( "10_MI_MI:0002", OlsCache.NULL_RESULT );
+        cache.put( "removed", "value" );
+        cache.remove( "removed" );
+        cache.close();
+
+        cache = newCache( "2011-11-01" );
+        Assert.assertEquals( 4, cache.size() );
+        final OntologyTermI reloaded = ( OntologyTermI ) cache.get( "9_MI_MI:0001" );
+        Assert.assertEquals( "MI:0001", reloaded.getTermAccession() );
+        Assert.assertEquals( "interaction detection method", reloaded.getPreferredName() );
+        Assert.assertTrue( reloaded.getNameSynonyms().contains( "interaction detect" ) );
+        Assert.assertEquals( 1, ( ( Set ) cache.get( "5_MI_MI:0001_-1" ) ).size() );
+        Assert.assertEquals( Boolean.FALSE, cache.get( "8_MI_MI:0001" ) );
+        Assert.assertSame( OlsCache.NULL_RESULT, cache.get( "10_MI_MI:0002" ) );
+        Assert.assertNull( cache.get( "removed" ) );
+        cache.close();
+    }
+
+    @Test
+    public void newVersion_discardsFile() throws Exception {
+        PersistentOlsCache cache = newCache( "2011-11-01" );
+        cache.put( "a", "A" );
+        cache.close();
+
+        cache = newCache( "2012-01-01" );
+        Assert.assertNull( cache.get( "a" ) );
+        cache.put( "b", "B" );
+        cache.close();
+
+        cache = newCache( "2012-01-01" );
+        Assert.assertEquals( "B", cache.get( "b" ) );
+        cache.close();
+    }
+
+    @Test
+    public void truncatedRecord_isIgnored() throws Exception {
+        PersistentOlsCache cache = newCache( "v1" );
+        cache.put( "a", "A" );
+        cache.put( "b", "B" );
+        cache.close();
+
+        final RandomAccessFile raf = new RandomAccessFile( file, "rw" );
+        raf.setLength( raf.length() - 2 );
+        raf.close();
+
+        cache = newCache( "v1" );
+        Assert.assertEquals( "A", cache.get( "a" ) );
+        Assert.assertNull( cache.get( "b" ) );
+        cache.put( "c", "C" );
+        cache.close();
+
+        cache = newCache( "v1" );
+        Assert.assertEquals( "A", cache.get( "a" ) );
+        Assert.assertEquals( "C", cache.get( "c" ) );
+        cache.close();
+    }
+
+    @Test
+    public void reload_keepsCreationTime() throws Exception {
+        PersistentOlsCache cache = newCache( "v1" );
+        cache.put( "old", "OLD", System.currentTimeMillis() - 60000 );
+        cache.put( "new", "NEW" );
+        cache.close();
+
+        // the old result was cached a minute ago, it is expired even though the cache was just restarted
+        cache = newCache( "v1", 30000 );
+        Assert.assertNull( cache.get( "old" ) );
+        Assert.assertEquals( "NEW", cache.get( "new" ) );
+        cache.close();
+
+        // and the expired record was dropped from the file
+        cache = newCache( "v1" );
+        Assert.assertNull( cache.get( "old" ) );
+        Assert.assertEquals( 1, cache.size() );
+        cache.close();
+    }
+
+    @Test
+    public void load_compactsFile() throws Exception {
+        PersistentOlsCache cache = newCache( "v1" );
+        for ( int i = 0; i < 10; i++ ) {
+            cache.put( "a", "A" + i );
+        }
+        cache.put( "b", "B" );
+        cache.remove( "b" );
+        cache.close();
+        final long length = file.length();
+
+        cache = newCache( "v1" );
+        Assert.assertEquals( "A9", cache.get( "a" ) );
+        cache.close();
+        Assert.assertTrue( file.length() < length );
+
+        cache = newCache( "v1" );
+        Assert.assertEquals( "A9", cache.get( "a" ) );
+        Assert.assertNull( cache.get( "b" ) );
+        Assert.assertEquals( 1, cache.size() );
+        cache.close();
+    }
+
+    @Test
+    public void sharedFile() throws Exception {
+        PersistentOlsCache cache = newCache( "v1" );
+        cache.put( "a", "A" );
+        cache.put( "a", "A2" );
+
+        // another user of the file compacts it while the first one keeps appending to it
+        final PersistentOlsCache other = newCache( "v1" );
+        Assert.assertEquals( "A2", other.get( "a" ) );
+        cache.put( "b", "B" );
+        other.put( "c", "C" );
+        cache.close();
+        other.close();
+
+        cache = newCache( "v1" );
+        Assert.assertEquals( "A2", cache.get( "a" ) );
+        Assert.assertEquals( "B", cache.get( "b" ) );
+        Assert.assertEquals( "C", cache.get( "c" ) );
+        cache.close();
+    }
+
+    @Test
+    public void unsupportedValue_onlyInMemory() throws Exception {
+        PersistentOlsCache cache = newCache( "v1" );
+        final Object value = new Object();
+        cache.put( "a", value );
+        Assert.assertSame( value, cache.get( "a" ) );
+        cache.close();
+
+        cache = newCache( "v1" );
+        Assert.assertNull( cache.get( "a" ) );
+        cache.close();
+    }
+
+    @Test
+    public void clear_resetsFile() throws Exception {
+        PersistentOlsCache cache = newCache( "v1" );
+        cache.put( "a", "A" );
+        cache.clear();
+        cache.put( "b", "B" );
+        cache.close();
+
+        cache = newCache( "v1" );
+        Assert.assertNull( cache.get( "a" ) );
+        Assert.assertEquals( "B", cache.get( "b" ) );
+        cache.close();
+    }
+
+    @Test
+    public void append_concurrent() throws Exception {
+        final PersistentOlsCache cache = new PersistentOlsCache( new ConcurrentOlsCache( 1000, 0 ), file, "v1", codec );
+        final List<Thread> threads = new ArrayList<Thread>();
+        for ( int t = 0; t < 4; t++ ) {
+            final int thread = t;
+            threads.add( new Thread() {
+                public void run() {
+                    for ( int i = 0; i < 100; i++ ) {
+                        cache.put( thread + "-" + i, "value " + i );
+                    }
+                }
+            } );
+        }
+        for ( Thread thread : threads ) {
+            thread.start();
+        }
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+        cache.close();
+
+        final PersistentOlsCache reloaded = new PersistentOlsCache( new ConcurrentOlsCache( 1000, 0 ), file, "v1", codec );
+        Assert.assertEquals( 400, reloaded.size() );
+        Assert.assertEquals( "value 99", reloaded.get( "3-99" ) );
+        reloaded.close();
+    }
+
+    @Test
+    public void append_compactsFile() throws Exception {
+        final PersistentOlsCache cache = newCache( "v1" );
+        cache.setCompactionThreshold( 10 );
+        cache.clear();
+        final long header = file.length();
+        cache.put( "a", "A0" );
+        final long record = file.length() - header;
+
+        for ( int i = 1; i < 100; i++ ) {
+            cache.put( "a", "A" + ( i % 10 ) );
+        }
+        // at most as many records as the threshold plus the one going over it
+        Assert.assertTrue( file.length() <= header + 11 * record );
+        cache.close();
+
+        final PersistentOlsCache reloaded = newCache( "v1" );
+        Assert.assertEquals( "A9", reloaded.get( "a" ) );
+        Assert.assertEquals( 1, reloaded.size() );
+        reloaded.close();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void setCompactionThreshold_zero() throws Exception {
+        newCache( "v1" ).setCompactionThreshold( 0 );
+    }
+}
@@ -0,0 +1,83 @@
+package psidev.psi.tools.ontology_manager.impl.ols.cache;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * RegionedOlsCache Tester.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class RegionedOlsCacheTest {
+
+    private RegionedOlsCache cache;
+
+    @Before
+    public void setUp() {
+        final Map<OlsCacheRegion, OlsCache> regions = new EnumMap<OlsCacheRegion, OlsCache>( OlsCacheRegion.class );
+        for ( OlsCacheRegion region : OlsCacheRegion.values() ) {
+            regions.put( region, new ConcurrentOlsCache( region == OlsCacheRegion.CHILDREN ? 10 : 100, 0 ) );
+        }
+        cache = new RegionedOlsCache( regions );
+    }
+
+    @Test
+    public void key() throws Exception {
+        final String key = OlsCacheRegion.CHILDREN.key( "MI", "MI:0018", -1 );
+        Assert.assertEquals( "CHILDREN_MI_MI:0018_-1", key );
+        Assert.assertEquals( OlsCacheRegion.CHILDREN, OlsCacheRegion.of( key ) );
+        Assert.assertNull( OlsCacheRegion.of( "105MI_MI:0018" ) );
+    }
+
+    @Test
+    public void regions() throws Exception {
+        cache.put( OlsCacheRegion.TERM.key( "MI", "MI:0018" ), "two hybrid" );
+        cache.put( OlsCacheRegion.OBSOLETE.key( "MI", "MI:0018" ), Boolean.FALSE );
+
+        Assert.assertEquals( "two hybrid", cache.get( OlsCacheRegion.TERM.key( "MI", "MI:0018" ) ) );
+        Assert.assertEquals( 1, cache.getRegion( OlsCacheRegion.TERM ).size() );
+        Assert.assertEquals( 1, cache.getRegion( OlsCacheRegion.OBSOLETE ).size() );
+        Assert.assertEquals( 2, cache.size() );
+
+        cache.clear();
+        Assert.assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    public void evictions() throws Exception {
+        for ( int i = 0; i < 20; i++ ) {
+            cache.put( OlsCacheRegion.CHILDREN.key( "MI", "MI:" + i, 1 ), "children " + i );
+        }
+        final OlsCacheStatistics statistics = cache.getStatistics( OlsCacheRegion.CHILDREN );
+        Assert.assertTrue( statistics.getEvictionCount() > 0 );
+        Assert.assertTrue( statistics.getSize() <= 10 );
+        Assert.assertEquals( 0, cache.getStatistics( OlsCacheRegion.TERM ).getEvictionCount() );
+    }
+
+    @Test
+    public void statistics() throws Exception {
+        final OlsCacheStatistics statistics = cache.getStatistics( OlsCacheRegion.PARENTS );
+        statistics.recordHit();
+        statistics.recordHit();
+        statistics.recordHit();
+        statistics.recordMiss( 4000000 );
+        Assert.assertEquals( 0.75, statistics.getHitRate(), 0.0001 );
+        // waiting for a query in flight is not a hit
+        statistics.recordCoalesced();
+        Assert.assertEquals( 1, statistics.getCoalescedCount() );
+        Assert.assertEquals( 3, statistics.getHitCount() );
+        Assert.assertEquals( 0.6, statistics.getHitRate(), 0.0001 );
+        Assert.assertEquals( 4, statistics.getTotalLoadTime() );
+        Assert.assertEquals( 4.0, statistics.getAverageLoadTime(), 0.0001 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void get_keyWithoutRegion() throws Exception {
+        cache.get( "105MI_MI:0018" );
+    }
+}
@@ -0,0 +1,583 @@
+package psidev.psi.tools.ontology_manager.impl.ols.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import psidev.psi.tools.ontology_manager.impl.local.LocalOntology;
+import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embeddable HTTP server standing in for OLS in the tests, answering the OLS REST API requests of the OLS client from
+ * local OBO files. It allows to test and benchmark the OLS ontologies without the EBI service.
+ * <p/>
+ * The OLS client is pointed at it by setting the ols.url system property, or the ols.url property of
+ * olsontology-oscache.properties, to #getUrl. A latency and a rate of errors can be added to the answers to reproduce
+ * the behaviour of the remote service.
+ * <p/>
+ * Served requests, all under /api/ontologies/{ontology}:
+ * <ul>
+ * <li>the ontology itself, with its load date;</li>
+ * <li>/terms?obo_id=, /terms?iri=, /terms?short_form= and /terms/{iri} giving a term;</li>
+ * <li>/terms/roots giving the root terms;</li>
+ * <li>/terms/{iri}/parents, /children, /ancestors, /descendants and their hierarchical variants.</li>
+ * </ul>
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class LocalOlsServer {
+
+    public static final Log log = LogFactory.getLog( LocalOlsServer.class );
+
+    private static final String IRI_PREFIX = "http://purl.obolibrary.org/obo/";
+
+    private static final String ONTOLOGIES_PATH = "/api/ontologies";
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final int DEFAULT_THREADS = 16;
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final Map<String, ServedOntology> ontologies = new ConcurrentHashMap<>();
+
+    private final int port;
+
+    private int threads = DEFAULT_THREADS;
+
+    private volatile long latency = 0;
+
+    private volatile long latencyJitter = 0;
+
+    private volatile double errorRate = 0;
+
+    private volatile int errorStatus = 503;
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private final AtomicLong errorCount = new AtomicLong();
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private static class ServedOntology {
+        private final String id;
+        private final LocalOntology ontology;
+        private final String loadDate;
+        private final int termCount;
+
+        private ServedOntology( String id, LocalOntology ontology, String loadDate ) {
+            this.id = id;
+            this.ontology = ontology;
+            this.loadDate = loadDate;
+            final Set<OntologyTermI> terms = new HashSet<>( ontology.getRootTerms() );
+            for ( OntologyTermI root : ontology.getRootTerms() ) {
+                terms.addAll( ontology.getAllChildren( root ) );
+            }
+            this.termCount = terms.size();
+        }
+    }
+
+    /**
+     * @param port the port to listen to, 0 to pick a free one.
+     */
+    public LocalOlsServer( int port ) {
+        if ( port < 0 ) {
+            throw new IllegalArgumentException( "The port must be positive: " + port );
+        }
+        this.port = port;
+    }
+
+    /**
+     * Serves an ontology loaded from an OBO file, its load date is the last modification date of the file.
+     *
+     * @param ontologyId the id of the ontology, e.g. MI.
+     * @param oboFile    the OBO file of the ontology.
+     * @throws OntologyLoaderException if the file cannot be loaded.
+     */
+    public void addOntology( String ontologyId, File oboFile ) throws OntologyLoaderException {
+        if ( oboFile == null || !oboFile.exists() ) {
+            throw new IllegalArgumentException( "Could not find the OBO file: " + oboFile );
+        }
+        final LocalOntology ontology = new LocalOntology();
+        ontology.setOntologyDirectory( oboFile.getAbsoluteFile().getParentFile() );
+        ontology.loadOntology( ontologyId, ontologyId, null, "OBO", oboFile.toURI() );
+        addOntology( ontologyId, ontology, new Date( oboFile.lastModified() ) );
+    }
+
+    /**
+     * Serves a loaded ontology.
+     *
+     * @param ontologyId the id of the ontology, e.g. MI.
+     * @param ontology   the loaded ontology.
+     * @param loadDate   the date given as the OLS load date of the ontology.
+     */
+    public void addOntology( String ontologyId, LocalOntology ontology, Date loadDate ) {
+        if ( ontologyId == null ) {
+            throw new IllegalArgumentException( "You must give a non null ontology id." );
+        }
+        if ( ontology == null ) {
+            throw new IllegalArgumentException( "You must give a non null ontology." );
+        }
+        final SimpleDateFormat format = new SimpleDateFormat( "yyyy-MM-dd'T'HH:mm:ss.SSSZ" );
+        ontologies.put( ontologyId.toLowerCase(),
+                new ServedOntology( ontologyId, ontology, format.format( loadDate == null ? new Date() : loadDate ) ) );
+    }
+
+    /**
+     * @param threads count of threads answering the requests.
+     */
+    public void setThreads( int threads ) {
+        if ( threads < 1 ) {
+            throw new IllegalArgumentException( "At least one thread is needed to answer the requests: " + threads );
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * @param latency time in milliseconds waited before answering each request.
+     * @param jitter  maximum random time in milliseconds added to the latency.
+     */
+    public void setLatency( long latency, long jitter ) {
+        if ( latency < 0 || jitter < 0 ) {
+            throw new IllegalArgumentException( "The latency must be positive: " + latency + " +/- " + jitter );
+        }
+        this.latency = latency;
+        this.latencyJitter = jitter;
+    }
+
+    /**
+     * @param errorRate   fraction of the requests, between 0 and 1, answered with an error.
+     * @param errorStatus the HTTP status of the errors, e.g. 500 or 503.
+     */
+    public void setErrors( double errorRate, int errorStatus ) {
+        if ( errorRate < 0 || errorRate > 1 ) {
+            throw new IllegalArgumentException( "The error rate must be between 0 and 1: " + errorRate );
+        }
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public synchronized void start() throws IOException {
+        if ( server != null ) {
+            throw new IllegalStateException( "The server is already started." );
+        }
+        server = HttpServer.create( new InetSocketAddress( "localhost", port ), 0 );
+        executor = Executors.newFixedThreadPool( threads, r -> {
+            final Thread thread = new Thread( r, "local-ols-" + threadCount.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        server.setExecutor( executor );
+        server.createContext( "/", new OlsHandler() );
+        server.start();
+        log.info( "Local OLS server serving " + ontologies.keySet() + " at " + getUrl() );
+    }
+
+    public synchronized void stop() {
+        if ( server != null ) {
+            server.stop( 0 );
+            executor.shutdownNow();
+            server = null;
+            executor = null;
+        }
+    }
+
+    /**
+     * @return the URL of the server, to give to the OLS client.
+     */
+    public synchronized String getUrl() {
+        if ( server == null ) {
+            throw new IllegalStateException( "The server is not started." );
+        }
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private class OlsHandler implements HttpHandler {
+
+        public void handle( HttpExchange exchange ) throws IOException {
+            requestCount.incrementAndGet();
+            try {
+                delay();
+                if ( errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate ) {
+                    errorCount.incrementAndGet();
+                    send( exchange, errorStatus, error( errorStatus, "Injected error" ) );
+                    return;
+                }
+                final String json = answer( exchange );
+                if ( json == null ) {
+                    send( exchange, 404, error( 404, "Not found: " + exchange.getRequestURI() ) );
+                } else {
+                    send( exchange, 200, json );
+                }
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                send( exchange, 503, error( 503, "Interrupted" ) );
+            } catch ( RuntimeException e ) {
+                log.warn( "Error while answering: " + exchange.getRequestURI(), e );
+                send( exchange, 500, error( 500, e.getMessage() ) );
+            } finally {
+                exchange.close();
+            }
+        }
+
+        private void delay() throws InterruptedException {
+            final long jitter = latencyJitter;
+            final long wait = latency + ( jitter > 0 ? ThreadLocalRandom.current().nextLong( jitter + 1 ) : 0 );
+            if ( wait > 0 ) {
+                Thread.sleep( wait );
+            }
+        }
+
+        private void send( HttpExchange exchange, int status, String json ) throws IOException {
+            final byte[] bytes = json.getBytes( "UTF-8" );
+            exchange.getResponseHeaders().set( "Content-Type", "application/json;charset=UTF-8" );
+            exchange.sendResponseHeaders( status, bytes.length );
+            final OutputStream out = exchange.getResponseBody();
+            out.write( bytes );
+            out.close();
+        }
+    }
+
+    /**
+     * @return the JSON answer to the request, null if there is nothing to answer.
+     */
+    private String answer( HttpExchange exchange ) {
+        final String path = exchange.getRequestURI().getRawPath();
+        if ( !path.startsWith( ONTOLOGIES_PATH + "/" ) ) {
+            return null;
+        }
+        final String[] segments = path.substring( ONTOLOGIES_PATH.length() + 1 ).split( "/" );
+        final ServedOntology served = ontologies.get( decode( segments[0] ).toLowerCase() );
+        if ( served == null ) {
+            return null;
+        }
+        final String base = "http://" + exchange.getRequestHeaders().getFirst( "Host" );
+        final Map<String, String> params = parseQuery( exchange.getRequestURI().getRawQuery() );
+
+        if ( segments.length == 1 ) {
+            return ontologyJson( base, served );
+        }
+        if ( !"terms".equals( segments[1] ) ) {
+            return null;
+        }
+        if ( segments.length == 2 ) {
+            final OntologyTermI term = findTerm( served, params );
+            if ( term == null ) {
+                return null;
+            }
+            return page( base, served, Collections.singletonList( term ), params, path );
+        }
+        if ( segments.length == 3 && "roots".equals( segments[2] ) ) {
+            return page( base, served, new ArrayList<OntologyTermI>( served.ontology.getRootTerms() ), params, path );
+        }
+
+        final OntologyTermI term = served.ontology.getTermForAccession( iriToAccession( decode( segments[2] ) ) );
+        if ( term == null ) {
+            return null;
+        }
+        if ( segments.length == 3 ) {
+            return termJson( base, served, term );
+        }
+        final Collection<OntologyTermI> related = related( served, term, segments[3] );
+        if ( related == null || segments.length > 4 ) {
+            return null;
+        }
+        return page( base, served, new ArrayList<OntologyTermI>( related ), params, path );
+    }
+
+    private OntologyTermI findTerm( ServedOntology served, Map<String, String> params ) {
+        String accession = params.get( "obo_id" );
+        if ( accession == null ) {
+            accession = params.get( "id" );
+        }
+        if ( accession == null && params.containsKey( "short_form" ) ) {
+            accession = params.get( "short_form" ).replaceFirst( "_", ":" );
+        }
+        if ( accession == null && params.containsKey( "iri" ) ) {
+            accession = iriToAccession( params.get( "iri" ) );
+        }
+        return accession == null ? null : served.ontology.getTermForAccession( accession );
+    }
+
+    private Collection<OntologyTermI> related( ServedOntology served, OntologyTermI term, String relation ) {
+        if ( "parents".equals( relation ) || "hierarchicalParents".equals( relation ) ) {
+            return served.ontology.getDirectParents( term );
+        } else if ( "children".equals( relation ) || "hierarchicalChildren".equals( relation ) ) {
+            return served.ontology.getDirectChildren( term );
+        } else if ( "ancestors".equals( relation ) || "hierarchicalAncestors".equals( relation ) ) {
+            return served.ontology.getAllParents( term );
+        } else if ( "descendants".equals( relation ) || "hierarchicalDescendants".equals( relation ) ) {
+            return served.ontology.getAllChildren( term );
+        }
+        return null;
+    }
+
+    private String ontologyJson( String base, ServedOntology served ) {
+        final String id = served.id.toLowerCase();
+        final StringBuilder sb = new StringBuilder( 512 );
+        sb.append( "{\"ontologyId\":" ).append( quote( id ) );
+        sb.append( ",\"loaded\":" ).append( quote( served.loadDate ) );
+        sb.append( ",\"updated\":" ).append( quote( served.loadDate ) );
+        sb.append( ",\"status\":\"LOADED\",\"message\":\"\",\"version\":null" );
+        sb.append( ",\"numberOfTerms\":" ).append( served.termCount );
+        sb.append( ",\"numberOfProperties\":0,\"numberOfIndividuals\":0" );
+        sb.append( ",\"config\":{\"id\":" ).append( quote( id ) );
+        sb.append( ",\"title\":" ).append( quote( served.id ) );
+        sb.append( ",\"namespace\":" ).append( quote( id ) );
+        sb.append( ",\"preferredPrefix\":" ).append( quote( served.id ) );
+        sb.append( ",\"baseUris\":[" ).append( quote( IRI_PREFIX + served.id + "_" ) ).append( "]}" );
+        final String self = base + ONTOLOGIES_PATH + "/" + id;
+        sb.append( ",\"_links\":{\"self\":" ).append( link( self ) );
+        sb.append( ",\"terms\":" ).append( link( self + "/terms" ) ).append( "}}" );
+        return sb.toString();
+    }
+
+    private String termJson( String base, ServedOntology served, OntologyTermI term ) {
+        final StringBuilder sb = new StringBuilder( 1024 );
+        appendTerm( sb, base, served, term );
+        return sb.toString();
+    }
+
+    private void appendTerm( StringBuilder sb, String base, ServedOntology served, OntologyTermI term ) {
+        final String accession = term.getTermAccession();
+        final String iri = accessionToIri( accession );
+        final String id = served.id.toLowerCase();
+        sb.append( "{\"iri\":" ).append( quote( iri ) );
+        sb.append( ",\"label\":" ).append( quote( term.getPreferredName() ) );
+        sb.append( ",\"description\":null,\"annotation\":{}" );
+        sb.append( ",\"synonyms\":" );
+        appendStrings( sb, term.getNameSynonyms() );
+        sb.append( ",\"ontology_name\":" ).append( quote( id ) );
+        sb.append( ",\"ontology_prefix\":" ).append( quote( served.id ) );
+        sb.append( ",\"ontology_iri\":" ).append( quote( IRI_PREFIX + id + ".owl" ) );
+        sb.append( ",\"is_obsolete\":" ).append( served.ontology.isObsolete( term ) );
+        sb.append( ",\"term_replaced_by\":null,\"is_defining_ontology\":true" );
+        sb.append( ",\"has_children\":" ).append( !served.ontology.getDirectChildren( term ).isEmpty() );
+        sb.append( ",\"is_root\":" ).append( served.ontology.getDirectParents( term ).isEmpty() );
+        sb.append( ",\"short_form\":" ).append( quote( accession.replace( ':', '_' ) ) );
+        sb.append( ",\"obo_id\":" ).append( quote( accession ) );
+        sb.append( ",\"in_subset\":null,\"obo_definition_citation\":null,\"obo_xref\":null,\"obo_synonym\":null" );
+        final String self = base + ONTOLOGIES_PATH + "/" + id + "/terms/" + encode( encode( iri ) );
+        sb.append( ",\"_links\":{\"self\":" ).append( link( self ) );
+        for ( String relation : new String[]{"parents", "ancestors", "hierarchicalParents", "hierarchicalAncestors",
+                "children", "descendants", "hierarchicalChildren", "hierarchicalDescendants"} ) {
+            sb.append( ",\"" ).append( relation ).append( "\":" ).append( link( self + "/" + relation ) );
+        }
+        sb.append( "}}" );
+    }
+
+    /**
+     * Gives a page of terms as OLS does: the terms are embedded, the _embedded field is omitted when there are none.
+     */
+    private String page( String base, ServedOntology served, List<OntologyTermI> terms, Map<String, String> params,
+                         String path ) {
+        Collections.sort( terms, ( t1, t2 ) -> t1.getTermAccession().compareTo( t2.getTermAccession() ) );
+        final int size = Math.max( 1, parseInt( params.get( "size" ), DEFAULT_PAGE_SIZE ) );
+        final int number = Math.max( 0, parseInt( params.get( "page" ), 0 ) );
+        final int totalPages = ( terms.size() + size - 1 ) / size;
+        final int from = Math.min( terms.size(), number * size );
+        final int to = Math.min( terms.size(), from + size );
+
+        final StringBuilder sb = new StringBuilder( 256 + 1024 * ( to - from ) );
+        sb.append( '{' );
+        if ( to > from ) {
+            sb.append( "\"_embedded\":{\"terms\":[" );
+            for ( int i = from; i < to; i++ ) {
+                if ( i > from ) {
+                    sb.append( ',' );
+                }
+                appendTerm( sb, base, served, terms.get( i ) );
+            }
+            sb.append( "]}," );
+        }
+        final String self = base + path;
+        sb.append( "\"_links\":{\"self\":" ).append( link( self + "?page=" + number + "&size=" + size ) );
+        sb.append( ",\"first\":" ).append( link( self + "?page=0&size=" + size ) );
+        if ( number + 1 < totalPages ) {
+            sb.append( ",\"next\":" ).append( link( self + "?page=" + ( number + 1 ) + "&size=" + size ) );
+        }
+        if ( totalPages > 0 ) {
+            sb.append( ",\"last\":" ).append( link( self + "?page=" + ( totalPages - 1 ) + "&size=" + size ) );
+        }
+        sb.append( "},\"page\":{\"size\":" ).append( size );
+        sb.append( ",\"totalElements\":" ).append( terms.size() );
+        sb.append( ",\"totalPages\":" ).append( totalPages );
+        sb.append( ",\"number\":" ).append( number ).append( "}}" );
+        return sb.toString();
+    }
+
+    private String error( int status, String message ) {
+        return "{\"status\":" + status + ",\"error\":" + quote( message ) + ",\"timestamp\":" + System.currentTimeMillis() + "}";
+    }
+
+    private static String link( String href ) {
+        return "{\"href\":" + quote( href ) + "}";
+    }
+
+    private static void appendStrings( StringBuilder sb, Collection<String> strings ) {
+        if ( strings == null || strings.isEmpty() ) {
+            sb.append( "null" );
+            return;
+        }
+        sb.append( '[' );
+        boolean first = true;
+        for ( String s : strings ) {
+            if ( !first ) {
+                sb.append( ',' );
+            }
+            sb.append( quote( s ) );
+            first = false;
+        }
+        sb.append( ']' );
+    }
+
+    private static String quote( String s ) {
+        if ( s == null ) {
+            return "null";
+        }
+        final StringBuilder sb = new StringBuilder( s.length() + 2 );
+        sb.append( '"' );
+        for ( int i = 0; i < s.length(); i++ ) {
+            final char c = s.charAt( i );
+            switch ( c ) {
+                case '"':
+                    sb.append( "\\\"" );
+                    break;
+                case '\\':
+                    sb.append( "\\\\" );
+                    break;
+                case '\n':
+                    sb.append( "\\n" );
+                    break;
+                case '\r':
+                    sb.append( "\\r" );
+                    break;
+                case '\t':
+                    sb.append( "\\t" );
+                    break;
+                default:
+                    if ( c < 0x20 ) {
+                        sb.append( String.format( "\\u%04x", ( int ) c ) );
+                    } else {
+                        sb.append( c );
+                    }
+            }
+        }
+        sb.append( '"' );
+        return sb.toString();
+    }
+
+    static String accessionToIri( String accession ) {
+        return IRI_PREFIX + accession.replace( ':', '_' );
+    }
+
+    /**
+     * @param iri the IRI of a term, or its OBO id.
+     * @return the OBO id of the term.
+     */
+    static String iriToAccession( String iri ) {
+        final String shortForm = iri.substring( iri.lastIndexOf( '/' ) + 1 );
+        return shortForm.contains( ":" ) ? shortForm : shortForm.replaceFirst( "_", ":" );
+    }
+
+    /**
+     * Decodes a path segment, the IRIs are encoded twice by the clients.
+     */
+    private static String decode( String s ) {
+        String decoded = s;
+        for ( int i = 0; i < 3 && decoded.indexOf( '%' ) >= 0; i++ ) {
+            try {
+                decoded = URLDecoder.decode( decoded, "UTF-8" );
+            } catch ( UnsupportedEncodingException e ) {
+                throw new IllegalStateException( e );
+            }
+        }
+        return decoded;
+    }
+
+    private static String encode( String s ) {
+        try {
+            return URLEncoder.encode( s, "UTF-8" );
+        } catch ( UnsupportedEncodingException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static Map<String, String> parseQuery( String query ) {
+        final Map<String, String> params = new HashMap<>();
+        if ( query == null ) {
+            return params;
+        }
+        for ( String pair : query.split( "&" ) ) {
+            final int eq = pair.indexOf( '=' );
+            if ( eq > 0 ) {
+                params.put( decode( pair.substring( 0, eq ) ), decode( pair.substring( eq + 1 ) ) );
+            }
+        }
+        return params;
+    }
+
+    private static int parseInt( String value, int defaultValue ) {
+        if ( value == null ) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt( value );
+        } catch ( NumberFormatException e ) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Runs a server until it is killed.
+     * <p/>
+     * Usage: LocalOlsServer port latency errorRate ontologyId=oboFile...
+     */
+    public static void main( String[] args ) throws Exception {
+        if ( args.length < 4 ) {
+            System.err.println( "Usage: LocalOlsServer <port> <latency ms> <error rate> <ontology id>=<obo file>..." );
+            System.exit( 1 );
+        }
+        final LocalOlsServer server = new LocalOlsServer( Integer.parseInt( args[0] ) );
+        server.setLatency( Long.parseLong( args[1] ), 0 );
+        server.setErrors( Double.parseDouble( args[2] ), 503 );
+        for ( int i = 3; i < args.length; i++ ) {
+            final int eq = args[i].indexOf( '=' );
+            if ( eq < 1 ) {
+                throw new IllegalArgumentException( "Expected <ontology id>=<obo file>: " + args[i] );
+            }
+            server.addOntology( args[i].substring( 0, eq ), new File( args[i].substring( eq + 1 ) ) );
+        }
+        server.start();
+        System.out.println( "Local OLS server started at " + server.getUrl() );
+    }
+}
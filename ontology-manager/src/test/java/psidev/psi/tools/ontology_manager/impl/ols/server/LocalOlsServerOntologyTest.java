@@ -0,0 +1,96 @@
+package psidev.psi.tools.ontology_manager.impl.ols.server;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.client.OlsClient;
+import psidev.psi.tools.ontology_manager.impl.ols.OlsOntology;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Checks the OLS client and the OLS ontology against a LocalOlsServer, as they are used against the EBI service.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class LocalOlsServerOntologyTest {
+
+    private static File oboFile;
+
+    private static LocalOlsServer server;
+
+    private static OlsOntology ontology;
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        oboFile = new File( LocalOlsServerOntologyTest.class.getResource( "/psi-mi25.obo" ).toURI() );
+        server = new LocalOlsServer( 0 );
+        server.addOntology( "MI", oboFile );
+        server.start();
+
+        // the OLS ontology creates its client from the ols.url system property
+        final String previous = System.getProperty( OlsClient.OLS_URL_PROPERTY );
+        System.setProperty( OlsClient.OLS_URL_PROPERTY, server.getUrl() );
+        try {
+            ontology = new OlsOntology();
+        } finally {
+            if ( previous == null ) {
+                System.clearProperty( OlsClient.OLS_URL_PROPERTY );
+            } else {
+                System.setProperty( OlsClient.OLS_URL_PROPERTY, previous );
+            }
+        }
+        ontology.loadOntology( "MI", "PSI-MI", null, "OLS", null );
+    }
+
+    @AfterClass
+    public static void stopServer() throws Exception {
+        if ( ontology != null ) {
+            ontology.close();
+        }
+        server.stop();
+    }
+
+    private static Set<String> accessionsOf( Set<OntologyTermI> terms ) {
+        final Set<String> accessions = new HashSet<String>();
+        for ( OntologyTermI term : terms ) {
+            accessions.add( term.getTermAccession() );
+        }
+        return accessions;
+    }
+
+    @Test
+    public void getTermForAccession() throws Exception {
+        final OntologyTermI term = ontology.getTermForAccession( "MI:0018" );
+        Assert.assertNotNull( term );
+        Assert.assertEquals( "two hybrid", term.getPreferredName() );
+        Assert.assertTrue( term.getNameSynonyms().contains( "classical two hybrid" ) );
+
+        Assert.assertNull( ontology.getTermForAccession( "MI:9999" ) );
+    }
+
+    @Test
+    public void parentsAndChildren() throws Exception {
+        final OntologyTermI term = ontology.getTermForAccession( "MI:0018" );
+        Assert.assertTrue( accessionsOf( ontology.getDirectParents( term ) ).contains( "MI:0232" ) );
+        Assert.assertTrue( accessionsOf( ontology.getAllParents( term ) ).contains( "MI:0001" ) );
+        Assert.assertTrue( accessionsOf( ontology.getDirectChildren( term ) ).contains( "MI:0397" ) );
+        Assert.assertTrue( accessionsOf( ontology.getValidTerms( "MI:0018", true, false ) ).contains( "MI:0397" ) );
+    }
+
+    @Test
+    public void loadDate() throws Exception {
+        // the server gives the last modification date of the OBO file as the OLS load date
+        final String loadDate = ontology.getContentVersion();
+        Assert.assertNotNull( loadDate );
+        Assert.assertTrue( loadDate.startsWith( new SimpleDateFormat( "yyyy-MM-dd" ).format( new Date( oboFile.lastModified() ) ) ) );
+        Assert.assertFalse( ontology.checkFreshness() );
+    }
+}
@@ -0,0 +1,95 @@
+package psidev.psi.tools.ontology_manager.impl.ols.server;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * LocalOlsServer Tester.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class LocalOlsServerTest {
+
+    private static LocalOlsServer server;
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        server = new LocalOlsServer( 0 );
+        server.addOntology( "MI", new File( LocalOlsServerTest.class.getResource( "/psi-mi25.obo" ).toURI() ) );
+        server.start();
+    }
+
+    @AfterClass
+    public static void stopServer() throws Exception {
+        server.stop();
+    }
+
+    private static int status;
+
+    private static String get( String path ) throws Exception {
+        final HttpURLConnection connection = ( HttpURLConnection ) new URL( server.getUrl() + path ).openConnection();
+        status = connection.getResponseCode();
+        final InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int n;
+        while ( ( n = in.read( buffer ) ) > 0 ) {
+            out.write( buffer, 0, n );
+        }
+        in.close();
+        return out.toString( "UTF-8" );
+    }
+
+    @Test
+    public void ontology() throws Exception {
+        final String json = get( "/api/ontologies/mi" );
+        Assert.assertEquals( 200, status );
+        Assert.assertTrue( json.contains( "\"ontologyId\":\"mi\"" ) );
+        Assert.assertTrue( json.contains( "\"loaded\":" ) );
+    }
+
+    @Test
+    public void term() throws Exception {
+        final String json = get( "/api/ontologies/mi/terms?obo_id=MI:0018" );
+        Assert.assertEquals( 200, status );
+        Assert.assertTrue( json.contains( "\"label\":\"two hybrid\"" ) );
+        Assert.assertTrue( json.contains( "\"classical two hybrid\"" ) );
+
+        // IRIs are encoded twice in the paths
+        get( "/api/ontologies/mi/terms/http%253A%252F%252Fpurl.obolibrary.org%252Fobo%252FMI_0018" );
+        Assert.assertEquals( 200, status );
+
+        get( "/api/ontologies/mi/terms?obo_id=MI:9999" );
+        Assert.assertEquals( 404, status );
+    }
+
+    @Test
+    public void parents() throws Exception {
+        final String json = get( "/api/ontologies/mi/terms/MI:0018/parents" );
+        Assert.assertEquals( 200, status );
+        Assert.assertTrue( json.contains( "\"obo_id\":\"MI:0232\"" ) );
+        Assert.assertTrue( json.contains( "\"totalElements\":1" ) );
+    }
+
+    @Test
+    public void errors() throws Exception {
+        server.setErrors( 1, 503 );
+        try {
+            final long errors = server.getErrorCount();
+            get( "/api/ontologies/mi" );
+            Assert.assertEquals( 503, status );
+            Assert.assertEquals( errors + 1, server.getErrorCount() );
+        } finally {
+            server.setErrors( 0, 503 );
+        }
+    }
+}
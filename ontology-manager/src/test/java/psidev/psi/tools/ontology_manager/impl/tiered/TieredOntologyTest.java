@@ -0,0 +1,202 @@
+package psidev.psi.tools.ontology_manager.impl.tiered;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.client.OlsClient;
+import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
+import psidev.psi.tools.ontology_manager.impl.ols.OlsOntology;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccessTemplate;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.rmi.RemoteException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TieredOntology Tester, the local snapshot is psi-mi25.obo and OLS is replaced by a fake client knowing MI:9999.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class TieredOntologyTest {
+
+    private FakeOlsClient client;
+
+    private TieredOntology ontology;
+
+    /**
+     * Knows a single term MI:9999 missing from the snapshot, child of MI:0018, and its parent.
+     */
+    private static class FakeOlsClient extends OlsClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Map getRootTerms( String ontologyId ) throws RemoteException {
+            calls.incrementAndGet();
+            final Map<String, String> roots = new HashMap<String, String>();
+            roots.put( "MI:0000", "molecular interaction" );
+            return roots;
+        }
+
+        @Override
+        public String getOntologyLoadDate( String ontologyId ) throws RemoteException {
+            return "2016-01-01";
+        }
+
+        @Override
+        public String getTermById( String accession, String ontologyId ) throws RemoteException {
+            calls.incrementAndGet();
+            if ( accession.equals( "MI:9999" ) ) {
+                return "new two hybrid";
+            }
+            // OLS gives back the accession of the unknown terms
+            return accession.equals( "MI:0018" ) ? "two hybrid" : accession;
+        }
+
+        @Override
+        public boolean isObsolete( String termAccession, String ontologyId ) throws RemoteException {
+            calls.incrementAndGet();
+            return false;
+        }
+
+        @Override
+        public Map getTermParents( String termAccession, String ontologyId ) throws RemoteException {
+            calls.incrementAndGet();
+            final Map<String, String> parents = new HashMap<String, String>();
+            parents.put( "MI:0018", "two hybrid" );
+            return parents;
+        }
+
+        @Override
+        public Map getTermChildren( String termAccession, String ontologyId, int level ) throws RemoteException {
+            calls.incrementAndGet();
+            final Map<String, String> children = new HashMap<String, String>();
+            if ( termAccession.equals( "MI:0018" ) ) {
+                children.put( "MI:9999", "new two hybrid" );
+            }
+            return children;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        client = new FakeOlsClient();
+        ontology = new TieredOntology() {
+            @Override
+            protected OntologyAccessTemplate<OntologyTermI> createRemoteOntology() throws OntologyLoaderException {
+                return new OlsOntology() {
+                    {
+                        olsClient = client;
+                        setUseTermSynonyms( false );
+                    }
+                };
+            }
+        };
+        ontology.loadOntology( "MI", "PSI-MI", "1", "OBO", TieredOntologyTest.class.getResource( "/psi-mi25.obo" ).toURI() );
+    }
+
+    private static Set<String> accessionsOf( Set<OntologyTermI> terms ) {
+        final Set<String> accessions = new HashSet<String>();
+        for ( OntologyTermI term : terms ) {
+            accessions.add( term.getTermAccession() );
+        }
+        return accessions;
+    }
+
+    @Test
+    public void localTerm() throws Exception {
+        final OntologyTermI y2h = ontology.getTermForAccession( "MI:0018" );
+        Assert.assertNotNull( y2h );
+        Assert.assertEquals( "two hybrid", y2h.getPreferredName() );
+        Assert.assertFalse( ontology.getAllParents( y2h ).isEmpty() );
+        Assert.assertEquals( 1, ontology.getValidTerms( "MI:0018", false, true ).size() );
+
+        // OLS isn't even loaded
+        Assert.assertEquals( 0, client.calls.get() );
+    }
+
+    @Test
+    public void localTerm_remoteChildren() throws Exception {
+        // the children of a local term include the ones added in OLS since the snapshot
+        final Set<String> valid = accessionsOf( ontology.getValidTerms( "MI:0018", true, false ) );
+        Assert.assertTrue( valid.contains( "MI:9999" ) );
+        Assert.assertTrue( valid.contains( "MI:0397" ) );
+        Assert.assertFalse( valid.contains( "MI:0018" ) );
+        Assert.assertTrue( accessionsOf( ontology.getValidTerms( "MI:0018", true, true ) ).contains( "MI:9999" ) );
+
+        final OntologyTermI y2h = ontology.getTermForAccession( "MI:0018" );
+        final Set<String> children = accessionsOf( ontology.getAllChildren( y2h ) );
+        Assert.assertTrue( children.contains( "MI:9999" ) );
+        Assert.assertTrue( children.contains( "MI:0397" ) );
+        Assert.assertTrue( accessionsOf( ontology.getDirectChildren( y2h ) ).contains( "MI:9999" ) );
+
+        // the children known by the snapshot are not taken from OLS
+        Assert.assertFalse( accessionsOf( ontology.getValidTerms( "MI:0001", true, false ) ).contains( "MI:9999" ) );
+
+        // answers from OLS are cached
+        final int calls = client.calls.get();
+        ontology.getValidTerms( "MI:0018", true, false );
+        ontology.getAllChildren( y2h );
+        Assert.assertEquals( calls, client.calls.get() );
+    }
+
+    @Test
+    public void remoteTerm_localAncestors() throws Exception {
+        final OntologyTermI term = ontology.getTermForAccession( "MI:9999" );
+        final Set<String> parents = accessionsOf( ontology.getAllParents( term ) );
+        Assert.assertTrue( parents.contains( "MI:0018" ) );
+        // the ancestors of MI:0018 given by the snapshot
+        Assert.assertTrue( parents.contains( "MI:0232" ) );
+        Assert.assertTrue( parents.contains( "MI:0001" ) );
+    }
+
+    @Test
+    public void remoteTerm() throws Exception {
+        final OntologyTermI term = ontology.getTermForAccession( "MI:9999" );
+        Assert.assertNotNull( term );
+        Assert.assertEquals( "new two hybrid", term.getPreferredName() );
+
+        final Set<OntologyTermI> parents = ontology.getDirectParents( term );
+        Assert.assertEquals( 1, parents.size() );
+        Assert.assertEquals( "MI:0018", parents.iterator().next().getTermAccession() );
+
+        // answers from OLS are cached
+        final int calls = client.calls.get();
+        ontology.getTermForAccession( "MI:9999" );
+        ontology.getDirectParents( term );
+        Assert.assertEquals( calls, client.calls.get() );
+    }
+
+    @Test
+    public void unknownTerm() throws Exception {
+        Assert.assertNull( ontology.getTermForAccession( "MI:8888" ) );
+        final int calls = client.calls.get();
+        Assert.assertNull( ontology.getTermForAccession( "MI:8888" ) );
+        Assert.assertEquals( calls, client.calls.get() );
+    }
+
+    @Test
+    public void remoteUnavailable() throws Exception {
+        ontology = new TieredOntology() {
+            @Override
+            protected OntologyAccessTemplate<OntologyTermI> createRemoteOntology() throws OntologyLoaderException {
+                throw new OntologyLoaderException( "OLS is down" );
+            }
+        };
+        ontology.loadOntology( "MI", "PSI-MI", "1", "OBO", TieredOntologyTest.class.getResource( "/psi-mi25.obo" ).toURI() );
+
+        Assert.assertNotNull( ontology.getTermForAccession( "MI:0018" ) );
+        Assert.assertNull( ontology.getTermForAccession( "MI:9999" ) );
+        Assert.assertTrue( ontology.getValidTerms( "MI:9999", true, true ).isEmpty() );
+
+        // the local children are still given
+        final Set<String> valid = accessionsOf( ontology.getValidTerms( "MI:0018", true, false ) );
+        Assert.assertTrue( valid.contains( "MI:0397" ) );
+        Assert.assertFalse( valid.contains( "MI:9999" ) );
+    }
+}
@@ -0,0 +1,127 @@
+package psidev.psi.tools.benchmarks;
+
+import net.sf.psi.spe.Experiment;
+import net.sf.psi.spe.Modification;
+import net.sf.psi.spe.Molecule;
+import net.sf.psi.spe.MoleculeType;
+import psidev.psi.tools.cvrReader.CvRuleReader;
+import psidev.psi.tools.cvrReader.CvRuleReaderException;
+import psidev.psi.tools.cvrReader.mapping.jaxb.CvMapping;
+import psidev.psi.tools.ontology_manager.OntologyManager;
+import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
+import psidev.psi.tools.validator.rules.cvmapping.CvRuleManager;
+import psidev.psi.tools.validator.rules.cvmapping.house.House;
+import psidev.psi.tools.validator.rules.cvmapping.house.HouseFactory;
+import psidev.psi.tools.validator.rules.cvmapping.protein.Protein;
+
+import java.io.*;
+
+/**
+ * Builds the models, ontologies and rules shared by the benchmarks.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public final class BenchmarkFixtures {
+
+    /**
+     * Ontology configuration of the validator tests (PSI-MI, PATO, PSI-MOD and BTO).
+     */
+    public static final String VALIDATOR_ONTOLOGIES = "ontology-config.xml";
+
+    /**
+     * Ontology configuration of the SPE tutorial.
+     */
+    public static final String SPE_ONTOLOGIES = "spe-ontologies.xml";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static InputStream open( String resource ) {
+        final InputStream is = BenchmarkFixtures.class.getClassLoader().getResourceAsStream( resource );
+        if ( is == null ) {
+            throw new IllegalStateException( "Could not find resource: " + resource );
+        }
+        return is;
+    }
+
+    public static OntologyManager loadOntologies( String config ) throws OntologyLoaderException, IOException {
+        final InputStream is = open( config );
+        try {
+            return new OntologyManager( is );
+        } finally {
+            is.close();
+        }
+    }
+
+    public static CvMapping readCvMapping( String resource ) throws CvRuleReaderException, IOException {
+        final InputStream is = open( resource );
+        try {
+            return new CvRuleReader().read( is );
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Builds a rule manager and prunes the invalid rules as a validator would.
+     */
+    public static CvRuleManager buildCvRuleManager( OntologyManager ontologyManager, String cvMapping ) throws Exception {
+        final CvRuleManager manager = new CvRuleManager( ontologyManager, readCvMapping( cvMapping ) );
+        manager.checkCvMapping();
+        return manager;
+    }
+
+    /**
+     * Copies a resource (e.g. an OBO file bundled in a jar) to a temporary file.
+     */
+    public static File copyToTempFile( String resource ) throws IOException {
+        final File file = File.createTempFile( "benchmark-", "-" + new File( resource ).getName() );
+        file.deleteOnExit();
+        final InputStream is = open( resource );
+        try {
+            final OutputStream os = new BufferedOutputStream( new FileOutputStream( file ) );
+            try {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ( ( read = is.read( buffer ) ) != -1 ) {
+                    os.write( buffer, 0, read );
+                }
+            } finally {
+                os.close();
+            }
+        } finally {
+            is.close();
+        }
+        return file;
+    }
+
+    ///////////////////////
+    // Models
+
+    public static House buildHouse() {
+        return HouseFactory.buildSimpleHouse();
+    }
+
+    public static Protein buildProtein() {
+        return new Protein( "prot1",
+                            new psidev.psi.tools.validator.rules.cvmapping.protein.Modification( "MOD:00001" ),
+                            new psidev.psi.tools.validator.rules.cvmapping.protein.Modification( "MOD:00400" ),
+                            new psidev.psi.tools.validator.rules.cvmapping.protein.Modification( "MOD:00649" ) );
+    }
+
+    public static Experiment buildExperiment( int moleculeCount ) {
+        final Experiment experiment = new Experiment( 1 );
+        experiment.setName( "benchmark experiment" );
+        final MoleculeType protein = new MoleculeType( "SPE:0326", "protein" );
+        final MoleculeType dna = new MoleculeType( "SPE:0319", "dna" );
+        for ( int i = 0; i < moleculeCount; i++ ) {
+            final Molecule molecule = new Molecule( "molecule " + i, i % 2 == 0 ? protein : dna );
+            molecule.setSequence( "MSTNPKPQRKTKRNTNRRPQDVKFPGG" );
+            molecule.addModification( new Modification( "MOD:00046", "O-phospho-L-serine" ) );
+            molecule.addModification( new Modification( "MOD:00047", "O-phospho-L-threonine" ) );
+            experiment.addMolecule( molecule );
+        }
+        return experiment;
+    }
+}
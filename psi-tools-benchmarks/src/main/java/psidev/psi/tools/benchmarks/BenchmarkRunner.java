@@ -0,0 +1,31 @@
+package psidev.psi.tools.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler so that allocation rates are reported along with the timings.
+ * <p/>
+ * Accepts the usual JMH command line options, e.g. <code>java -jar benchmarks.jar CvRuleBenchmark -f 1</code>.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class BenchmarkRunner {
+
+    public static void main( String[] args ) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLine = new CommandLineOptions( args );
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent( commandLine );
+        if ( commandLine.getProfilers().isEmpty() ) {
+            options = options.addProfiler( GCProfiler.class );
+        }
+
+        new Runner( options.build() ).run();
+    }
+}
@@ -0,0 +1,69 @@
+package psidev.psi.tools.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import psidev.psi.tools.ontology_manager.OntologyManager;
+import psidev.psi.tools.validator.ValidatorException;
+import psidev.psi.tools.validator.rules.cvmapping.CvRule;
+import psidev.psi.tools.validator.rules.cvmapping.CvRuleManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures CvRuleImpl.check on the house and protein test models and on the SPE tutorial experiment.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class CvRuleBenchmark {
+
+    @Param( {"house", "protein", "spe"} )
+    public String model;
+
+    private List<CvRule> rules;
+
+    private Object object;
+
+    private String xpath;
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        final CvRuleManager manager;
+        if ( "house".equals( model ) ) {
+            final OntologyManager ontologies = BenchmarkFixtures.loadOntologies( BenchmarkFixtures.VALIDATOR_ONTOLOGIES );
+            manager = BenchmarkFixtures.buildCvRuleManager( ontologies, "sample1-house-cvmapping.xml" );
+            object = BenchmarkFixtures.buildHouse();
+            xpath = "/house";
+        } else if ( "protein".equals( model ) ) {
+            final OntologyManager ontologies = BenchmarkFixtures.loadOntologies( BenchmarkFixtures.VALIDATOR_ONTOLOGIES );
+            manager = BenchmarkFixtures.buildCvRuleManager( ontologies, "sample2-protein-cvmapping.xml" );
+            object = BenchmarkFixtures.buildProtein();
+            xpath = "/protein";
+        } else if ( "spe".equals( model ) ) {
+            final OntologyManager ontologies = BenchmarkFixtures.loadOntologies( BenchmarkFixtures.SPE_ONTOLOGIES );
+            manager = BenchmarkFixtures.buildCvRuleManager( ontologies, "spe/cv-mapping.xml" );
+            object = BenchmarkFixtures.buildExperiment( 20 );
+            xpath = "/experiment";
+        } else {
+            throw new IllegalArgumentException( "Unknown model: " + model );
+        }
+        rules = new ArrayList<CvRule>( manager.getCvRules() );
+    }
+
+    @Benchmark
+    public void check( Blackhole bh ) throws ValidatorException {
+        for ( CvRule rule : rules ) {
+            if ( rule.canCheck( xpath ) ) {
+                bh.consume( rule.check( object, xpath ) );
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package psidev.psi.tools.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import psidev.psi.tools.ontology_manager.impl.local.Ontology;
+import psidev.psi.tools.ontology_manager.impl.local.OboLoader;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing of the OBO files bundled with the validator tests.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class OboLoaderBenchmark {
+
+    @Param( {"psi-mi.obo", "psi-mod.obo", "quality.obo", "BrendaTissue.obo"} )
+    public String oboFile;
+
+    private File file;
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        file = BenchmarkFixtures.copyToTempFile( "ontologies/" + oboFile );
+    }
+
+    @Benchmark
+    public Ontology parse() {
+        return new OboLoader( file.getParentFile() ).parseOboFile( file );
+    }
+}
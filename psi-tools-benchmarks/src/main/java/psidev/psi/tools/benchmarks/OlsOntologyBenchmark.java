@@ -0,0 +1,135 @@
+package psidev.psi.tools.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import psidev.psi.tools.ontology_manager.client.OlsClient;
+import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
+import psidev.psi.tools.ontology_manager.impl.ols.OlsOntology;
+import psidev.psi.tools.ontology_manager.impl.ols.server.LocalOlsServer;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the queries of an OLS ontology against a LocalOlsServer serving PSI-MI, with and without a latency added
+ * to the answers: the cold queries go through the OLS client for each invocation, the cached ones are answered from
+ * the caches of the ontology.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class OlsOntologyBenchmark {
+
+    private static final String ONTOLOGY_ID = "MI";
+
+    /**
+     * MI:0001 (interaction detection method) has a large sub-tree, MI:0116 (feature type) a smaller one.
+     */
+    @Param( {"MI:0001", "MI:0116"} )
+    public String accession;
+
+    /**
+     * Time in milliseconds waited by the server before answering each request.
+     */
+    @Param( {"0", "5"} )
+    public long latency;
+
+    private LocalOlsServer server;
+
+    private OlsOntology ontology;
+
+    /**
+     * An ontology with empty caches for each invocation.
+     */
+    @State( Scope.Thread )
+    public static class ColdOntology {
+
+        private OlsOntology ontology;
+
+        @Setup( Level.Invocation )
+        public void setUp( OlsOntologyBenchmark benchmark ) throws OntologyLoaderException {
+            ontology = benchmark.newOntology();
+        }
+
+        @TearDown( Level.Invocation )
+        public void tearDown() {
+            ontology.close();
+        }
+    }
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        final File obo = BenchmarkFixtures.copyToTempFile( "ontologies/psi-mi.obo" );
+        server = new LocalOlsServer( 0 );
+        server.addOntology( ONTOLOGY_ID, obo );
+        server.setLatency( latency, 0 );
+        server.start();
+
+        ontology = newOntology();
+        // fills the caches of the cached queries
+        getValidTerms_cached();
+        getTermForAccession_cached();
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        ontology.close();
+        server.stop();
+    }
+
+    /**
+     * @return an OLS ontology querying the local server.
+     */
+    private OlsOntology newOntology() throws OntologyLoaderException {
+        // the OLS ontology creates its client from the ols.url system property
+        final String previous = System.getProperty( OlsClient.OLS_URL_PROPERTY );
+        System.setProperty( OlsClient.OLS_URL_PROPERTY, server.getUrl() );
+        final OlsOntology olsOntology;
+        try {
+            olsOntology = new OlsOntology();
+        } finally {
+            if ( previous == null ) {
+                System.clearProperty( OlsClient.OLS_URL_PROPERTY );
+            } else {
+                System.setProperty( OlsClient.OLS_URL_PROPERTY, previous );
+            }
+        }
+        olsOntology.loadOntology( ONTOLOGY_ID, "PSI-MI", null, "OLS", null );
+        return olsOntology;
+    }
+
+    @Benchmark
+    @BenchmarkMode( Mode.SingleShotTime )
+    @OutputTimeUnit( TimeUnit.MILLISECONDS )
+    @Warmup( iterations = 5 )
+    @Measurement( iterations = 20 )
+    public Set<OntologyTermI> getValidTerms_cold( ColdOntology cold ) {
+        return cold.ontology.getValidTerms( accession, true, true );
+    }
+
+    @Benchmark
+    @BenchmarkMode( Mode.SingleShotTime )
+    @OutputTimeUnit( TimeUnit.MILLISECONDS )
+    @Warmup( iterations = 5 )
+    @Measurement( iterations = 20 )
+    public OntologyTermI getTermForAccession_cold( ColdOntology cold ) {
+        return cold.ontology.getTermForAccession( accession );
+    }
+
+    @Benchmark
+    public Set<OntologyTermI> getValidTerms_cached() {
+        return ontology.getValidTerms( accession, true, true );
+    }
+
+    @Benchmark
+    public OntologyTermI getTermForAccession_cached() {
+        return ontology.getTermForAccession( accession );
+    }
+}
@@ -0,0 +1,68 @@
+package psidev.psi.tools.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import psidev.psi.tools.ontology_manager.OntologyManager;
+import psidev.psi.tools.ontology_manager.impl.local.Ontology;
+import psidev.psi.tools.ontology_manager.impl.local.OboLoader;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the graph queries of a local ontology: OntologyTemplateImpl.getAllChildren and
+ * OntologyAccess.getValidTerms, on PSI-MI terms having small and large sub-trees.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class OntologyBenchmark {
+
+    /**
+     * MI:0001 (interaction detection method) has a large sub-tree, MI:0116 (feature type) a smaller one.
+     */
+    @Param( {"MI:0001", "MI:0116"} )
+    public String accession;
+
+    private Ontology ontology;
+
+    private OntologyTermI term;
+
+    private OntologyAccess ontologyAccess;
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        final File obo = BenchmarkFixtures.copyToTempFile( "ontologies/psi-mi.obo" );
+        ontology = new OboLoader( obo.getParentFile() ).parseOboFile( obo );
+        term = ontology.search( accession );
+        if ( term == null ) {
+            throw new IllegalStateException( "Unknown term: " + accession );
+        }
+
+        final OntologyManager manager = BenchmarkFixtures.loadOntologies( BenchmarkFixtures.VALIDATOR_ONTOLOGIES );
+        ontologyAccess = manager.getOntologyAccess( "MI" );
+    }
+
+    @Benchmark
+    public Set<OntologyTermI> getAllChildren() {
+        return ontology.getAllChildren( term );
+    }
+
+    @Benchmark
+    public Set<OntologyTermI> getValidTerms_children() {
+        return ontologyAccess.getValidTerms( accession, true, false );
+    }
+
+    @Benchmark
+    public Set<OntologyTermI> getValidTerms_termAndChildren() {
+        return ontologyAccess.getValidTerms( accession, true, true );
+    }
+}
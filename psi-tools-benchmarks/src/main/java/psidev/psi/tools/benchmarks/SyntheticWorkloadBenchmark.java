@@ -0,0 +1,96 @@
+package psidev.psi.tools.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import psidev.psi.tools.benchmarks.workload.SyntheticEntry;
+import psidev.psi.tools.benchmarks.workload.WorkloadGenerator;
+import psidev.psi.tools.cvrReader.CvRuleReader;
+import psidev.psi.tools.ontology_manager.OntologyManager;
+import psidev.psi.tools.validator.Validator;
+import psidev.psi.tools.validator.ValidatorException;
+import psidev.psi.tools.validator.rules.codedrule.ObjectRule;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams a synthetic workload through the object rules and the CvMapping of a validator, batch by batch.
+ * <p/>
+ * Each invocation validates the whole workload, which is generated on the fly so that large counts can be measured
+ * without keeping the objects in memory.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class SyntheticWorkloadBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param( {"1000", "100000"} )
+    public long count;
+
+    @Param( {"3"} )
+    public int fanOut;
+
+    @Param( {"0.01"} )
+    public double errorRate;
+
+    private WorkloadGenerator generator;
+
+    private Validator validator;
+
+    /**
+     * A validator running the configurations written by the generator.
+     */
+    public static class SyntheticValidator extends Validator {
+        public SyntheticValidator( OntologyManager ontologyManager, File configurations ) throws Exception {
+            super( ontologyManager,
+                   new CvRuleReader().read( new File( configurations, WorkloadGenerator.CV_MAPPING_FILE ) ),
+                   Collections.<ObjectRule>emptyList() );
+            final InputStream is = new FileInputStream( new File( configurations, WorkloadGenerator.OBJECT_RULES_FILE ) );
+            try {
+                setObjectRules( is );
+            } finally {
+                is.close();
+            }
+        }
+    }
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        final OntologyManager ontologies = BenchmarkFixtures.loadOntologies( BenchmarkFixtures.VALIDATOR_ONTOLOGIES );
+        generator = new WorkloadGenerator( ontologies.getOntologyAccess( WorkloadGenerator.DEFAULT_ONTOLOGY_ID ) );
+        generator.setCount( count );
+        generator.setFanOut( fanOut );
+        generator.setErrorRate( errorRate );
+
+        final File configurations = File.createTempFile( "synthetic-", "" );
+        if ( !configurations.delete() ) {
+            throw new IllegalStateException( "Could not create directory: " + configurations.getAbsolutePath() );
+        }
+        generator.writeConfigurations( configurations );
+        validator = new SyntheticValidator( ontologies, configurations );
+    }
+
+    @Benchmark
+    public long validate() throws ValidatorException {
+        long messages = 0;
+        final Iterator<SyntheticEntry> iterator = generator.iterator();
+        while ( iterator.hasNext() ) {
+            final List<SyntheticEntry> batch = WorkloadGenerator.nextBatch( iterator, BATCH_SIZE );
+            messages += validator.validate( batch ).size();
+            messages += validator.checkCvMapping( batch, WorkloadGenerator.ENTRY_XPATH ).size();
+        }
+        return messages;
+    }
+}
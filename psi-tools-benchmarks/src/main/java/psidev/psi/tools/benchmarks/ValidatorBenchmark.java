@@ -0,0 +1,77 @@
+package psidev.psi.tools.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import psidev.psi.tools.ontology_manager.OntologyManager;
+import psidev.psi.tools.validator.Validator;
+import psidev.psi.tools.validator.ValidatorException;
+import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.rules.codedrule.ObjectRule;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Validator.validate with the object rules of the validator tests on a collection of objects.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ValidatorBenchmark {
+
+    @Param( {"100", "10000"} )
+    public int objectCount;
+
+    private Validator validator;
+
+    private List<Object> objects;
+
+    /**
+     * A validator only made of object rules.
+     */
+    public static class ObjectRuleValidator extends Validator {
+        public ObjectRuleValidator( OntologyManager ontologyManager ) {
+            super( ontologyManager, null, Collections.<ObjectRule>emptyList() );
+        }
+    }
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        final OntologyManager ontologies = BenchmarkFixtures.loadOntologies( BenchmarkFixtures.VALIDATOR_ONTOLOGIES );
+        validator = new ObjectRuleValidator( ontologies );
+        final InputStream rules = BenchmarkFixtures.open( "xmlRuleSets/object-rules.xml" );
+        try {
+            validator.setObjectRules( rules );
+        } finally {
+            rules.close();
+        }
+
+        objects = new ArrayList<Object>( objectCount );
+        for ( int i = 0; i < objectCount; i++ ) {
+            objects.add( i % 2 == 0 ? BenchmarkFixtures.buildHouse() : BenchmarkFixtures.buildProtein() );
+        }
+    }
+
+    @Benchmark
+    public Collection<ValidatorMessage> validateCollection() throws ValidatorException {
+        return validator.validate( objects );
+    }
+
+    @Benchmark
+    public int validateEach() throws ValidatorException {
+        int count = 0;
+        for ( Object o : objects ) {
+            count += validator.validate( o ).size();
+        }
+        return count;
+    }
+}
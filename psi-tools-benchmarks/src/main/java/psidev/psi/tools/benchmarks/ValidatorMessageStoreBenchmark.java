@@ -0,0 +1,77 @@
+package psidev.psi.tools.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import psidev.psi.tools.validator.Context;
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.ValidatorMessageStore;
+import psidev.psi.tools.validator.rules.AbstractRule;
+import psidev.psi.tools.validator.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares collecting messages in a list and in a ValidatorMessageStore, the GC profiler output gives the allocation
+ * per message.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ValidatorMessageStoreBenchmark {
+
+    @Param( {"100000"} )
+    public int messageCount;
+
+    private Rule[] rules;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        rules = new Rule[10];
+        for ( int i = 0; i < rules.length; i++ ) {
+            final String id = "R" + i;
+            rules[i] = new AbstractRule( null ) {
+                public String getId() {
+                    return id;
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public Collection<ValidatorMessage> arrayList() {
+        return fill( new ArrayList<ValidatorMessage>() );
+    }
+
+    @Benchmark
+    public Collection<ValidatorMessage> messageStore() {
+        return fill( new ValidatorMessageStore() );
+    }
+
+    @Benchmark
+    public Collection<ValidatorMessage> messageStoreTemplates() {
+        final ValidatorMessageStore store = new ValidatorMessageStore();
+        for ( int i = 0; i < messageCount; i++ ) {
+            store.add( MessageLevel.ERROR, rules[i % rules.length], "interaction " + ( i % 1000 ),
+                       "The term {0} is not allowed in the context of this element.", "MI:" + ( i % 50 ) );
+        }
+        return store;
+    }
+
+    private Collection<ValidatorMessage> fill( Collection<ValidatorMessage> messages ) {
+        for ( int i = 0; i < messageCount; i++ ) {
+            messages.add( new ValidatorMessage( "The term MI:" + ( i % 50 ) + " is not allowed in the context of this element.",
+                                                MessageLevel.ERROR,
+                                                new Context( "interaction " + ( i % 1000 ) ),
+                                                rules[i % rules.length] ) );
+        }
+        return messages;
+    }
+}
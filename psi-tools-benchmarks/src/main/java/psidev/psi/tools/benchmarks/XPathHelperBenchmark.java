@@ -0,0 +1,51 @@
+package psidev.psi.tools.benchmarks;
+
+import net.sf.psi.spe.Experiment;
+import org.openjdk.jmh.annotations.*;
+import psidev.psi.tools.validator.ValidatorException;
+import psidev.psi.tools.validator.rules.cvmapping.house.House;
+import psidev.psi.tools.validator.xpath.XPathHelper;
+import psidev.psi.tools.validator.xpath.XPathResult;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures XPathHelper.evaluateXPath on simple and collection spanning expressions.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class XPathHelperBenchmark {
+
+    private House house;
+
+    private Experiment experiment;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        house = BenchmarkFixtures.buildHouse();
+        experiment = BenchmarkFixtures.buildExperiment( 100 );
+    }
+
+    @Benchmark
+    public List<XPathResult> attribute() throws ValidatorException {
+        return XPathHelper.evaluateXPath( "/kitchen/@note", house );
+    }
+
+    @Benchmark
+    public List<XPathResult> collection() throws ValidatorException {
+        return XPathHelper.evaluateXPath( "/garage/bikes/@color", house );
+    }
+
+    @Benchmark
+    public List<XPathResult> nestedCollections() throws ValidatorException {
+        return XPathHelper.evaluateXPath( "/molecules/modifications/@id", experiment );
+    }
+}
@@ -0,0 +1,47 @@
+package psidev.psi.tools.benchmarks.workload;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Top level object of a synthetic workload, shaped like an interaction: a detection method and participants having
+ * a role and features.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class SyntheticEntry {
+
+    private long id;
+    private SyntheticTerm method;
+    private Collection<SyntheticParticipant> participants = new ArrayList<SyntheticParticipant>();
+
+    public SyntheticEntry( long id, SyntheticTerm method ) {
+        this.id = id;
+        this.method = method;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId( long id ) {
+        this.id = id;
+    }
+
+    public SyntheticTerm getMethod() {
+        return method;
+    }
+
+    public void setMethod( SyntheticTerm method ) {
+        this.method = method;
+    }
+
+    public Collection<SyntheticParticipant> getParticipants() {
+        return participants;
+    }
+
+    public void addParticipant( SyntheticParticipant participant ) {
+        participants.add( participant );
+    }
+}
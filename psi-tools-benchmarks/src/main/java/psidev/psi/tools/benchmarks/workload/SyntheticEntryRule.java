@@ -0,0 +1,52 @@
+package psidev.psi.tools.benchmarks.workload;
+
+import psidev.psi.tools.ontology_manager.OntologyManager;
+import psidev.psi.tools.validator.Context;
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorException;
+import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.rules.codedrule.ObjectRule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Object rule of the synthetic workloads: an entry must have participants and each participant must have a name.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class SyntheticEntryRule extends ObjectRule<SyntheticEntry> {
+
+    public SyntheticEntryRule( OntologyManager ontologyManager ) {
+        super( ontologyManager );
+        setName( "Synthetic entry check" );
+        setDescription( "Checks that an entry has participants and that they all have a name." );
+        addTip( "Give a name to all the participants" );
+    }
+
+    public String getId() {
+        return "synthetic-entry";
+    }
+
+    @Override
+    public boolean canCheck( Object t ) {
+        return t instanceof SyntheticEntry;
+    }
+
+    @Override
+    public Collection<ValidatorMessage> check( SyntheticEntry entry ) throws ValidatorException {
+        Collection<ValidatorMessage> messages = new ArrayList<ValidatorMessage>();
+        final Context context = new Context( "entry " + entry.getId() );
+
+        if ( entry.getParticipants().isEmpty() ) {
+            messages.add( new ValidatorMessage( "The entry doesn't have any participant.", MessageLevel.ERROR, context, this ) );
+        }
+        for ( SyntheticParticipant participant : entry.getParticipants() ) {
+            if ( participant.getName() == null || participant.getName().trim().length() == 0 ) {
+                messages.add( new ValidatorMessage( "A participant doesn't have a name.", MessageLevel.ERROR, context, this ) );
+            }
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,24 @@
+package psidev.psi.tools.benchmarks.workload;
+
+/**
+ * A feature of a synthetic participant.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class SyntheticFeature {
+
+    private SyntheticTerm type;
+
+    public SyntheticFeature( SyntheticTerm type ) {
+        this.type = type;
+    }
+
+    public SyntheticTerm getType() {
+        return type;
+    }
+
+    public void setType( SyntheticTerm type ) {
+        this.type = type;
+    }
+}
@@ -0,0 +1,46 @@
+package psidev.psi.tools.benchmarks.workload;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A participant of a synthetic entry.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class SyntheticParticipant {
+
+    private String name;
+    private SyntheticTerm role;
+    private Collection<SyntheticFeature> features = new ArrayList<SyntheticFeature>();
+
+    public SyntheticParticipant( String name, SyntheticTerm role ) {
+        this.name = name;
+        this.role = role;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName( String name ) {
+        this.name = name;
+    }
+
+    public SyntheticTerm getRole() {
+        return role;
+    }
+
+    public void setRole( SyntheticTerm role ) {
+        this.role = role;
+    }
+
+    public Collection<SyntheticFeature> getFeatures() {
+        return features;
+    }
+
+    public void addFeature( SyntheticFeature feature ) {
+        features.add( feature );
+    }
+}
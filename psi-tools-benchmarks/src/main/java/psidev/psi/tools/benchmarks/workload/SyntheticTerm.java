@@ -0,0 +1,38 @@
+package psidev.psi.tools.benchmarks.workload;
+
+/**
+ * A controlled vocabulary term annotating a synthetic object.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class SyntheticTerm {
+
+    private String accession;
+    private String name;
+
+    public SyntheticTerm( String accession, String name ) {
+        this.accession = accession;
+        this.name = name;
+    }
+
+    public String getAccession() {
+        return accession;
+    }
+
+    public void setAccession( String accession ) {
+        this.accession = accession;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName( String name ) {
+        this.name = name;
+    }
+
+    public String toString() {
+        return accession + " (" + name + ")";
+    }
+}
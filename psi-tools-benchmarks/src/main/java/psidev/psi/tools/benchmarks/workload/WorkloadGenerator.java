@@ -0,0 +1,310 @@
+package psidev.psi.tools.benchmarks.workload;
+
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Generates reproducible synthetic workloads for the validator.
+ * <p/>
+ * Entries are generated lazily while iterating, so workloads of millions of entries can be streamed through a
+ * validator in constant memory. The same seed always gives the same entries. Terms are sampled from the sub-trees of
+ * three root terms of a loaded ontology (by default the PSI-MI interaction detection method, experimental role and
+ * feature type). With a probability given by the error rate, a term is replaced by a term of another sub-tree or by an
+ * unknown accession, and a participant looses its name.
+ * <p/>
+ * The CvMapping and object rule configurations matching the generated entries can be written along with them, see
+ * {@link #writeConfigurations(File)}.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class WorkloadGenerator implements Iterable<SyntheticEntry> {
+
+    public static final String DEFAULT_ONTOLOGY_ID = "MI";
+    public static final String DEFAULT_METHOD_ROOT = "MI:0001";
+    public static final String DEFAULT_ROLE_ROOT = "MI:0495";
+    public static final String DEFAULT_FEATURE_ROOT = "MI:0116";
+
+    /**
+     * The xpath of the generated entries, to be given to the validator when checking the CvMapping.
+     */
+    public static final String ENTRY_XPATH = "/entry";
+
+    public static final String CV_MAPPING_FILE = "synthetic-cv-mapping.xml";
+    public static final String OBJECT_RULES_FILE = "synthetic-object-rules.xml";
+
+    private static final String UNKNOWN_ACCESSION_PREFIX = "XX:";
+
+    private final String ontologyId;
+    private final String methodRoot;
+    private final String roleRoot;
+    private final String featureRoot;
+
+    private final List<SyntheticTerm> methods;
+    private final List<SyntheticTerm> roles;
+    private final List<SyntheticTerm> features;
+
+    private long count = 1000;
+    private int fanOut = 3;
+    private double errorRate = 0.01;
+    private long seed = 42;
+
+    //////////////////
+    // Constructors
+
+    public WorkloadGenerator( OntologyAccess ontology ) {
+        this( ontology, DEFAULT_ONTOLOGY_ID, DEFAULT_METHOD_ROOT, DEFAULT_ROLE_ROOT, DEFAULT_FEATURE_ROOT );
+    }
+
+    public WorkloadGenerator( OntologyAccess ontology, String ontologyId,
+                              String methodRoot, String roleRoot, String featureRoot ) {
+        if ( ontology == null ) {
+            throw new IllegalArgumentException( "You must give a non null ontology to sample terms from." );
+        }
+        this.ontologyId = ontologyId;
+        this.methodRoot = methodRoot;
+        this.roleRoot = roleRoot;
+        this.featureRoot = featureRoot;
+        this.methods = sampleTerms( ontology, methodRoot );
+        this.roles = sampleTerms( ontology, roleRoot );
+        this.features = sampleTerms( ontology, featureRoot );
+    }
+
+    ////////////////////////
+    // Getters and Setters
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param count the count of entries to generate.
+     */
+    public void setCount( long count ) {
+        if ( count < 0 ) {
+            throw new IllegalArgumentException( "The count of entries must be positive: " + count );
+        }
+        this.count = count;
+    }
+
+    public int getFanOut() {
+        return fanOut;
+    }
+
+    /**
+     * @param fanOut the count of participants per entry and of features per participant.
+     */
+    public void setFanOut( int fanOut ) {
+        if ( fanOut < 1 ) {
+            throw new IllegalArgumentException( "The fan-out must be at least 1: " + fanOut );
+        }
+        this.fanOut = fanOut;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    /**
+     * @param errorRate the probability, between 0 and 1, of each generated value to be invalid.
+     */
+    public void setErrorRate( double errorRate ) {
+        if ( errorRate < 0 || errorRate > 1 ) {
+            throw new IllegalArgumentException( "The error rate must be between 0 and 1: " + errorRate );
+        }
+        this.errorRate = errorRate;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed( long seed ) {
+        this.seed = seed;
+    }
+
+    /**
+     * @return the count of objects (entries, participants and features) of the workload.
+     */
+    public long getObjectCount() {
+        return count * ( 1 + fanOut + ( long ) fanOut * fanOut );
+    }
+
+    ////////////////////////
+    // Generation
+
+    /**
+     * @return a new iterator generating the entries of the workload, from the beginning.
+     */
+    public Iterator<SyntheticEntry> iterator() {
+        final Random random = new Random( seed );
+        return new Iterator<SyntheticEntry>() {
+            private long next = 0;
+
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            public SyntheticEntry next() {
+                if ( next >= count ) {
+                    throw new NoSuchElementException();
+                }
+                return buildEntry( next++, random );
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Generates the next entries of a workload in memory.
+     *
+     * @param iterator an iterator of this generator.
+     * @param size     the maximum count of entries to return.
+     * @return a list of at most size entries.
+     */
+    public static List<SyntheticEntry> nextBatch( Iterator<SyntheticEntry> iterator, int size ) {
+        final List<SyntheticEntry> batch = new ArrayList<SyntheticEntry>( size );
+        while ( batch.size() < size && iterator.hasNext() ) {
+            batch.add( iterator.next() );
+        }
+        return batch;
+    }
+
+    private SyntheticEntry buildEntry( long id, Random random ) {
+        final SyntheticEntry entry = new SyntheticEntry( id, pick( methods, roles, random ) );
+        for ( int p = 0; p < fanOut; p++ ) {
+            final String name = isError( random ) ? "" : "participant-" + id + "-" + p;
+            final SyntheticParticipant participant = new SyntheticParticipant( name, pick( roles, features, random ) );
+            for ( int f = 0; f < fanOut; f++ ) {
+                participant.addFeature( new SyntheticFeature( pick( features, methods, random ) ) );
+            }
+            entry.addParticipant( participant );
+        }
+        return entry;
+    }
+
+    private SyntheticTerm pick( List<SyntheticTerm> valid, List<SyntheticTerm> wrongBranch, Random random ) {
+        if ( isError( random ) ) {
+            if ( random.nextBoolean() ) {
+                return wrongBranch.get( random.nextInt( wrongBranch.size() ) );
+            }
+            return new SyntheticTerm( UNKNOWN_ACCESSION_PREFIX + random.nextInt( 10000000 ), "unknown term" );
+        }
+        return valid.get( random.nextInt( valid.size() ) );
+    }
+
+    private boolean isError( Random random ) {
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+
+    private List<SyntheticTerm> sampleTerms( OntologyAccess ontology, String root ) {
+        final Set<OntologyTermI> terms = ontology.getValidTerms( root, true, false );
+        if ( terms == null || terms.isEmpty() ) {
+            throw new IllegalArgumentException( "The term " + root + " doesn't have any children to sample from." );
+        }
+
+        final List<SyntheticTerm> sample = new ArrayList<SyntheticTerm>( terms.size() );
+        for ( OntologyTermI term : terms ) {
+            sample.add( new SyntheticTerm( term.getTermAccession(), term.getPreferredName() ) );
+        }
+        // the ontology gives no order, sort to make the workload reproducible
+        Collections.sort( sample, new Comparator<SyntheticTerm>() {
+            public int compare( SyntheticTerm t1, SyntheticTerm t2 ) {
+                return t1.getAccession().compareTo( t2.getAccession() );
+            }
+        } );
+        return sample;
+    }
+
+    ////////////////////////
+    // Configurations
+
+    /**
+     * Writes the CvMapping and object rule configurations of the generated entries in the given directory.
+     *
+     * @param directory where to write the files, created if needed.
+     * @throws IOException if the files could not be written.
+     */
+    public void writeConfigurations( File directory ) throws IOException {
+        if ( !directory.exists() && !directory.mkdirs() ) {
+            throw new IOException( "Could not create directory: " + directory.getAbsolutePath() );
+        }
+
+        Writer writer = new OutputStreamWriter( new FileOutputStream( new File( directory, CV_MAPPING_FILE ) ), "UTF-8" );
+        try {
+            writeCvMapping( writer );
+        } finally {
+            writer.close();
+        }
+
+        writer = new OutputStreamWriter( new FileOutputStream( new File( directory, OBJECT_RULES_FILE ) ), "UTF-8" );
+        try {
+            writeObjectRules( writer );
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes a CvMapping checking the terms of the entries, participants and features.
+     */
+    public void writeCvMapping( Writer writer ) throws IOException {
+        final PrintWriter out = new PrintWriter( writer );
+        out.println( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" );
+        out.println( "<CvMapping xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"" );
+        out.println( "           xsi:noNamespaceSchemaLocation=\"http://www.psidev.info/files/validator/CvMapping.xsd\"" );
+        out.println( "           modelName=\"synthetic\" modelVersion=\"1.0\" modelURI=\"synthetic\">" );
+        out.println();
+        out.println( "    <CvReferenceList>" );
+        out.println( "        <CvReference cvName=\"" + ontologyId + "\" cvIdentifier=\"" + ontologyId + "\"/>" );
+        out.println( "    </CvReferenceList>" );
+        out.println();
+        out.println( "    <CvMappingRuleList>" );
+        writeCvMappingRule( out, "SYN-1", "Entry method check", ENTRY_XPATH + "/method/@accession",
+                            ENTRY_XPATH, methodRoot );
+        writeCvMappingRule( out, "SYN-2", "Participant role check", ENTRY_XPATH + "/participants/role/@accession",
+                            ENTRY_XPATH + "/participants", roleRoot );
+        writeCvMappingRule( out, "SYN-3", "Feature type check", ENTRY_XPATH + "/participants/features/type/@accession",
+                            ENTRY_XPATH + "/participants/features", featureRoot );
+        out.println( "    </CvMappingRuleList>" );
+        out.println( "</CvMapping>" );
+        out.flush();
+    }
+
+    private void writeCvMappingRule( PrintWriter out, String id, String name, String elementPath, String scopePath,
+                                     String root ) {
+        out.println( "        <CvMappingRule id=\"" + id + "\" name=\"" + name + "\"" );
+        out.println( "                       cvElementPath=\"" + elementPath + "\"" );
+        out.println( "                       scopePath=\"" + scopePath + "\"" );
+        out.println( "                       cvTermsCombinationLogic=\"OR\"" );
+        out.println( "                       requirementLevel=\"MUST\">" );
+        out.println( "            <CvTerm termAccession=\"" + root + "\"" );
+        out.println( "                    useTermName=\"false\"" );
+        out.println( "                    useTerm=\"false\"" );
+        out.println( "                    termName=\"" + root + "\"" );
+        out.println( "                    allowChildren=\"true\"" );
+        out.println( "                    cvIdentifierRef=\"" + ontologyId + "\"" );
+        out.println( "                    isRepeatable=\"true\"/>" );
+        out.println( "        </CvMappingRule>" );
+    }
+
+    /**
+     * Writes an object rule configuration running the SyntheticEntryRule.
+     */
+    public void writeObjectRules( Writer writer ) throws IOException {
+        final PrintWriter out = new PrintWriter( writer );
+        out.println( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" );
+        out.println( "<objectRuleList xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"" );
+        out.println( "                xsi:noNamespaceSchemaLocation=\"http://www.psidev.info/files/validator/object-rule.xsd\">" );
+        out.println();
+        out.println( "    <rule class=\"" + SyntheticEntryRule.class.getName() + "\"/>" );
+        out.println( "</objectRuleList>" );
+        out.flush();
+    }
+}
@@ -0,0 +1,147 @@
+package psidev.psi.tools.benchmarks.workload;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import psidev.psi.tools.benchmarks.SyntheticWorkloadBenchmark;
+import psidev.psi.tools.ontology_manager.OntologyManager;
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.Validator;
+import psidev.psi.tools.validator.ValidatorMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * WorkloadGenerator Tester.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class WorkloadGeneratorTest {
+
+    private static final String MI_CONFIG =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<cvSourceList>\n" +
+            "    <cvSource source=\"file\" uri=\"classpath:ontologies/psi-mi.obo\"\n" +
+            "              format=\"OBO\" name=\"PSI-MI\" identifier=\"MI\" version=\"1.154\"/>\n" +
+            "</cvSourceList>";
+
+    private static OntologyManager ontologyManager;
+
+    @BeforeClass
+    public static void loadOntology() throws Exception {
+        ontologyManager = new OntologyManager( new ByteArrayInputStream( MI_CONFIG.getBytes( "UTF-8" ) ) );
+    }
+
+    private WorkloadGenerator newGenerator( long seed, double errorRate ) {
+        final WorkloadGenerator generator =
+                new WorkloadGenerator( ontologyManager.getOntologyAccess( WorkloadGenerator.DEFAULT_ONTOLOGY_ID ) );
+        generator.setCount( 50 );
+        generator.setFanOut( 2 );
+        generator.setErrorRate( errorRate );
+        generator.setSeed( seed );
+        return generator;
+    }
+
+    private static List<String> describe( WorkloadGenerator generator ) {
+        final List<String> entries = new ArrayList<String>();
+        for ( SyntheticEntry entry : generator ) {
+            final StringBuilder sb = new StringBuilder();
+            sb.append( entry.getId() ).append( ' ' ).append( entry.getMethod() );
+            for ( SyntheticParticipant participant : entry.getParticipants() ) {
+                sb.append( " [" ).append( participant.getName() ).append( ' ' ).append( participant.getRole() );
+                for ( SyntheticFeature feature : participant.getFeatures() ) {
+                    sb.append( ' ' ).append( feature.getType() );
+                }
+                sb.append( ']' );
+            }
+            entries.add( sb.toString() );
+        }
+        return entries;
+    }
+
+    private static File newDirectory() throws IOException {
+        final File directory = File.createTempFile( "workload-", "" );
+        Assert.assertTrue( directory.delete() );
+        return directory;
+    }
+
+    private static void delete( File directory ) {
+        final File[] files = directory.listFiles();
+        if ( files != null ) {
+            for ( File file : files ) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void iterator_sameSeed() throws Exception {
+        final List<String> entries = describe( newGenerator( 7, 0.2 ) );
+        Assert.assertEquals( 50, entries.size() );
+        Assert.assertEquals( entries, describe( newGenerator( 7, 0.2 ) ) );
+
+        // iterating again starts the workload over
+        final WorkloadGenerator generator = newGenerator( 7, 0.2 );
+        Assert.assertEquals( describe( generator ), describe( generator ) );
+    }
+
+    @Test
+    public void iterator_otherSeed() throws Exception {
+        Assert.assertFalse( describe( newGenerator( 7, 0.2 ) ).equals( describe( newGenerator( 8, 0.2 ) ) ) );
+    }
+
+    @Test
+    public void writeConfigurations_load() throws Exception {
+        final WorkloadGenerator generator = newGenerator( 7, 0 );
+        final File directory = newDirectory();
+        try {
+            generator.writeConfigurations( directory );
+            final Validator validator = new SyntheticWorkloadBenchmark.SyntheticValidator( ontologyManager, directory );
+
+            Assert.assertEquals( 1, validator.getObjectRules().size() );
+            Assert.assertTrue( validator.getObjectRules().iterator().next() instanceof SyntheticEntryRule );
+            Assert.assertEquals( 3, validator.getCvRuleManager().getCvRules().size() );
+            assertNoError( validator.checkCvMappingRules() );
+
+            // without errors, the generated entries pass both the object rules and the CvMapping
+            final Iterator<SyntheticEntry> iterator = generator.iterator();
+            final List<SyntheticEntry> batch = WorkloadGenerator.nextBatch( iterator, 50 );
+            Assert.assertEquals( 50, batch.size() );
+            Assert.assertFalse( iterator.hasNext() );
+            assertNoError( validator.validate( batch ) );
+            assertNoError( validator.checkCvMapping( batch, WorkloadGenerator.ENTRY_XPATH ) );
+        } finally {
+            delete( directory );
+        }
+    }
+
+    @Test
+    public void writeConfigurations_errors() throws Exception {
+        final WorkloadGenerator generator = newGenerator( 7, 1 );
+        final File directory = newDirectory();
+        try {
+            generator.writeConfigurations( directory );
+            final Validator validator = new SyntheticWorkloadBenchmark.SyntheticValidator( ontologyManager, directory );
+
+            final List<SyntheticEntry> batch = WorkloadGenerator.nextBatch( generator.iterator(), 10 );
+            Assert.assertFalse( validator.validate( batch ).isEmpty() );
+            Assert.assertFalse( validator.checkCvMapping( batch, WorkloadGenerator.ENTRY_XPATH ).isEmpty() );
+        } finally {
+            delete( directory );
+        }
+    }
+
+    private static void assertNoError( Collection<ValidatorMessage> messages ) {
+        for ( ValidatorMessage message : messages ) {
+            Assert.assertFalse( message.toString(), message.getLevel().isHigher( MessageLevel.INFO ) );
+        }
+    }
+}
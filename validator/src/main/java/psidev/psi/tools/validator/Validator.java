@@ -5,13 +5,19 @@ import org.apache.commons.logging.LogFactory;
 import psidev.psi.tools.cvrReader.CvRuleReader;
 import psidev.psi.tools.cvrReader.CvRuleReaderException;
 import psidev.psi.tools.cvrReader.mapping.jaxb.CvMapping;
-import psidev.psi.tools.objectRuleReader.ObjectRuleReader;
+import psidev.psi.tools.cvrReader.mapping.jaxb.CvTerm;
 import psidev.psi.tools.objectRuleReader.ObjectRuleReaderException;
 import psidev.psi.tools.objectRuleReader.mapping.jaxb.*;
 import psidev.psi.tools.ontology_manager.OntologyManager;
 import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
+import psidev.psi.tools.validator.incremental.Fingerprinter;
+import psidev.psi.tools.validator.incremental.ReflectionFingerprinter;
+import psidev.psi.tools.validator.incremental.ValidationCache;
+import psidev.psi.tools.validator.metrics.ValidatorMetrics;
 import psidev.psi.tools.validator.preferences.UserPreferences;
 import psidev.psi.tools.validator.rules.codedrule.ObjectRule;
+import psidev.psi.tools.validator.rules.codedrule.ObjectRuleCache;
+import psidev.psi.tools.validator.rules.codedrule.ObjectRuleWatchdog;
 import psidev.psi.tools.validator.rules.cvmapping.CvRule;
 import psidev.psi.tools.validator.rules.cvmapping.CvRuleManager;
 import psidev.psi.tools.validator.util.ValidatorReport;
@@ -85,6 +91,26 @@ public abstract class Validator {
         Validator.validationSuccessReporting = validationSuccessReporting;
     }
 
+    /**
+     * @return the default time budget in milliseconds of the object rules, 0 if they have none.
+     */
+    public static long loadRuleTimeout() {
+        String propValue = null;
+        if (validationProps != null) {
+            propValue = validationProps.getProperty("validation.rule.timeout");
+        }
+
+        if (propValue == null || propValue.trim().length() == 0) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(propValue.trim());
+        } catch (NumberFormatException e) {
+            log.error("The property validation.rule.timeout is not a number of milliseconds: " + propValue);
+            return 0;
+        }
+    }
+
     /**
      * User preferences.
      * <p/>
@@ -98,7 +124,7 @@ public abstract class Validator {
      * The set of rules specific to that Validator.
      * List of ObjectRuleS
      */
-    private Set<ObjectRule> rules = new HashSet<>();
+    private final ObjectRuleSet rules = new ObjectRuleSet();
 
     /**
      * The map containing the set of Rules excluded by each imported object rule file
@@ -135,6 +161,21 @@ public abstract class Validator {
      */
     private CvRuleManager cvRuleManager;
 
+    /**
+     * Computes the fingerprints of the objects validated incrementally.
+     */
+    private Fingerprinter fingerprinter = new ReflectionFingerprinter();
+
+    /**
+     * Per-rule execution metrics, shared with the CvRuleManager. Disabled by default.
+     */
+    private final ValidatorMetrics metrics = new ValidatorMetrics();
+
+    /**
+     * Enforces the time budgets of the object rules.
+     */
+    private final ObjectRuleWatchdog watchdog = new ObjectRuleWatchdog( loadRuleTimeout() );
+
     //////////////////////
     // Constructor
 
@@ -206,14 +247,39 @@ public abstract class Validator {
 
     protected void instantiateCvRuleManager(OntologyManager manager, CvMapping cvMappingRules){
         this.cvRuleManager = new CvRuleManager(manager, cvMappingRules);
+        this.cvRuleManager.setMetrics( metrics );
     }
 
     protected void setCvRuleManager(CvRuleManager manager){
         if (manager != null){
             this.cvRuleManager = manager;
+            this.cvRuleManager.setMetrics( metrics );
         }
     }
 
+    /**
+     * Gives access to the per-rule execution metrics of this validator. They are not recorded until enabled with
+     * <code>getMetrics().setEnabled( true )</code> and can be exposed through JMX with
+     * <code>getMetrics().registerMBean( name )</code>.
+     *
+     * @return the metrics of this validator.
+     */
+    public ValidatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gives access to the time budgets of the object rules. The default budget is read from the property
+     * <code>validation.rule.timeout</code> (in milliseconds, 0 for none), a rule going over its budget is reported by an
+     * ObjectRuleTimeoutMessage and skipped for the rest of the validation call (a validate, validateIncrementally or
+     * checkCvMapping call, including the calls it makes).
+     *
+     * @return the watchdog of this validator.
+     */
+    public ObjectRuleWatchdog getWatchdog() {
+        return watchdog;
+    }
+
     /**
      * Set a cvMapping file and build the corresponding cvRuleManager.
      *
@@ -278,13 +344,7 @@ public abstract class Validator {
      * @return  true if the className matches a the class name of one of the ObjectRules in the list of instantiated rules.
      */
     private ObjectRule isTheRuleAlreadyInstantiated(String className){
-
-        for (ObjectRule rule : this.rules){
-            if (rule.getClass().getName().equals(className)){
-                return rule;
-            }
-        }
-        return null;
+        return this.rules.getByClassName(className);
     }
 
     private boolean isTheRuleExcludedFromImport(String className){
@@ -310,15 +370,13 @@ public abstract class Validator {
      */
     private void addRule(Rule rule, String name) throws ValidatorException {
         String className = null;
-        Class ruleClass = null;
         try {
             className = rule.getClazz();
             ObjectRule alreadyImportedRule = isTheRuleAlreadyInstantiated(className);
             if (alreadyImportedRule == null){
                 if (!isTheRuleExcludedFromImport(className)){
-                    ruleClass = Class.forName( className );
-                    Constructor c = ruleClass.getConstructor( OntologyManager.class );
-                    ObjectRule r = ( ObjectRule ) c.newInstance( ontologyMngr );
+                    Constructor<? extends ObjectRule> c = ObjectRuleCache.getRuleConstructor( className );
+                    ObjectRule r = c.newInstance( ontologyMngr );
 
                     if (name != null){
                         r.setScope(name);
@@ -355,7 +413,7 @@ public abstract class Validator {
         URL url = new URL(urlName);
 
         InputStream is = url.openStream();
-        setObjectRules(is);
+        setObjectRules(is, url.toString());
         is.close();
     }
 
@@ -390,7 +448,7 @@ public abstract class Validator {
         if (file.exists()){
             FileInputStream is = new FileInputStream(file);
 
-            setObjectRules(is);
+            setObjectRules(is, file.getAbsolutePath());
 
             is.close();
         }
@@ -452,7 +510,7 @@ public abstract class Validator {
 
                         if (url != null) {
                             InputStream is = url.openStream();
-                            setObjectRules(is);
+                            setObjectRules(is, url.toString());
                             isImportDone = true;
                             is.close();
                         } else {
@@ -488,7 +546,7 @@ public abstract class Validator {
 
                 if (url != null){
                     InputStream is = url.openStream();
-                    setObjectRules(is);
+                    setObjectRules(is, url.toString());
                     is.close();
                 }
                 else{
@@ -513,19 +571,25 @@ public abstract class Validator {
      * Parse the configuration file and update the list of Rule of the current Validator.
      * <p/>
      * Each Rule is initialised with a Map of Ontologies that have been read from the config file.
+     * <p/>
+     * Parsed configuration files and rule constructors are cached (see ObjectRuleCache), building several validators
+     * from the same configuration only parses it once.
      *
      * @param configFile the configuration file.
      * @throws ValidatorException Exception while trying to validate the input.
      */
     public void setObjectRules( InputStream configFile ) throws ValidatorException {
+        setObjectRules( configFile, null );
+    }
+
+    private void setObjectRules( InputStream configFile, String location ) throws ValidatorException {
         // set -> replace whatever there might have been
 
         String name = null;
 
         if( configFile != null ) {
-            ObjectRuleReader reader = new ObjectRuleReader();
             try {
-                final ObjectRuleList rules = reader.read( configFile );
+                final ObjectRuleList rules = ObjectRuleCache.readObjectRules( location, configFile );
                 name = rules.getName();
 
                 ImportRuleList rulesToImport = rules.getImportRuleList();
@@ -578,10 +642,8 @@ public abstract class Validator {
 
          for (Map.Entry<String, Set<String>> entry : this.excludedRules.entrySet()){
               for (String rule : entry.getValue()){
-                   for (ObjectRule objectRule : this.rules){
-                       if (objectRule.getClass().getName().equals(rule)){
-                           log.warn("The object rule " + rule + " were excluded from the file " + entry.getKey() + " but was imported from another file. It is maybe not what you want.");
-                       }
+                   if (isTheRuleAlreadyInstantiated(rule) != null){
+                       log.warn("The object rule " + rule + " were excluded from the file " + entry.getKey() + " but was imported from another file. It is maybe not what you want.");
                    }
               }
          }
@@ -595,6 +657,17 @@ public abstract class Validator {
         this.userPreferences = userPreferences;
     }
 
+    public Fingerprinter getFingerprinter() {
+        return fingerprinter;
+    }
+
+    public void setFingerprinter( Fingerprinter fingerprinter ) {
+        if ( fingerprinter == null ) {
+            throw new IllegalArgumentException( "The fingerprinter must not be null." );
+        }
+        this.fingerprinter = fingerprinter;
+    }
+
     ////////////////////////////////////
     // Validation against object rule
 
@@ -606,10 +679,53 @@ public abstract class Validator {
      * @throws ValidatorException Exception while trying to validate the input.
      */
     public Collection<ValidatorMessage> validate( Collection<?> col ) throws ValidatorException {
-        Collection<ValidatorMessage> messages = new ArrayList<>();
-        for ( ObjectRule rule : rules ) {
-            messages.addAll( validate( col, rule ) );
+        final boolean pinned = startRun();
+        try {
+            Collection<ValidatorMessage> messages = new ArrayList<>();
+            for ( ObjectRule rule : rules ) {
+                messages.addAll( validate( col, rule ) );
+            }
+            return messages;
+        } finally {
+            endRun( pinned );
         }
+    }
+
+    /**
+     * Starts a validation run on the current thread: the ontologies are pinned so that the whole validation sees the
+     * same versions even if some are reloaded in the background meanwhile, and the object rules going over their
+     * budget are skipped until the end of the run.
+     *
+     * @return true if this call pinned the ontologies, false if they were already pinned by an enclosing validation.
+     */
+    private boolean startRun() {
+        watchdog.startRun();
+        return ontologyMngr != null && ontologyMngr.pinSnapshot();
+    }
+
+    private void endRun( boolean pinned ) {
+        watchdog.endRun();
+        if ( pinned ) {
+            ontologyMngr.unpinSnapshot();
+        }
+    }
+
+    /**
+     * Runs an object rule on an object if it can check it, within the time budget of the rule. All the executions of
+     * object rules go through this method.
+     *
+     * @param rule          the rule to run.
+     * @param objectToCheck the object to check.
+     * @return the messages of the rule, empty if the rule cannot check the object.
+     * @throws ValidatorException Exception while trying to validate the input.
+     */
+    private Collection<ValidatorMessage> checkObjectRule( ObjectRule rule, Object objectToCheck ) throws ValidatorException {
+        if ( watchdog.isTimedOut( rule ) || !rule.canCheck( objectToCheck ) ) { // apply only if rule can handle this object
+            return Collections.emptyList();
+        }
+        final long start = metrics.start();
+        final Collection<ValidatorMessage> messages = watchdog.check( rule, objectToCheck );
+        metrics.record( rule, 1, messages, start );
         return messages;
     }
 
@@ -621,13 +737,16 @@ public abstract class Validator {
      * @throws ValidatorException Exception while trying to validate the input.
      */
     public Collection<ValidatorMessage> validate( Object objectToCheck ) throws ValidatorException {
-        Collection<ValidatorMessage> messages = new ArrayList<>();
-        for ( ObjectRule rule : rules ) {
-            if ( rule.canCheck( objectToCheck ) ) { // apply only if rule can handle this object
-                messages.addAll( rule.check( objectToCheck ) );
+        final boolean pinned = startRun();
+        try {
+            Collection<ValidatorMessage> messages = new ArrayList<>();
+            for ( ObjectRule rule : rules ) {
+                messages.addAll( checkObjectRule( rule, objectToCheck ) );
             }
+            return messages;
+        } finally {
+            endRun( pinned );
         }
-        return messages;
     }
 
     /**
@@ -638,11 +757,14 @@ public abstract class Validator {
      * @throws ValidatorException Exception while trying to validate the input.
      */
     public Collection<ValidatorMessage> validate( Object objectToCheck, ObjectRule rule ) throws ValidatorException {
-        Collection<ValidatorMessage> messages = new ArrayList<>();
-        if ( rule.canCheck( objectToCheck ) ) { // apply only if rule can handle this object
-            messages.addAll( rule.check( objectToCheck ) );
+        final boolean pinned = startRun();
+        try {
+            Collection<ValidatorMessage> messages = new ArrayList<>();
+            messages.addAll( checkObjectRule( rule, objectToCheck ) );
+            return messages;
+        } finally {
+            endRun( pinned );
         }
-        return messages;
     }
 
     /**
@@ -656,13 +778,135 @@ public abstract class Validator {
     private Collection<ValidatorMessage> validate( Collection<?> col, ObjectRule rule ) throws ValidatorException {
         Collection<ValidatorMessage> messages = new ArrayList<>();
         for ( Object aCol : col ) {
-            if ( rule.canCheck( aCol ) ) { // apply only if rule can handle this object
-                messages.addAll( rule.check( aCol ) );
+            messages.addAll( checkObjectRule( rule, aCol ) );
+        }
+        return messages;
+    }
+
+    ////////////////////////////////////
+    // Incremental validation
+
+    /**
+     * Validates a collection of top level objects (e.g. interactions) against all the object rules and, if an xpath is
+     * given, against the CvMapping rules, re-using the messages of the objects that have already been validated.
+     * <p/>
+     * An object is only validated if no object with the same fingerprint was validated with the same rules and
+     * ontology versions before, otherwise its messages are read from the cache. The cache is saved once all the
+     * objects have been processed.
+     * <p/>
+     * Note that objects read from the cache are not seen by the CvMapping rules, hence their status and the
+     * ValidatorCvContext are only updated by new or modified objects.
+     * <p/>
+     * The ontologies are pinned for the whole call, hence the signature of the cache entries always matches the
+     * ontology versions the messages were computed with, even if some ontologies are reloaded meanwhile.
+     *
+     * @param col   the top level objects to check on.
+     * @param xPath the xpath from the XML root to the objects, if null only the object rules are run.
+     * @param cache where the messages of the previously validated objects are kept.
+     * @return collection of validator messages, grouped by object.
+     * @throws ValidatorException Exception while trying to validate the input.
+     */
+    public Collection<ValidatorMessage> validateIncrementally( Collection<?> col, String xPath, ValidationCache cache ) throws ValidatorException {
+        final boolean pinned = startRun();
+        try {
+            return validateIncrementally( col, xPath, cache, getValidationSignature( xPath ) );
+        } finally {
+            endRun( pinned );
+        }
+    }
+
+    private Collection<ValidatorMessage> validateIncrementally( Collection<?> col, String xPath, ValidationCache cache,
+                                                                String environment ) throws ValidatorException {
+        final Map<String, psidev.psi.tools.validator.rules.Rule> rulesById = getRulesById();
+
+        Collection<ValidatorMessage> messages = new ArrayList<>();
+        int validatedCount = 0;
+        for ( Object o : col ) {
+            final String fingerprint = fingerprinter.fingerprint( o );
+
+            Collection<ValidatorMessage> objectMessages = cache.get( environment, fingerprint, rulesById );
+            if ( objectMessages == null ) {
+                objectMessages = validate( o );
+                if ( xPath != null ) {
+                    objectMessages.addAll( checkCvMapping( o, xPath ) );
+                }
+                cache.put( environment, fingerprint, objectMessages );
+                validatedCount++;
             }
+            messages.addAll( objectMessages );
+        }
+
+        if ( log.isInfoEnabled() ) {
+            log.info( "Incremental validation: " + validatedCount + " object(s) validated, "
+                      + ( col.size() - validatedCount ) + " read from the cache." );
         }
+
+        try {
+            cache.save();
+        } catch ( IOException e ) {
+            log.warn( "Could not save the validation cache in " + cache.getDirectory().getAbsolutePath(), e );
+        }
+
         return messages;
     }
 
+    /**
+     * Builds a signature of what the messages of an object depend on: the object rules, the CvMapping rules, the
+     * versions of the ontologies and the xpath of the objects.
+     *
+     * @param xPath the xpath from the XML root to the validated objects.
+     * @return a signature of the validation environment.
+     */
+    protected String getValidationSignature( String xPath ) {
+        final StringBuilder sb = new StringBuilder( 1024 );
+        sb.append( "xpath=" ).append( xPath ).append( '\n' );
+        sb.append( "successReporting=" ).append( isValidationSuccessReporting() ).append( '\n' );
+
+        final List<String> objectRules = new ArrayList<>();
+        for ( ObjectRule rule : rules ) {
+            objectRules.add( rule.getClass().getName() + '|' + rule.getScope() );
+        }
+        Collections.sort( objectRules );
+        for ( String rule : objectRules ) {
+            sb.append( "objectRule=" ).append( rule ).append( '\n' );
+        }
+
+        if ( cvRuleManager != null ) {
+            for ( CvRule rule : cvRuleManager.getCvRules() ) {
+                sb.append( "cvRule=" ).append( rule.getId() ).append( '|' ).append( rule.getElementPath() )
+                        .append( '|' ).append( rule.getScopePath() ).append( '|' ).append( rule.getRequirementLevel() );
+                for ( CvTerm term : rule.getCVTerms() ) {
+                    sb.append( '|' ).append( term.getTermAccession() ).append( ',' ).append( term.isUseTerm() )
+                            .append( ',' ).append( term.isAllowChildren() ).append( ',' ).append( term.isUseTermName() )
+                            .append( ',' ).append( term.isIsRepeatable() );
+                }
+                sb.append( '\n' );
+            }
+        }
+
+        if ( ontologyMngr != null ) {
+            for ( String ontologyId : new TreeSet<>( ontologyMngr.getOntologyIDs() ) ) {
+                sb.append( "ontology=" ).append( ontologyId ).append( '|' )
+                        .append( ontologyMngr.getOntologyVersion( ontologyId ) ).append( '\n' );
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private Map<String, psidev.psi.tools.validator.rules.Rule> getRulesById() {
+        final Map<String, psidev.psi.tools.validator.rules.Rule> rulesById = new HashMap<>();
+        for ( ObjectRule rule : rules ) {
+            rulesById.put( rule.getId(), rule );
+        }
+        if ( cvRuleManager != null ) {
+            for ( CvRule rule : cvRuleManager.getCvRules() ) {
+                rulesById.put( rule.getId(), rule );
+            }
+        }
+        return rulesById;
+    }
+
     //////////////////////////
     // CvMapping validation
 
@@ -693,13 +937,18 @@ public abstract class Validator {
         Collection<ValidatorMessage> messages = new ArrayList<>();
         // Run cv mapping check
         if ( cvRuleManager != null ) {
-            for ( CvRule rule : cvRuleManager.getCvRules() ) {
-                for ( Object o : col ) {
-                    if ( rule.canCheck( xPath ) ) {
-                        messages.addAll( rule.check( o, xPath ) );
+            final boolean pinned = startRun();
+            try {
+                for ( CvRule rule : cvRuleManager.getCvRules() ) {
+                    for ( Object o : col ) {
+                        if ( rule.canCheck( xPath ) ) {
+                            messages.addAll( cvRuleManager.check( rule, o, xPath ) );
+                        }
+                        // else: rule does not apply
                     }
-                    // else: rule does not apply
                 }
+            } finally {
+                endRun( pinned );
             }
         } else {
             log.error( "The CvRuleManager has not been set up yet." );
@@ -719,11 +968,16 @@ public abstract class Validator {
         Collection<ValidatorMessage> messages = new ArrayList<>();
         // Run cv mapping check
         if ( cvRuleManager != null ) {
-            for ( CvRule rule : cvRuleManager.getCvRules() ) {
-                if ( rule.canCheck( xPath ) ) {
-                    messages.addAll( rule.check( o, xPath ) );
+            final boolean pinned = startRun();
+            try {
+                for ( CvRule rule : cvRuleManager.getCvRules() ) {
+                    if ( rule.canCheck( xPath ) ) {
+                        messages.addAll( cvRuleManager.check( rule, o, xPath ) );
+                    }
+                    // else: rule does not apply
                 }
-                // else: rule does not apply
+            } finally {
+                endRun( pinned );
             }
         } else {
             log.error( "The CvRuleManager has not been set up yet." );
@@ -744,4 +998,95 @@ public abstract class Validator {
             cvRule.resetStatus();
         }
     }
+
+    /**
+     * Set of object rules indexed by class name, the index is kept up to date when the set is modified through
+     * getObjectRules().
+     */
+    private static class ObjectRuleSet extends AbstractSet<ObjectRule> {
+
+        private final Set<ObjectRule> rules = new HashSet<>();
+
+        private final Map<String, ObjectRule> rulesByClassName = new HashMap<>();
+
+        @Override
+        public boolean add( ObjectRule rule ) {
+            if ( !rules.add( rule ) ) {
+                return false;
+            }
+            if ( !rulesByClassName.containsKey( rule.getClass().getName() ) ) {
+                rulesByClassName.put( rule.getClass().getName(), rule );
+            }
+            return true;
+        }
+
+        @Override
+        public boolean remove( Object o ) {
+            if ( !rules.remove( o ) ) {
+                return false;
+            }
+            unindex( ( ObjectRule ) o );
+            return true;
+        }
+
+        @Override
+        public boolean contains( Object o ) {
+            return rules.contains( o );
+        }
+
+        @Override
+        public void clear() {
+            rules.clear();
+            rulesByClassName.clear();
+        }
+
+        @Override
+        public int size() {
+            return rules.size();
+        }
+
+        @Override
+        public Iterator<ObjectRule> iterator() {
+            final Iterator<ObjectRule> iterator = rules.iterator();
+            return new Iterator<ObjectRule>() {
+                private ObjectRule current;
+
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                public ObjectRule next() {
+                    current = iterator.next();
+                    return current;
+                }
+
+                public void remove() {
+                    iterator.remove();
+                    unindex( current );
+                }
+            };
+        }
+
+        /**
+         * @param className name of an ObjectRule class.
+         * @return a rule of that class, null if there is none.
+         */
+        public ObjectRule getByClassName( String className ) {
+            return rulesByClassName.get( className );
+        }
+
+        private void unindex( ObjectRule rule ) {
+            final String className = rule.getClass().getName();
+            if ( rulesByClassName.get( className ) == rule ) {
+                rulesByClassName.remove( className );
+                // another instance of the same class may be left
+                for ( ObjectRule other : rules ) {
+                    if ( other.getClass().getName().equals( className ) ) {
+                        rulesByClassName.put( className, other );
+                        break;
+                    }
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -90,6 +90,16 @@ public class ValidatorMessage<T extends Object> {
         message = sb.toString();
     }
 
+    /**
+     * Builds a message whose context and rule may each be null, e.g. a message read back from a ValidatorMessageStore.
+     */
+    static ValidatorMessage newMessage( String message, MessageLevel level, Context context, Rule rule ) {
+        final ValidatorMessage validatorMessage = new ValidatorMessage( message, level );
+        validatorMessage.context = context;
+        validatorMessage.rule = rule;
+        return validatorMessage;
+    }
+
 
     //////////////////////////////
     // Getters
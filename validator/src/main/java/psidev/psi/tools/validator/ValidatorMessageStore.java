@@ -0,0 +1,341 @@
+package psidev.psi.tools.validator;
+
+import psidev.psi.tools.validator.rules.Rule;
+
+import java.util.*;
+
+/**
+ * Compact, columnar container of validator messages.
+ * <p/>
+ * Instead of keeping one ValidatorMessage (and its Context) per message, each message is stored as a row made of the
+ * index of its rule, the ordinal of its level, the identifier of its (interned) message template and the offset of
+ * its arguments in a shared argument array. All the strings (templates, contexts and arguments) are dictionary
+ * encoded so that the many identical messages produced by a rule over a large document are only kept once.
+ * <p/>
+ * ValidatorMessage instances are only built on demand, when iterating over the store or calling {@link #get(int)},
+ * hence they should not be compared by identity.
+ * <p/>
+ * The arguments of a message are laid out as [context, arg0, arg1, ...]. A template having arguments is rendered
+ * by replacing the <code>{n}</code> placeholders by the n-th argument. Messages added as ValidatorMessage are
+ * stored as a template without arguments, so their text is kept as is.
+ * <p/>
+ * Contexts that are extensions of {@link Context} cannot be dictionary encoded without loosing information, they are
+ * kept as they are in a side table.
+ * <p/>
+ * Like most collections, this class is not thread safe.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ValidatorMessageStore extends AbstractCollection<ValidatorMessage> {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private static final int NONE = -1;
+
+    private static final MessageLevel[] LEVELS = MessageLevel.values();
+
+    ///////////////////////////////
+    // Dictionaries
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final Map<Rule, Integer> rule2index = new IdentityHashMap<>();
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> string2id = new HashMap<>();
+
+    ///////////////////////////////
+    // Columns
+
+    private int[] ruleIndexes;
+    private byte[] levels;
+    private int[] templateIds;
+
+    /**
+     * Offset of the first argument (the context) of each message, the arguments of message i spread until the offset
+     * of message i+1.
+     */
+    private int[] argumentOffsets;
+
+    private int[] arguments;
+    private int argumentCount;
+
+    /**
+     * Contexts that are not plain Context instances, indexed by message.
+     */
+    private Map<Integer, Context> customContexts;
+
+    private int size;
+
+    //////////////////////////////
+    // Constructors
+
+    public ValidatorMessageStore() {
+        this( DEFAULT_CAPACITY );
+    }
+
+    public ValidatorMessageStore( int initialCapacity ) {
+        if ( initialCapacity < 1 ) {
+            initialCapacity = 1;
+        }
+        ruleIndexes = new int[initialCapacity];
+        levels = new byte[initialCapacity];
+        templateIds = new int[initialCapacity];
+        argumentOffsets = new int[initialCapacity + 1];
+        arguments = new int[initialCapacity];
+    }
+
+    public ValidatorMessageStore( Collection<ValidatorMessage> messages ) {
+        this( Math.max( messages.size(), DEFAULT_CAPACITY ) );
+        addAll( messages );
+    }
+
+    ////////////////////////////
+    // Adding messages
+
+    @Override
+    public boolean add( ValidatorMessage message ) {
+        if ( message == null ) {
+            throw new IllegalArgumentException( "Cannot store a null ValidatorMessage." );
+        }
+
+        final Context context = message.getContext();
+        if ( context == null || context.getClass() == Context.class ) {
+            append( message.getLevel(), message.getRule(), context, message.getMessage() );
+        } else {
+            // an extension of Context, we keep it as is
+            if ( customContexts == null ) {
+                customContexts = new HashMap<>();
+            }
+            customContexts.put( size, context );
+            append( message.getLevel(), message.getRule(), null, message.getMessage() );
+        }
+        return true;
+    }
+
+    /**
+     * Stores a message given as a template and its arguments, without ever building the message text.
+     *
+     * @param level     the level of the message.
+     * @param rule      the rule that generated the message, may be null.
+     * @param context   the context of the message, may be null.
+     * @param template  the message, <code>{n}</code> placeholders are replaced by the n-th argument.
+     * @param arguments the arguments of the template.
+     */
+    public void add( MessageLevel level, Rule rule, String context, String template, String... arguments ) {
+        if ( level == null ) {
+            throw new IllegalArgumentException( "A message level must not be null when storing a message." );
+        }
+        if ( template == null ) {
+            throw new IllegalArgumentException( "A message must not be null when storing a message." );
+        }
+        append( level, rule, context == null ? null : new Context( context ), template, arguments );
+    }
+
+    private void append( MessageLevel level, Rule rule, Context context, String template, String... args ) {
+        ensureCapacity( size + 1 );
+
+        ruleIndexes[size] = rule == null ? NONE : indexOf( rule );
+        levels[size] = ( byte ) level.ordinal();
+        templateIds[size] = intern( template );
+
+        ensureArgumentCapacity( argumentCount + 1 + args.length );
+        arguments[argumentCount++] = context == null || context.getContext() == null ? NONE : intern( context.getContext() );
+        for ( String arg : args ) {
+            arguments[argumentCount++] = arg == null ? NONE : intern( arg );
+        }
+
+        size++;
+        argumentOffsets[size] = argumentCount;
+    }
+
+    private int indexOf( Rule rule ) {
+        Integer idx = rule2index.get( rule );
+        if ( idx == null ) {
+            idx = rules.size();
+            rules.add( rule );
+            rule2index.put( rule, idx );
+        }
+        return idx;
+    }
+
+    private int intern( String s ) {
+        Integer id = string2id.get( s );
+        if ( id == null ) {
+            id = strings.size();
+            strings.add( s );
+            string2id.put( s, id );
+        }
+        return id;
+    }
+
+    private void ensureCapacity( int capacity ) {
+        if ( capacity > ruleIndexes.length ) {
+            int newCapacity = Math.max( capacity, ruleIndexes.length + ( ruleIndexes.length >> 1 ) );
+            ruleIndexes = Arrays.copyOf( ruleIndexes, newCapacity );
+            levels = Arrays.copyOf( levels, newCapacity );
+            templateIds = Arrays.copyOf( templateIds, newCapacity );
+            argumentOffsets = Arrays.copyOf( argumentOffsets, newCapacity + 1 );
+        }
+    }
+
+    private void ensureArgumentCapacity( int capacity ) {
+        if ( capacity > arguments.length ) {
+            arguments = Arrays.copyOf( arguments, Math.max( capacity, arguments.length + ( arguments.length >> 1 ) ) );
+        }
+    }
+
+    ////////////////////////////
+    // Columnar accessors
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        rules.clear();
+        rule2index.clear();
+        strings.clear();
+        string2id.clear();
+        customContexts = null;
+        argumentCount = 0;
+        size = 0;
+    }
+
+    public MessageLevel getLevel( int index ) {
+        checkIndex( index );
+        return LEVELS[levels[index]];
+    }
+
+    public Rule getRule( int index ) {
+        checkIndex( index );
+        return ruleIndexes[index] == NONE ? null : rules.get( ruleIndexes[index] );
+    }
+
+    public String getMessage( int index ) {
+        checkIndex( index );
+        final String template = strings.get( templateIds[index] );
+        final int from = argumentOffsets[index] + 1;
+        final int to = argumentOffsets[index + 1];
+        if ( from == to ) {
+            return template;
+        }
+        return render( template, from, to );
+    }
+
+    public Context getContext( int index ) {
+        checkIndex( index );
+        if ( customContexts != null ) {
+            final Context custom = customContexts.get( index );
+            if ( custom != null ) {
+                return custom;
+            }
+        }
+        final int contextId = arguments[argumentOffsets[index]];
+        return contextId == NONE ? null : new Context( strings.get( contextId ) );
+    }
+
+    /**
+     * Builds a ValidatorMessage view of the message stored at the given index.
+     *
+     * @param index index of the message.
+     * @return a new ValidatorMessage.
+     */
+    public ValidatorMessage get( int index ) {
+        final Context context = getContext( index );
+        final Rule rule = getRule( index );
+        if ( context != null && rule != null ) {
+            return new ValidatorMessage( getMessage( index ), getLevel( index ), context, rule );
+        }
+        // e.g. syntax messages, having no context or no rule
+        return ValidatorMessage.newMessage( getMessage( index ), getLevel( index ), context, rule );
+    }
+
+    /**
+     * Counts the messages of the given level without building any message.
+     *
+     * @param level the level of interest.
+     * @return the count of messages of that level.
+     */
+    public int count( MessageLevel level ) {
+        final byte ordinal = ( byte ) level.ordinal();
+        int count = 0;
+        for ( int i = 0; i < size; i++ ) {
+            if ( levels[i] == ordinal ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the count of distinct strings (templates, contexts and arguments) kept by this store.
+     */
+    public int getDistinctStringCount() {
+        return strings.size();
+    }
+
+    @Override
+    public Iterator<ValidatorMessage> iterator() {
+        return new Iterator<ValidatorMessage>() {
+            private int next = 0;
+
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            public ValidatorMessage next() {
+                if ( next >= size ) {
+                    throw new NoSuchElementException();
+                }
+                return get( next++ );
+            }
+        };
+    }
+
+    ///////////////////////////
+    // utilities
+
+    private void checkIndex( int index ) {
+        if ( index < 0 || index >= size ) {
+            throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + size );
+        }
+    }
+
+    private String render( String template, int from, int to ) {
+        final StringBuilder sb = new StringBuilder( template.length() + 16 * ( to - from ) );
+        int i = 0;
+        while ( i < template.length() ) {
+            final char c = template.charAt( i );
+            if ( c == '{' ) {
+                final int end = template.indexOf( '}', i );
+                if ( end > i + 1 ) {
+                    final int argIndex = parseIndex( template, i + 1, end );
+                    if ( argIndex >= 0 && from + argIndex < to ) {
+                        final int id = arguments[from + argIndex];
+                        sb.append( id == NONE ? "null" : strings.get( id ) );
+                        i = end + 1;
+                        continue;
+                    }
+                }
+            }
+            sb.append( c );
+            i++;
+        }
+        return sb.toString();
+    }
+
+    private int parseIndex( String s, int from, int to ) {
+        int value = 0;
+        for ( int i = from; i < to; i++ ) {
+            final char c = s.charAt( i );
+            if ( c < '0' || c > '9' ) {
+                return NONE;
+            }
+            value = value * 10 + ( c - '0' );
+        }
+        return value;
+    }
+}
@@ -0,0 +1,19 @@
+package psidev.psi.tools.validator.incremental;
+
+/**
+ * Computes a fingerprint of the content of an object.
+ * <p/>
+ * Two objects having the same content must have the same fingerprint, across JVMs, so that validation results can be
+ * reused from one run to another.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public interface Fingerprinter {
+
+    /**
+     * @param o the object to fingerprint, not null.
+     * @return a fingerprint of the content of the object.
+     */
+    String fingerprint( Object o );
+}
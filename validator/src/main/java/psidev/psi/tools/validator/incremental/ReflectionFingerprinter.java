@@ -0,0 +1,205 @@
+package psidev.psi.tools.validator.incremental;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fingerprints an object by walking its fields with reflection.
+ * <p/>
+ * The fingerprint is a SHA-1 digest of the class names and values found in the object graph. Static, transient and
+ * synthetic fields are ignored. Lists and arrays are order sensitive, sets and maps are not. JDK classes that are not
+ * handled specifically are represented by their toString(). Shared or cyclic references are visited once, except
+ * across the elements of a set or a map: each of them is fingerprinted on its own, so that the fingerprint does not
+ * depend on their iteration order.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ReflectionFingerprinter implements Fingerprinter {
+
+    private static final Map<Class<?>, List<Field>> fieldsCache = new ConcurrentHashMap<>();
+
+    public String fingerprint( Object o ) {
+        return fingerprint( o, new Visited() );
+    }
+
+    /**
+     * Fingerprints an element of a set or a map. The objects visited meanwhile are forgotten afterwards, hence the
+     * references numbered in the fingerprint of an element do not depend on the elements visited before.
+     */
+    private String fingerprint( Object o, Visited visited ) {
+        final int mark = visited.size();
+        try {
+            final MessageDigest digest = newDigest();
+            visit( o, digest, visited );
+            return toHex( digest.digest() );
+        } finally {
+            visited.rollback( mark );
+        }
+    }
+
+    ///////////////////////
+    // graph walk
+
+    private void visit( Object o, MessageDigest digest, Visited visited ) {
+        if ( o == null ) {
+            update( digest, "null;" );
+            return;
+        }
+
+        final Class<?> clazz = o.getClass();
+        if ( isValue( clazz ) ) {
+            update( digest, clazz.getName() );
+            update( digest, "=" );
+            update( digest, String.valueOf( o ) );
+            update( digest, ";" );
+            return;
+        }
+
+        final Integer ref = visited.get( o );
+        if ( ref != null ) {
+            update( digest, "ref:" + ref + ";" );
+            return;
+        }
+        visited.add( o );
+
+        update( digest, clazz.getName() );
+        update( digest, "{" );
+        if ( clazz.isArray() ) {
+            final int length = Array.getLength( o );
+            for ( int i = 0; i < length; i++ ) {
+                visit( Array.get( o, i ), digest, visited );
+            }
+        } else if ( o instanceof List ) {
+            for ( Object element : ( List<?> ) o ) {
+                visit( element, digest, visited );
+            }
+        } else if ( o instanceof Collection ) {
+            // order is not significant, elements are fingerprinted separately and sorted
+            final List<String> fingerprints = new ArrayList<>();
+            for ( Object element : ( Collection<?> ) o ) {
+                fingerprints.add( fingerprint( element, visited ) );
+            }
+            Collections.sort( fingerprints );
+            for ( String fingerprint : fingerprints ) {
+                update( digest, fingerprint );
+                update( digest, ";" );
+            }
+        } else if ( o instanceof Map ) {
+            final List<String> fingerprints = new ArrayList<>();
+            for ( Map.Entry<?, ?> entry : ( ( Map<?, ?> ) o ).entrySet() ) {
+                fingerprints.add( fingerprint( entry.getKey(), visited ) + ":" + fingerprint( entry.getValue(), visited ) );
+            }
+            Collections.sort( fingerprints );
+            for ( String fingerprint : fingerprints ) {
+                update( digest, fingerprint );
+                update( digest, ";" );
+            }
+        } else if ( clazz.getName().startsWith( "java." ) || clazz.getName().startsWith( "javax." ) ) {
+            update( digest, String.valueOf( o ) );
+        } else {
+            for ( Field field : getFields( clazz ) ) {
+                update( digest, field.getName() );
+                update( digest, ":" );
+                try {
+                    visit( field.get( o ), digest, visited );
+                } catch ( IllegalAccessException e ) {
+                    throw new IllegalStateException( "Could not read field " + field + " while fingerprinting", e );
+                }
+            }
+        }
+        update( digest, "}" );
+    }
+
+    private boolean isValue( Class<?> clazz ) {
+        return clazz == String.class || Number.class.isAssignableFrom( clazz ) || clazz == Boolean.class
+               || clazz == Character.class || clazz.isEnum() || ( clazz.getSuperclass() != null && clazz.getSuperclass().isEnum() );
+    }
+
+    private List<Field> getFields( Class<?> clazz ) {
+        List<Field> fields = fieldsCache.get( clazz );
+        if ( fields == null ) {
+            fields = new ArrayList<>();
+            for ( Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass() ) {
+                final List<Field> declared = new ArrayList<>();
+                for ( Field field : c.getDeclaredFields() ) {
+                    final int modifiers = field.getModifiers();
+                    if ( !Modifier.isStatic( modifiers ) && !Modifier.isTransient( modifiers ) && !field.isSynthetic() ) {
+                        field.setAccessible( true );
+                        declared.add( field );
+                    }
+                }
+                // getDeclaredFields does not guarantee any order
+                Collections.sort( declared, new Comparator<Field>() {
+                    public int compare( Field f1, Field f2 ) {
+                        return f1.getName().compareTo( f2.getName() );
+                    }
+                } );
+                fields.addAll( declared );
+            }
+            fieldsCache.put( clazz, fields );
+        }
+        return fields;
+    }
+
+    /**
+     * The objects visited so far, numbered in the order they were visited.
+     */
+    private static class Visited {
+
+        private final Map<Object, Integer> refs = new IdentityHashMap<>();
+
+        private final List<Object> order = new ArrayList<>();
+
+        private Integer get( Object o ) {
+            return refs.get( o );
+        }
+
+        private void add( Object o ) {
+            refs.put( o, order.size() );
+            order.add( o );
+        }
+
+        private int size() {
+            return order.size();
+        }
+
+        /**
+         * Forgets the objects visited since the given size.
+         */
+        private void rollback( int size ) {
+            while ( order.size() > size ) {
+                refs.remove( order.remove( order.size() - 1 ) );
+            }
+        }
+    }
+
+    ///////////////////////
+    // utilities
+
+    private static void update( MessageDigest digest, String s ) {
+        digest.update( s.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance( "SHA-1" );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( "SHA-1 is not available", e );
+        }
+    }
+
+    static String toHex( byte[] bytes ) {
+        final StringBuilder sb = new StringBuilder( bytes.length * 2 );
+        for ( byte b : bytes ) {
+            sb.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,457 @@
+package psidev.psi.tools.validator.incremental;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import psidev.psi.tools.validator.Context;
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.rules.Rule;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Persistent local cache of the messages produced when validating an object.
+ * <p/>
+ * Entries are keyed by the fingerprint of the validated object and by a signature of the validation environment
+ * (the rules and the versions of the ontologies), all the entries of an environment are kept in a single file of
+ * the cache directory. Changing the rules or the ontologies hence starts from an empty cache.
+ * <p/>
+ * The files of the environments that are no longer used are pruned when the cache is saved: only the most recently
+ * used files are kept (see setMaxEnvironments) and the files not used for a while are deleted (see setMaxAge). Within
+ * an environment, only the most recently used entries are kept (see setMaxEntries).
+ * <p/>
+ * The files hold plain data (strings and counts), nothing is deserialized into arbitrary classes when they are read.
+ * A file is written next to the one it replaces and renamed over it, so a reader never sees a partial file.
+ * <p/>
+ * Only the text, level, context and rule id of the messages are kept: messages are rebuilt with a plain Context and
+ * the rule having the same id in the validator.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ValidationCache {
+
+    public static final Log log = LogFactory.getLog( ValidationCache.class );
+
+    private static final String FILE_PREFIX = "validation-";
+    private static final String FILE_SUFFIX = ".cache";
+
+    private static final int MAGIC = 0x56434143; // VCAC
+
+    private static final int FORMAT_VERSION = 1;
+
+    // guards against allocating a corrupted length
+    private static final int MAX_STRING_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * Default number of environment files kept in the cache directory.
+     */
+    public static final int DEFAULT_MAX_ENVIRONMENTS = 10;
+
+    /**
+     * Default time in milliseconds an environment file is kept once it is not used anymore: 30 days.
+     */
+    public static final long DEFAULT_MAX_AGE = 30L * 24 * 60 * 60 * 1000;
+
+    /**
+     * Default number of validated objects kept per environment.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    private final File directory;
+
+    private int maxEnvironments = DEFAULT_MAX_ENVIRONMENTS;
+
+    private long maxAge = DEFAULT_MAX_AGE;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /**
+     * Loaded entries, per environment signature, the least recently used first.
+     */
+    private final Map<String, LinkedHashMap<String, List<CachedMessage>>> environments = new HashMap<>();
+
+    private final Set<String> modifiedEnvironments = new HashSet<>();
+
+    private long hitCount;
+    private long missCount;
+
+    public ValidationCache( File directory ) {
+        if ( directory == null ) {
+            throw new IllegalArgumentException( "You must give a non null cache directory." );
+        }
+        if ( !directory.exists() && !directory.mkdirs() ) {
+            throw new IllegalArgumentException( "Could not create the cache directory: " + directory.getAbsolutePath() );
+        }
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public synchronized int getMaxEnvironments() {
+        return maxEnvironments;
+    }
+
+    /**
+     * @param maxEnvironments number of environment files kept in the cache directory, the most recently used ones.
+     */
+    public synchronized void setMaxEnvironments( int maxEnvironments ) {
+        if ( maxEnvironments < 1 ) {
+            throw new IllegalArgumentException( "At least one environment must be kept: " + maxEnvironments );
+        }
+        this.maxEnvironments = maxEnvironments;
+    }
+
+    public synchronized long getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * @param maxAge time in milliseconds an environment file is kept once it is not used anymore, 0 to keep them
+     *               whatever their age.
+     */
+    public synchronized void setMaxAge( long maxAge ) {
+        if ( maxAge < 0 ) {
+            throw new IllegalArgumentException( "The maximum age cannot be negative: " + maxAge );
+        }
+        this.maxAge = maxAge;
+    }
+
+    public synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @param maxEntries number of validated objects kept per environment, the least recently used ones are evicted.
+     */
+    public synchronized void setMaxEntries( int maxEntries ) {
+        if ( maxEntries < 1 ) {
+            throw new IllegalArgumentException( "At least one entry must be kept: " + maxEntries );
+        }
+        this.maxEntries = maxEntries;
+        for ( Map.Entry<String, LinkedHashMap<String, List<CachedMessage>>> entry : environments.entrySet() ) {
+            if ( evict( entry.getValue() ) ) {
+                modifiedEnvironments.add( entry.getKey() );
+            }
+        }
+    }
+
+    /**
+     * Gives the messages cached for an object.
+     *
+     * @param environment signature of the rules and ontologies used.
+     * @param fingerprint fingerprint of the object.
+     * @param rules       the rules of the validator, indexed by id.
+     * @return the messages or null if the object was not validated before in that environment.
+     */
+    public synchronized Collection<ValidatorMessage> get( String environment, String fingerprint, Map<String, Rule> rules ) {
+        final List<CachedMessage> cached = getEnvironment( environment ).get( fingerprint );
+        if ( cached == null ) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+
+        final Collection<ValidatorMessage> messages = new ArrayList<>( cached.size() );
+        for ( CachedMessage cm : cached ) {
+            final Rule rule = cm.ruleId == null ? null : rules.get( cm.ruleId );
+            final MessageLevel level = MessageLevel.valueOf( cm.level );
+            if ( rule != null && cm.context != null ) {
+                messages.add( new ValidatorMessage( cm.message, level, new Context( cm.context ), rule ) );
+            } else {
+                messages.add( new ValidatorMessage( cm.message, level ) );
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Records the messages produced by the validation of an object.
+     *
+     * @param environment signature of the rules and ontologies used.
+     * @param fingerprint fingerprint of the object.
+     * @param messages    the messages produced for this object.
+     */
+    public synchronized void put( String environment, String fingerprint, Collection<ValidatorMessage> messages ) {
+        final List<CachedMessage> cached = new ArrayList<>( messages.size() );
+        for ( ValidatorMessage message : messages ) {
+            cached.add( new CachedMessage( message ) );
+        }
+        final LinkedHashMap<String, List<CachedMessage>> entries = getEnvironment( environment );
+        entries.put( fingerprint, cached );
+        evict( entries );
+        modifiedEnvironments.add( environment );
+    }
+
+    /**
+     * @return true if entries were evicted to keep at most maxEntries.
+     */
+    private boolean evict( LinkedHashMap<String, List<CachedMessage>> entries ) {
+        boolean evicted = false;
+        for ( Iterator<String> it = entries.keySet().iterator(); entries.size() > maxEntries && it.hasNext(); ) {
+            it.next();
+            it.remove();
+            evicted = true;
+        }
+        return evicted;
+    }
+
+    /**
+     * Writes the modified entries to the cache directory, then prunes the files of the environments not used anymore.
+     *
+     * @throws IOException if the cache could not be written.
+     */
+    public synchronized void save() throws IOException {
+        for ( String environment : modifiedEnvironments ) {
+            final File file = getFile( environment );
+            final File tmp = File.createTempFile( file.getName() + ".", ".tmp", directory );
+            try {
+                final DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tmp ) ) );
+                try {
+                    write( out, environments.get( environment ) );
+                } finally {
+                    out.close();
+                }
+                moveAtomically( tmp, file );
+            } catch ( IOException e ) {
+                if ( tmp.exists() && !tmp.delete() ) {
+                    log.warn( "Could not delete " + tmp.getAbsolutePath() );
+                }
+                throw e;
+            }
+            if ( log.isDebugEnabled() ) {
+                log.debug( "Saved " + environments.get( environment ).size() + " validated objects in " + file.getAbsolutePath() );
+            }
+        }
+        modifiedEnvironments.clear();
+        prune();
+    }
+
+    /**
+     * Deletes the environment files that are too old or beyond the maximum number of environments, the least
+     * recently used first. The entries of the deleted environments are also dropped from memory, unless they were
+     * modified since the last save.
+     */
+    public synchronized void prune() {
+        final File[] files = directory.listFiles();
+        if ( files == null ) {
+            return;
+        }
+
+        final List<File> cacheFiles = new ArrayList<>();
+        for ( File file : files ) {
+            if ( isCacheFile( file ) ) {
+                cacheFiles.add( file );
+            }
+        }
+        // most recently used first
+        Collections.sort( cacheFiles, new Comparator<File>() {
+            public int compare( File f1, File f2 ) {
+                return Long.compare( f2.lastModified(), f1.lastModified() );
+            }
+        } );
+
+        final long now = System.currentTimeMillis();
+        final Set<String> deleted = new HashSet<>();
+        for ( int i = 0; i < cacheFiles.size(); i++ ) {
+            final File file = cacheFiles.get( i );
+            final boolean expired = maxAge > 0 && now - file.lastModified() > maxAge;
+            if ( i < maxEnvironments && !expired ) {
+                continue;
+            }
+            if ( file.delete() ) {
+                deleted.add( file.getName() );
+                if ( log.isDebugEnabled() ) {
+                    log.debug( "Pruned the validation cache file " + file.getAbsolutePath() );
+                }
+            } else {
+                log.warn( "Could not delete cache file: " + file.getAbsolutePath() );
+            }
+        }
+
+        for ( Iterator<String> it = environments.keySet().iterator(); it.hasNext(); ) {
+            final String environment = it.next();
+            if ( !modifiedEnvironments.contains( environment ) && deleted.contains( getFile( environment ).getName() ) ) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all the cached entries, in memory and on disk.
+     */
+    public synchronized void clear() {
+        environments.clear();
+        modifiedEnvironments.clear();
+        final File[] files = directory.listFiles();
+        if ( files != null ) {
+            for ( File file : files ) {
+                if ( isCacheFile( file ) && !file.delete() ) {
+                    log.warn( "Could not delete cache file: " + file.getAbsolutePath() );
+                }
+            }
+        }
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    //////////////////////
+    // private methods
+
+    private boolean isCacheFile( File file ) {
+        return file.getName().startsWith( FILE_PREFIX ) && file.getName().endsWith( FILE_SUFFIX );
+    }
+
+    private File getFile( String environment ) {
+        final byte[] digest = ReflectionFingerprinter.newDigest().digest( environment.getBytes( StandardCharsets.UTF_8 ) );
+        return new File( directory, FILE_PREFIX + ReflectionFingerprinter.toHex( digest ) + FILE_SUFFIX );
+    }
+
+    private LinkedHashMap<String, List<CachedMessage>> getEnvironment( String environment ) {
+        LinkedHashMap<String, List<CachedMessage>> entries = environments.get( environment );
+        if ( entries == null ) {
+            final File file = getFile( environment );
+            if ( file.exists() ) {
+                try {
+                    final DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) );
+                    try {
+                        entries = read( in );
+                        evict( entries );
+                    } finally {
+                        in.close();
+                    }
+                    // used, kept by prune
+                    file.setLastModified( System.currentTimeMillis() );
+                } catch ( Exception e ) {
+                    log.warn( "Could not read the validation cache " + file.getAbsolutePath() + ", starting from an empty cache.", e );
+                }
+            }
+            if ( entries == null ) {
+                entries = newEntries();
+            }
+            environments.put( environment, entries );
+        }
+        return entries;
+    }
+
+    private static LinkedHashMap<String, List<CachedMessage>> newEntries() {
+        return new LinkedHashMap<>( 16, 0.75f, true );
+    }
+
+    private static void write( DataOutputStream out, Map<String, List<CachedMessage>> entries ) throws IOException {
+        out.writeInt( MAGIC );
+        out.writeInt( FORMAT_VERSION );
+        out.writeInt( entries.size() );
+        for ( Map.Entry<String, List<CachedMessage>> entry : entries.entrySet() ) {
+            writeString( out, entry.getKey() );
+            out.writeInt( entry.getValue().size() );
+            for ( CachedMessage message : entry.getValue() ) {
+                writeString( out, message.message );
+                writeString( out, message.level );
+                writeString( out, message.context );
+                writeString( out, message.ruleId );
+            }
+        }
+    }
+
+    private static LinkedHashMap<String, List<CachedMessage>> read( DataInputStream in ) throws IOException {
+        if ( in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION ) {
+            throw new IOException( "Unknown validation cache format" );
+        }
+        final LinkedHashMap<String, List<CachedMessage>> entries = newEntries();
+        final int entryCount = readCount( in );
+        for ( int i = 0; i < entryCount; i++ ) {
+            final String fingerprint = readString( in );
+            final int messageCount = readCount( in );
+            final List<CachedMessage> messages = new ArrayList<>( Math.min( messageCount, 1024 ) );
+            for ( int j = 0; j < messageCount; j++ ) {
+                final String message = readString( in );
+                final String level = readString( in );
+                final String context = readString( in );
+                final String ruleId = readString( in );
+                messages.add( new CachedMessage( message, level, context, ruleId ) );
+            }
+            entries.put( fingerprint, messages );
+        }
+        return entries;
+    }
+
+    private static int readCount( DataInputStream in ) throws IOException {
+        final int count = in.readInt();
+        if ( count < 0 ) {
+            throw new IOException( "Invalid count: " + count );
+        }
+        return count;
+    }
+
+    /**
+     * Writes a string that may be null, as its length in bytes (-1 for null) followed by its UTF-8 bytes.
+     */
+    private static void writeString( DataOutputStream out, String s ) throws IOException {
+        if ( s == null ) {
+            out.writeInt( -1 );
+        } else {
+            final byte[] bytes = s.getBytes( StandardCharsets.UTF_8 );
+            out.writeInt( bytes.length );
+            out.write( bytes );
+        }
+    }
+
+    private static String readString( DataInputStream in ) throws IOException {
+        final int length = in.readInt();
+        if ( length == -1 ) {
+            return null;
+        }
+        if ( length < 0 || length > MAX_STRING_LENGTH ) {
+            throw new IOException( "Invalid string length: " + length );
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    private static void moveAtomically( File source, File target ) throws IOException {
+        try {
+            Files.move( source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+        } catch ( AtomicMoveNotSupportedException e ) {
+            Files.move( source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING );
+        }
+    }
+
+    /**
+     * What is kept of a ValidatorMessage.
+     */
+    private static class CachedMessage {
+
+        private final String message;
+        private final String level;
+        private final String context;
+        private final String ruleId;
+
+        private CachedMessage( ValidatorMessage message ) {
+            this( message.getMessage(), message.getLevel().name(),
+                  message.getContext() == null ? null : message.getContext().getContext(),
+                  message.getRule() == null ? null : message.getRule().getId() );
+        }
+
+        private CachedMessage( String message, String level, String context, String ruleId ) {
+            this.message = message;
+            this.level = level;
+            this.context = context;
+            this.ruleId = ruleId;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package psidev.psi.tools.validator.metrics;
+
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.rules.Rule;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution counters of a single rule.
+ * <p/>
+ * Counters are updated without locking and can be recorded concurrently by several threads.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class RuleMetrics {
+
+    private static final MessageLevel[] LEVELS = MessageLevel.values();
+
+    private final String ruleId;
+    private final String ruleName;
+    private final String ruleClass;
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder objectsChecked = new LongAdder();
+    private final LongAdder[] messagesPerLevel = new LongAdder[LEVELS.length];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator( Math::max, 0L );
+
+    public RuleMetrics( Rule rule ) {
+        this.ruleId = rule.getId();
+        this.ruleName = rule.getName();
+        this.ruleClass = rule.getClass().getName();
+        for ( int i = 0; i < messagesPerLevel.length; i++ ) {
+            messagesPerLevel[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one execution of the rule.
+     *
+     * @param objectCount count of objects checked by this execution.
+     * @param messages    messages emitted by this execution, may be null.
+     * @param nanos       wall time spent in this execution.
+     */
+    public void record( int objectCount, Collection<ValidatorMessage> messages, long nanos ) {
+        invocations.increment();
+        objectsChecked.add( objectCount );
+        if ( messages != null ) {
+            for ( ValidatorMessage message : messages ) {
+                messagesPerLevel[message.getLevel().ordinal()].increment();
+            }
+        }
+        totalNanos.add( nanos );
+        maxNanos.accumulate( nanos );
+    }
+
+    public void reset() {
+        invocations.reset();
+        objectsChecked.reset();
+        for ( LongAdder adder : messagesPerLevel ) {
+            adder.reset();
+        }
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    /**
+     * @return a consistent enough copy of the current counters.
+     */
+    public RuleMetricsSnapshot snapshot() {
+        long[] messages = new long[messagesPerLevel.length];
+        for ( int i = 0; i < messages.length; i++ ) {
+            messages[i] = messagesPerLevel[i].sum();
+        }
+        return new RuleMetricsSnapshot( ruleId, ruleName, ruleClass, invocations.sum(), objectsChecked.sum(),
+                                        messages, totalNanos.sum(), maxNanos.get() );
+    }
+}
@@ -0,0 +1,91 @@
+package psidev.psi.tools.validator.metrics;
+
+import psidev.psi.tools.validator.MessageLevel;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Immutable copy of the execution counters of a rule.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class RuleMetricsSnapshot {
+
+    private final String ruleId;
+    private final String ruleName;
+    private final String ruleClass;
+    private final long invocations;
+    private final long objectsChecked;
+    private final long[] messagesPerLevel;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    @ConstructorProperties( {"ruleId", "ruleName", "ruleClass", "invocations", "objectsChecked", "messagesPerLevel",
+                             "totalNanos", "maxNanos"} )
+    public RuleMetricsSnapshot( String ruleId, String ruleName, String ruleClass, long invocations, long objectsChecked,
+                                long[] messagesPerLevel, long totalNanos, long maxNanos ) {
+        this.ruleId = ruleId;
+        this.ruleName = ruleName;
+        this.ruleClass = ruleClass;
+        this.invocations = invocations;
+        this.objectsChecked = objectsChecked;
+        this.messagesPerLevel = messagesPerLevel.clone();
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    public String getRuleClass() {
+        return ruleClass;
+    }
+
+    public long getInvocations() {
+        return invocations;
+    }
+
+    public long getObjectsChecked() {
+        return objectsChecked;
+    }
+
+    /**
+     * @return the count of messages emitted per level, indexed by MessageLevel ordinal.
+     */
+    public long[] getMessagesPerLevel() {
+        return messagesPerLevel.clone();
+    }
+
+    public long getMessageCount( MessageLevel level ) {
+        return messagesPerLevel[level.ordinal()];
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public String toString() {
+        final StringBuilder sb = new StringBuilder( 128 );
+        sb.append( "RuleMetrics" );
+        sb.append( "{rule=" ).append( ruleId ).append( " (" ).append( ruleClass ).append( ')' );
+        sb.append( ", invocations=" ).append( invocations );
+        sb.append( ", objects=" ).append( objectsChecked );
+        sb.append( ", totalMs=" ).append( totalNanos / 1000000 );
+        sb.append( ", maxMs=" ).append( maxNanos / 1000000 );
+        for ( MessageLevel level : MessageLevel.values() ) {
+            sb.append( ", " ).append( level ).append( '=' ).append( messagesPerLevel[level.ordinal()] );
+        }
+        sb.append( '}' );
+        return sb.toString();
+    }
+}
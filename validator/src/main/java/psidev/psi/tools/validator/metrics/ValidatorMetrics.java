@@ -0,0 +1,184 @@
+package psidev.psi.tools.validator.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.rules.Rule;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-rule execution metrics of a validator.
+ * <p/>
+ * Recording is disabled by default, when disabled the overhead is a single volatile read per rule execution. Metrics
+ * can be exposed as an MXBean under <code>psidev.psi.tools.validator:type=ValidatorMetrics,name=...</code>.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ValidatorMetrics implements ValidatorMetricsMXBean {
+
+    public static final Log log = LogFactory.getLog( ValidatorMetrics.class );
+
+    public static final String JMX_DOMAIN = "psidev.psi.tools.validator";
+
+    /**
+     * Start time given when the metrics are disabled, System.nanoTime may give any other value.
+     */
+    public static final long DISABLED = Long.MIN_VALUE;
+
+    private volatile boolean enabled;
+
+    private final ConcurrentMap<Rule, RuleMetrics> metrics = new ConcurrentHashMap<>();
+
+    private ObjectName objectName;
+
+    public ValidatorMetrics() {
+    }
+
+    public ValidatorMetrics( boolean enabled ) {
+        this.enabled = enabled;
+    }
+
+    ///////////////////////
+    // Recording
+
+    /**
+     * To be called before running a rule.
+     *
+     * @return the start time to give to record, DISABLED if metrics are disabled.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Records the execution of a rule started at the time given by {@link #start()}.
+     *
+     * @param rule        the rule executed.
+     * @param objectCount count of objects checked.
+     * @param messages    messages emitted, may be null.
+     * @param start       value returned by start().
+     */
+    public void record( Rule rule, int objectCount, Collection<ValidatorMessage> messages, long start ) {
+        if ( start == DISABLED || !enabled ) {
+            return;
+        }
+        final long nanos = System.nanoTime() - start;
+        getRuleMetrics( rule ).record( objectCount, messages, nanos );
+    }
+
+    public RuleMetrics getRuleMetrics( Rule rule ) {
+        RuleMetrics ruleMetrics = metrics.get( rule );
+        if ( ruleMetrics == null ) {
+            ruleMetrics = new RuleMetrics( rule );
+            final RuleMetrics existing = metrics.putIfAbsent( rule, ruleMetrics );
+            if ( existing != null ) {
+                ruleMetrics = existing;
+            }
+        }
+        return ruleMetrics;
+    }
+
+    ///////////////////////
+    // Snapshot
+
+    /**
+     * @return a copy of the metrics of all the rules executed so far, the most time consuming first.
+     */
+    public List<RuleMetricsSnapshot> getSnapshot() {
+        final List<RuleMetricsSnapshot> snapshot = new ArrayList<>( metrics.size() );
+        for ( RuleMetrics ruleMetrics : metrics.values() ) {
+            snapshot.add( ruleMetrics.snapshot() );
+        }
+        Collections.sort( snapshot, new Comparator<RuleMetricsSnapshot>() {
+            public int compare( RuleMetricsSnapshot s1, RuleMetricsSnapshot s2 ) {
+                return Long.compare( s2.getTotalNanos(), s1.getTotalNanos() );
+            }
+        } );
+        return snapshot;
+    }
+
+    ///////////////////////
+    // MXBean
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled( boolean enabled ) {
+        this.enabled = enabled;
+    }
+
+    public int getRuleCount() {
+        return metrics.size();
+    }
+
+    public long getTotalInvocations() {
+        long total = 0;
+        for ( RuleMetricsSnapshot snapshot : getSnapshot() ) {
+            total += snapshot.getInvocations();
+        }
+        return total;
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for ( RuleMetricsSnapshot snapshot : getSnapshot() ) {
+            total += snapshot.getTotalNanos();
+        }
+        return total;
+    }
+
+    public List<RuleMetricsSnapshot> getRuleMetrics() {
+        return getSnapshot();
+    }
+
+    public void reset() {
+        metrics.clear();
+    }
+
+    ///////////////////////
+    // JMX registration
+
+    /**
+     * Registers these metrics in the platform MBean server.
+     *
+     * @param name the name of the validator, used in the ObjectName.
+     * @return the ObjectName under which the metrics are registered.
+     */
+    public synchronized ObjectName registerMBean( String name ) {
+        unregisterMBean();
+        try {
+            final ObjectName on = new ObjectName( JMX_DOMAIN + ":type=ValidatorMetrics,name=" + ObjectName.quote( name ) );
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if ( server.isRegistered( on ) ) {
+                log.warn( "Replacing the ValidatorMetrics MBean registered under " + on );
+                server.unregisterMBean( on );
+            }
+            server.registerMBean( this, on );
+            objectName = on;
+            return on;
+        } catch ( JMException e ) {
+            throw new IllegalStateException( "Could not register the validator metrics under the name " + name, e );
+        }
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server, if they were registered.
+     */
+    public synchronized void unregisterMBean() {
+        if ( objectName != null ) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean( objectName );
+            } catch ( JMException e ) {
+                log.warn( "Could not unregister the validator metrics " + objectName, e );
+            }
+            objectName = null;
+        }
+    }
+}
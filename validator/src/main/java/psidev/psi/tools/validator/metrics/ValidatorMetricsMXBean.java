@@ -0,0 +1,26 @@
+package psidev.psi.tools.validator.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view of the metrics of a validator.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public interface ValidatorMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled( boolean enabled );
+
+    int getRuleCount();
+
+    long getTotalInvocations();
+
+    long getTotalNanos();
+
+    List<RuleMetricsSnapshot> getRuleMetrics();
+
+    void reset();
+}
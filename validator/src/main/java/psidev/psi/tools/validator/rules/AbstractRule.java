@@ -55,6 +55,10 @@ public abstract class AbstractRule implements Rule {
     ////////////////////////////
     // Getters and Setters
 
+    public OntologyManager getOntologyManager() {
+        return ontologyManager;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,173 @@
+package psidev.psi.tools.validator.rules.codedrule;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import psidev.psi.tools.objectRuleReader.ObjectRuleReader;
+import psidev.psi.tools.objectRuleReader.ObjectRuleReaderException;
+import psidev.psi.tools.objectRuleReader.mapping.jaxb.ObjectRuleList;
+import psidev.psi.tools.ontology_manager.OntologyManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process wide cache of what is needed to build object rules: the parsed object rule documents and the constructors
+ * of the rule classes.
+ * <p/>
+ * Documents are keyed by their location along with a digest of their content, a document whose content changed is
+ * read again and replaces the previous version of the document. Documents read without location are keyed by the
+ * digest of their content only. The cached ObjectRuleList are shared between validators and must not be modified.
+ * <p/>
+ * Constructors are kept per rule class, hence classes of the same name defined by different class loaders do not
+ * share them.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public final class ObjectRuleCache {
+
+    public static final Log log = LogFactory.getLog( ObjectRuleCache.class );
+
+    private static final Map<String, Document> documents = new ConcurrentHashMap<>();
+
+    private static volatile ClassValue<Constructor<? extends ObjectRule>> constructors = newConstructorCache();
+
+    private ObjectRuleCache() {
+    }
+
+    /**
+     * Reads an object rule document, the stream is fully read but is not closed.
+     *
+     * @param location where the document comes from, may be null.
+     * @param is       content of the document.
+     * @return the parsed document, shared with other readers of the same content.
+     * @throws ObjectRuleReaderException if the document cannot be read or parsed.
+     */
+    public static ObjectRuleList readObjectRules( String location, InputStream is ) throws ObjectRuleReaderException {
+        final byte[] content;
+        try {
+            content = toByteArray( is );
+        } catch ( IOException e ) {
+            throw new ObjectRuleReaderException( "Could not read the object rules from " + location, e );
+        }
+
+        final String digest = digest( content );
+        final String key = location != null ? "location:" + location : "content:" + digest;
+        final Document document = documents.get( key );
+        if ( document != null && document.digest.equals( digest ) ) {
+            if ( log.isDebugEnabled() ) {
+                log.debug( "Object rules read from the cache: " + key );
+            }
+            return document.rules;
+        }
+
+        final ObjectRuleList rules = new ObjectRuleReader().read( new ByteArrayInputStream( content ) );
+        documents.put( key, new Document( digest, rules ) );
+        return rules;
+    }
+
+    /**
+     * Gives the constructor taking an OntologyManager of the given rule class, loaded by the class loader of the
+     * validator.
+     *
+     * @param className name of an ObjectRule class.
+     * @return the constructor.
+     * @throws ClassNotFoundException if the class cannot be found.
+     * @throws NoSuchMethodException  if the class has no constructor taking an OntologyManager.
+     */
+    public static Constructor<? extends ObjectRule> getRuleConstructor( String className ) throws ClassNotFoundException,
+                                                                                                  NoSuchMethodException {
+        return getRuleConstructor( Class.forName( className ).asSubclass( ObjectRule.class ) );
+    }
+
+    /**
+     * Gives the constructor taking an OntologyManager of the given rule class.
+     *
+     * @param ruleClass an ObjectRule class.
+     * @return the constructor.
+     * @throws NoSuchMethodException if the class has no constructor taking an OntologyManager.
+     */
+    public static Constructor<? extends ObjectRule> getRuleConstructor( Class<? extends ObjectRule> ruleClass ) throws NoSuchMethodException {
+        final Constructor<? extends ObjectRule> c = constructors.get( ruleClass );
+        if ( c == null ) {
+            throw new NoSuchMethodException( ruleClass.getName() + " has no constructor taking an OntologyManager" );
+        }
+        return c;
+    }
+
+    private static ClassValue<Constructor<? extends ObjectRule>> newConstructorCache() {
+        return new ClassValue<Constructor<? extends ObjectRule>>() {
+            @Override
+            @SuppressWarnings( "unchecked" )
+            protected Constructor<? extends ObjectRule> computeValue( Class<?> ruleClass ) {
+                try {
+                    return ( Constructor<? extends ObjectRule> ) ruleClass.getConstructor( OntologyManager.class );
+                } catch ( NoSuchMethodException e ) {
+                    return null;
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the number of documents cached, one per location or per content read without location.
+     */
+    static int getDocumentCount() {
+        return documents.size();
+    }
+
+    /**
+     * Empties the cache.
+     */
+    public static void clear() {
+        documents.clear();
+        constructors = newConstructorCache();
+    }
+
+    /**
+     * A parsed document and the digest of the content it was parsed from.
+     */
+    private static class Document {
+
+        private final String digest;
+        private final ObjectRuleList rules;
+
+        private Document( String digest, ObjectRuleList rules ) {
+            this.digest = digest;
+            this.rules = rules;
+        }
+    }
+
+    ///////////////////////
+    // utilities
+
+    private static byte[] toByteArray( InputStream is ) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream( 8192 );
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ( ( read = is.read( buffer ) ) != -1 ) {
+            baos.write( buffer, 0, read );
+        }
+        return baos.toByteArray();
+    }
+
+    private static String digest( byte[] content ) {
+        try {
+            final byte[] digest = MessageDigest.getInstance( "SHA-1" ).digest( content );
+            final StringBuilder sb = new StringBuilder( digest.length * 2 );
+            for ( byte b : digest ) {
+                sb.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+            }
+            return sb.toString();
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( "SHA-1 is not available", e );
+        }
+    }
+}
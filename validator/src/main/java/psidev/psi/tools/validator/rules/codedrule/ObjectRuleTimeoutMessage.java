@@ -0,0 +1,33 @@
+package psidev.psi.tools.validator.rules.codedrule;
+
+import psidev.psi.tools.validator.Context;
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorMessage;
+
+/**
+ * Message reported when an object rule did not complete within its time budget. The rule is then skipped until the
+ * timed out rules of the watchdog are reset.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ObjectRuleTimeoutMessage extends ValidatorMessage {
+
+    private final long timeout;
+
+    public ObjectRuleTimeoutMessage( ObjectRule rule, Object checkedObject, long timeout ) {
+        super( "The rule " + rule.getId() + " (" + rule.getClass().getName() + ") did not complete within " + timeout
+               + " ms, it is skipped for the rest of the validation.",
+               MessageLevel.WARN,
+               new Context( checkedObject.getClass().getName() ),
+               rule );
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the time budget, in milliseconds, the rule went over.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,403 @@
+package psidev.psi.tools.validator.rules.codedrule;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import psidev.psi.tools.validator.ValidatorException;
+import psidev.psi.tools.validator.ValidatorMessage;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Enforces time budgets on the execution of object rules.
+ * <p/>
+ * A rule having a budget is run on a separate thread while the validating thread waits for it at most that long. A
+ * rule going over its budget is interrupted and abandoned, an ObjectRuleTimeoutMessage is reported instead of its
+ * messages and the rule is skipped for the rest of the run. Rules without a budget run on the calling thread.
+ * <p/>
+ * A run is delimited by {@link #startRun()} and {@link #endRun()} on the validating thread, e.g. a validation of a
+ * whole collection, each run hence reports the rules going over their budget again. Outside of a run, the rules are
+ * skipped until {@link #reset()} is called.
+ * <p/>
+ * The rules are run on a pool of at most {@link #getMaxThreads()} daemon threads, a rule waiting for a thread uses
+ * its budget meanwhile. A rule ignoring interruptions keeps its thread busy until it completes: it is not run again,
+ * on any thread, until then and every check of it reports a timeout.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ObjectRuleWatchdog {
+
+    public static final Log log = LogFactory.getLog( ObjectRuleWatchdog.class );
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private static final int DEFAULT_MAX_THREADS = Math.max( 2, Runtime.getRuntime().availableProcessors() );
+
+    /**
+     * How long in milliseconds an interrupted rule is waited for before it is considered as still running.
+     */
+    private static final long INTERRUPTION_GRACE_PERIOD = 100;
+
+    /**
+     * Budget in milliseconds of the rules not having their own, 0 means no budget.
+     */
+    private volatile long defaultTimeout;
+
+    /**
+     * Budgets in milliseconds, by rule class name.
+     */
+    private final Map<String, Long> timeouts = new ConcurrentHashMap<>();
+
+    /**
+     * Rules that went over their budget outside of a run.
+     */
+    private final Set<ObjectRule> timedOutRules = Collections.newSetFromMap( new ConcurrentHashMap<ObjectRule, Boolean>() );
+
+    /**
+     * The run of each validating thread.
+     */
+    private final ThreadLocal<Run> runs = new ThreadLocal<>();
+
+    /**
+     * Count of the threads still running a rule after its budget, by rule. Guarded by itself.
+     */
+    private final Map<ObjectRule, Integer> abandonedRules = new HashMap<>();
+
+    private int maxThreads = DEFAULT_MAX_THREADS;
+
+    private ThreadPoolExecutor executor;
+
+    public ObjectRuleWatchdog() {
+        this( 0 );
+    }
+
+    public ObjectRuleWatchdog( long defaultTimeout ) {
+        setDefaultTimeout( defaultTimeout );
+    }
+
+    ////////////////////////
+    // Getters and Setters
+
+    public long getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    /**
+     * @param defaultTimeout budget in milliseconds of the rules not having their own, 0 to disable.
+     */
+    public void setDefaultTimeout( long defaultTimeout ) {
+        if ( defaultTimeout < 0 ) {
+            throw new IllegalArgumentException( "A timeout must be positive: " + defaultTimeout );
+        }
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * Sets the budget of the rules of the given class.
+     *
+     * @param ruleClassName name of an ObjectRule class.
+     * @param timeout       budget in milliseconds, 0 to disable the budget of these rules.
+     */
+    public void setTimeout( String ruleClassName, long timeout ) {
+        if ( ruleClassName == null ) {
+            throw new IllegalArgumentException( "You must give a non null rule class name." );
+        }
+        if ( timeout < 0 ) {
+            throw new IllegalArgumentException( "A timeout must be positive: " + timeout );
+        }
+        timeouts.put( ruleClassName, timeout );
+    }
+
+    /**
+     * @param rule an object rule.
+     * @return the budget in milliseconds of the given rule, 0 if it has none.
+     */
+    public long getTimeout( ObjectRule rule ) {
+        final Long timeout = timeouts.get( rule.getClass().getName() );
+        return timeout == null ? defaultTimeout : timeout;
+    }
+
+    public synchronized int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * @param maxThreads the maximum count of threads running the rules having a budget.
+     */
+    public synchronized void setMaxThreads( int maxThreads ) {
+        if ( maxThreads < 1 ) {
+            throw new IllegalArgumentException( "The watchdog needs at least one thread: " + maxThreads );
+        }
+        if ( executor != null ) {
+            if ( maxThreads > this.maxThreads ) {
+                executor.setMaximumPoolSize( maxThreads );
+                executor.setCorePoolSize( maxThreads );
+            } else {
+                executor.setCorePoolSize( maxThreads );
+                executor.setMaximumPoolSize( maxThreads );
+            }
+        }
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * @param rule an object rule.
+     * @return true if the rule went over its budget and is skipped.
+     */
+    public boolean isTimedOut( ObjectRule rule ) {
+        return getTimedOutRuleSet().contains( rule );
+    }
+
+    /**
+     * @param rule an object rule.
+     * @return true if the rule went over its budget and a thread is still running it, the rule is not run again until
+     *         that thread ends.
+     */
+    public boolean isAbandoned( ObjectRule rule ) {
+        synchronized ( abandonedRules ) {
+            return abandonedRules.containsKey( rule );
+        }
+    }
+
+    /**
+     * @return the rules that went over their budget in the run of the current thread, or since the last reset outside
+     *         of a run.
+     */
+    public Set<ObjectRule> getTimedOutRules() {
+        return Collections.unmodifiableSet( getTimedOutRuleSet() );
+    }
+
+    /**
+     * Runs again the rules that went over their budget.
+     */
+    public void reset() {
+        timedOutRules.clear();
+        final Run run = runs.get();
+        if ( run != null ) {
+            run.timedOutRules.clear();
+        }
+    }
+
+    /**
+     * Starts a run on the current thread, the rules going over their budget are only skipped until the end of the run.
+     * Runs can be nested, only the outermost one counts.
+     */
+    public void startRun() {
+        Run run = runs.get();
+        if ( run == null ) {
+            run = new Run();
+            runs.set( run );
+        }
+        run.depth++;
+    }
+
+    /**
+     * Ends the run started by the current thread.
+     */
+    public void endRun() {
+        final Run run = runs.get();
+        if ( run == null ) {
+            throw new IllegalStateException( "No run was started by the current thread." );
+        }
+        if ( --run.depth == 0 ) {
+            runs.remove();
+        }
+    }
+
+    private Set<ObjectRule> getTimedOutRuleSet() {
+        final Run run = runs.get();
+        return run != null ? run.timedOutRules : timedOutRules;
+    }
+
+    ////////////////////////
+    // Execution
+
+    /**
+     * Checks an object with a rule within the budget of the rule.
+     *
+     * @param rule the rule to run.
+     * @param o    the object to check, the rule must be able to check it.
+     * @return the messages of the rule, an ObjectRuleTimeoutMessage if it went over its budget or nothing if it
+     *         already went over it before.
+     * @throws ValidatorException if the rule failed or if the validating thread was interrupted.
+     */
+    @SuppressWarnings( "unchecked" )
+    public Collection<ValidatorMessage> check( final ObjectRule rule, final Object o ) throws ValidatorException {
+        final Set<ObjectRule> timedOutRules = getTimedOutRuleSet();
+        if ( timedOutRules.contains( rule ) ) {
+            return Collections.emptyList();
+        }
+
+        final long timeout = getTimeout( rule );
+        if ( isAbandoned( rule ) ) {
+            // a thread is still running the rule since it last went over its budget
+            if ( timedOutRules.add( rule ) ) {
+                log.warn( "The rule " + rule.getId() + " (" + rule.getClass().getName() + ") is still running since it"
+                          + " went over its budget, it is skipped for the rest of the run." );
+            }
+            return timeoutMessage( rule, o, timeout );
+        }
+        if ( timeout == 0 ) {
+            return rule.check( o );
+        }
+
+        Callable<Collection<ValidatorMessage>> task = new Callable<Collection<ValidatorMessage>>() {
+            public Collection<ValidatorMessage> call() throws Exception {
+                return rule.check( o );
+            }
+        };
+        if ( rule.getOntologyManager() != null ) {
+            // the rule sees the ontologies pinned by the validating thread
+            task = rule.getOntologyManager().withSnapshot( task );
+        }
+
+        final Execution execution = new Execution( rule, task );
+        final Future<Collection<ValidatorMessage>> future = getExecutor().submit( execution );
+
+        try {
+            return future.get( timeout, TimeUnit.MILLISECONDS );
+        } catch ( TimeoutException e ) {
+            future.cancel( true );
+            execution.abandon();
+            if ( timedOutRules.add( rule ) ) {
+                log.warn( "The rule " + rule.getId() + " (" + rule.getClass().getName() + ") went over its budget of "
+                          + timeout + " ms on a " + o.getClass().getName() + ", it is skipped for the rest of the run." );
+            }
+            return timeoutMessage( rule, o, timeout );
+        } catch ( InterruptedException e ) {
+            future.cancel( true );
+            Thread.currentThread().interrupt();
+            throw new ValidatorException( "Interrupted while running the rule " + rule.getId(), e );
+        } catch ( ExecutionException e ) {
+            final Throwable cause = e.getCause();
+            if ( cause instanceof ValidatorException ) {
+                throw ( ValidatorException ) cause;
+            }
+            if ( cause instanceof RuntimeException ) {
+                throw ( RuntimeException ) cause;
+            }
+            if ( cause instanceof Error ) {
+                throw ( Error ) cause;
+            }
+            throw new ValidatorException( "The rule " + rule.getId() + " failed", cause );
+        }
+    }
+
+    private Collection<ValidatorMessage> timeoutMessage( ObjectRule rule, Object o, long timeout ) {
+        final Collection<ValidatorMessage> messages = new ArrayList<>( 1 );
+        messages.add( new ObjectRuleTimeoutMessage( rule, o, timeout ) );
+        return messages;
+    }
+
+    /**
+     * Stops the threads of the watchdog, they are started again if needed.
+     */
+    public synchronized void shutdown() {
+        if ( executor != null ) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * The rules that went over their budget in a run of a validating thread.
+     */
+    private static class Run {
+
+        private int depth;
+
+        private final Set<ObjectRule> timedOutRules = new HashSet<>();
+    }
+
+    /**
+     * A check of a rule on a thread of the watchdog, tracking whether the thread is still running the rule once the
+     * validating thread gave up on it.
+     */
+    private class Execution implements Callable<Collection<ValidatorMessage>> {
+
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int ENDED = 2;
+
+        private final ObjectRule rule;
+
+        private final Callable<Collection<ValidatorMessage>> task;
+
+        private final AtomicInteger state = new AtomicInteger( QUEUED );
+
+        private final CountDownLatch ended = new CountDownLatch( 1 );
+
+        /**
+         * Whether this execution is counted in the abandoned rules. Guarded by abandonedRules.
+         */
+        private boolean abandoned;
+
+        private Execution( ObjectRule rule, Callable<Collection<ValidatorMessage>> task ) {
+            this.rule = rule;
+            this.task = task;
+        }
+
+        public Collection<ValidatorMessage> call() throws Exception {
+            if ( !state.compareAndSet( QUEUED, RUNNING ) ) {
+                return Collections.emptyList();
+            }
+            try {
+                return task.call();
+            } finally {
+                synchronized ( abandonedRules ) {
+                    state.set( ENDED );
+                    if ( abandoned ) {
+                        abandoned = false;
+                        final int count = abandonedRules.remove( rule );
+                        if ( count > 1 ) {
+                            abandonedRules.put( rule, count - 1 );
+                        }
+                    }
+                }
+                ended.countDown();
+            }
+        }
+
+        /**
+         * Gives up on this execution after its cancellation: if the rule is still running after a grace period, it
+         * is counted as abandoned until its thread ends.
+         */
+        private void abandon() {
+            if ( state.compareAndSet( QUEUED, ENDED ) ) {
+                // never started, it won't be
+                return;
+            }
+            try {
+                if ( ended.await( INTERRUPTION_GRACE_PERIOD, TimeUnit.MILLISECONDS ) ) {
+                    return;
+                }
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized ( abandonedRules ) {
+                if ( state.get() != ENDED ) {
+                    abandoned = true;
+                    final Integer count = abandonedRules.get( rule );
+                    abandonedRules.put( rule, count == null ? 1 : count + 1 );
+                }
+            }
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if ( executor == null ) {
+            executor = new ThreadPoolExecutor( maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                                               new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                public Thread newThread( Runnable r ) {
+                    final Thread thread = new Thread( r, "object-rule-watchdog-" + threadCount.incrementAndGet() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+            executor.allowCoreThreadTimeOut( true );
+        }
+        return executor;
+    }
+}
@@ -8,6 +8,7 @@ import psidev.psi.tools.cvrReader.mapping.jaxb.CvReference;
 import psidev.psi.tools.cvrReader.mapping.jaxb.CvTerm;
 import psidev.psi.tools.ontology_manager.OntologyManager;
 import psidev.psi.tools.ontology_manager.OntologyUtils;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
 import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
 import psidev.psi.tools.validator.*;
 import psidev.psi.tools.validator.rules.AbstractRule;
@@ -635,13 +636,15 @@ public class CvRuleImpl extends AbstractRule implements CvRule {
 
         // Get the accession numbers that are valid for this cvTerm.
         // Note: the ontologyID is checkd on by the CvRuleManager.checkCvMapping()
-        Collection<OntologyTermI> allowedTerms = ontologyManager.getOntologyAccess(ontologyID).getValidTerms( ruleTermAcc, allowChildren, useTerm );
+        final OntologyAccess ontologyAccess = ontologyManager.getOntologyAccess(ontologyID);
+        Collection<OntologyTermI> allowedTerms = ontologyAccess.getValidTerms( ruleTermAcc, allowChildren, useTerm );
 
         // Now we'll see whether we should be checking CV accessions or CV preferred names.
         Collection<String> allowedValues;
         if ( useTermName ) {
             // We should check on term names rather that accessions.
-            // Note that the names are the preferred names.
+            // Note that the names are the preferred names and the synonyms, that may not have been loaded yet.
+            ontologyAccess.loadTermSynonyms( allowedTerms );
             allowedValues = OntologyUtils.getTermNames(allowedTerms);
         } else {
             // The allowed values in this case are the actual accession numbers.
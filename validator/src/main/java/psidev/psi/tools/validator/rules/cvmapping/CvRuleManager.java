@@ -14,6 +14,7 @@ import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
 import psidev.psi.tools.validator.MessageLevel;
 import psidev.psi.tools.validator.ValidatorException;
 import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.metrics.ValidatorMetrics;
 import psidev.psi.tools.validator.xpath.XPathHelper;
 
 import java.util.*;
@@ -37,6 +38,8 @@ public class CvRuleManager {
 
     private List<CvReference> cvReferences;
 
+    private ValidatorMetrics metrics = new ValidatorMetrics();
+
     //////////////////
     // Constructors
 
@@ -64,6 +67,17 @@ public class CvRuleManager {
         return ontologyMngr;
     }
 
+    public ValidatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics( ValidatorMetrics metrics ) {
+        if ( metrics == null ) {
+            throw new IllegalArgumentException( "The metrics of a CvRuleManager must not be null." );
+        }
+        this.metrics = metrics;
+    }
+
     //////////////////////
     // Rule
 
@@ -75,7 +89,7 @@ public class CvRuleManager {
 
         Collection<ValidatorMessage> messages = new ArrayList<ValidatorMessage>();
         for (CvRule rule : rules) {
-            messages.addAll(rule.check(o, null));
+            messages.addAll(check(rule, o, null));
         }
         return messages;
     }
@@ -88,11 +102,27 @@ public class CvRuleManager {
 
         Collection<ValidatorMessage> messages = new ArrayList<ValidatorMessage>();
         for (CvRule rule : rules) {
-            messages.addAll(rule.check(o, contextXpath));
+            messages.addAll(check(rule, o, contextXpath));
         }
         return messages;
     }
 
+    /**
+     * Runs a single rule on an object, recording its execution in the metrics.
+     *
+     * @param rule         the rule to run.
+     * @param o            the object to check.
+     * @param contextXpath the xpath from the XML root to the object.
+     * @return the messages of the rule.
+     * @throws ValidatorException if the rule failed.
+     */
+    public Collection<ValidatorMessage> check( CvRule rule, Object o, String contextXpath ) throws ValidatorException {
+        final long start = metrics.start();
+        final Collection<ValidatorMessage> messages = rule.check( o, contextXpath );
+        metrics.record( rule, 1, messages, start );
+        return messages;
+    }
+
     /**
      * Checks that the CvMapping is valid. CvTerms and Rules can be pruned along the way and messages explaining it
      * should inform the user. This collection of messages is returned to the user.
@@ -0,0 +1,129 @@
+package psidev.psi.tools.validator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import psidev.psi.tools.validator.rules.AbstractRule;
+import psidev.psi.tools.validator.rules.Rule;
+
+import java.util.Iterator;
+
+/**
+ * ValidatorMessageStore Tester.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ValidatorMessageStoreTest {
+
+    private Rule newRule( final String id ) {
+        final AbstractRule rule = new AbstractRule( null ) {
+            public String getId() {
+                return id;
+            }
+        };
+        rule.setName( "rule " + id );
+        return rule;
+    }
+
+    private static class ExtendedContext extends Context {
+        private final int line;
+
+        private ExtendedContext( String context, int line ) {
+            super( context );
+            this.line = line;
+        }
+    }
+
+    @Test
+    public void add_and_read_back() throws Exception {
+        final Rule r1 = newRule( "R1" );
+        final Rule r2 = newRule( "R2" );
+
+        ValidatorMessageStore store = new ValidatorMessageStore( 2 );
+        store.add( new ValidatorMessage( "Missing term", MessageLevel.ERROR, new Context( "protein 1" ), r1 ) );
+        store.add( new ValidatorMessage( "Missing term", MessageLevel.ERROR, new Context( "protein 2" ), r1 ) );
+        store.add( new ValidatorMessage( "Obsolete term", MessageLevel.WARN, new Context( "protein 1" ), r2 ) );
+        store.add( new ValidatorMessage( "Syntax error", MessageLevel.FATAL ) );
+
+        Assert.assertEquals( 4, store.size() );
+        // 5 distinct strings: 3 messages and 2 contexts, 'Missing term' and 'protein 1' being shared
+        Assert.assertEquals( 5, store.getDistinctStringCount() );
+
+        Assert.assertEquals( "Missing term", store.getMessage( 1 ) );
+        Assert.assertEquals( "protein 2", store.getContext( 1 ).getContext() );
+        Assert.assertSame( r1, store.getRule( 1 ) );
+        Assert.assertEquals( MessageLevel.ERROR, store.getLevel( 1 ) );
+
+        Assert.assertSame( r2, store.getRule( 2 ) );
+        Assert.assertEquals( MessageLevel.WARN, store.getLevel( 2 ) );
+
+        final ValidatorMessage syntax = store.get( 3 );
+        Assert.assertEquals( "Syntax error", syntax.getMessage() );
+        Assert.assertEquals( MessageLevel.FATAL, syntax.getLevel() );
+        Assert.assertNull( syntax.getContext() );
+        Assert.assertNull( syntax.getRule() );
+
+        Assert.assertEquals( 2, store.count( MessageLevel.ERROR ) );
+        Assert.assertEquals( 0, store.count( MessageLevel.INFO ) );
+
+        int count = 0;
+        for ( Iterator<ValidatorMessage> iterator = store.iterator(); iterator.hasNext(); ) {
+            iterator.next();
+            count++;
+        }
+        Assert.assertEquals( 4, count );
+
+        store.clear();
+        Assert.assertTrue( store.isEmpty() );
+        Assert.assertEquals( 0, store.getDistinctStringCount() );
+    }
+
+    @Test
+    public void add_template() throws Exception {
+        final Rule rule = newRule( "R1" );
+
+        ValidatorMessageStore store = new ValidatorMessageStore();
+        store.add( MessageLevel.ERROR, rule, "protein 1", "The term {0} is not allowed at {1}, see {0}.", "MI:0001", "/p/cv" );
+        store.add( MessageLevel.INFO, rule, null, "Nothing to format {here}" );
+
+        Assert.assertEquals( "The term MI:0001 is not allowed at /p/cv, see MI:0001.", store.getMessage( 0 ) );
+        Assert.assertEquals( "protein 1", store.getContext( 0 ).getContext() );
+        Assert.assertEquals( "Nothing to format {here}", store.getMessage( 1 ) );
+        Assert.assertNull( store.getContext( 1 ) );
+    }
+
+    @Test
+    public void extended_context_kept() throws Exception {
+        final ExtendedContext context = new ExtendedContext( "interaction 5", 12 );
+
+        ValidatorMessageStore store = new ValidatorMessageStore();
+        store.add( new ValidatorMessage( "Missing term", MessageLevel.ERROR, new Context( "a" ), newRule( "R1" ) ) );
+        store.add( new ValidatorMessage( "Missing term", MessageLevel.ERROR, context, newRule( "R1" ) ) );
+
+        Assert.assertSame( context, store.getContext( 1 ) );
+        Assert.assertEquals( 12, ( ( ExtendedContext ) store.get( 1 ).getContext() ).line );
+        Assert.assertEquals( "a", store.getContext( 0 ).getContext() );
+    }
+
+    @Test
+    public void get_plainMessages() throws Exception {
+        final Rule rule = newRule( "R1" );
+        final ValidatorMessage syntax = new ValidatorMessage( "Syntax error", MessageLevel.FATAL );
+
+        ValidatorMessageStore store = new ValidatorMessageStore();
+        store.add( syntax );
+        store.add( MessageLevel.INFO, rule, null, "No context" );
+
+        // read back as plain messages, equal to the ones stored
+        Assert.assertEquals( syntax, store.get( 0 ) );
+        Assert.assertEquals( store.get( 0 ), syntax );
+        Assert.assertSame( ValidatorMessage.class, store.get( 1 ).getClass() );
+        Assert.assertSame( rule, store.get( 1 ).getRule() );
+        Assert.assertNull( store.get( 1 ).getContext() );
+    }
+
+    @Test( expected = IndexOutOfBoundsException.class )
+    public void get_outOfBounds() throws Exception {
+        new ValidatorMessageStore().get( 0 );
+    }
+}
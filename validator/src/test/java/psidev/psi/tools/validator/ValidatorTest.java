@@ -0,0 +1,167 @@
+package psidev.psi.tools.validator;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.OntologyManager;
+import psidev.psi.tools.validator.incremental.ValidationCache;
+import psidev.psi.tools.validator.rules.codedrule.ObjectRule;
+import psidev.psi.tools.validator.rules.codedrule.ObjectRuleTimeoutMessage;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validator Tester, the object rules are run on strings.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ValidatorTest {
+
+    private File directory;
+
+    private CountingRule rule;
+
+    private Validator validator;
+
+    /**
+     * Reports the strings containing 'bad' and counts the strings it checked.
+     */
+    private static class CountingRule extends ObjectRule<String> {
+
+        private final AtomicInteger checked = new AtomicInteger();
+
+        private CountingRule( OntologyManager ontologyManager ) {
+            super( ontologyManager );
+        }
+
+        public String getId() {
+            return "counting";
+        }
+
+        public boolean canCheck( Object t ) {
+            return t instanceof String;
+        }
+
+        public Collection<ValidatorMessage> check( String s ) {
+            checked.incrementAndGet();
+            if ( !s.contains( "bad" ) ) {
+                return Collections.emptyList();
+            }
+            final Collection<ValidatorMessage> messages = new ArrayList<ValidatorMessage>();
+            messages.add( new ValidatorMessage( "bad string", MessageLevel.ERROR, new Context( s ), this ) );
+            return messages;
+        }
+    }
+
+    /**
+     * Blocks on the strings containing 'slow' until released, ignoring interruptions.
+     */
+    private static class BlockingRule extends CountingRule {
+
+        private final CountDownLatch released = new CountDownLatch( 1 );
+
+        private BlockingRule( OntologyManager ontologyManager ) {
+            super( ontologyManager );
+        }
+
+        public Collection<ValidatorMessage> check( String s ) {
+            while ( s.contains( "slow" ) && released.getCount() > 0 ) {
+                try {
+                    released.await();
+                } catch ( InterruptedException e ) {
+                    // ignored on purpose
+                }
+            }
+            return super.check( s );
+        }
+    }
+
+    @Before
+    public void setUp() {
+        directory = new File( System.getProperty( "java.io.tmpdir" ), "validator-test-" + System.nanoTime() );
+        final OntologyManager ontologyManager = new OntologyManager();
+        rule = new CountingRule( ontologyManager );
+        validator = new Validator( ontologyManager, null, Collections.<ObjectRule>singletonList( rule ) ) {
+        };
+    }
+
+    @After
+    public void tearDown() {
+        new ValidationCache( directory ).clear();
+        directory.delete();
+    }
+
+    @Test
+    public void validateIncrementally() throws Exception {
+        final List<String> objects = new ArrayList<String>( Arrays.asList( "good 1", "bad 2", "good 3" ) );
+
+        final Collection<ValidatorMessage> first = validator.validateIncrementally( objects, null, new ValidationCache( directory ) );
+        Assert.assertEquals( 3, rule.checked.get() );
+        Assert.assertEquals( 1, first.size() );
+
+        // a new cache reads the saved entries: only the changed object is validated again
+        objects.set( 1, "bad 2 changed" );
+        final ValidationCache cache = new ValidationCache( directory );
+        final List<ValidatorMessage> second = new ArrayList<ValidatorMessage>( validator.validateIncrementally( objects, null, cache ) );
+        Assert.assertEquals( 4, rule.checked.get() );
+        Assert.assertEquals( 2, cache.getHitCount() );
+        Assert.assertEquals( 1, cache.getMissCount() );
+        Assert.assertEquals( 1, second.size() );
+        Assert.assertEquals( "bad 2 changed", second.get( 0 ).getContext().getContext() );
+        Assert.assertSame( rule, second.get( 0 ).getRule() );
+
+        // nothing changed, nothing is validated
+        validator.validateIncrementally( objects, null, cache );
+        Assert.assertEquals( 4, rule.checked.get() );
+    }
+
+    @Test
+    public void validate_ruleStillRunning() throws Exception {
+        final OntologyManager ontologyManager = new OntologyManager();
+        final BlockingRule blocking = new BlockingRule( ontologyManager );
+        final Validator blockingValidator = new Validator( ontologyManager, null, Collections.<ObjectRule>singletonList( blocking ) ) {
+        };
+        blockingValidator.getWatchdog().setTimeout( BlockingRule.class.getName(), 50 );
+        final List<String> objects = Arrays.asList( "slow 1", "good 2", "bad 3" );
+
+        try {
+            // the first object goes over the budget, the rule is skipped for the rest of the run
+            Collection<ValidatorMessage> messages = blockingValidator.validate( objects );
+            Assert.assertEquals( 1, messages.size() );
+            Assert.assertTrue( messages.iterator().next() instanceof ObjectRuleTimeoutMessage );
+
+            // the next run doesn't hand the rule to another thread while the first one is still running it
+            messages = blockingValidator.validate( objects );
+            Assert.assertEquals( 1, messages.size() );
+            Assert.assertTrue( messages.iterator().next() instanceof ObjectRuleTimeoutMessage );
+            Assert.assertTrue( blockingValidator.getWatchdog().isAbandoned( blocking ) );
+        } finally {
+            blocking.released.countDown();
+        }
+
+        final long end = System.currentTimeMillis() + 30000;
+        while ( blockingValidator.getWatchdog().isAbandoned( blocking ) && System.currentTimeMillis() < end ) {
+            Thread.sleep( 10 );
+        }
+        Assert.assertFalse( blockingValidator.getWatchdog().isAbandoned( blocking ) );
+        // checked: the first object of the first run, then the first run ended
+        Assert.assertEquals( 1, ( ( CountingRule ) blocking ).checked.get() );
+
+        // once its thread ended, each object is checked again
+        assertRuleMessages( blockingValidator.validate( objects ), 1 );
+        Assert.assertEquals( 4, ( ( CountingRule ) blocking ).checked.get() );
+        blockingValidator.getWatchdog().shutdown();
+    }
+
+    private static void assertRuleMessages( Collection<ValidatorMessage> messages, int count ) {
+        Assert.assertEquals( count, messages.size() );
+        for ( ValidatorMessage message : messages ) {
+            Assert.assertFalse( message instanceof ObjectRuleTimeoutMessage );
+        }
+    }
+}
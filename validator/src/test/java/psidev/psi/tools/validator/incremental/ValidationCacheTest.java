@@ -0,0 +1,193 @@
+package psidev.psi.tools.validator.incremental;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.validator.Context;
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.rules.AbstractRule;
+import psidev.psi.tools.validator.rules.Rule;
+import psidev.psi.tools.validator.rules.cvmapping.house.BedRoom;
+import psidev.psi.tools.validator.rules.cvmapping.house.House;
+import psidev.psi.tools.validator.rules.cvmapping.house.HouseFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.*;
+
+/**
+ * ValidationCache and ReflectionFingerprinter Tester.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ValidationCacheTest {
+
+    private File directory;
+
+    @Before
+    public void createDirectory() {
+        directory = new File( System.getProperty( "java.io.tmpdir" ), "validation-cache-test-" + System.nanoTime() );
+    }
+
+    @After
+    public void deleteDirectory() {
+        new ValidationCache( directory ).clear();
+        directory.delete();
+    }
+
+    private Rule newRule( final String id ) {
+        return new AbstractRule( null ) {
+            public String getId() {
+                return id;
+            }
+        };
+    }
+
+    @Test
+    public void fingerprint_stable() throws Exception {
+        final Fingerprinter fingerprinter = new ReflectionFingerprinter();
+
+        final String f1 = fingerprinter.fingerprint( HouseFactory.buildSimpleHouse() );
+        final String f2 = fingerprinter.fingerprint( HouseFactory.buildSimpleHouse() );
+        Assert.assertEquals( f1, f2 );
+
+        final House modified = HouseFactory.buildSimpleHouse();
+        modified.addBedroom( new BedRoom( "green" ) );
+        Assert.assertFalse( f1.equals( fingerprinter.fingerprint( modified ) ) );
+    }
+
+    @Test
+    public void fingerprint_cycle() throws Exception {
+        final List<Object> list = new ArrayList<Object>();
+        list.add( "a" );
+        list.add( list );
+        Assert.assertNotNull( new ReflectionFingerprinter().fingerprint( list ) );
+    }
+
+    @Test
+    public void fingerprint_setOrder() throws Exception {
+        // both elements share an object, the fingerprint must not depend on which one is visited first
+        final Object[] shared = {"shared"};
+        final List<Object> a = new ArrayList<Object>( Arrays.asList( "a", shared ) );
+        final List<Object> b = new ArrayList<Object>( Arrays.asList( "b", shared ) );
+
+        final Fingerprinter fingerprinter = new ReflectionFingerprinter();
+        Assert.assertEquals( fingerprinter.fingerprint( new LinkedHashSet<Object>( Arrays.asList( a, b ) ) ),
+                             fingerprinter.fingerprint( new LinkedHashSet<Object>( Arrays.asList( b, a ) ) ) );
+
+        final Map<Object, Object> m1 = new LinkedHashMap<Object, Object>();
+        m1.put( "a", a );
+        m1.put( "b", b );
+        final Map<Object, Object> m2 = new LinkedHashMap<Object, Object>();
+        m2.put( "b", b );
+        m2.put( "a", a );
+        Assert.assertEquals( fingerprinter.fingerprint( m1 ), fingerprinter.fingerprint( m2 ) );
+    }
+
+    @Test
+    public void prune_maxEnvironments() throws Exception {
+        final Collection<ValidatorMessage> messages = new ArrayList<ValidatorMessage>();
+        messages.add( new ValidatorMessage( "no rule", MessageLevel.WARN ) );
+
+        final ValidationCache cache = new ValidationCache( directory );
+        cache.setMaxEnvironments( 2 );
+        for ( int i = 1; i <= 3; i++ ) {
+            cache.put( "env" + i, "fp1", messages );
+            cache.save();
+            // the environments saved before are less recently used
+            for ( File file : directory.listFiles() ) {
+                file.setLastModified( file.lastModified() - 10000 );
+            }
+        }
+        Assert.assertEquals( 2, directory.list().length );
+
+        // the oldest environment was pruned
+        final ValidationCache reloaded = new ValidationCache( directory );
+        final Map<String, Rule> rules = new HashMap<String, Rule>();
+        Assert.assertNull( reloaded.get( "env1", "fp1", rules ) );
+        Assert.assertNotNull( reloaded.get( "env3", "fp1", rules ) );
+    }
+
+    @Test
+    public void prune_maxAge() throws Exception {
+        final ValidationCache cache = new ValidationCache( directory );
+        cache.put( "env1", "fp1", new ArrayList<ValidatorMessage>() );
+        cache.save();
+        Assert.assertEquals( 1, directory.list().length );
+
+        final File file = directory.listFiles()[0];
+        file.setLastModified( System.currentTimeMillis() - ValidationCache.DEFAULT_MAX_AGE - 1000 );
+        cache.prune();
+        Assert.assertEquals( 0, directory.list().length );
+    }
+
+    @Test
+    public void put_maxEntries() throws Exception {
+        final Map<String, Rule> rules = new HashMap<String, Rule>();
+        final ValidationCache cache = new ValidationCache( directory );
+        cache.setMaxEntries( 2 );
+        cache.put( "env1", "fp1", new ArrayList<ValidatorMessage>() );
+        cache.put( "env1", "fp2", new ArrayList<ValidatorMessage>() );
+        Assert.assertNotNull( cache.get( "env1", "fp1", rules ) );
+        cache.put( "env1", "fp3", new ArrayList<ValidatorMessage>() );
+        cache.save();
+
+        // the least recently used entry was evicted
+        final ValidationCache reloaded = new ValidationCache( directory );
+        Assert.assertNotNull( reloaded.get( "env1", "fp1", rules ) );
+        Assert.assertNull( reloaded.get( "env1", "fp2", rules ) );
+        Assert.assertNotNull( reloaded.get( "env1", "fp3", rules ) );
+    }
+
+    @Test
+    public void get_serializedFile() throws Exception {
+        final ValidationCache cache = new ValidationCache( directory );
+        cache.put( "env1", "fp1", new ArrayList<ValidatorMessage>() );
+        cache.save();
+
+        // a file of another format, such as a serialized object, is not deserialized
+        final File file = directory.listFiles()[0];
+        final ObjectOutputStream out = new ObjectOutputStream( new FileOutputStream( file ) );
+        try {
+            out.writeObject( new HashMap<String, Object>() );
+        } finally {
+            out.close();
+        }
+        Assert.assertNull( new ValidationCache( directory ).get( "env1", "fp1", new HashMap<String, Rule>() ) );
+    }
+
+    @Test
+    public void put_get_persisted() throws Exception {
+        final Rule rule = newRule( "R1" );
+        final Map<String, Rule> rules = new HashMap<String, Rule>();
+        rules.put( "R1", rule );
+
+        final Collection<ValidatorMessage> messages = new ArrayList<ValidatorMessage>();
+        messages.add( new ValidatorMessage( "wrong colour", MessageLevel.ERROR, new Context( "bedroom 1" ), rule ) );
+        messages.add( new ValidatorMessage( "no rule", MessageLevel.WARN ) );
+
+        ValidationCache cache = new ValidationCache( directory );
+        Assert.assertNull( cache.get( "env1", "fp1", rules ) );
+        cache.put( "env1", "fp1", messages );
+        cache.save();
+
+        // a new cache reads what was saved
+        cache = new ValidationCache( directory );
+        final List<ValidatorMessage> cached = new ArrayList<ValidatorMessage>( cache.get( "env1", "fp1", rules ) );
+        Assert.assertEquals( 2, cached.size() );
+        Assert.assertEquals( "wrong colour", cached.get( 0 ).getMessage() );
+        Assert.assertEquals( MessageLevel.ERROR, cached.get( 0 ).getLevel() );
+        Assert.assertEquals( "bedroom 1", cached.get( 0 ).getContext().getContext() );
+        Assert.assertSame( rule, cached.get( 0 ).getRule() );
+        Assert.assertNull( cached.get( 1 ).getRule() );
+
+        // another environment does not see these entries
+        Assert.assertNull( cache.get( "env2", "fp1", rules ) );
+        Assert.assertEquals( 1, cache.getHitCount() );
+        Assert.assertEquals( 1, cache.getMissCount() );
+    }
+}
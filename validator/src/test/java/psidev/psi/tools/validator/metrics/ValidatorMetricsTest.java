@@ -0,0 +1,102 @@
+package psidev.psi.tools.validator.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+import psidev.psi.tools.validator.Context;
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.rules.AbstractRule;
+import psidev.psi.tools.validator.rules.Rule;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ValidatorMetrics Tester.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ValidatorMetricsTest {
+
+    private Rule newRule( final String id ) {
+        return new AbstractRule( null ) {
+            public String getId() {
+                return id;
+            }
+        };
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        final ValidatorMetrics metrics = new ValidatorMetrics();
+        metrics.record( newRule( "R1" ), 1, null, metrics.start() );
+        Assert.assertEquals( 0, metrics.getRuleCount() );
+    }
+
+    @Test
+    public void record_anyStartTime() throws Exception {
+        // System.nanoTime may give 0 or a negative value
+        final ValidatorMetrics metrics = new ValidatorMetrics( true );
+        metrics.record( newRule( "R1" ), 1, null, 0L );
+        metrics.record( newRule( "R2" ), 1, null, -42L );
+        Assert.assertEquals( 2, metrics.getRuleCount() );
+
+        metrics.record( newRule( "R3" ), 1, null, ValidatorMetrics.DISABLED );
+        Assert.assertEquals( 2, metrics.getRuleCount() );
+    }
+
+    @Test
+    public void record() throws Exception {
+        final Rule rule = newRule( "R1" );
+        final Collection<ValidatorMessage> messages = Arrays.asList(
+                new ValidatorMessage( "a", MessageLevel.ERROR, new Context( "c" ), rule ),
+                new ValidatorMessage( "b", MessageLevel.ERROR, new Context( "c" ), rule ),
+                new ValidatorMessage( "c", MessageLevel.WARN, new Context( "c" ), rule ) );
+
+        final ValidatorMetrics metrics = new ValidatorMetrics( true );
+        metrics.record( rule, 1, messages, metrics.start() );
+        metrics.record( rule, 3, null, metrics.start() );
+        metrics.record( newRule( "R2" ), 1, null, metrics.start() );
+
+        final List<RuleMetricsSnapshot> snapshot = metrics.getSnapshot();
+        Assert.assertEquals( 2, snapshot.size() );
+        Assert.assertEquals( 3, metrics.getTotalInvocations() );
+
+        RuleMetricsSnapshot r1 = snapshot.get( 0 ).getRuleId().equals( "R1" ) ? snapshot.get( 0 ) : snapshot.get( 1 );
+        Assert.assertEquals( 2, r1.getInvocations() );
+        Assert.assertEquals( 4, r1.getObjectsChecked() );
+        Assert.assertEquals( 2, r1.getMessageCount( MessageLevel.ERROR ) );
+        Assert.assertEquals( 1, r1.getMessageCount( MessageLevel.WARN ) );
+        Assert.assertEquals( 0, r1.getMessageCount( MessageLevel.INFO ) );
+        Assert.assertTrue( r1.getMaxNanos() <= r1.getTotalNanos() );
+
+        metrics.reset();
+        Assert.assertEquals( 0, metrics.getRuleCount() );
+    }
+
+    @Test
+    public void jmx() throws Exception {
+        final ValidatorMetrics metrics = new ValidatorMetrics( true );
+        metrics.record( newRule( "R1" ), 1, null, metrics.start() );
+
+        final ObjectName name = metrics.registerMBean( "test validator" );
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Assert.assertTrue( server.isRegistered( name ) );
+            Assert.assertEquals( 1L, server.getAttribute( name, "TotalInvocations" ) );
+
+            final CompositeData[] rules = ( CompositeData[] ) server.getAttribute( name, "RuleMetrics" );
+            Assert.assertEquals( 1, rules.length );
+            Assert.assertEquals( "R1", rules[0].get( "ruleId" ) );
+        } finally {
+            metrics.unregisterMBean();
+        }
+        Assert.assertFalse( ManagementFactory.getPlatformMBeanServer().isRegistered( name ) );
+    }
+}
@@ -0,0 +1,119 @@
+package psidev.psi.tools.validator.rules.codedrule;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import psidev.psi.tools.objectRuleReader.mapping.jaxb.ObjectRuleList;
+import psidev.psi.tools.validator.ValidatorMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * ObjectRuleCache Tester.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ObjectRuleCacheTest {
+
+    private static final String RULE_CLASS = "psidev.psi.tools.validator.rules.objectRules.Rule3";
+
+    /**
+     * A rule without constructor taking an OntologyManager.
+     */
+    public static class NoManagerRule extends ObjectRule<Object> {
+
+        public NoManagerRule() {
+            super( null );
+        }
+
+        public String getId() {
+            return "no manager";
+        }
+
+        public boolean canCheck( Object t ) {
+            return false;
+        }
+
+        public Collection<ValidatorMessage> check( Object o ) {
+            return Collections.emptyList();
+        }
+    }
+
+    @After
+    public void clearCache() {
+        ObjectRuleCache.clear();
+    }
+
+    private InputStream open( String resource ) {
+        return ObjectRuleCacheTest.class.getResourceAsStream( resource );
+    }
+
+    @Test
+    public void readObjectRules_sameContent() throws Exception {
+        final ObjectRuleList first = ObjectRuleCache.readObjectRules( "object-rules", open( "/xmlRuleSets/object-rules.xml" ) );
+        final ObjectRuleList second = ObjectRuleCache.readObjectRules( "object-rules", open( "/xmlRuleSets/object-rules.xml" ) );
+
+        Assert.assertNotNull( first );
+        Assert.assertSame( first, second );
+    }
+
+    @Test
+    public void readObjectRules_changedContent() throws Exception {
+        final String doc = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                           "<objectRuleList><rule class=\"" + RULE_CLASS + "\"/></objectRuleList>";
+
+        final ObjectRuleList first = ObjectRuleCache.readObjectRules( "doc", new ByteArrayInputStream( doc.getBytes( "UTF-8" ) ) );
+        final ObjectRuleList second = ObjectRuleCache.readObjectRules( "doc", new ByteArrayInputStream( doc.replace( "UTF-8\"?>", "UTF-8\"?> " ).getBytes( "UTF-8" ) ) );
+
+        Assert.assertNotSame( first, second );
+        Assert.assertEquals( 1, second.getRule().size() );
+
+        // the previous version is replaced
+        Assert.assertEquals( 1, ObjectRuleCache.getDocumentCount() );
+        Assert.assertSame( second, ObjectRuleCache.readObjectRules( "doc", new ByteArrayInputStream( doc.replace( "UTF-8\"?>", "UTF-8\"?> " ).getBytes( "UTF-8" ) ) ) );
+    }
+
+    @Test
+    public void readObjectRules_noLocation() throws Exception {
+        final String doc = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                           "<objectRuleList><rule class=\"" + RULE_CLASS + "\"/></objectRuleList>";
+        final String other = doc.replace( "UTF-8\"?>", "UTF-8\"?> " );
+
+        // documents without location do not replace each other
+        final ObjectRuleList first = ObjectRuleCache.readObjectRules( null, new ByteArrayInputStream( doc.getBytes( "UTF-8" ) ) );
+        final ObjectRuleList second = ObjectRuleCache.readObjectRules( null, new ByteArrayInputStream( other.getBytes( "UTF-8" ) ) );
+        Assert.assertNotSame( first, second );
+        Assert.assertEquals( 2, ObjectRuleCache.getDocumentCount() );
+        Assert.assertSame( first, ObjectRuleCache.readObjectRules( null, new ByteArrayInputStream( doc.getBytes( "UTF-8" ) ) ) );
+        Assert.assertSame( second, ObjectRuleCache.readObjectRules( null, new ByteArrayInputStream( other.getBytes( "UTF-8" ) ) ) );
+    }
+
+    @Test
+    public void getRuleConstructor_class() throws Exception {
+        final Class<? extends ObjectRule> ruleClass = Class.forName( RULE_CLASS ).asSubclass( ObjectRule.class );
+        Assert.assertSame( ObjectRuleCache.getRuleConstructor( ruleClass ), ObjectRuleCache.getRuleConstructor( RULE_CLASS ) );
+        Assert.assertSame( ruleClass, ObjectRuleCache.getRuleConstructor( ruleClass ).getDeclaringClass() );
+    }
+
+    @Test( expected = NoSuchMethodException.class )
+    public void getRuleConstructor_noOntologyManagerConstructor() throws Exception {
+        ObjectRuleCache.getRuleConstructor( NoManagerRule.class );
+    }
+
+    @Test
+    public void getRuleConstructor() throws Exception {
+        final Constructor<? extends ObjectRule> c = ObjectRuleCache.getRuleConstructor( RULE_CLASS );
+        Assert.assertEquals( RULE_CLASS, c.getDeclaringClass().getName() );
+        Assert.assertSame( c, ObjectRuleCache.getRuleConstructor( RULE_CLASS ) );
+    }
+
+    @Test( expected = ClassNotFoundException.class )
+    public void getRuleConstructor_unknownClass() throws Exception {
+        ObjectRuleCache.getRuleConstructor( "psidev.psi.tools.validator.rules.DoesNotExist" );
+    }
+}
@@ -0,0 +1,251 @@
+package psidev.psi.tools.validator.rules.codedrule;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import psidev.psi.tools.validator.Context;
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorException;
+import psidev.psi.tools.validator.ValidatorMessage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ObjectRuleWatchdog Tester.
+ *
+ * @version $Id$
+ * @since 2.0.14
+ */
+public class ObjectRuleWatchdogTest {
+
+    private final ObjectRuleWatchdog watchdog = new ObjectRuleWatchdog();
+
+    @After
+    public void shutdown() {
+        watchdog.shutdown();
+    }
+
+    /**
+     * Sleeps for the given number of milliseconds and reports one message.
+     */
+    private static class SleepingRule extends ObjectRule<Long> {
+
+        private final AtomicInteger checkCount = new AtomicInteger();
+
+        private SleepingRule() {
+            super( null );
+        }
+
+        public String getId() {
+            return "sleeping";
+        }
+
+        public boolean canCheck( Object t ) {
+            return t instanceof Long;
+        }
+
+        public Collection<ValidatorMessage> check( Long millis ) throws ValidatorException {
+            checkCount.incrementAndGet();
+            try {
+                Thread.sleep( millis );
+            } catch ( InterruptedException e ) {
+                throw new ValidatorException( "interrupted", e );
+            }
+            final Collection<ValidatorMessage> messages = new ArrayList<ValidatorMessage>();
+            messages.add( new ValidatorMessage( "slept", MessageLevel.INFO, new Context( "sleep" ), this ) );
+            return messages;
+        }
+    }
+
+    /**
+     * Waits for a latch, ignoring interruptions.
+     */
+    private static class BlockingRule extends ObjectRule<Object> {
+
+        private final CountDownLatch latch = new CountDownLatch( 1 );
+
+        private final AtomicInteger checkCount = new AtomicInteger();
+
+        private BlockingRule() {
+            super( null );
+        }
+
+        public String getId() {
+            return "blocking";
+        }
+
+        public boolean canCheck( Object t ) {
+            return true;
+        }
+
+        public Collection<ValidatorMessage> check( Object o ) {
+            checkCount.incrementAndGet();
+            boolean interrupted = false;
+            while ( latch.getCount() > 0 ) {
+                try {
+                    latch.await();
+                } catch ( InterruptedException e ) {
+                    interrupted = true;
+                }
+            }
+            if ( interrupted ) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.emptyList();
+        }
+    }
+
+    private static void awaitEnd( ObjectRuleWatchdog watchdog, ObjectRule rule ) throws InterruptedException {
+        final long end = System.currentTimeMillis() + 30000;
+        while ( watchdog.isAbandoned( rule ) && System.currentTimeMillis() < end ) {
+            Thread.sleep( 10 );
+        }
+        Assert.assertFalse( watchdog.isAbandoned( rule ) );
+    }
+
+    @Test
+    public void check_noTimeout() throws Exception {
+        final SleepingRule rule = new SleepingRule();
+        final Collection<ValidatorMessage> messages = watchdog.check( rule, 10L );
+
+        Assert.assertEquals( 1, messages.size() );
+        Assert.assertEquals( "slept", messages.iterator().next().getMessage() );
+    }
+
+    @Test
+    public void check_withinBudget() throws Exception {
+        watchdog.setDefaultTimeout( 5000 );
+        final SleepingRule rule = new SleepingRule();
+
+        Assert.assertEquals( "slept", watchdog.check( rule, 10L ).iterator().next().getMessage() );
+        Assert.assertFalse( watchdog.isTimedOut( rule ) );
+    }
+
+    @Test
+    public void check_overBudget() throws Exception {
+        final SleepingRule rule = new SleepingRule();
+        watchdog.setTimeout( SleepingRule.class.getName(), 50 );
+
+        final long start = System.currentTimeMillis();
+        final Collection<ValidatorMessage> messages = watchdog.check( rule, 60000L );
+        Assert.assertTrue( System.currentTimeMillis() - start < 30000 );
+
+        Assert.assertEquals( 1, messages.size() );
+        final ValidatorMessage message = messages.iterator().next();
+        Assert.assertTrue( message instanceof ObjectRuleTimeoutMessage );
+        Assert.assertEquals( 50, ( ( ObjectRuleTimeoutMessage ) message ).getTimeout() );
+        Assert.assertSame( rule, message.getRule() );
+        Assert.assertTrue( watchdog.isTimedOut( rule ) );
+
+        // the rule is now skipped
+        Assert.assertTrue( watchdog.check( rule, 10L ).isEmpty() );
+        Assert.assertEquals( 1, rule.checkCount.get() );
+
+        watchdog.reset();
+        Assert.assertFalse( watchdog.isTimedOut( rule ) );
+        Assert.assertEquals( 1, watchdog.check( rule, 10L ).size() );
+    }
+
+    @Test
+    public void check_overBudget_run() throws Exception {
+        final SleepingRule rule = new SleepingRule();
+        watchdog.setTimeout( SleepingRule.class.getName(), 50 );
+
+        watchdog.startRun();
+        Assert.assertTrue( watchdog.check( rule, 60000L ).iterator().next() instanceof ObjectRuleTimeoutMessage );
+        // skipped for the rest of the run, nested runs included
+        watchdog.startRun();
+        Assert.assertTrue( watchdog.check( rule, 10L ).isEmpty() );
+        watchdog.endRun();
+        Assert.assertTrue( watchdog.isTimedOut( rule ) );
+        watchdog.endRun();
+        Assert.assertFalse( watchdog.isTimedOut( rule ) );
+
+        // the next run checks it again and reports the timeout again
+        watchdog.startRun();
+        try {
+            Assert.assertEquals( "slept", watchdog.check( rule, 10L ).iterator().next().getMessage() );
+            Assert.assertTrue( watchdog.check( rule, 60000L ).iterator().next() instanceof ObjectRuleTimeoutMessage );
+            Assert.assertEquals( 3, rule.checkCount.get() );
+        } finally {
+            watchdog.endRun();
+        }
+    }
+
+    @Test
+    public void check_overBudget_stillRunning() throws Exception {
+        final BlockingRule rule = new BlockingRule();
+        watchdog.setTimeout( BlockingRule.class.getName(), 50 );
+
+        Assert.assertTrue( watchdog.check( rule, "first" ).iterator().next() instanceof ObjectRuleTimeoutMessage );
+        Assert.assertTrue( watchdog.isAbandoned( rule ) );
+
+        // reset, but its thread is still running: the timeout is reported again without running the rule
+        watchdog.reset();
+        Assert.assertTrue( watchdog.check( rule, "second" ).iterator().next() instanceof ObjectRuleTimeoutMessage );
+        Assert.assertTrue( watchdog.isTimedOut( rule ) );
+        Assert.assertEquals( 1, rule.checkCount.get() );
+
+        // once its thread ended, it runs again
+        rule.latch.countDown();
+        awaitEnd( watchdog, rule );
+        watchdog.reset();
+        Assert.assertTrue( watchdog.check( rule, "third" ).isEmpty() );
+        Assert.assertEquals( 2, rule.checkCount.get() );
+    }
+
+    @Test
+    public void check_boundedThreads() throws Exception {
+        watchdog.setMaxThreads( 1 );
+        watchdog.setDefaultTimeout( 50 );
+        final BlockingRule blocking = new BlockingRule();
+        final SleepingRule sleeping = new SleepingRule();
+
+        try {
+            Assert.assertTrue( watchdog.check( blocking, "object" ).iterator().next() instanceof ObjectRuleTimeoutMessage );
+            // the only thread is busy: the other rule times out while waiting for it, without being started
+            Assert.assertTrue( watchdog.check( sleeping, 0L ).iterator().next() instanceof ObjectRuleTimeoutMessage );
+            Assert.assertFalse( watchdog.isAbandoned( sleeping ) );
+            Assert.assertEquals( 0, sleeping.checkCount.get() );
+        } finally {
+            blocking.latch.countDown();
+        }
+        awaitEnd( watchdog, blocking );
+
+        watchdog.reset();
+        Assert.assertEquals( "slept", watchdog.check( sleeping, 0L ).iterator().next().getMessage() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void setMaxThreads_none() throws Exception {
+        watchdog.setMaxThreads( 0 );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void endRun_notStarted() throws Exception {
+        watchdog.endRun();
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void check_ruleFailure() throws Exception {
+        watchdog.setDefaultTimeout( 5000 );
+        final ObjectRule<Object> rule = new ObjectRule<Object>( null ) {
+            public String getId() {
+                return "failing";
+            }
+
+            public boolean canCheck( Object t ) {
+                return true;
+            }
+
+            public Collection<ValidatorMessage> check( Object o ) throws ValidatorException {
+                throw new IllegalStateException( "failing rule" );
+            }
+        };
+        watchdog.check( rule, "object" );
+    }
+}